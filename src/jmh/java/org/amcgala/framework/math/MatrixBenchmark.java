@@ -0,0 +1,71 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.math;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Multiplikation zweier quadratischer Matrizen mit {@link Matrix#times(Matrix)}. Die Größe 4 entspricht
+ * den Transformationsmatrizen des Szenengraphen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixBenchmark {
+
+    @Param({"4", "16", "64"})
+    private int size;
+
+    private Matrix a;
+    private Matrix b;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        a = randomMatrix(random, size);
+        b = randomMatrix(random, size);
+    }
+
+    @Benchmark
+    public Matrix times() {
+        return a.times(b);
+    }
+
+    static Matrix randomMatrix(Random random, int size) {
+        double[][] values = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                values[i][j] = random.nextDouble() * 2 - 1;
+            }
+        }
+        return new Matrix(values);
+    }
+}
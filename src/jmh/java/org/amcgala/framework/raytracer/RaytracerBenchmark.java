@@ -0,0 +1,79 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.raytracer;
+
+import org.amcgala.Scene;
+import org.amcgala.framework.math.RandomSource;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.sampler.RandomSampler;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Berechnung eines ganzen Bildes mit {@link Raytracer#trace()}. Die Kugeln werden mit festem Startwert
+ * zufällig vor der ViewPlane verteilt. Die Ausgabe über einen Renderer wird nicht mitgemessen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class RaytracerBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int spheres;
+
+    @Param({"1", "4"})
+    private int samples;
+
+    private Raytracer raytracer;
+
+    @Setup
+    public void setUp() {
+        RandomSource.setSeed(42);
+        Random random = RandomSource.newRandom();
+
+        Scene scene = new Scene("raytracer-benchmark");
+        for (int i = 0; i < spheres; i++) {
+            Vector3d center = new Vector3d(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    -random.nextDouble() * 200);
+            scene.addShape(new Sphere(center, 10 + random.nextDouble() * 30));
+        }
+
+        ViewPlane viewPlane = new ViewPlane(128, 128, 1);
+        viewPlane.setSampler(new RandomSampler(samples));
+        raytracer = new Raytracer(viewPlane);
+        raytracer.setScene(scene);
+    }
+
+    @Benchmark
+    public HdrFrameBuffer traceScene() {
+        return raytracer.trace();
+    }
+}
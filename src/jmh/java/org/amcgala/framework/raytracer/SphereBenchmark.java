@@ -0,0 +1,67 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.raytracer;
+
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Schnitttest eines Strahls mit einer Kugel über {@link Sphere#hit(Ray, ShadingInfo)}, einmal für einen
+ * Treffer und einmal für einen Strahl, der die Kugel verfehlt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class SphereBenchmark {
+    private Sphere sphere;
+    private Ray hit;
+    private Ray miss;
+
+    @Setup
+    public void setUp() {
+        sphere = new Sphere(new Vector3d(0, 0, -100), 50);
+        hit = new Ray(new Vector3d(10, 10, 600), new Vector3d(0, 0, -1));
+        miss = new Ray(new Vector3d(200, 0, 600), new Vector3d(0, 0, -1));
+    }
+
+    @Benchmark
+    public ShadingInfo hit() {
+        ShadingInfo info = new ShadingInfo();
+        sphere.hit(hit, info);
+        return info;
+    }
+
+    @Benchmark
+    public ShadingInfo miss() {
+        ShadingInfo info = new ShadingInfo();
+        sphere.hit(miss, info);
+        return info;
+    }
+}
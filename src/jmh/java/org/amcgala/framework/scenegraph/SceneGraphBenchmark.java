@@ -0,0 +1,81 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph;
+
+import org.amcgala.framework.scenegraph.visitor.Visitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Traversieren des Szenengraphen über {@link Node#accept(Visitor)}. Der Graph ist ein Baum mit festem
+ * Verzweigungsgrad, der Visitor zählt nur die besuchten Knoten.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class SceneGraphBenchmark {
+    private static final int BRANCHING = 8;
+
+    @Param({"100", "1000", "10000"})
+    private int nodes;
+
+    private SceneGraph sceneGraph;
+    private CountingVisitor visitor;
+
+    @Setup
+    public void setUp() {
+        sceneGraph = new DefaultSceneGraph();
+        Node[] created = new Node[nodes];
+        for (int i = 0; i < nodes; i++) {
+            created[i] = new Node("node" + i);
+            if (i == 0) {
+                sceneGraph.addNode(created[i]);
+            } else {
+                sceneGraph.addNode(created[i], created[(i - 1) / BRANCHING]);
+            }
+        }
+        visitor = new CountingVisitor();
+    }
+
+    @Benchmark
+    public int accept() {
+        visitor.count = 0;
+        sceneGraph.accept(visitor);
+        return visitor.count;
+    }
+
+    private static final class CountingVisitor implements Visitor {
+        private int count;
+
+        @Override
+        public void visit(Node node) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.shape.util;
+
+import org.amcgala.framework.shape.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Einlesen einer PLY-Datei mit {@link PLYPolygonParser}. Die Datei wird einmalig mit festem Startwert im
+ * Speicher erzeugt, so dass nur das Parsen und nicht der Zugriff auf das Dateisystem gemessen wird.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PLYPolygonParserBenchmark {
+
+    @Param({"1000", "10000"})
+    private int faces;
+
+    private byte[] file;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int vertices = faces + 2;
+        StringBuilder ply = new StringBuilder();
+        ply.append("ply\n");
+        ply.append("format ascii 1.0\n");
+        ply.append("element vertex ").append(vertices).append('\n');
+        ply.append("property float x\nproperty float y\nproperty float z\n");
+        ply.append("property float nx\nproperty float ny\nproperty float nz\n");
+        ply.append("element face ").append(faces).append('\n');
+        ply.append("property list uchar uint vertex_indices\n");
+        ply.append("end_header\n");
+        for (int i = 0; i < vertices; i++) {
+            ply.append(String.format(Locale.US, "%.6f %.6f %.6f 0.000000 0.000000 1.000000%n",
+                    random.nextDouble(), random.nextDouble(), random.nextDouble()));
+        }
+        for (int i = 0; i < faces; i++) {
+            ply.append("3 ").append(i).append(' ').append(i + 1).append(' ').append(i + 2).append('\n');
+        }
+        file = ply.toString().getBytes(Charset.forName("US-ASCII"));
+    }
+
+    @Benchmark
+    public List<Polygon> parse() throws Exception {
+        return PLYPolygonParser.parseAsPolygonList(new ByteArrayInputStream(file), 100);
+    }
+}
@@ -16,15 +16,21 @@ package org.amcgala;
 
 import com.google.common.eventbus.EventBus;
 import org.amcgala.framework.animation.Animator;
+import org.amcgala.framework.benchmark.InputRecording;
 import org.amcgala.framework.camera.Camera;
 import org.amcgala.framework.event.*;
+import org.amcgala.framework.math.util.FastMath;
 import org.amcgala.framework.raytracer.Raytracer;
+import org.amcgala.framework.renderer.DefaultRenderer;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.scenegraph.DefaultSceneGraph;
 import org.amcgala.framework.scenegraph.SceneGraph;
+import org.amcgala.framework.scenegraph.TransformHierarchy;
 import org.amcgala.framework.scenegraph.visitor.RenderVisitor;
 import org.amcgala.framework.scenegraph.visitor.UpdateVisitor;
 import org.amcgala.framework.scenegraph.visitor.Visitor;
+import org.amcgala.framework.statistics.FrameStatistics;
+import org.amcgala.framework.statistics.Phase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,7 +70,7 @@ public final class Framework {
     private EventBus sceneEventBus;
     private EventBus frameworkEventBus;
     private Map<String, Scene> scenes;
-    private Scene activeScene;
+    private volatile Scene activeScene;
     private RenderVisitor renderVisitor;
     private UpdateVisitor updateVisitor;
     private Raytracer raytracer;
@@ -73,6 +79,35 @@ public final class Framework {
     private boolean paused;
     private int width;
     private int height;
+    /**
+     * Ab dieser Anzahl an Knoten wird ein Teilbaum parallel traversiert. 0 schaltet die parallele Traversierung aus.
+     */
+    private int parallelThreshold;
+    private volatile boolean compiledTransforms;
+    private volatile boolean activeUpdates = true;
+    private volatile boolean pipelinedRendering;
+    /**
+     * Solange gesetzt, wird der Animator nicht gestartet und Frames werden nur von außen berechnet.
+     */
+    private volatile boolean manualLoop;
+    /**
+     * Der Anteil des angebrochenen Simulationsschritts zum Zeitpunkt der Ausgabe.
+     */
+    private volatile double interpolation = 1;
+    private volatile boolean interpolatedRendering;
+    private final FrameStatistics statistics;
+    /**
+     * Beginn des aktuellen Frames, 0 wenn seit der letzten Ausgabe noch nicht aktualisiert wurde.
+     */
+    private long frameStart;
+    /**
+     * Die Anzahl der bisherigen Aktualisierungen. Dient als Zeitbasis für die Aufzeichnung von Eingaben.
+     */
+    private volatile long updateCount;
+    private volatile InputRecording recording;
+    private volatile long recordingStart;
+    private volatile InputRecording replay;
+    private volatile long replayStart;
 
     /**
      * Erstellt ein neues Framework, das eine grafische Ausgabe in der Auflösung
@@ -117,19 +152,20 @@ public final class Framework {
 
         raytracer = new Raytracer();
 
+        statistics = new FrameStatistics();
+        statistics.register();
+
 
         frame.addKeyListener(new KeyAdapter() {
 
             @Override
             public void keyPressed(KeyEvent e) {
-                sceneEventBus.post(new KeyPressedEvent(e));
-                frameworkEventBus.post(new KeyPressedEvent(e));
+                dispatch(e);
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                sceneEventBus.post(new KeyReleasedEvent(e));
-                frameworkEventBus.post(new KeyReleasedEvent(e));
+                dispatch(e);
             }
         });
 
@@ -137,32 +173,27 @@ public final class Framework {
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                sceneEventBus.post(new MouseClickedEvent(e));
-                frameworkEventBus.post(new MouseClickedEvent(e));
+                dispatch(e);
             }
 
             @Override
             public void mousePressed(MouseEvent e) {
-                sceneEventBus.post(new MousePressedEvent(e));
-                frameworkEventBus.post(new MousePressedEvent(e));
+                dispatch(e);
             }
 
             @Override
             public void mouseReleased(MouseEvent e) {
-                sceneEventBus.post(new MouseReleasedEvent(e));
-                frameworkEventBus.post(new MouseReleasedEvent(e));
+                dispatch(e);
             }
 
             @Override
             public void mouseEntered(MouseEvent e) {
-                sceneEventBus.post(e);
-                frameworkEventBus.post(e);
+                dispatch(e);
             }
 
             @Override
             public void mouseExited(MouseEvent e) {
-                sceneEventBus.post(e);
-                frameworkEventBus.post(e);
+                dispatch(e);
             }
         });
 
@@ -170,14 +201,12 @@ public final class Framework {
 
             @Override
             public void mouseDragged(MouseEvent e) {
-                sceneEventBus.post(e);
-                frameworkEventBus.post(e);
+                dispatch(e);
             }
 
             @Override
             public void mouseMoved(MouseEvent e) {
-                sceneEventBus.post(e);
-                frameworkEventBus.post(e);
+                dispatch(e);
             }
         });
 
@@ -185,12 +214,102 @@ public final class Framework {
 
             @Override
             public void mouseWheelMoved(MouseWheelEvent e) {
-                sceneEventBus.post(e);
-                frameworkEventBus.post(e);
+                dispatch(e);
             }
         });
     }
 
+    /**
+     * Nimmt eine Eingabe aus dem Fenster entgegen. Wird gerade aufgezeichnet, wird die Eingabe zusätzlich in der
+     * Aufzeichnung gespeichert.
+     *
+     * @param e die Eingabe
+     */
+    private void dispatch(InputEvent e) {
+        InputRecording r = recording;
+        if (r != null) {
+            r.record(updateCount - recordingStart, e);
+        }
+        post(e);
+    }
+
+    /**
+     * Verteilt eine Eingabe an die Szene und an das Framework.
+     *
+     * @param e die Eingabe
+     */
+    private void post(InputEvent e) {
+        switch (e.getID()) {
+            case KeyEvent.KEY_PRESSED:
+                sceneEventBus.post(new KeyPressedEvent((KeyEvent) e));
+                frameworkEventBus.post(new KeyPressedEvent((KeyEvent) e));
+                break;
+            case KeyEvent.KEY_RELEASED:
+                sceneEventBus.post(new KeyReleasedEvent((KeyEvent) e));
+                frameworkEventBus.post(new KeyReleasedEvent((KeyEvent) e));
+                break;
+            case MouseEvent.MOUSE_CLICKED:
+                sceneEventBus.post(new MouseClickedEvent((MouseEvent) e));
+                frameworkEventBus.post(new MouseClickedEvent((MouseEvent) e));
+                break;
+            case MouseEvent.MOUSE_PRESSED:
+                sceneEventBus.post(new MousePressedEvent((MouseEvent) e));
+                frameworkEventBus.post(new MousePressedEvent((MouseEvent) e));
+                break;
+            case MouseEvent.MOUSE_RELEASED:
+                sceneEventBus.post(new MouseReleasedEvent((MouseEvent) e));
+                frameworkEventBus.post(new MouseReleasedEvent((MouseEvent) e));
+                break;
+            default:
+                sceneEventBus.post(e);
+                frameworkEventBus.post(e);
+        }
+    }
+
+    /**
+     * Beginnt eine neue Aufzeichnung aller Eingaben. Jede Eingabe wird mit der Nummer der folgenden Aktualisierung
+     * gespeichert, gezählt ab dem Beginn der Aufzeichnung.
+     *
+     * @return die neue Aufzeichnung
+     *
+     * @since 2.1
+     */
+    public InputRecording startInputRecording() {
+        InputRecording r = new InputRecording();
+        recordingStart = updateCount;
+        recording = r;
+        return r;
+    }
+
+    /**
+     * Beendet die laufende Aufzeichnung der Eingaben.
+     *
+     * @return die beendete Aufzeichnung oder {@code null}, wenn nicht aufgezeichnet wurde
+     *
+     * @since 2.1
+     */
+    public InputRecording stopInputRecording() {
+        InputRecording r = recording;
+        recording = null;
+        return r;
+    }
+
+    /**
+     * Spielt eine Aufzeichnung von Eingaben ab. Die erste Aktualisierung nach diesem Aufruf erhält die Nummer 0.
+     * Jede Eingabe wird vor der Aktualisierung ausgelöst, vor der sie aufgezeichnet wurde.
+     *
+     * @param replay die Aufzeichnung oder {@code null}, um das Abspielen zu beenden
+     *
+     * @since 2.1
+     */
+    public void replayInput(InputRecording replay) {
+        if (replay != null) {
+            replay.rewind();
+        }
+        replayStart = updateCount;
+        this.replay = replay;
+    }
+
     /**
      * Erzeugt eine neue Instanz des Frameworks. Die Größe des Fensters kann über die Parameter width und height
      * bestimmt werden.
@@ -225,16 +344,116 @@ public final class Framework {
 
     /**
      * Aktualisiert den Szenengraphen, in dem die einzelnen, registrierten
-     * Visitor den Szenengraphen besuchen.
+     * Visitor den Szenengraphen besuchen. Entspricht einem Aufruf von {@link #simulate()} gefolgt von
+     * {@link #render()}.
      */
     public void update() {
+        simulate();
+        render();
+    }
+
+    /**
+     * Führt einen Simulationsschritt aus, ohne zu zeichnen. Aufgezeichnete Eingaben werden abgespielt, aufgeschobene
+     * Änderungen der aktiven Szene übernommen und alle registrierten Visitor außer dem {@link RenderVisitor} besuchen
+     * den Szenengraphen. Ist die interpolierte Ausgabe eingeschaltet, werden vorher die globalen Transformationen des
+     * aktuellen Zustands gespeichert, siehe {@link #setInterpolatedRendering(boolean)}.
+     *
+     * @since 2.1
+     */
+    public void simulate() {
+        long update = updateCount++;
+        InputRecording r = replay;
+        if (r != null) {
+            for (InputEvent e : r.replay(update - replayStart, frame)) {
+                post(e);
+            }
+        }
+
+        boolean measure = statistics.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
+        if (frameStart == 0) {
+            frameStart = start;
+        }
+
+        Scene scene = activeScene;
+        if (scene != null) {
+            scene.applyChanges();
+        }
+
         if (camera != null && !paused) {
+            if (interpolatedRendering) {
+                updateTransforms().capture();
+            }
             for (Visitor v : visitors) {
-                scenegraph.accept(v);
+                if (v == renderVisitor) {
+                    continue;
+                }
+                long visitorStart = measure ? System.nanoTime() : 0;
+                if (v == updateVisitor && activeUpdates) {
+                    updateVisitor.update(scenegraph);
+                } else if (parallelThreshold > 0) {
+                    scenegraph.accept(v, parallelThreshold);
+                } else {
+                    scenegraph.accept(v);
+                }
+                if (measure) {
+                    statistics.record(phaseOf(v), System.nanoTime() - visitorStart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Zeichnet den aktuellen Zustand des Szenengraphen mit dem {@link RenderVisitor} und dem Raytracer. Ist die
+     * interpolierte Ausgabe eingeschaltet, werden die globalen Transformationen zwischen dem Zustand vor und nach dem
+     * letzten Simulationsschritt mit {@link #getInterpolation()} gemischt. Pro ausgegebenem Bild sollte genau einmal
+     * gezeichnet werden.
+     *
+     * @since 2.1
+     */
+    public void render() {
+        boolean measure = statistics.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
+        if (frameStart == 0) {
+            frameStart = start;
+        }
+
+        if (camera != null && !paused) {
+            TransformHierarchy hierarchy = null;
+            if (interpolatedRendering) {
+                hierarchy = updateTransforms();
+                hierarchy.interpolate(interpolation);
+            } else if (compiledTransforms) {
+                hierarchy = updateTransforms();
+            }
+            renderVisitor.setTransformHierarchy(hierarchy);
+
+            long visitorStart = measure ? System.nanoTime() : 0;
+            if (parallelThreshold > 0) {
+                scenegraph.accept(renderVisitor, parallelThreshold);
+            } else {
+                scenegraph.accept(renderVisitor);
+            }
+            if (measure) {
+                statistics.record(Phase.RENDER_VISITOR, System.nanoTime() - visitorStart);
             }
         }
         if (raytracer != null) {
+            long raytraceStart = measure ? System.nanoTime() : 0;
             raytracer.traceScene();
+            if (measure) {
+                statistics.record(Phase.RAYTRACE, System.nanoTime() - raytraceStart);
+            }
+        }
+    }
+
+    private Phase phaseOf(Visitor visitor) {
+        if (visitor == updateVisitor) {
+            return Phase.UPDATE_VISITOR;
+        } else if (visitor == renderVisitor) {
+            return Phase.RENDER_VISITOR;
+        } else {
+            return Phase.OTHER_VISITORS;
         }
     }
 
@@ -243,8 +462,45 @@ public final class Framework {
      */
     public void show() {
         if (renderer != null && !paused) {
-            renderer.show();
+            if (statistics.isEnabled()) {
+                long start = System.nanoTime();
+                renderer.show();
+                long end = System.nanoTime();
+                statistics.record(Phase.SHOW, end - start);
+                if (frameStart != 0) {
+                    statistics.record(Phase.FRAME, end - frameStart);
+                }
+            } else {
+                renderer.show();
+            }
+            applyRenderMode();
         }
+        frameStart = 0;
+    }
+
+    /**
+     * Überträgt die Betriebsart der Ausgabe zwischen zwei Frames auf den Renderer.
+     */
+    private void applyRenderMode() {
+        if (renderer instanceof DefaultRenderer) {
+            DefaultRenderer r = (DefaultRenderer) renderer;
+            if (r.isPipelined() != pipelinedRendering) {
+                r.setPipelined(pipelinedRendering);
+                log.info("Ausgabe im eigenen Thread: {}", pipelinedRendering);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Laufzeitstatistik der einzelnen Phasen eines Frames zurück. Die Statistik wird beim Erzeugen des
+     * Frameworks über JMX veröffentlicht.
+     *
+     * @return die Laufzeitstatistik
+     *
+     * @since 2.1
+     */
+    public FrameStatistics getStatistics() {
+        return statistics;
     }
 
     /**
@@ -252,6 +508,9 @@ public final class Framework {
      * Animators.
      */
     private void start() {
+        if (manualLoop) {
+            return;
+        }
         if (animator == null) {
             update();
             show();
@@ -270,6 +529,39 @@ public final class Framework {
         }
     }
 
+    /**
+     * Schaltet die Hauptschleife ab oder wieder ein. Ohne Hauptschleife startet das Framework den Animator nicht und
+     * berechnet nur dann einen Frame, wenn {@link #update()} bzw. {@link #simulate()} und {@link #render()} sowie
+     * {@link #show()} von außen aufgerufen werden, z.B. von einem
+     * {@link org.amcgala.framework.benchmark.BenchmarkRunner}. Wird die Hauptschleife vor
+     * {@link #addScene(Scene)} abgeschaltet, wird vor dem ersten eigenen Frame kein einziger Frame berechnet. Ein
+     * bereits laufender Animator wird angehalten.
+     *
+     * @param manualLoop {@code true}, wenn Frames nur von außen berechnet werden sollen
+     *
+     * @since 2.1
+     */
+    public void setManualLoop(boolean manualLoop) {
+        boolean wasManual = this.manualLoop;
+        this.manualLoop = manualLoop;
+        if (manualLoop && !wasManual && activeScene != null) {
+            pause();
+        } else if (!manualLoop && wasManual && activeScene != null) {
+            start();
+        }
+    }
+
+    /**
+     * Gibt zurück, ob die Hauptschleife abgeschaltet ist, siehe {@link #setManualLoop(boolean)}.
+     *
+     * @return {@code true}, wenn Frames nur von außen berechnet werden
+     *
+     * @since 2.1
+     */
+    public boolean isManualLoop() {
+        return manualLoop;
+    }
+
     /**
      * Fügt dem Framework eine neue {@link Scene} hinzu.
      *
@@ -307,12 +599,18 @@ public final class Framework {
         paused = true;
         updateVisitor.setPaused(paused);
 
+        if (activeScene != null && activeScene != scene) {
+            activeScene.setDeferChanges(false);
+        }
+        scene.setDeferChanges(true);
+
         camera = scene.getCamera();
         camera.setWidth(frame.getWidth());
         camera.setHeight(frame.getHeight());
 
         renderer = scene.getRenderer();
         renderer.setFrame(frame);
+        applyRenderMode();
 
         scenegraph = scene.getSceneGraph();
 
@@ -349,6 +647,158 @@ public final class Framework {
         animator.setFramesPerSecond(fps);
     }
 
+    /**
+     * Ändert die Betriebsart der Hauptschleife. Die Änderung wird beim nächsten Start des Animators wirksam.
+     *
+     * @param loopMode die neue Betriebsart
+     *
+     * @since 2.1
+     */
+    public void setLoopMode(Animator.LoopMode loopMode) {
+        animator.setLoopMode(loopMode);
+    }
+
+    /**
+     * Gibt den Animator zurück, der die Hauptschleife des Frameworks ausführt.
+     *
+     * @return der Animator
+     *
+     * @since 2.1
+     */
+    public Animator getAnimator() {
+        return animator;
+    }
+
+    /**
+     * Gibt zurück, wie weit der nächste Simulationsschritt zum Zeitpunkt der aktuellen Ausgabe fortgeschritten ist.
+     * Ein Wert von 0 bedeutet, dass der aktuelle Zustand gerade berechnet wurde, ein Wert nahe 1, dass der nächste
+     * Schritt unmittelbar bevorsteht. Shapes können mit diesem Wert zwischen ihrem letzten und ihrem aktuellen Zustand
+     * interpolieren. Ohne festen Zeitschritt ist der Wert immer 1.
+     *
+     * @return der Interpolationsfaktor im Intervall [0, 1]
+     *
+     * @since 2.1
+     */
+    public double getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * Setzt den Interpolationsfaktor für die folgende Ausgabe. Wird vom {@link Animator} aufgerufen.
+     *
+     * @param interpolation der Interpolationsfaktor
+     *
+     * @since 2.1
+     */
+    public void setInterpolation(double interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    /**
+     * Schaltet die interpolierte Ausgabe ein. Vor jedem Simulationsschritt werden dann die globalen Transformationen
+     * aller Knoten über die {@link TransformHierarchy} berechnet und gespeichert. Beim Zeichnen werden sie mit dem
+     * Ergebnis des letzten Schritts über {@link #getInterpolation()} gemischt, so dass Bewegungen auch dann
+     * gleichmäßig erscheinen, wenn pro Bild keine oder mehrere Simulationsschritte ausgeführt werden. Wird vom
+     * {@link Animator} im Modus {@link Animator.LoopMode#FIXED_TIMESTEP} eingeschaltet.
+     *
+     * @param interpolatedRendering {@code true}, wenn die Transformationen interpoliert werden sollen
+     *
+     * @since 2.1
+     */
+    public void setInterpolatedRendering(boolean interpolatedRendering) {
+        this.interpolatedRendering = interpolatedRendering;
+    }
+
+    /**
+     * Schaltet die parallele Traversierung des Szenengraphs ein. Teilbäume mit mehr als {@code threshold} Knoten
+     * werden auf mehrere Threads verteilt. Nur Visitor, die
+     * {@link org.amcgala.framework.scenegraph.visitor.ParallelVisitor} implementieren, werden parallel ausgeführt.
+     *
+     * @param threshold die minimale Größe eines aufzuteilenden Teilbaums oder 0, um sequentiell zu traversieren
+     *
+     * @since 2.1
+     */
+    public void setParallelThreshold(int threshold) {
+        checkArgument(threshold >= 0, "Der Schwellwert darf nicht negativ sein!");
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Schaltet die kompilierte Transformationshierarchie ein. Die globalen Transformationen aller Knoten werden dann
+     * vor dem Zeichnen in einem linearen Durchlauf über eine {@link TransformHierarchy} berechnet, anstatt für jeden
+     * Knoten einzeln entlang der Vorfahren.
+     *
+     * @param compiledTransforms {@code true}, wenn die kompilierte Hierarchie verwendet werden soll
+     *
+     * @since 2.1
+     */
+    public void setCompiledTransforms(boolean compiledTransforms) {
+        this.compiledTransforms = compiledTransforms;
+    }
+
+    /**
+     * Legt fest, ob bei jeder Aktualisierung nur die Knoten mit Animationen aktualisiert werden, siehe
+     * {@link org.amcgala.framework.scenegraph.ActiveSet}. Als animiert gelten Shapes mit einer Animation, Shapes,
+     * deren Klasse {@code update()} überschreibt, und alle Shapes und Transformationen, die
+     * {@link org.amcgala.framework.animation.Animated} nicht implementieren. Ist die Option ausgeschaltet, besucht der
+     * UpdateVisitor wie bisher alle Knoten. Standardmäßig eingeschaltet.
+     *
+     * @param activeUpdates {@code true}, wenn nur aktive Knoten aktualisiert werden sollen
+     *
+     * @since 2.1
+     */
+    public void setActiveUpdates(boolean activeUpdates) {
+        this.activeUpdates = activeUpdates;
+    }
+
+    /**
+     * Legt fest, ob ein {@link DefaultRenderer} die Frames in einem eigenen Renderthread ausgibt, siehe
+     * {@link DefaultRenderer#setPipelined(boolean)}. Die Einstellung wird nach der Ausgabe des aktuellen Frames
+     * übernommen und gilt auch für später geladene Szenen. Standardmäßig ausgeschaltet.
+     *
+     * @param pipelinedRendering {@code true}, wenn die Ausgabe in einem eigenen Thread erfolgen soll
+     *
+     * @since 2.1
+     */
+    public void setPipelinedRendering(boolean pipelinedRendering) {
+        this.pipelinedRendering = pipelinedRendering;
+    }
+
+    /**
+     * Gibt zurück, ob ein {@link DefaultRenderer} die Frames in einem eigenen Renderthread ausgibt.
+     *
+     * @return {@code true}, wenn die Ausgabe in einem eigenen Thread erfolgt
+     *
+     * @since 2.1
+     */
+    public boolean isPipelinedRendering() {
+        return pipelinedRendering;
+    }
+
+    /**
+     * Legt fest, ob Winkelfunktionen, Potenzen und Wurzeln in den Renderpfaden exakt oder mit den Näherungen von
+     * {@link FastMath} berechnet werden. Die Einstellung gilt für alle Instanzen des Frameworks. Standardmäßig wird
+     * exakt gerechnet.
+     *
+     * @param mode die Genauigkeit, mit der gerechnet werden soll
+     *
+     * @since 2.1
+     */
+    public void setMathMode(FastMath.Mode mode) {
+        FastMath.setMode(mode);
+        log.info("Berechnungsmodus: {}", mode);
+    }
+
+    private TransformHierarchy updateTransforms() {
+        TransformHierarchy hierarchy = scenegraph.getTransformHierarchy();
+        if (parallelThreshold > 0) {
+            hierarchy.update(parallelThreshold);
+        } else {
+            hierarchy.update();
+        }
+        return hierarchy;
+    }
+
     /**
      * Entfernt eine Szene aus dem Framework.
      *
@@ -1,5 +1,8 @@
 package org.amcgala;
 
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
 import com.google.common.eventbus.EventBus;
 import org.amcgala.framework.camera.Camera;
 import org.amcgala.framework.camera.SimplePerspectiveCamera;
@@ -7,6 +10,7 @@ import org.amcgala.framework.event.InputHandler;
 import org.amcgala.framework.lighting.Light;
 import org.amcgala.framework.math.Vector3d;
 import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.raytracer.Ray;
 import org.amcgala.framework.renderer.DefaultRenderer;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.scenegraph.DefaultSceneGraph;
@@ -19,9 +23,13 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Ein {@link Scene} Objekt verwaltet alle Objekte und den dazugehörigen {@link org.amcgala.framework.scenegraph.DefaultSceneGraph},
@@ -38,6 +46,15 @@ import static com.google.common.base.Preconditions.checkArgument;
  * <li>Ein Eventbus, der zum Message-Handling zwischen unterschiedlichen Objekten der Szene und zur Reaktion auf Key-
  * oder Mouse-Events verwendet werden kann.</li>
  * </ul>
+ * <p/>
+ * Sobald eine Szene vom Framework geladen wurde, werden Änderungen am Szenengraph nicht mehr sofort ausgeführt,
+ * sondern in einer Warteschlange gesammelt und zu Beginn der nächsten Aktualisierung gemeinsam im Animator-Thread
+ * ausgeführt. Änderungen aus InputHandlern im AWT-Thread treffen so nie auf eine laufende Traversierung.
+ * <p/>
+ * Die Methoden zum Hinzufügen und Entfernen prüfen ihre Argumente dennoch sofort und werfen bei unbekannten Labels
+ * eine {@link IllegalArgumentException}. Dabei werden auch Knoten und Shapes berücksichtigt, die noch in der
+ * Warteschlange stehen. Lesende Methoden wie {@link #getSceneGraph()}{@code .getNode(label)}, {@link #getShapes()}
+ * oder {@link #hasLights()} sehen gesammelte Änderungen dagegen erst nach der nächsten Aktualisierung.
  *
  * @author Robert Giacinto
  * @since 2.0
@@ -51,6 +68,13 @@ public class Scene {
     private String label;
     private Map<String, InputHandler> inputHandlers;
     private RGBColor background = new RGBColor(0, 0, 0);
+    private final Queue<Runnable> changes = new ConcurrentLinkedQueue<Runnable>();
+    private volatile boolean deferChanges;
+    /**
+     * Die Labels der Knoten und Shapes, die von noch nicht ausgeführten Änderungen hinzugefügt werden.
+     */
+    private final Multiset<String> pendingNodes = ConcurrentHashMultiset.create();
+    private final Multiset<String> pendingShapes = ConcurrentHashMultiset.create();
 
     /**
      * Erstellt eine neue Szene mit einem bestimmten Bezeichner.
@@ -71,8 +95,14 @@ public class Scene {
      *
      * @param shape das hinzuzufügende Objekt
      */
-    public void addShape(Shape shape) {
-        sceneGraph.addShape(shape);
+    public void addShape(final Shape shape) {
+        checkNotNull(shape);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addShape(shape);
+            }
+        }, ImmutableList.<String>of(), shapeLabels(shape));
     }
 
     /**
@@ -80,8 +110,14 @@ public class Scene {
      *
      * @param node der neue Knoten
      */
-    public void addNode(Node node) {
-        sceneGraph.addNode(node);
+    public void addNode(final Node node) {
+        checkNotNull(node);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addNode(node);
+            }
+        }, nodeLabels(node), ImmutableList.<String>of());
     }
 
     /**
@@ -91,8 +127,16 @@ public class Scene {
      * @param shape das Shape, das der Szene hinzugefügt werden soll
      * @param node  der Knoten, an dem das Shape angehängt werden soll
      */
-    public void add(Shape shape, Node node) {
-        sceneGraph.addShape(shape, node);
+    public void add(final Shape shape, final Node node) {
+        checkNotNull(shape);
+        checkNotNull(node);
+        // Ein unbekannter Knoten wird dabei an den Rootknoten gehängt.
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addShape(shape, node);
+            }
+        }, ImmutableList.of(node.getLabel()), shapeLabels(shape));
     }
 
     /**
@@ -101,8 +145,15 @@ public class Scene {
      * @param shape     das Shape, das der Szene hinzugefügt werden soll
      * @param nodeLabel das Label des Knotens
      */
-    public void addShape(Shape shape, String nodeLabel) {
-        sceneGraph.addShape(shape, nodeLabel);
+    public void addShape(final Shape shape, final String nodeLabel) {
+        checkNotNull(shape);
+        checkArgument(containsNode(nodeLabel), "Knoten %s konnte im Szenengraph nicht gefunden werden", nodeLabel);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addShape(shape, nodeLabel);
+            }
+        }, ImmutableList.<String>of(), shapeLabels(shape));
     }
 
     /**
@@ -111,8 +162,16 @@ public class Scene {
      * @param node        der neue Knoten, der hinzugefügt werden soll
      * @param parentLabel das Label des Elternknotens
      */
-    public void addNode(Node node, String parentLabel) {
-        sceneGraph.addNode(node, parentLabel);
+    public void addNode(final Node node, final String parentLabel) {
+        checkNotNull(node);
+        checkArgument(containsNode(parentLabel), "Elternknoten %s konnte im Szenengraph nicht gefunden werden",
+                parentLabel);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addNode(node, parentLabel);
+            }
+        }, nodeLabels(node), ImmutableList.<String>of());
     }
 
     /**
@@ -122,8 +181,16 @@ public class Scene {
      * @param child  der neue Kindsknoten
      * @param parent der Elternknoten
      */
-    public void addNode(Node child, Node parent) {
-        sceneGraph.addNode(child, parent);
+    public void addNode(final Node child, final Node parent) {
+        checkNotNull(child);
+        checkArgument(containsNode(checkNotNull(parent).getLabel()),
+                "Elternknoten %s konnte im Szenengraph nicht gefunden werden", parent.getLabel());
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addNode(child, parent);
+            }
+        }, nodeLabels(child), ImmutableList.<String>of());
     }
 
     /**
@@ -131,8 +198,14 @@ public class Scene {
      *
      * @param transformation die Transformation, die hinzugefügt werden soll
      */
-    public void addTransformation(Transformation transformation) {
-        sceneGraph.addTransformation(transformation);
+    public void addTransformation(final Transformation transformation) {
+        checkNotNull(transformation);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addTransformation(transformation);
+            }
+        });
     }
 
     /**
@@ -215,14 +288,160 @@ public class Scene {
      *
      * @param label das Label des Shapes, das entfernt werden soll
      */
-    public void removeShape(String label) {
-        sceneGraph.removeShape(label);
+    public void removeShape(final String label) {
+        checkArgument(containsShape(label), "Shape %s konnte nicht gefunden werden", label);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.removeShape(label);
+            }
+        });
+    }
+
+    /**
+     * Führt eine Änderung an der Szene aus. Werden Änderungen gesammelt, wird die Änderung erst zu Beginn der nächsten
+     * Aktualisierung ausgeführt. Darüber lassen sich auch eigene Änderungen, z.B. an Knoten oder Transformationen,
+     * sicher aus beliebigen Threads vornehmen.
+     * <p/>
+     * Eine gesammelte Änderung läuft im Animator-Thread. Wirft sie dort eine Exception, wird diese protokolliert und
+     * die übrigen Änderungen werden trotzdem ausgeführt. Argumente sollten daher vor dem Aufruf geprüft werden.
+     * Lesende Zugriffe auf den Szenengraph sehen die Änderung erst nach ihrer Ausführung.
+     *
+     * @param change die Änderung
+     *
+     * @since 2.1
+     */
+    public void change(Runnable change) {
+        change(change, ImmutableList.<String>of(), ImmutableList.<String>of());
+    }
+
+    /**
+     * Führt eine Änderung direkt am Szenengraph der Szene aus. Wie bei {@link #change(Runnable)} wird die Änderung
+     * gesammelt, solange die Szene Änderungen sammelt. Der Szenengraph wird erst bei der Ausführung übergeben und darf
+     * nur während dieses Aufrufs verwendet werden.
+     *
+     * @param change die Änderung
+     *
+     * @since 2.1
+     */
+    public void change(final GraphChange change) {
+        checkNotNull(change);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                change.apply(sceneGraph);
+            }
+        });
+    }
+
+    /**
+     * Führt eine Änderung aus oder stellt sie in die Warteschlange. Bis zur Ausführung gelten die übergebenen Knoten
+     * und Shapes bei der Prüfung der Argumente als vorhanden.
+     */
+    private void change(final Runnable change, final List<String> nodeLabels, final List<String> shapeLabels) {
+        checkNotNull(change);
+        if (!deferChanges) {
+            change.run();
+            return;
+        }
+        pendingNodes.addAll(nodeLabels);
+        pendingShapes.addAll(shapeLabels);
+        changes.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    change.run();
+                } finally {
+                    for (String label : nodeLabels) {
+                        pendingNodes.remove(label);
+                    }
+                    for (String label : shapeLabels) {
+                        pendingShapes.remove(label);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Führt alle gesammelten Änderungen in der Reihenfolge aus, in der sie übergeben wurden. Wird vom Framework zu
+     * Beginn jeder Aktualisierung aufgerufen. Schlägt eine Änderung fehl, wird der Fehler protokolliert und mit der
+     * nächsten Änderung fortgefahren.
+     *
+     * @return die Anzahl der erfolgreich ausgeführten Änderungen
+     *
+     * @since 2.1
+     */
+    public int applyChanges() {
+        int applied = 0;
+        Runnable change;
+        while ((change = changes.poll()) != null) {
+            try {
+                change.run();
+                applied++;
+            } catch (RuntimeException e) {
+                log.error("Änderung an Szene " + label + " konnte nicht ausgeführt werden", e);
+            }
+        }
+        return applied;
+    }
+
+    private boolean containsNode(String label) {
+        return label != null && (sceneGraph.getNode(label) != null || pendingNodes.contains(label));
+    }
+
+    private boolean containsShape(String label) {
+        return label != null && (sceneGraph.getShape(label) != null || pendingShapes.contains(label));
+    }
+
+    private static List<String> nodeLabels(Node node) {
+        ImmutableList.Builder<String> labels = ImmutableList.builder();
+        labels.add(node.getLabel());
+        for (Node child : node.getAllChildren()) {
+            labels.add(child.getLabel());
+        }
+        return labels.build();
+    }
+
+    private static List<String> shapeLabels(Shape shape) {
+        return shape.getLabel() != null ? ImmutableList.of(shape.getLabel()) : ImmutableList.<String>of();
+    }
+
+    /**
+     * Legt fest, ob Änderungen bis zur nächsten Aktualisierung gesammelt werden. Beim Ausschalten werden alle bereits
+     * gesammelten Änderungen sofort ausgeführt.
+     *
+     * @param deferChanges {@code true}, wenn Änderungen gesammelt werden sollen
+     *
+     * @since 2.1
+     */
+    public void setDeferChanges(boolean deferChanges) {
+        this.deferChanges = deferChanges;
+        if (!deferChanges) {
+            applyChanges();
+        }
+    }
+
+    public boolean isDeferChanges() {
+        return deferChanges;
     }
 
     protected SceneGraph getSceneGraph() {
         return sceneGraph;
     }
 
+    /**
+     * Gibt den Rootknoten des Szenengraphs zurück, z.B. um die Szene zu speichern. Der Szenengraph selbst sollte nur
+     * über die Methoden der Szene oder über {@link #change(GraphChange)} verändert werden.
+     *
+     * @return der Rootknoten
+     *
+     * @since 2.1
+     */
+    public Node getRootNode() {
+        return sceneGraph.getNode("root");
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -243,8 +462,14 @@ public class Scene {
      *
      * @param light das neue Licht
      */
-    public void addLight(Light light) {
-        sceneGraph.addLight(light);
+    public void addLight(final Light light) {
+        checkNotNull(light);
+        change(new Runnable() {
+            @Override
+            public void run() {
+                sceneGraph.addLight(light);
+            }
+        });
     }
 
     /**
@@ -278,4 +503,48 @@ public class Scene {
     public Collection<Shape> getShapes() {
         return sceneGraph.getAllShapes();
     }
+
+    /**
+     * Bestimmt das vorderste Shape an einer Position im Fenster, z.B. unter dem Mauszeiger. Die Suche verwendet den
+     * räumlichen Index des Szenengraphs und prüft nur Shapes, deren BoundingBox vom Sehstrahl getroffen wird.
+     *
+     * @param x die x-Koordinate im Fenster, von links gezählt
+     * @param y die y-Koordinate im Fenster, von oben gezählt
+     *
+     * @return das vorderste Shape oder {@code null}, wenn an der Position kein Shape liegt
+     *
+     * @since 2.1
+     */
+    public Shape pick(int x, int y) {
+        return pick(camera.getRay(x - (camera.getWidth() >> 1), (camera.getHeight() >> 1) - y));
+    }
+
+    /**
+     * Bestimmt das vorderste Shape, das von einem Strahl getroffen wird.
+     *
+     * @param ray der Strahl in Weltkoordinaten
+     *
+     * @return das vorderste Shape oder {@code null}, wenn kein Shape getroffen wird
+     *
+     * @since 2.1
+     */
+    public Shape pick(Ray ray) {
+        return sceneGraph.getOctree().pick(checkNotNull(ray));
+    }
+
+    /**
+     * Eine Änderung, die direkt auf dem Szenengraph einer Szene arbeitet, z.B. beim Laden einer Szene aus einer Datei.
+     * Siehe {@link Scene#change(GraphChange)}.
+     *
+     * @since 2.1
+     */
+    public interface GraphChange {
+
+        /**
+         * Führt die Änderung aus.
+         *
+         * @param sceneGraph der Szenengraph der Szene
+         */
+        void apply(SceneGraph sceneGraph);
+    }
 }
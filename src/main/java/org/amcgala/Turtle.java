@@ -5,7 +5,9 @@ import org.amcgala.framework.shape.Line;
 import org.amcgala.framework.shape.util.CompositeShape;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static java.lang.Math.*;
+import static org.amcgala.framework.math.util.FastMath.cos;
+import static org.amcgala.framework.math.util.FastMath.sin;
+import static org.amcgala.framework.math.util.FastMath.toRadians;
 
 /**
  * Eine Turtle kann zum Zeichnen von Turtlegrafiken innerhalb eines amCGAla Programms verwendet werden.
@@ -22,7 +24,7 @@ public class Turtle {
     private Vector3d heading = Vector3d.UNIT_Y;
 
     // Die Turtle steht im Nullpunkt des Koordinatensystems. Aktuell ist dies der Bildmittelpunkt.
-    private Vector3d position = Vector3d.ZERO;
+    private Vector3d position = new Vector3d(0, 0, 0);
 
     // Der Blinkwinkel - das gleiche wie heading, nur dass es sich hierbei um eine Graddarstellung im Bogenmaß handelt.
     private double headingAngle;
@@ -40,7 +42,8 @@ public class Turtle {
 
         turtleShape = shape;
         headingAngle = 90;
-        heading = new Vector3d(cos(toRadians(headingAngle)), sin(toRadians(headingAngle)), -1);
+        double phi = toRadians(headingAngle);
+        heading = new Vector3d(cos(phi), sin(phi), -1);
     }
 
     /**
@@ -79,8 +82,8 @@ public class Turtle {
      */
     public void turnLeft(double angle) {
         headingAngle += angle;
-        heading = new Vector3d(cos(toRadians(headingAngle)), sin(toRadians(headingAngle)), -1);
-        heading.normalize();
+        double phi = toRadians(headingAngle);
+        heading = new Vector3d(cos(phi), sin(phi), -1);
     }
 
     /**
@@ -89,8 +92,8 @@ public class Turtle {
      */
     public void turnRight(double angle) {
         headingAngle -= angle;
-        heading = new Vector3d(cos(toRadians(headingAngle)), sin(toRadians(headingAngle)), -1);
-        heading.normalize();
+        double phi = toRadians(headingAngle);
+        heading = new Vector3d(cos(phi), sin(phi), -1);
     }
 
     /**
@@ -101,9 +104,9 @@ public class Turtle {
         checkArgument(length > 0, "Schrittlänge kann nur positiv sein!");
 
         if (up) {
-            position = position.add(heading.times(length));
+            position = position.travel(heading, length);
         } else {
-            Vector3d endPosition = position.add(heading.times(length));
+            Vector3d endPosition = position.travel(heading, length);
             endPosition.z = -1;
             position.z = -1;
             Line line = new Line(position, endPosition);
@@ -5,7 +5,9 @@ import org.amcgala.framework.math.Vector3d;
 import org.amcgala.framework.shape.Line;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static java.lang.Math.*;
+import static org.amcgala.framework.math.util.FastMath.cos;
+import static org.amcgala.framework.math.util.FastMath.sin;
+import static org.amcgala.framework.math.util.FastMath.toRadians;
 
 /**
  * Die Klasse stellt Funktionlitäten zur Verfügung, die man benötigt, um Turtlegrafiken zu erstellen.
@@ -30,7 +32,7 @@ public abstract class TurtleMode {
     private Vector3d heading = Vector3d.UNIT_X;
 
     // Die Turtle steht im Urspung des Koordinatensystems. Aktuell in der Mitte des Fensters.
-    private Vector3d position = Vector3d.ZERO;
+    private Vector3d position = new Vector3d(0, 0, 0);
 
     // Der Blinkwinkel - das gleiche wie heading, nur dass es sich hierbei um eine Graddarstellung im Bogenmaß handelt.
     private double headingAngle;
@@ -91,8 +93,8 @@ public abstract class TurtleMode {
      */
     protected void turnLeft(double angle) {
         headingAngle += angle;
-        heading = new Vector3d(cos(toRadians(headingAngle)), sin(toRadians(headingAngle)), -1);
-        heading.normalize();
+        double phi = toRadians(headingAngle);
+        heading = new Vector3d(cos(phi), sin(phi), -1);
     }
 
     /**
@@ -102,8 +104,8 @@ public abstract class TurtleMode {
      */
     protected void turnRight(double angle) {
         headingAngle -= angle;
-        heading = new Vector3d(cos(toRadians(headingAngle)), sin(toRadians(headingAngle)), -1);
-        heading.normalize();
+        double phi = toRadians(headingAngle);
+        heading = new Vector3d(cos(phi), sin(phi), -1);
     }
 
     /**
@@ -115,9 +117,9 @@ public abstract class TurtleMode {
         checkArgument(length > 0, "Schrittlänge kann nur positiv sein!");
 
         if (up) {
-            position = position.add(heading.times(length));
+            position = position.travel(heading, length);
         } else {
-            Vector3d endPosition = position.add(heading.times(length));
+            Vector3d endPosition = position.travel(heading, length);
             endPosition.z = -1;
             position.z = -1;
             scene.addShape(new Line(position, endPosition));
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.animation;
+
+/**
+ * Ein Objekt, das angeben kann, ob sich sein Zustand bei {@link Updatable#update()} verändert. Shapes und
+ * Transformationen, die dieses Interface implementieren und nicht animiert sind, werden bei der Aktualisierung des
+ * Szenengraphs übersprungen, siehe {@link org.amcgala.framework.scenegraph.ActiveSet}. Alle übrigen Shapes und
+ * Transformationen werden in jedem Aktualisierungsschritt aktualisiert.
+ *
+ * @since 2.1
+ */
+public interface Animated {
+
+    /**
+     * Gibt zurück, ob sich das Objekt bei {@link Updatable#update()} verändert. Ändert sich der Rückgabewert, muss
+     * {@link org.amcgala.framework.scenegraph.ActiveSet#invalidate()} aufgerufen werden.
+     *
+     * @return {@code true}, wenn das Objekt animiert ist
+     */
+    boolean isAnimated();
+}
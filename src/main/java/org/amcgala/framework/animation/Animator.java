@@ -18,26 +18,68 @@ import org.amcgala.Framework;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Diese Klasse kümmert sich um das Timing der Animation. Sie ruft in
- * regelmäßigen Abständen die Methoden update und show der Klasse Framework auf
- * und ermöglicht so die Realisation von Animationen.
+ * regelmäßigen Abständen die Methoden simulate, render und show der Klasse Framework auf
+ * und ermöglicht so die Realisation von Animationen. Pro ausgegebenem Bild wird genau einmal gezeichnet, egal wie
+ * viele Simulationsschritte vorher ausgeführt wurden.
+ * <p/>
+ * Im Modus {@link LoopMode#FIXED_TIMESTEP} wird die Simulation in festen Zeitschritten aktualisiert, unabhängig davon,
+ * wie viele Bilder pro Sekunde ausgegeben werden. Der Anteil des angebrochenen Zeitschritts wird vor jeder Ausgabe
+ * über {@link Framework#getInterpolation()} bereitgestellt. Das Framework mischt damit beim Zeichnen die
+ * Transformationen des letzten und des aktuellen Zustands, siehe {@link Framework#setInterpolatedRendering(boolean)}. Gewartet wird mit {@link LockSupport#parkNanos(long)} und für die letzten Mikrosekunden
+ * aktiv mit {@link Thread#yield()}.
  *
  * @author Robert Giacinto
  */
 public class Animator {
 
+    /**
+     * Die Betriebsarten der Hauptschleife.
+     *
+     * @since 2.1
+     */
+    public enum LoopMode {
+        /**
+         * Die ursprüngliche Schleife, die mit {@link Thread#sleep(long)} wartet.
+         */
+        VARIABLE,
+        /**
+         * Aktualisierung mit festem Zeitschritt und interpolierter Ausgabe.
+         */
+        FIXED_TIMESTEP
+    }
+
     private static final Logger log = LoggerFactory.getLogger(Animator.class);
+    /**
+     * Ab dieser Restzeit wird nicht mehr geparkt, sondern aktiv gewartet.
+     */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    /**
+     * Obergrenze der Zeit, die pro Durchlauf nachgeholt wird. Verhindert, dass die Simulation nach einer langen Pause
+     * nur noch aufholt.
+     */
+    private static final long MAX_FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    /**
+     * Maximale Anzahl an Aktualisierungen vor einer Ausgabe.
+     */
+    private static final int MAX_UPDATES_PER_FRAME = 5;
+    private volatile LoopMode loopMode = LoopMode.VARIABLE;
+    private final FrameBudget updateBudget;
+    private final FrameBudget renderBudget;
     private Timer fpsTimer;
     private Timer upsTimer;
     private Framework framework;
     private int framesPerSecond;
     private int updatesPerSecond;
     private Thread animation;
-    private boolean running;
+    private volatile boolean running;
 
     /**
      * Erzeugt einen neuen Animator, der das Framework aktualisiert.
@@ -53,6 +95,47 @@ public class Animator {
         this.updatesPerSecond = updatesPerSecond;
         fpsTimer = new Timer(framesPerSecond);
         upsTimer = new Timer(updatesPerSecond);
+        updateBudget = new FrameBudget("update", TimeUnit.SECONDS.toNanos(1) / updatesPerSecond);
+        renderBudget = new FrameBudget("render", TimeUnit.SECONDS.toNanos(1) / framesPerSecond);
+    }
+
+    /**
+     * Ändert die Betriebsart der Hauptschleife. Die Änderung wird beim nächsten Start wirksam.
+     *
+     * @param loopMode die neue Betriebsart
+     *
+     * @since 2.1
+     */
+    public void setLoopMode(LoopMode loopMode) {
+        this.loopMode = checkNotNull(loopMode);
+    }
+
+    public LoopMode getLoopMode() {
+        return loopMode;
+    }
+
+    /**
+     * Gibt das Zeitbudget für die Aktualisierung des Szenengraphs zurück. Gemessen wird ein Aufruf von
+     * {@link Framework#simulate()}.
+     *
+     * @return das Budget der Aktualisierung
+     *
+     * @since 2.1
+     */
+    public FrameBudget getUpdateBudget() {
+        return updateBudget;
+    }
+
+    /**
+     * Gibt das Zeitbudget für die Ausgabe zurück. Gemessen werden die Aufrufe von {@link Framework#render()} und
+     * {@link Framework#show()}.
+     *
+     * @return das Budget der Ausgabe
+     *
+     * @since 2.1
+     */
+    public FrameBudget getRenderBudget() {
+        return renderBudget;
     }
 
     /**
@@ -83,6 +166,7 @@ public class Animator {
 
         this.framesPerSecond = framesPerSecond;
         fpsTimer = new Timer(framesPerSecond);
+        renderBudget.setBudgetNanos(TimeUnit.SECONDS.toNanos(1) / framesPerSecond);
     }
 
     /**
@@ -95,6 +179,10 @@ public class Animator {
 
                 @Override
                 public void run() {
+                    if (loopMode == LoopMode.FIXED_TIMESTEP) {
+                        runFixedTimestep();
+                        return;
+                    }
                     double fpsLastTime = System.nanoTime();
                     double upsLastTime = System.nanoTime();
                     int upsCounter = 0;
@@ -110,13 +198,14 @@ public class Animator {
                             upsCounter++;
                             unprocessed--;
 
-                            framework.update();
+                            framework.simulate();
                             last = System.nanoTime();
                             render = true;
                         }
 
                         fpsCounter++;
                         if (render) {
+                            framework.render();
                             framework.show();
                             render = false;
                         }
@@ -144,11 +233,110 @@ public class Animator {
         }
     }
 
+    /**
+     * Hauptschleife mit festem Zeitschritt. Pro Durchlauf wird die vergangene Zeit in ganzen Zeitschritten simuliert,
+     * der verbleibende Rest als Interpolationsfaktor an das Framework übergeben und anschließend genau ein Bild
+     * gezeichnet und ausgegeben. Danach wird bis zum nächsten Frame gewartet.
+     */
+    private void runFixedTimestep() {
+        framework.setInterpolatedRendering(true);
+        try {
+            runFixedTimestepLoop();
+        } finally {
+            framework.setInterpolatedRendering(false);
+            framework.setInterpolation(1);
+        }
+    }
+
+    private void runFixedTimestepLoop() {
+        long stepNanos = TimeUnit.SECONDS.toNanos(1) / updatesPerSecond;
+        long previous = System.nanoTime();
+        long deadline = previous;
+        long accumulator = stepNanos;
+        long statisticsStart = previous;
+        int upsCounter = 0;
+        int fpsCounter = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_FRAME_NANOS);
+            previous = now;
+
+            int updates = 0;
+            while (accumulator >= stepNanos && updates < MAX_UPDATES_PER_FRAME) {
+                long start = System.nanoTime();
+                framework.simulate();
+                if (!updateBudget.record(System.nanoTime() - start)) {
+                    log.debug("Aktualisierung über Budget: {}", updateBudget);
+                }
+                accumulator -= stepNanos;
+                updates++;
+            }
+            if (accumulator >= stepNanos) {
+                // Die Simulation kommt nicht hinterher. Der Rest wird verworfen, statt ihn endlos nachzuholen.
+                accumulator %= stepNanos;
+            }
+            upsCounter += updates;
+
+            framework.setInterpolation((double) accumulator / stepNanos);
+            long start = System.nanoTime();
+            framework.render();
+            framework.show();
+            if (!renderBudget.record(System.nanoTime() - start)) {
+                log.debug("Ausgabe über Budget: {}", renderBudget);
+            }
+            fpsCounter++;
+
+            long frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+            deadline += frameNanos;
+            now = System.nanoTime();
+            if (deadline < now - frameNanos) {
+                // Mehr als einen Frame im Rückstand: nicht nachholen, sondern ab jetzt neu takten.
+                deadline = now;
+            }
+            waitUntil(deadline);
+
+            if (now - statisticsStart > TimeUnit.SECONDS.toNanos(1)) {
+                log.debug("FPS = {}, UPS = {}", fpsCounter, upsCounter);
+                fpsCounter = 0;
+                upsCounter = 0;
+                statisticsStart = now;
+            }
+        }
+    }
+
+    /**
+     * Wartet bis zu einem Zeitpunkt. Bis kurz vor dem Zeitpunkt wird der Thread geparkt, danach wird aktiv gewartet,
+     * da {@link LockSupport#parkNanos(long)} je nach Betriebssystem deutlich zu lange schlafen kann.
+     *
+     * @param deadline der Zeitpunkt in Nanosekunden, bezogen auf {@link System#nanoTime()}
+     */
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > SPIN_NANOS && running) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0 && running) {
+            Thread.yield();
+        }
+    }
+
     /**
      * Hält das Framework an und zeigt das letzte gerenderte Bild an.
      */
     public void stop() {
         running = false;
+        Thread thread = animation;
+        if (thread != null && thread != Thread.currentThread()) {
+            // Die Hauptschleife muss beendet sein, bevor hier aktualisiert wird. Sonst könnten update() und show()
+            // gleichzeitig aus zwei Threads laufen.
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         framework.update();
         framework.show();
     }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.animation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Zeitquelle für alle zeitabhängigen Objekte des Frameworks. Normalerweise liefert die Uhr die Zeit von
+ * {@link System#nanoTime()}. Im simulierten Betrieb steht die Uhr still und wird nur über {@link #advance(long)}
+ * weitergestellt, z.B. um einen festen Zeitschritt pro Frame in einem Benchmark zu erzwingen. Dadurch hängt das
+ * Verhalten einer Szene nicht mehr davon ab, wie schnell die Frames berechnet werden.
+ *
+ * @since 2.1
+ */
+public final class Clock {
+    private static volatile boolean simulated;
+    private static volatile long simulatedNanos;
+
+    private Clock() {
+    }
+
+    /**
+     * Gibt die aktuelle Zeit in Nanosekunden zurück. Wie bei {@link System#nanoTime()} sind nur Differenzen
+     * aussagekräftig.
+     *
+     * @return die aktuelle Zeit in Nanosekunden
+     */
+    public static long nanoTime() {
+        return simulated ? simulatedNanos : System.nanoTime();
+    }
+
+    /**
+     * Gibt die aktuelle Zeit in Millisekunden zurück.
+     *
+     * @return die aktuelle Zeit in Millisekunden
+     */
+    public static long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime());
+    }
+
+    /**
+     * Schaltet den simulierten Betrieb ein oder aus. Beim Einschalten beginnt die simulierte Zeit bei 0.
+     *
+     * @param simulated {@code true}, wenn die Zeit nur über {@link #advance(long)} fortschreiten soll
+     */
+    public static synchronized void setSimulated(boolean simulated) {
+        simulatedNanos = 0;
+        Clock.simulated = simulated;
+    }
+
+    public static boolean isSimulated() {
+        return simulated;
+    }
+
+    /**
+     * Stellt die simulierte Uhr weiter. Ohne simulierten Betrieb hat der Aufruf keine Wirkung.
+     *
+     * @param nanos die Zeitspanne in Nanosekunden
+     */
+    public static synchronized void advance(long nanos) {
+        simulatedNanos += nanos;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.animation;
+
+import com.google.common.base.Objects;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Ein Zeitbudget für einen Abschnitt der Hauptschleife, z.B. für die Aktualisierung oder die Ausgabe eines Frames.
+ * Das Budget speichert die zuletzt gemessene Dauer, einen gleitenden Mittelwert und zählt, wie oft das Budget
+ * überschritten wurde.
+ *
+ * @since 2.1
+ */
+public final class FrameBudget {
+    private static final double SMOOTHING = 0.05;
+
+    private final String name;
+    private volatile long budgetNanos;
+    private volatile long lastNanos;
+    private volatile double averageNanos;
+    private volatile long overruns;
+
+    /**
+     * Erzeugt ein neues Zeitbudget.
+     *
+     * @param name        der Name des Abschnitts
+     * @param budgetNanos die erlaubte Dauer in Nanosekunden
+     */
+    public FrameBudget(String name, long budgetNanos) {
+        this.name = name;
+        setBudgetNanos(budgetNanos);
+    }
+
+    /**
+     * Speichert die Dauer einer Ausführung des Abschnitts.
+     *
+     * @param nanos die gemessene Dauer in Nanosekunden
+     *
+     * @return {@code true}, wenn das Budget eingehalten wurde
+     */
+    public boolean record(long nanos) {
+        lastNanos = nanos;
+        averageNanos = averageNanos == 0 ? nanos : averageNanos + SMOOTHING * (nanos - averageNanos);
+        if (nanos > budgetNanos) {
+            overruns++;
+            return false;
+        }
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        checkArgument(budgetNanos > 0, "Das Budget muss größer 0 sein!");
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Gibt die Dauer der letzten Ausführung zurück.
+     *
+     * @return die Dauer in Nanosekunden
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Gibt den gleitenden Mittelwert der Dauer zurück.
+     *
+     * @return die mittlere Dauer in Nanosekunden
+     */
+    public double getAverageNanos() {
+        return averageNanos;
+    }
+
+    /**
+     * Gibt zurück, wie oft das Budget überschritten wurde.
+     *
+     * @return die Anzahl der Überschreitungen
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("name", name)
+                .add("budget", TimeUnit.NANOSECONDS.toMicros(budgetNanos) + "us")
+                .add("average", (long) (averageNanos / 1000) + "us")
+                .add("overruns", overruns)
+                .toString();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.benchmark;
+
+import com.google.common.base.Objects;
+import org.amcgala.framework.statistics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Das Ergebnis eines Laufs des {@link BenchmarkRunner}. Alle Zeiten sind reale Laufzeiten in Nanosekunden, gemessen
+ * über Aktualisierung und Ausgabe eines Frames.
+ *
+ * @since 2.1
+ */
+public final class BenchmarkResult {
+    private final long frames;
+    private final long totalNanos;
+    private final long p50;
+    private final long p99;
+    private final long max;
+    private final double mean;
+    private final long allocatedBytes;
+
+    BenchmarkResult(LatencyHistogram frameTimes, long totalNanos, long allocatedBytes) {
+        this.frames = frameTimes.getCount();
+        this.totalNanos = totalNanos;
+        this.p50 = frameTimes.getPercentile(50);
+        this.p99 = frameTimes.getPercentile(99);
+        this.max = frameTimes.getMax();
+        this.mean = frameTimes.getMean();
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Gibt die Anzahl der gemessenen Frames zurück.
+     *
+     * @return die Anzahl der Frames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Gibt die gesamte Laufzeit der gemessenen Frames zurück.
+     *
+     * @return die Laufzeit in Nanosekunden
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Gibt die Anzahl der Frames pro Sekunde zurück, die im Mittel erreicht wurde.
+     *
+     * @return die Frames pro Sekunde
+     */
+    public double getFramesPerSecond() {
+        return totalNanos == 0 ? 0 : frames * (double) TimeUnit.SECONDS.toNanos(1) / totalNanos;
+    }
+
+    public long getMedianNanos() {
+        return p50;
+    }
+
+    public long getP99Nanos() {
+        return p99;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public double getMeanNanos() {
+        return mean;
+    }
+
+    /**
+     * Gibt den Speicher zurück, den der ausführende Thread während der gemessenen Frames angelegt hat.
+     *
+     * @return die Anzahl der Bytes oder -1, wenn die JVM die Messung nicht unterstützt
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Gibt den im Mittel pro Frame angelegten Speicher zurück.
+     *
+     * @return die Anzahl der Bytes pro Frame oder -1, wenn die JVM die Messung nicht unterstützt
+     */
+    public double getAllocatedBytesPerFrame() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return frames == 0 ? 0 : allocatedBytes / (double) frames;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("frames", frames)
+                .add("fps", String.format("%.1f", getFramesPerSecond()))
+                .add("mean", (long) (mean / 1000) + "us")
+                .add("p50", TimeUnit.NANOSECONDS.toMicros(p50) + "us")
+                .add("p99", TimeUnit.NANOSECONDS.toMicros(p99) + "us")
+                .add("max", TimeUnit.NANOSECONDS.toMicros(max) + "us")
+                .add("alloc", allocatedBytes < 0 ? "n/a" : (long) getAllocatedBytesPerFrame() + "B/frame")
+                .toString();
+    }
+}
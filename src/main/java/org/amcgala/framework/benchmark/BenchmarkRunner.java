@@ -0,0 +1,222 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.benchmark;
+
+import org.amcgala.Framework;
+import org.amcgala.framework.animation.Clock;
+import org.amcgala.framework.math.RandomSource;
+import org.amcgala.framework.statistics.FrameStatistics;
+import org.amcgala.framework.statistics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Führt eine Szene reproduzierbar für eine feste Anzahl von Frames aus und misst dabei die Laufzeit jedes Frames.
+ * <p/>
+ * Ein Lauf besteht aus zwei Schritten. {@link #prepare()} muss aufgerufen werden, bevor die Szene aufgebaut wird: Es
+ * legt den Startwert aller Zufallszahlengeneratoren fest und schaltet die {@link Clock} in den simulierten Betrieb.
+ * Die Hauptschleife des Frameworks muss mit {@link Framework#setManualLoop(boolean)} abgeschaltet werden, bevor die
+ * Szene hinzugefügt wird. Sonst berechnet der Animator schon vor dem Lauf eine unbestimmte Anzahl an Frames, und
+ * Animationen und Interpolationen beginnen bei jedem Lauf in einem anderen Zustand. {@link #run(Framework)} berechnet
+ * die Frames anschließend selbst. Vor jedem Frame wird die Uhr um genau einen Zeitschritt weitergestellt und
+ * gegebenenfalls die aufgezeichnete Eingabe abgespielt. Zwei Läufe mit gleichen Einstellungen berechnen dadurch
+ * dieselben Bilder, nur die gemessenen Zeiten unterscheiden sich.
+ * <p/>
+ * Unterstützt die JVM die Messung, wird zusätzlich der Speicher gezählt, den der ausführende Thread während der
+ * gemessenen Frames anlegt. Die Allokationsrate zeigt, wie viel Arbeit eine Szene dem Garbage Collector macht.
+ *
+ * <pre>
+ * BenchmarkRunner runner = new BenchmarkRunner(42);
+ * runner.prepare();
+ * Framework framework = Framework.createInstance(800, 600);
+ * framework.setManualLoop(true);
+ * framework.addScene(scene);
+ * BenchmarkResult result = runner.run(framework);
+ * </pre>
+ *
+ * @since 2.1
+ */
+public final class BenchmarkRunner {
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkRunner.class);
+
+    private final long seed;
+    private int warmupFrames = 120;
+    private int frames = 600;
+    private long stepNanos = TimeUnit.SECONDS.toNanos(1) / 60;
+    private InputRecording input;
+
+    /**
+     * Erzeugt einen neuen Runner.
+     *
+     * @param seed der Startwert aller Zufallszahlengeneratoren
+     */
+    public BenchmarkRunner(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWarmupFrames() {
+        return warmupFrames;
+    }
+
+    /**
+     * Legt fest, wie viele Frames vor der Messung berechnet werden, z.B. damit der JIT-Compiler die Hauptschleife
+     * übersetzt hat.
+     *
+     * @param warmupFrames die Anzahl der Frames
+     */
+    public void setWarmupFrames(int warmupFrames) {
+        checkArgument(warmupFrames >= 0, "Die Anzahl der Frames darf nicht negativ sein!");
+        this.warmupFrames = warmupFrames;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Legt fest, wie viele Frames gemessen werden.
+     *
+     * @param frames die Anzahl der Frames
+     */
+    public void setFrames(int frames) {
+        checkArgument(frames > 0, "Die Anzahl der Frames muss größer 0 sein!");
+        this.frames = frames;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Legt die simulierte Zeit fest, um die die Uhr pro Frame weitergestellt wird.
+     *
+     * @param stepNanos der Zeitschritt in Nanosekunden
+     */
+    public void setStepNanos(long stepNanos) {
+        checkArgument(stepNanos > 0, "Der Zeitschritt muss größer 0 sein!");
+        this.stepNanos = stepNanos;
+    }
+
+    public InputRecording getInput() {
+        return input;
+    }
+
+    /**
+     * Legt eine Aufzeichnung von Eingaben fest, die ab dem ersten Frame des Laufs abgespielt wird.
+     *
+     * @param input die Aufzeichnung oder {@code null}, wenn keine Eingaben abgespielt werden sollen
+     */
+    public void setInput(InputRecording input) {
+        this.input = input;
+    }
+
+    /**
+     * Legt den Startwert der Zufallszahlengeneratoren fest und schaltet die Uhr in den simulierten Betrieb. Muss vor
+     * dem Aufbau der Szene aufgerufen werden.
+     */
+    public void prepare() {
+        RandomSource.setSeed(seed);
+        Clock.setSimulated(true);
+    }
+
+    /**
+     * Führt die aktive Szene des Frameworks aus. Die Hauptschleife des Frameworks muss abgeschaltet sein, siehe
+     * {@link Framework#setManualLoop(boolean)}.
+     *
+     * @param framework das Framework
+     *
+     * @return das Ergebnis der Messung
+     */
+    public BenchmarkResult run(final Framework framework) {
+        checkNotNull(framework);
+        checkArgument(framework.isManualLoop(), "Die Hauptschleife des Frameworks muss abgeschaltet sein!");
+
+        framework.replayInput(input);
+        BenchmarkResult result = run(new Runnable() {
+            @Override
+            public void run() {
+                framework.update();
+                framework.show();
+            }
+        }, framework.getStatistics());
+        framework.replayInput(null);
+        return result;
+    }
+
+    /**
+     * Berechnet die Frames eines Laufs. Vor jedem Frame wird die Uhr um einen Zeitschritt weitergestellt.
+     *
+     * @param frame      berechnet einen Frame
+     * @param statistics die Laufzeitstatistik, die nach dem Aufwärmen zurückgesetzt wird
+     *
+     * @return das Ergebnis der Messung
+     */
+    BenchmarkResult run(Runnable frame, FrameStatistics statistics) {
+        checkArgument(Clock.isSimulated(), "prepare() muss vor dem Aufbau der Szene aufgerufen werden!");
+
+        LatencyHistogram frameTimes = new LatencyHistogram();
+        for (int i = 0; i < warmupFrames; i++) {
+            frame(frame);
+        }
+        statistics.reset();
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            frameTimes.record(frame(frame));
+        }
+        long total = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        BenchmarkResult result = new BenchmarkResult(frameTimes, total, allocated);
+        log.info("Benchmark mit Startwert {}: {}", seed, result);
+        return result;
+    }
+
+    private long frame(Runnable frame) {
+        Clock.advance(stepNanos);
+        long start = System.nanoTime();
+        frame.run();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Gibt den Speicher zurück, den der aktuelle Thread bisher angelegt hat.
+     *
+     * @return die Anzahl der Bytes oder -1, wenn die JVM die Messung nicht unterstützt
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.benchmark;
+
+import java.awt.Component;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Eine Aufzeichnung von Tastatur- und Mauseingaben. Zu jeder Eingabe wird gespeichert, vor welcher Aktualisierung
+ * des Frameworks sie eingetroffen ist. Beim Abspielen wird jede Eingabe wieder vor derselben Aktualisierung
+ * ausgelöst, so dass eine Szene unabhängig von der Geschwindigkeit der Ausgabe dieselben Eingaben sieht.
+ * <p/>
+ * Aufzeichnungen können mit {@link #write(OutputStream)} gespeichert und mit {@link #read(InputStream)} wieder
+ * geladen werden.
+ *
+ * @since 2.1
+ */
+public final class InputRecording {
+    private static final int MAGIC = 0x414d4349;
+    private static final int VERSION = 1;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private int replayIndex;
+
+    /**
+     * Zeichnet eine Eingabe auf. Die Eingaben müssen in zeitlicher Reihenfolge aufgezeichnet werden.
+     *
+     * @param update die Nummer der Aktualisierung, vor der die Eingabe eingetroffen ist
+     * @param event  die Eingabe
+     */
+    public synchronized void record(long update, InputEvent event) {
+        checkNotNull(event);
+        checkArgument(entries.isEmpty() || entries.get(entries.size() - 1).update <= update,
+                "Eingaben müssen in zeitlicher Reihenfolge aufgezeichnet werden!");
+
+        Entry entry = new Entry();
+        entry.update = update;
+        entry.id = event.getID();
+        entry.when = event.getWhen();
+        entry.modifiers = event.getModifiersEx();
+        if (event instanceof KeyEvent) {
+            KeyEvent e = (KeyEvent) event;
+            entry.keyCode = e.getKeyCode();
+            entry.keyChar = e.getKeyChar();
+        } else if (event instanceof MouseEvent) {
+            MouseEvent e = (MouseEvent) event;
+            entry.x = e.getX();
+            entry.y = e.getY();
+            entry.clickCount = e.getClickCount();
+            entry.button = e.getButton();
+            if (event instanceof MouseWheelEvent) {
+                MouseWheelEvent w = (MouseWheelEvent) event;
+                entry.wheel = true;
+                entry.scrollType = w.getScrollType();
+                entry.scrollAmount = w.getScrollAmount();
+                entry.wheelRotation = w.getWheelRotation();
+            }
+        } else {
+            throw new IllegalArgumentException("Nicht unterstützte Eingabe: " + event);
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Gibt die Anzahl der aufgezeichneten Eingaben zurück.
+     *
+     * @return die Anzahl der Eingaben
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Setzt das Abspielen auf den Anfang der Aufzeichnung zurück.
+     */
+    public synchronized void rewind() {
+        replayIndex = 0;
+    }
+
+    /**
+     * Gibt alle Eingaben zurück, die bis einschließlich der angegebenen Aktualisierung noch nicht abgespielt wurden.
+     *
+     * @param update die Nummer der aktuellen Aktualisierung
+     * @param source die Komponente, die als Quelle der Eingaben eingetragen wird
+     *
+     * @return die abzuspielenden Eingaben in aufgezeichneter Reihenfolge
+     */
+    public synchronized List<InputEvent> replay(long update, Component source) {
+        if (replayIndex >= entries.size() || entries.get(replayIndex).update > update) {
+            return Collections.emptyList();
+        }
+
+        List<InputEvent> events = new ArrayList<InputEvent>();
+        while (replayIndex < entries.size() && entries.get(replayIndex).update <= update) {
+            events.add(entries.get(replayIndex++).toEvent(source));
+        }
+        return events;
+    }
+
+    /**
+     * Schreibt die Aufzeichnung in einen Stream.
+     *
+     * @param out der Stream
+     *
+     * @throws IOException wenn nicht geschrieben werden konnte
+     */
+    public synchronized void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(entries.size());
+        for (Entry e : entries) {
+            data.writeLong(e.update);
+            data.writeInt(e.id);
+            data.writeLong(e.when);
+            data.writeInt(e.modifiers);
+            data.writeInt(e.keyCode);
+            data.writeChar(e.keyChar);
+            data.writeInt(e.x);
+            data.writeInt(e.y);
+            data.writeInt(e.clickCount);
+            data.writeInt(e.button);
+            data.writeBoolean(e.wheel);
+            data.writeInt(e.scrollType);
+            data.writeInt(e.scrollAmount);
+            data.writeInt(e.wheelRotation);
+        }
+        data.flush();
+    }
+
+    /**
+     * Liest eine mit {@link #write(OutputStream)} gespeicherte Aufzeichnung.
+     *
+     * @param in der Stream
+     *
+     * @return die gelesene Aufzeichnung
+     *
+     * @throws IOException wenn nicht gelesen werden konnte oder das Format unbekannt ist
+     */
+    public static InputRecording read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Keine Eingabeaufzeichnung");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Nicht unterstützte Version " + version);
+        }
+
+        InputRecording recording = new InputRecording();
+        int size = data.readInt();
+        for (int i = 0; i < size; i++) {
+            Entry e = new Entry();
+            e.update = data.readLong();
+            e.id = data.readInt();
+            e.when = data.readLong();
+            e.modifiers = data.readInt();
+            e.keyCode = data.readInt();
+            e.keyChar = data.readChar();
+            e.x = data.readInt();
+            e.y = data.readInt();
+            e.clickCount = data.readInt();
+            e.button = data.readInt();
+            e.wheel = data.readBoolean();
+            e.scrollType = data.readInt();
+            e.scrollAmount = data.readInt();
+            e.wheelRotation = data.readInt();
+            recording.entries.add(e);
+        }
+        return recording;
+    }
+
+    /**
+     * Eine aufgezeichnete Eingabe.
+     */
+    private static final class Entry {
+        private long update;
+        private int id;
+        private long when;
+        /**
+         * Die erweiterten Modifikatoren, z.B. {@link InputEvent#SHIFT_DOWN_MASK} oder
+         * {@link InputEvent#BUTTON1_DOWN_MASK}.
+         */
+        private int modifiers;
+        private int keyCode;
+        private char keyChar;
+        private int x;
+        private int y;
+        private int clickCount;
+        private int button;
+        private boolean wheel;
+        private int scrollType;
+        private int scrollAmount;
+        private int wheelRotation;
+
+        private InputEvent toEvent(Component source) {
+            if (id >= KeyEvent.KEY_FIRST && id <= KeyEvent.KEY_LAST) {
+                return new KeyEvent(source, id, when, modifiers, keyCode, keyChar);
+            } else if (wheel) {
+                return new MouseWheelEvent(source, id, when, modifiers, x, y, clickCount, false,
+                        scrollType, scrollAmount, wheelRotation);
+            } else {
+                return new MouseEvent(source, id, when, modifiers, x, y, clickCount, false, button);
+            }
+        }
+    }
+}
@@ -17,6 +17,9 @@ package org.amcgala.framework.camera;
 import org.amcgala.framework.math.Matrix;
 import org.amcgala.framework.math.Quaternion;
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.Ray;
+
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Eine abstrakte Implementierung des {@code Camera} Interface.
@@ -66,13 +69,6 @@ public abstract class AbstractCamera implements Camera {
         projectionMatrix = Matrix.identity(4, 4);
     }
 
-    /**
-     * Gibt die Projektionsmatrix der Kamera zurück.
-     *
-     * @return die aktuelle Projektionsmatrix
-     */
-    protected abstract Matrix getProjectionMatrix();
-
     /**
      * Gibt die Blickrichtung der Kamera zurück.
      *
@@ -141,6 +137,29 @@ public abstract class AbstractCamera implements Camera {
         return parallel;
     }
 
+    @Override
+    public Ray getRay(double x, double y) {
+        // Ein Punkt p wird genau dann auf (x, y) abgebildet, wenn er auf den beiden Ebenen
+        // (m0 - x * m3) * p = 0 und (m1 - y * m3) * p = 0 liegt. Der Strahl ist ihre Schnittgerade.
+        double[][] m = getProjectionMatrix().getArray();
+        Vector3d a = new Vector3d(m[0][0] - x * m[3][0], m[0][1] - x * m[3][1], m[0][2] - x * m[3][2]);
+        Vector3d b = new Vector3d(m[1][0] - y * m[3][0], m[1][1] - y * m[3][1], m[1][2] - y * m[3][2]);
+        double da = x * m[3][3] - m[0][3];
+        double db = y * m[3][3] - m[1][3];
+        Vector3d d = a.cross(b);
+        double lengthSquared = d.lengthSquared();
+        checkState(lengthSquared > 0, "Die Projektion bildet keine Gerade auf diesen Punkt ab!");
+        Vector3d point = b.cross(d).times(da).add(d.cross(a).times(db)).times(1 / lengthSquared);
+
+        Vector3d view = direction.sub(location);
+        if (d.dot(view) < 0) {
+            d = d.times(-1);
+        }
+        // Der Ursprung ist der Punkt der Geraden, der der Kamera am nächsten liegt.
+        Vector3d origin = point.add(d.times(location.sub(point).dot(d) / lengthSquared));
+        return new Ray(origin, d.normalize());
+    }
+
     @Override
     public int getWidth() {
         return width;
@@ -14,7 +14,9 @@
  */
 package org.amcgala.framework.camera;
 
+import org.amcgala.framework.math.Matrix;
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.Ray;
 import org.amcgala.framework.renderer.Pixel;
 
 /**
@@ -50,6 +52,29 @@ public interface Camera {
      */
     Pixel getImageSpaceCoordinates(Vector3d vector3d);
 
+    /**
+     * Gibt die Projektionsmatrix der Kamera zurück. Sie bildet einen Punkt in homogenen Koordinaten ab, die x- und
+     * y-Koordinate im Bildraum ergeben sich nach der Division durch die w-Koordinate.
+     *
+     * @return die aktuelle Projektionsmatrix
+     *
+     * @since 2.1
+     */
+    Matrix getProjectionMatrix();
+
+    /**
+     * Gibt den Strahl zurück, dessen Punkte auf die angegebenen Koordinaten im Bildraum abgebildet werden. Der Strahl
+     * beginnt auf Höhe der Kamera und zeigt in Blickrichtung.
+     *
+     * @param x die x-Koordinate im Bildraum
+     * @param y die y-Koordinate im Bildraum
+     *
+     * @return der Strahl mit normiertem Richtungsvektor
+     *
+     * @since 2.1
+     */
+    Ray getRay(double x, double y);
+
     /**
      * Gibt die Position der Kamera zurück.
      *
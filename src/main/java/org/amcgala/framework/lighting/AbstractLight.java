@@ -1,6 +1,7 @@
 package org.amcgala.framework.lighting;
 
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.scenegraph.Node;
 
 import java.awt.Color;
 
@@ -28,6 +29,56 @@ public abstract class AbstractLight implements Light {
     protected double linearAttenuation = 0;
     protected double exponentialAttenuation = 1;
 
+    /**
+     * Der Knoten, an dem das Licht hängt. Ändert sich das Licht über einen Setter, werden die Lichtlisten seines
+     * Teilbaums verworfen.
+     */
+    private volatile Node node;
+
+
+    /**
+     * Gibt den Knoten zurück, an dem das Licht hängt.
+     *
+     * @return der Knoten oder {@code null}, wenn das Licht noch nicht zum Scenegraph hinzugefügt wurde
+     *
+     * @since 2.1
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    /**
+     * Legt den Knoten fest, an dem das Licht hängt. Wird von {@link Node#addLight(Light)} aufgerufen.
+     *
+     * @param node der Knoten
+     *
+     * @since 2.1
+     */
+    public void setNode(Node node) {
+        this.node = node;
+    }
+
+    /**
+     * Gibt das ambiente Licht zurück, das zusätzlich zu dieser Lichtquelle wirkt.
+     *
+     * @return das ambiente Licht oder {@code null}
+     *
+     * @since 2.1
+     */
+    public AmbientLight getAmbient() {
+        return ambient;
+    }
+
+    /**
+     * Gibt die Richtung eines Spotlights zurück.
+     *
+     * @return die Richtung oder {@code null}, wenn die Lichtquelle keine Richtung hat
+     *
+     * @since 2.1
+     */
+    public Vector3d getDirection() {
+        return direction;
+    }
 
     /**
      * Gibt die Position des Pointlights zurück.
@@ -43,6 +94,7 @@ public abstract class AbstractLight implements Light {
      */
     public void setPosition(Vector3d position) {
         this.position = position;
+        changed();
     }
 
     /**
@@ -64,6 +116,7 @@ public abstract class AbstractLight implements Light {
             throw new IllegalArgumentException("Die ambiente Intensität muss zwischen 0.0 und 1.0 liegen!");
         } else {
             this.intensity = pointIntensity;
+            changed();
         }
     }
 
@@ -93,6 +146,7 @@ public abstract class AbstractLight implements Light {
      */
     public void setColor(Color color) {
         this.color = color;
+        changed();
     }
 
     /**
@@ -111,6 +165,7 @@ public abstract class AbstractLight implements Light {
      */
     public void setConstantAttenuation(double constantAttenuation) {
         this.constantAttenuation = constantAttenuation;
+        changed();
     }
 
     /**
@@ -129,6 +184,7 @@ public abstract class AbstractLight implements Light {
      */
     public void setLinearAttenuation(double linearAttenuation) {
         this.linearAttenuation = linearAttenuation;
+        changed();
     }
 
     /**
@@ -147,5 +203,43 @@ public abstract class AbstractLight implements Light {
      */
     public void setExponentialAttenuation(double exponentialAttenuation) {
         this.exponentialAttenuation = exponentialAttenuation;
+        changed();
+    }
+
+    /**
+     * Gibt die Entfernung zur Lichtquelle zurück, ab der der Abschwächungsfaktor
+     * 1 / (konstant + linear * d + exponentiell * d²) unter einen Grenzwert fällt.
+     *
+     * @param factor der Grenzwert des Abschwächungsfaktors
+     *
+     * @return die Entfernung oder {@link Double#POSITIVE_INFINITY}, wenn das Licht keine Position hat oder nicht mit der
+     *         Entfernung abgeschwächt wird
+     *
+     * @since 2.1
+     */
+    public double getRange(double factor) {
+        if (position == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double c = constantAttenuation - 1 / factor;
+        if (c >= 0) {
+            return 0;
+        }
+        if (exponentialAttenuation > 0) {
+            double e = exponentialAttenuation;
+            double l = linearAttenuation;
+            return (-l + Math.sqrt(l * l - 4 * e * c)) / (2 * e);
+        }
+        if (linearAttenuation > 0) {
+            return -c / linearAttenuation;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private void changed() {
+        Node n = node;
+        if (n != null) {
+            n.invalidateLights();
+        }
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.lighting;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Entfernt Lichter aus einer Liste, deren Abschwächung innerhalb eines Quaders so stark ist, dass sie keinen sichtbaren
+ * Beitrag mehr leisten. Als vernachlässigbar gilt ein Licht, dessen Abschwächungsfaktor an jedem Punkt des Quaders
+ * unter {@link #NEGLIGIBLE} liegt, also unter einer Stufe eines 8 Bit Farbkanals. Da nur die abgeschwächten Anteile
+ * vernachlässigbar sind, wird ein entferntes Licht durch sein ambientes Licht ersetzt.
+ *
+ * @since 2.1
+ */
+public final class LightCulling {
+    /**
+     * Der Abschwächungsfaktor, unter dem ein Licht als vernachlässigbar gilt.
+     */
+    public static final double NEGLIGIBLE = 1.0 / 256;
+
+    private LightCulling() {
+    }
+
+    /**
+     * Gibt alle Lichter zurück, die innerhalb eines achsenparallelen Quaders nicht vernachlässigbar sind. Ein Licht,
+     * dessen abgeschwächte Anteile im ganzen Quader vernachlässigbar sind, wird durch sein ambientes Licht ersetzt,
+     * sofern es eines hat. Der ambiente Anteil der Beleuchtung bleibt dadurch unverändert.
+     *
+     * @param lights die Lichter
+     * @param bounds der Quader als {minX, minY, minZ, maxX, maxY, maxZ}
+     *
+     * @return die relevanten Lichter in der ursprünglichen Reihenfolge
+     */
+    public static List<Light> cull(List<Light> lights, double[] bounds) {
+        ImmutableList.Builder<Light> relevant = null;
+        for (int i = 0; i < lights.size(); i++) {
+            Light light = lights.get(i);
+            boolean keep = isRelevant(light, bounds);
+            if (!keep && relevant == null) {
+                relevant = ImmutableList.builder();
+                relevant.addAll(lights.subList(0, i));
+            }
+            if (keep && relevant != null) {
+                relevant.add(light);
+            } else if (!keep) {
+                AmbientLight ambient = ((AbstractLight) light).getAmbient();
+                if (ambient != null) {
+                    relevant.add(ambient);
+                }
+            }
+        }
+        return relevant == null ? lights : relevant.build();
+    }
+
+    private static boolean isRelevant(Light light, double[] bounds) {
+        if (!(light instanceof AbstractLight)) {
+            return true;
+        }
+        AbstractLight l = (AbstractLight) light;
+        double range = l.getRange(NEGLIGIBLE);
+        if (Double.isInfinite(range)) {
+            return true;
+        }
+
+        // Abstand der Lichtquelle zum nächsten Punkt des Quaders
+        double dx = Math.max(0, Math.max(bounds[0] - l.position.x, l.position.x - bounds[3]));
+        double dy = Math.max(0, Math.max(bounds[1] - l.position.y, l.position.y - bounds[4]));
+        double dz = Math.max(0, Math.max(bounds[2] - l.position.z, l.position.z - bounds[5]));
+        return dx * dx + dy * dy + dz * dz <= range * range;
+    }
+}
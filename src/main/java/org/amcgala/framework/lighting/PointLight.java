@@ -16,6 +16,7 @@ package org.amcgala.framework.lighting;
 
 import org.amcgala.framework.appearance.Appearance;
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.math.util.FastMath;
 
 import java.awt.Color;
 
@@ -29,9 +30,6 @@ import java.awt.Color;
  */
 public class PointLight extends AbstractLight {
 
-    private AmbientLight ambient;
-
-
     /**
      * QuickKonstruktor, erstellt ein Licht mit den Basiseinstellungen und möglichst wenig Parametern.
      *
@@ -69,8 +67,7 @@ public class PointLight extends AbstractLight {
 
     @Override
     public Color interpolate(Color color, Vector3d oberflaechennormale, Vector3d camera, Appearance appearance) {
-        Vector3d normiert = oberflaechennormale.copy();
-        normiert.normalize();
+        Vector3d normiert = oberflaechennormale;
 
         double angle = this.position.dot(oberflaechennormale);
 
@@ -100,12 +97,12 @@ public class PointLight extends AbstractLight {
             /*
                 * Berechnung des Austrittsvektors
                 */
-            Vector3d rj = normiert.times(normiert.dot(this.position));
+            double rj = normiert.dot(this.position);
 
             /*
                 * Berechnung der Spiegelreflexion
                 */
-            double result = Math.pow(rj.dot(camera), appearance.getSpecularExponent());
+            double result = FastMath.pow(rj * normiert.dot(camera), appearance.getSpecularExponent());
 
             double specularRed = pointIntensityRed * appearance.getSpecularCoefficient() * result;
             double specularGreen = pointIntensityGreen * appearance.getSpecularCoefficient() * result;
@@ -114,13 +111,12 @@ public class PointLight extends AbstractLight {
             /*
                 * Berechnung der Distanz von dem Pixel zur Lichtquelle.
                 */
-            Vector3d distanceVector = this.position.sub(normiert);
-            double distance = Math.sqrt(Math.pow(distanceVector.x, 2) + Math.pow(distanceVector.x, 2) + Math.pow(distanceVector.z, 2));
+            double distance = Math.sqrt(this.position.distanceSquared(normiert));
 
             /*
                 * Berechnung der Abschwächung.
                 */
-            double attenuation = Math.min(1, 1 / (this.constantAttenuation + this.linearAttenuation * distance + this.exponentialAttenuation * Math.pow(distance, 2)));
+            double attenuation = Math.min(1, 1 / (this.constantAttenuation + this.linearAttenuation * distance + this.exponentialAttenuation * distance * distance));
 
             /*
                 * Berechnung der finalen Farbwerte.
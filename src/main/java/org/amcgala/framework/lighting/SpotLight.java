@@ -16,6 +16,7 @@ package org.amcgala.framework.lighting;
 
 import org.amcgala.framework.appearance.Appearance;
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.math.util.FastMath;
 
 import java.awt.Color;
 
@@ -52,11 +53,9 @@ public class SpotLight extends AbstractLight {
 
     @Override
     public Color interpolate(Color color, Vector3d pixelposition, Vector3d camera, Appearance appearance) {
-        pixelposition.normalize();
-        direction.normalize();
         double angle = this.position.dot(pixelposition);
         double spotFactor = pixelposition.dot(direction);
-        double cutOff = Math.cos(spotFactor);
+        double cutOff = FastMath.cos(spotFactor);
 
         /*
            * Berechnung der ambienten Intensität.
@@ -85,12 +84,12 @@ public class SpotLight extends AbstractLight {
                 /*
                      * Berechnung des Austrittsvektors
                      */
-                Vector3d rj = pixelposition.times(pixelposition.dot(this.position));
+                double rj = pixelposition.dot(this.position);
 
                 /*
                      * Berechnung der Spiegelreflexion
                      */
-                double result = Math.pow(rj.dot(camera), appearance.getSpecularExponent());
+                double result = FastMath.pow(rj * pixelposition.dot(camera), appearance.getSpecularExponent());
 
                 double specularRed = pointIntensityRed * appearance.getSpecularCoefficient() * result;
                 double specularGreen = pointIntensityGreen * appearance.getSpecularCoefficient() * result;
@@ -99,13 +98,12 @@ public class SpotLight extends AbstractLight {
                 /*
                      * Berechnung der Distanz von dem Pixel zur Lichtquelle.
                      */
-                Vector3d distanceVector = this.position.sub(pixelposition);
-                double distance = Math.sqrt(Math.pow(distanceVector.x, 2) + Math.pow(distanceVector.x, 2) + Math.pow(distanceVector.z, 2));
+                double distance = Math.sqrt(this.position.distanceSquared(pixelposition));
 
                 /*
                      * Berechnung der Abschwächung.
                      */
-                double attenuation = Math.min(1, 1 / (this.constantAttenuation + this.linearAttenuation * distance + this.exponentialAttenuation * Math.pow(distance, 2)));
+                double attenuation = Math.min(1, 1 / (this.constantAttenuation + this.linearAttenuation * distance + this.exponentialAttenuation * distance * distance));
 
                 double spotAttenuation = 1.0 - (1.0 - spotFactor) * 1.0 / (1.0 - cutOff);
 
@@ -50,13 +50,38 @@ public class CholeskyDecomposition implements java.io.Serializable {
      * @return Structure to access L and isspd flag.
      */
     public CholeskyDecomposition(Matrix Arg) {
+        this(Arg.getArray(), Arg.getRowDimension(), Arg.getColumnDimension(), false);
+    }
 
+    /**
+     * Cholesky algorithm for a matrix in row-major storage.
+     *
+     * @param Arg Square, symmetric matrix.
+     *
+     * @since 2.1
+     */
+    public CholeskyDecomposition(DenseMatrix Arg) {
+        this(Arg.getArrayCopy(), Arg.getRowDimension(), Arg.getColumnDimension(), true);
+    }
 
+    /**
+     * Zerlegt eine Matrix, ohne Speicher für L anzulegen. A wird mit L überschrieben.
+     *
+     * @param Arg Square, symmetric matrix, overwritten with L
+     *
+     * @return Structure to access L and isspd flag.
+     *
+     * @since 2.1
+     */
+    public static CholeskyDecomposition inPlace(Matrix Arg) {
+        return new CholeskyDecomposition(Arg.getArray(), Arg.getRowDimension(), Arg.getColumnDimension(), true);
+    }
+
+    private CholeskyDecomposition(double[][] A, int rows, int columns, boolean inPlace) {
         // Initialize.
-        double[][] A = Arg.getArray();
-        n = Arg.getRowDimension();
-        L = new double[n][n];
-        isspd = (Arg.getColumnDimension() == n);
+        n = rows;
+        L = inPlace ? A : new double[n][n];
+        isspd = (columns == n);
         // Main loop.
         for (int j = 0; j < n; j++) {
             double[] Lrowj = L[j];
@@ -67,15 +92,22 @@ public class CholeskyDecomposition implements java.io.Serializable {
                 for (int i = 0; i < k; i++) {
                     s += Lrowk[i] * Lrowj[i];
                 }
-                Lrowj[k] = s = (A[j][k] - s) / L[k][k];
+                // A[j][k] wird gelesen, bevor L ihn bei der Zerlegung ohne Kopie überschreibt.
+                double ajk = A[j][k];
+                isspd = isspd & (A[k][j] == ajk);
+                Lrowj[k] = s = (ajk - s) / L[k][k];
                 d = d + s * s;
-                isspd = isspd & (A[k][j] == A[j][k]);
             }
             d = A[j][j] - d;
             isspd = isspd & (d > 0.0);
             L[j][j] = Math.sqrt(Math.max(d, 0.0));
-            for (int k = j + 1; k < n; k++) {
-                L[j][k] = 0.0;
+        }
+        if (inPlace) {
+            // Das obere Dreieck wird erst jetzt gelöscht, weil es für die Prüfung der Symmetrie gebraucht wird.
+            for (int j = 0; j < n; j++) {
+                for (int k = j + 1; k < n; k++) {
+                    L[j][k] = 0.0;
+                }
             }
         }
     }
@@ -160,28 +192,67 @@ public class CholeskyDecomposition implements java.io.Serializable {
         // Copy right hand side.
         double[][] X = B.getArrayCopy();
         int nx = B.getColumnDimension();
+        substitute(X, nx);
+        return new Matrix(X, n, nx);
+    }
+
+    /**
+     * Löst A*X = B, ohne B zu kopieren. B wird mit der Lösung überschrieben. Die Zerlegung kann so für beliebig viele
+     * rechte Seiten wiederverwendet werden.
+     *
+     * @param B A Matrix with as many rows as A and any number of columns, overwritten with X
+     *
+     * @return B, containing X so that L*L'*X = B
+     *
+     * @throws IllegalArgumentException Matrix row dimensions must agree.
+     * @throws RuntimeException         Matrix is not symmetric positive definite.
+     * @since 2.1
+     */
+    public Matrix solveInPlace(Matrix B) {
+        if (B.getRowDimension() != n) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        if (!isspd) {
+            throw new RuntimeException("Matrix is not symmetric positive definite.");
+        }
+        substitute(B.getArray(), B.getColumnDimension());
+        return B;
+    }
+
+    private void substitute(double[][] X, int nx) {
+        // Die Zeilen der rechten Seiten werden als Ganzes verrechnet. Jeder Eintrag wird dabei in derselben
+        // Reihenfolge berechnet wie spaltenweise.
 
         // Solve L*Y = B;
         for (int k = 0; k < n; k++) {
-            for (int j = 0; j < nx; j++) {
-                for (int i = 0; i < k; i++) {
-                    X[k][j] -= X[i][j] * L[k][i];
+            double[] Xrowk = X[k];
+            for (int i = 0; i < k; i++) {
+                double[] Xrowi = X[i];
+                double lki = L[k][i];
+                for (int j = 0; j < nx; j++) {
+                    Xrowk[j] -= Xrowi[j] * lki;
                 }
-                X[k][j] /= L[k][k];
+            }
+            double lkk = L[k][k];
+            for (int j = 0; j < nx; j++) {
+                Xrowk[j] /= lkk;
             }
         }
 
         // Solve L'*X = Y;
         for (int k = n - 1; k >= 0; k--) {
-            for (int j = 0; j < nx; j++) {
-                for (int i = k + 1; i < n; i++) {
-                    X[k][j] -= X[i][j] * L[i][k];
+            double[] Xrowk = X[k];
+            for (int i = k + 1; i < n; i++) {
+                double[] Xrowi = X[i];
+                double lik = L[i][k];
+                for (int j = 0; j < nx; j++) {
+                    Xrowk[j] -= Xrowi[j] * lik;
                 }
-                X[k][j] /= L[k][k];
+            }
+            double lkk = L[k][k];
+            for (int j = 0; j < nx; j++) {
+                Xrowk[j] /= lkk;
             }
         }
-
-
-        return new Matrix(X, n, nx);
     }
 }
@@ -0,0 +1,496 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.math;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Eine Matrix, deren Einträge zeilenweise in einem einzigen Array liegen. Der Eintrag in Zeile {@code i} und Spalte
+ * {@code j} steht an der Stelle {@code i * columns + j}.
+ * <p/>
+ * Im Gegensatz zu {@link Matrix} ist die Klasse für große Matrizen gedacht, wie sie beim Lösen linearer
+ * Gleichungssysteme für Netze und Ausgleichsrechnungen entstehen. Die Multiplikation arbeitet blockweise, so dass die
+ * benötigten Teile beider Matrizen im Cache bleiben. Produkte mit einer transponierten Matrix werden ohne die
+ * Transponierte berechnet. Ab {@value #PARALLEL_THRESHOLD} Multiplikationen werden die Zeilen des Ergebnisses auf
+ * mehrere Threads aufgeteilt. Jeder Eintrag wird dabei in derselben Reihenfolge summiert wie von
+ * {@link Matrix#times(Matrix)}, die Ergebnisse sind also identisch und unabhängig von der Anzahl der Threads.
+ * <p/>
+ * {@link LUDecomposition}, {@link QRDecomposition} und {@link CholeskyDecomposition} können direkt aus einer
+ * DenseMatrix erzeugt werden.
+ *
+ * @since 2.1
+ */
+public final class DenseMatrix {
+    /**
+     * Die Anzahl der Multiplikationen, ab der ein Produkt parallel berechnet wird.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 18;
+    /**
+     * Die Kantenlänge der Blöcke, in denen transponiert wird.
+     */
+    private static final int BLOCK_SIZE = 64;
+    /**
+     * Die Kantenlänge der Blöcke des Ergebnisses, die in lokalen Variablen summiert werden.
+     */
+    private static final int TILE = 4;
+    /**
+     * Die Anzahl der Streifen von B, die gemeinsam im Cache gehalten werden.
+     */
+    private static final int PANELS_PER_BLOCK = 16;
+    private static final int MIN_ROWS_PER_TASK = 8;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("amcgala-matrix-%d").build());
+
+    private final int rows;
+    private final int columns;
+    private final double[] data;
+
+    /**
+     * Erzeugt eine Matrix, deren Einträge alle 0 sind.
+     *
+     * @param rows    die Anzahl der Zeilen
+     * @param columns die Anzahl der Spalten
+     */
+    public DenseMatrix(int rows, int columns) {
+        this(rows, columns, new double[checkDimensions(rows, columns)]);
+    }
+
+    /**
+     * Erzeugt eine Matrix über einem vorhandenen Array. Das Array wird nicht kopiert.
+     *
+     * @param rows    die Anzahl der Zeilen
+     * @param columns die Anzahl der Spalten
+     * @param data    die Einträge zeilenweise
+     */
+    public DenseMatrix(int rows, int columns, double[] data) {
+        checkArgument(checkDimensions(rows, columns) == checkNotNull(data).length,
+                "Das Array muss genau %s Einträge haben!", rows * columns);
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+    }
+
+    /**
+     * Erzeugt eine Kopie einer {@link Matrix}.
+     *
+     * @param matrix die Matrix
+     */
+    public DenseMatrix(Matrix matrix) {
+        this(matrix.getRowDimension(), matrix.getColumnDimension(), matrix.getRowPackedCopy());
+    }
+
+    /**
+     * Erzeugt eine Einheitsmatrix.
+     *
+     * @param size die Anzahl der Zeilen und Spalten
+     *
+     * @return die Einheitsmatrix
+     */
+    public static DenseMatrix identity(int size) {
+        DenseMatrix identity = new DenseMatrix(size, size);
+        for (int i = 0; i < size; i++) {
+            identity.data[i * size + i] = 1;
+        }
+        return identity;
+    }
+
+    private static int checkDimensions(int rows, int columns) {
+        checkArgument(rows > 0 && columns > 0, "Zeilen und Spalten müssen größer 0 sein!");
+        long size = (long) rows * columns;
+        checkArgument(size <= Integer.MAX_VALUE, "Die Matrix ist zu groß!");
+        return (int) size;
+    }
+
+    public int getRowDimension() {
+        return rows;
+    }
+
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /**
+     * Gibt das Array zurück, in dem die Einträge zeilenweise liegen. Änderungen am Array ändern die Matrix.
+     *
+     * @return das Array der Einträge
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Gibt die Einträge als zweidimensionales Array zurück.
+     *
+     * @return eine Kopie der Einträge, indiziert nach Zeile und Spalte
+     */
+    public double[][] getArrayCopy() {
+        double[][] array = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data, i * columns, array[i], 0, columns);
+        }
+        return array;
+    }
+
+    /**
+     * Wandelt die Matrix in eine {@link Matrix} um.
+     *
+     * @return eine Kopie als Matrix
+     */
+    public Matrix toMatrix() {
+        return new Matrix(getArrayCopy(), rows, columns);
+    }
+
+    public DenseMatrix copy() {
+        return new DenseMatrix(rows, columns, data.clone());
+    }
+
+    public double get(int row, int column) {
+        return data[index(row, column)];
+    }
+
+    public void set(int row, int column, double value) {
+        data[index(row, column)] = value;
+    }
+
+    private int index(int row, int column) {
+        checkElementIndex(row, rows);
+        checkElementIndex(column, columns);
+        return row * columns + column;
+    }
+
+    /**
+     * Berechnet die Transponierte. Die Einträge werden blockweise umkopiert.
+     *
+     * @return die Transponierte
+     */
+    public DenseMatrix transpose() {
+        double[] t = new double[data.length];
+        for (int ii = 0; ii < rows; ii += BLOCK_SIZE) {
+            int iEnd = Math.min(ii + BLOCK_SIZE, rows);
+            for (int jj = 0; jj < columns; jj += BLOCK_SIZE) {
+                int jEnd = Math.min(jj + BLOCK_SIZE, columns);
+                for (int i = ii; i < iEnd; i++) {
+                    for (int j = jj; j < jEnd; j++) {
+                        t[j * rows + i] = data[i * columns + j];
+                    }
+                }
+            }
+        }
+        return new DenseMatrix(columns, rows, t);
+    }
+
+    public DenseMatrix plus(DenseMatrix b) {
+        checkSameDimensions(b);
+        double[] result = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            result[i] = data[i] + b.data[i];
+        }
+        return new DenseMatrix(rows, columns, result);
+    }
+
+    public DenseMatrix minus(DenseMatrix b) {
+        checkSameDimensions(b);
+        double[] result = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            result[i] = data[i] - b.data[i];
+        }
+        return new DenseMatrix(rows, columns, result);
+    }
+
+    public DenseMatrix times(double s) {
+        double[] result = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            result[i] = data[i] * s;
+        }
+        return new DenseMatrix(rows, columns, result);
+    }
+
+    private void checkSameDimensions(DenseMatrix b) {
+        checkArgument(rows == b.rows && columns == b.columns, "Die Matrizen müssen gleich groß sein!");
+    }
+
+    /**
+     * Multipliziert die Matrix mit einem Spaltenvektor.
+     *
+     * @param x der Vektor mit {@link #getColumnDimension()} Einträgen
+     *
+     * @return das Produkt mit {@link #getRowDimension()} Einträgen
+     */
+    public double[] times(double[] x) {
+        checkArgument(x.length == columns, "Der Vektor muss %s Einträge haben!", columns);
+        double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            int row = i * columns;
+            double s = 0;
+            for (int k = 0; k < columns; k++) {
+                s += data[row + k] * x[k];
+            }
+            result[i] = s;
+        }
+        return result;
+    }
+
+    /**
+     * Berechnet das Produkt A * B.
+     *
+     * @param b die Matrix B
+     *
+     * @return das Produkt
+     */
+    public DenseMatrix times(DenseMatrix b) {
+        checkArgument(columns == b.rows, "Die inneren Dimensionen müssen übereinstimmen!");
+        return multiply(data, columns, 1, b.data, b.columns, 1, rows, columns, b.columns);
+    }
+
+    /**
+     * Berechnet das Produkt A' * B, ohne A zu transponieren. Wird z.B. für die Normalengleichungen A' * A * x = A' * b
+     * einer Ausgleichsrechnung benötigt.
+     *
+     * @param b die Matrix B mit so vielen Zeilen wie A
+     *
+     * @return das Produkt
+     */
+    public DenseMatrix transposeTimes(DenseMatrix b) {
+        checkArgument(rows == b.rows, "Die Matrizen müssen gleich viele Zeilen haben!");
+        return multiply(data, 1, columns, b.data, b.columns, 1, columns, rows, b.columns);
+    }
+
+    /**
+     * Berechnet das Produkt A * B', ohne B zu transponieren.
+     *
+     * @param b die Matrix B mit so vielen Spalten wie A
+     *
+     * @return das Produkt
+     */
+    public DenseMatrix timesTranspose(DenseMatrix b) {
+        checkArgument(columns == b.columns, "Die Matrizen müssen gleich viele Spalten haben!");
+        return multiply(data, columns, 1, b.data, 1, b.columns, rows, columns, b.rows);
+    }
+
+    /**
+     * Berechnet das Produkt zweier Matrizen, deren Eintrag (i, k) jeweils an der Stelle
+     * {@code i * rowStride + k * columnStride} steht. Über die Schrittweiten werden auch die Produkte mit
+     * transponierten Matrizen berechnet.
+     * <p/>
+     * B wird zuerst in Streifen aus {@value #TILE} Spalten umkopiert, deren Einträge zeilenweise hintereinander
+     * liegen. Jeder Thread kopiert ebenso immer {@value #TILE} Zeilen von A in einen Streifen und multipliziert ihn mit
+     * {@value #PANELS_PER_BLOCK} Streifen von B, solange diese im Cache liegen. Ein Block aus TILE x TILE Einträgen des
+     * Ergebnisses wird dabei vollständig in lokalen Variablen summiert.
+     */
+    private static DenseMatrix multiply(final double[] a, final int aRowStride, final int aColumnStride,
+                                        double[] b, int bRowStride, int bColumnStride,
+                                        final int resultRows, final int inner, final int resultColumns) {
+        final double[] packed = pack(b, bRowStride, bColumnStride, inner, resultColumns);
+        final double[] c = new double[resultRows * resultColumns];
+        int tasks = tasks(resultRows, (long) resultRows * resultColumns * inner);
+        if (tasks <= 1) {
+            multiply(a, aRowStride, aColumnStride, packed, c, inner, resultColumns, 0, resultRows);
+        } else {
+            execute(resultRows, tasks, new Range() {
+                @Override
+                public void run(int from, int to) {
+                    multiply(a, aRowStride, aColumnStride, packed, c, inner, resultColumns, from, to);
+                }
+            });
+        }
+        return new DenseMatrix(resultRows, resultColumns, c);
+    }
+
+    /**
+     * Kopiert B in Streifen aus {@value #TILE} Spalten. Fehlende Spalten des letzten Streifens werden mit 0 gefüllt.
+     */
+    private static double[] pack(double[] b, int rowStride, int columnStride, int inner, int resultColumns) {
+        int panels = (resultColumns + TILE - 1) / TILE;
+        double[] packed = new double[panels * inner * TILE];
+        for (int panel = 0; panel < panels; panel++) {
+            int offset = panel * inner * TILE;
+            for (int t = 0; t < TILE; t++) {
+                int j = panel * TILE + t;
+                if (j >= resultColumns) {
+                    break;
+                }
+                for (int k = 0; k < inner; k++) {
+                    packed[offset + k * TILE + t] = b[k * rowStride + j * columnStride];
+                }
+            }
+        }
+        return packed;
+    }
+
+    private static void multiply(double[] a, int aRowStride, int aColumnStride, double[] packed, double[] c,
+                                 int inner, int resultColumns, int rowFrom, int rowTo) {
+        int panels = (resultColumns + TILE - 1) / TILE;
+        double[] strip = new double[inner * TILE];
+        for (int firstPanel = 0; firstPanel < panels; firstPanel += PANELS_PER_BLOCK) {
+            int lastPanel = Math.min(firstPanel + PANELS_PER_BLOCK, panels);
+            for (int i = rowFrom; i < rowTo; i += TILE) {
+                int tileRows = Math.min(TILE, rowTo - i);
+                for (int r = 0; r < TILE; r++) {
+                    for (int k = 0; k < inner; k++) {
+                        strip[k * TILE + r] = r < tileRows ? a[(i + r) * aRowStride + k * aColumnStride] : 0;
+                    }
+                }
+                for (int panel = firstPanel; panel < lastPanel; panel++) {
+                    int j = panel * TILE;
+                    multiplyTile(strip, packed, panel * inner * TILE, inner, c, i * resultColumns + j,
+                            resultColumns, tileRows, Math.min(TILE, resultColumns - j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Multipliziert einen Streifen von A mit einem Streifen von B. Jeder Eintrag wird wie bei
+     * {@link Matrix#times(Matrix)} über k aufsteigend summiert.
+     */
+    private static void multiplyTile(double[] strip, double[] packed, int offset, int inner, double[] c, int target,
+                                     int resultColumns, int tileRows, int tileColumns) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        for (int q = 0, p = offset, end = inner * TILE; q < end; q += TILE, p += TILE) {
+            double b0 = packed[p];
+            double b1 = packed[p + 1];
+            double b2 = packed[p + 2];
+            double b3 = packed[p + 3];
+            double a0 = strip[q];
+            double a1 = strip[q + 1];
+            double a2 = strip[q + 2];
+            double a3 = strip[q + 3];
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+        if (tileRows == TILE && tileColumns == TILE) {
+            c[target] = c00;
+            c[target + 1] = c01;
+            c[target + 2] = c02;
+            c[target + 3] = c03;
+            target += resultColumns;
+            c[target] = c10;
+            c[target + 1] = c11;
+            c[target + 2] = c12;
+            c[target + 3] = c13;
+            target += resultColumns;
+            c[target] = c20;
+            c[target + 1] = c21;
+            c[target + 2] = c22;
+            c[target + 3] = c23;
+            target += resultColumns;
+            c[target] = c30;
+            c[target + 1] = c31;
+            c[target + 2] = c32;
+            c[target + 3] = c33;
+        } else {
+            // Am Rand der Matrix wird nur der gültige Teil des Blocks geschrieben.
+            double[] tile = {c00, c01, c02, c03, c10, c11, c12, c13, c20, c21, c22, c23, c30, c31, c32, c33};
+            for (int r = 0; r < tileRows; r++) {
+                System.arraycopy(tile, r * TILE, c, target + r * resultColumns, tileColumns);
+            }
+        }
+    }
+
+    private static int tasks(int resultRows, long multiplications) {
+        if (multiplications < PARALLEL_THRESHOLD) {
+            return 1;
+        }
+        return Math.min(THREADS, resultRows / MIN_ROWS_PER_TASK);
+    }
+
+    private static void execute(int rows, int tasks, final Range range) {
+        List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int from = t * rows / tasks;
+            final int to = (t + 1) * rows / tasks;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    range.run(from, to);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Die Multiplikation wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    public LUDecomposition lu() {
+        return new LUDecomposition(this);
+    }
+
+    public QRDecomposition qr() {
+        return new QRDecomposition(this);
+    }
+
+    public CholeskyDecomposition chol() {
+        return new CholeskyDecomposition(this);
+    }
+
+    /**
+     * Löst das Gleichungssystem A * X = B.
+     *
+     * @param b die rechten Seiten als Spalten von B
+     *
+     * @return die Lösung, wenn A quadratisch ist, sonst die Lösung im Sinne der kleinsten Fehlerquadrate
+     */
+    public DenseMatrix solve(DenseMatrix b) {
+        Matrix x = rows == columns ? lu().solveInPlace(b.toMatrix()) : qr().solve(b.toMatrix());
+        return new DenseMatrix(x);
+    }
+
+    /**
+     * Ein Bereich von Zeilen des Ergebnisses, der von einem Thread berechnet wird.
+     */
+    private interface Range {
+        void run(int from, int to);
+    }
+}
@@ -42,6 +42,15 @@ public class LUDecomposition implements java.io.Serializable {
      */
     private int[] piv;
 
+    /**
+     * Ab dieser Anzahl Spalten wird blockweise zerlegt.
+     */
+    private static final int BLOCKED_THRESHOLD = 128;
+    /**
+     * Die Anzahl der Spalten eines Blocks.
+     */
+    private static final int BLOCK_SIZE = 32;
+
     /*
      * ------------------------ Constructor ------------------------
      */
@@ -54,17 +63,54 @@ public class LUDecomposition implements java.io.Serializable {
      * @return Structure to access L, U and piv.
      */
     public LUDecomposition(Matrix A) {
+        this(A.getArrayCopy(), A.getRowDimension(), A.getColumnDimension());
+    }
 
-        // Use a "left-looking", dot-product, Crout/Doolittle algorithm.
+    /**
+     * LU Decomposition of a matrix in row-major storage.
+     *
+     * @param A Rectangular matrix
+     *
+     * @since 2.1
+     */
+    public LUDecomposition(DenseMatrix A) {
+        this(A.getArrayCopy(), A.getRowDimension(), A.getColumnDimension());
+    }
 
-        LU = A.getArrayCopy();
-        m = A.getRowDimension();
-        n = A.getColumnDimension();
+    private LUDecomposition(double[][] array, int rows, int columns) {
+        LU = array;
+        m = rows;
+        n = columns;
         piv = new int[m];
         for (int i = 0; i < m; i++) {
             piv[i] = i;
         }
         pivsign = 1;
+        if (m >= n && n >= BLOCKED_THRESHOLD) {
+            factorBlocked();
+        } else {
+            factorCrout();
+        }
+    }
+
+    /**
+     * Zerlegt eine Matrix, ohne sie zu kopieren. Die Einträge von A werden mit L und U überschrieben, die Zeilen
+     * von A in der Reihenfolge der Pivotisierung vertauscht.
+     *
+     * @param A Rectangular matrix, overwritten with L and U
+     *
+     * @return Structure to access L, U and piv.
+     *
+     * @since 2.1
+     */
+    public static LUDecomposition inPlace(Matrix A) {
+        return new LUDecomposition(A.getArray(), A.getRowDimension(), A.getColumnDimension());
+    }
+
+    private void factorCrout() {
+
+        // Use a "left-looking", dot-product, Crout/Doolittle algorithm.
+
         double[] LUrowi;
         double[] LUcolj = new double[m];
 
@@ -124,6 +170,75 @@ public class LUDecomposition implements java.io.Serializable {
         }
     }
 
+    /**
+     * Zerlegt große Matrizen blockweise ("right-looking"). Ein Block aus {@value #BLOCK_SIZE} Spalten wird zerlegt,
+     * danach wird der Rest der Matrix mit einem Produkt aus ganzen Zeilen aktualisiert, das die Daten im Cache
+     * wiederverwendet. Zeilen werden durch Vertauschen der Zeilenarrays getauscht.
+     */
+    private void factorBlocked() {
+        for (int kb = 0; kb < n; kb += BLOCK_SIZE) {
+            int ke = Math.min(kb + BLOCK_SIZE, n);
+
+            // Zerlegung des Blocks [kb, ke) über alle Zeilen ab kb.
+            for (int j = kb; j < ke; j++) {
+                int p = j;
+                for (int i = j + 1; i < m; i++) {
+                    if (Math.abs(LU[i][j]) > Math.abs(LU[p][j])) {
+                        p = i;
+                    }
+                }
+                if (p != j) {
+                    double[] t = LU[p];
+                    LU[p] = LU[j];
+                    LU[j] = t;
+                    int k = piv[p];
+                    piv[p] = piv[j];
+                    piv[j] = k;
+                    pivsign = -pivsign;
+                }
+
+                double[] LUrowj = LU[j];
+                if (LUrowj[j] != 0.0) {
+                    for (int i = j + 1; i < m; i++) {
+                        double[] LUrowi = LU[i];
+                        double lij = LUrowi[j] /= LUrowj[j];
+                        for (int c = j + 1; c < ke; c++) {
+                            LUrowi[c] -= lij * LUrowj[c];
+                        }
+                    }
+                }
+            }
+
+            if (ke == n) {
+                break;
+            }
+
+            // U12 = L11^-1 * A12
+            for (int j = kb; j < ke; j++) {
+                double[] LUrowj = LU[j];
+                for (int i = j + 1; i < ke; i++) {
+                    double[] LUrowi = LU[i];
+                    double lij = LUrowi[j];
+                    for (int c = ke; c < n; c++) {
+                        LUrowi[c] -= lij * LUrowj[c];
+                    }
+                }
+            }
+
+            // A22 = A22 - L21 * U12
+            for (int i = ke; i < m; i++) {
+                double[] LUrowi = LU[i];
+                for (int k = kb; k < ke; k++) {
+                    double lik = LUrowi[k];
+                    double[] LUrowk = LU[k];
+                    for (int c = ke; c < n; c++) {
+                        LUrowi[c] -= lik * LUrowk[c];
+                    }
+                }
+            }
+        }
+    }
+
     /*
      * ------------------------ Temporary, experimental code.
      * ------------------------ *\
@@ -277,27 +392,124 @@ public class LUDecomposition implements java.io.Serializable {
         // Copy right hand side with pivoting
         int nx = B.getColumnDimension();
         Matrix Xmat = B.getMatrix(piv, 0, nx - 1);
-        double[][] X = Xmat.getArray();
+        substitute(Xmat.getArray(), nx);
+        return Xmat;
+    }
+
+    /**
+     * Löst A*X = B, ohne B zu kopieren. Die Zeilen von B werden vertauscht und mit der Lösung überschrieben. Die
+     * Zerlegung kann so für beliebig viele rechte Seiten wiederverwendet werden.
+     *
+     * @param B A Matrix with as many rows as A and any number of columns, overwritten with X
+     *
+     * @return B, containing X so that L*U*X = B(piv,:)
+     *
+     * @throws IllegalArgumentException Matrix row dimensions must agree.
+     * @throws RuntimeException         Matrix is singular.
+     * @since 2.1
+     */
+    public Matrix solveInPlace(Matrix B) {
+        if (B.getRowDimension() != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        if (!this.isNonsingular()) {
+            throw new RuntimeException("Matrix is singular.");
+        }
+
+        double[][] X = B.getArray();
+        double[][] rows = X.clone();
+        for (int i = 0; i < m; i++) {
+            X[i] = rows[piv[i]];
+        }
+        substitute(X, B.getColumnDimension());
+        return B;
+    }
+
+    /**
+     * Löst A*x = b für eine einzelne rechte Seite.
+     *
+     * @param b a vector with as many entries as A has rows
+     *
+     * @return x so that L*U*x = b(piv)
+     *
+     * @throws IllegalArgumentException Matrix row dimensions must agree.
+     * @throws RuntimeException         Matrix is singular.
+     * @since 2.1
+     */
+    public double[] solve(double[] b) {
+        if (b.length != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        if (!this.isNonsingular()) {
+            throw new RuntimeException("Matrix is singular.");
+        }
+
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = b[piv[i]];
+        }
+        // Solve L*y = b(piv)
+        for (int i = 1; i < n; i++) {
+            double[] LUrowi = LU[i];
+            double s = x[i];
+            for (int k = 0; k < i; k++) {
+                s -= LUrowi[k] * x[k];
+            }
+            x[i] = s;
+        }
+        // Solve U*x = y
+        for (int i = n - 1; i >= 0; i--) {
+            double[] LUrowi = LU[i];
+            double s = x[i];
+            for (int k = i + 1; k < n; k++) {
+                s -= LUrowi[k] * x[k];
+            }
+            x[i] = s / LUrowi[i];
+        }
+        return x;
+    }
+
+    /**
+     * Berechnet die Inverse aus der Zerlegung.
+     *
+     * @return inverse(A)
+     *
+     * @throws RuntimeException Matrix is singular.
+     * @since 2.1
+     */
+    public Matrix inverse() {
+        return solveInPlace(Matrix.identity(m, m));
+    }
+
+    private void substitute(double[][] X, int nx) {
+        // Die Zeilen der rechten Seiten werden als Ganzes verrechnet, so dass viele rechte Seiten
+        // zusammenhängend im Speicher bearbeitet werden.
 
         // Solve L*Y = B(piv,:)
         for (int k = 0; k < n; k++) {
+            double[] Xrowk = X[k];
             for (int i = k + 1; i < n; i++) {
+                double[] Xrowi = X[i];
+                double lik = LU[i][k];
                 for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+                    Xrowi[j] -= Xrowk[j] * lik;
                 }
             }
         }
         // Solve U*X = Y;
         for (int k = n - 1; k >= 0; k--) {
+            double[] Xrowk = X[k];
+            double ukk = LU[k][k];
             for (int j = 0; j < nx; j++) {
-                X[k][j] /= LU[k][k];
+                Xrowk[j] /= ukk;
             }
             for (int i = 0; i < k; i++) {
+                double[] Xrowi = X[i];
+                double uik = LU[i][k];
                 for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+                    Xrowi[j] -= Xrowk[j] * uik;
                 }
             }
         }
-        return Xmat;
     }
 }
@@ -908,23 +908,119 @@ public class Matrix implements Cloneable, java.io.Serializable {
     }
 
     /**
-     * Matrix inverse or pseudoinverse
+     * Matrix inverse or pseudoinverse. 3x3 and 4x4 matrices are inverted in closed form.
      *
      * @return inverse(A) if A is square, pseudoinverse otherwise.
      */
     public Matrix inverse() {
+        if (m == n && (m == 3 || m == 4)) {
+            return new Matrix(m == 3 ? inverse3(A) : inverse4(A), m, m);
+        }
         return solve(identity(m, m));
     }
 
     /**
-     * Matrix determinant
+     * Matrix determinant, in closed form for 3x3 and 4x4 matrices.
      *
      * @return determinant
      */
     public double det() {
+        if (m == 3 && n == 3) {
+            return det3(A);
+        }
+        if (m == 4 && n == 4) {
+            return inverse4(A, null);
+        }
         return new LUDecomposition(this).det();
     }
 
+    /*
+     * Geschlossene Formeln für 3x3 und 4x4 Matrizen, wie sie für Transformationen und Kameras gebraucht werden. Sie
+     * kommen ohne Zerlegung und Pivotisierung aus.
+     */
+
+    private static double det3(double[][] a) {
+        return a[0][0] * (a[1][1] * a[2][2] - a[1][2] * a[2][1])
+                - a[0][1] * (a[1][0] * a[2][2] - a[1][2] * a[2][0])
+                + a[0][2] * (a[1][0] * a[2][1] - a[1][1] * a[2][0]);
+    }
+
+    private static double[][] inverse3(double[][] a) {
+        double c00 = a[1][1] * a[2][2] - a[1][2] * a[2][1];
+        double c01 = a[1][2] * a[2][0] - a[1][0] * a[2][2];
+        double c02 = a[1][0] * a[2][1] - a[1][1] * a[2][0];
+        double det = a[0][0] * c00 + a[0][1] * c01 + a[0][2] * c02;
+        if (det == 0) {
+            throw new RuntimeException("Matrix is singular.");
+        }
+        double s = 1 / det;
+        return new double[][]{
+                {c00 * s, (a[0][2] * a[2][1] - a[0][1] * a[2][2]) * s, (a[0][1] * a[1][2] - a[0][2] * a[1][1]) * s},
+                {c01 * s, (a[0][0] * a[2][2] - a[0][2] * a[2][0]) * s, (a[0][2] * a[1][0] - a[0][0] * a[1][2]) * s},
+                {c02 * s, (a[0][1] * a[2][0] - a[0][0] * a[2][1]) * s, (a[0][0] * a[1][1] - a[0][1] * a[1][0]) * s}
+        };
+    }
+
+    private static double[][] inverse4(double[][] a) {
+        double[][] inverse = new double[4][4];
+        if (inverse4(a, inverse) == 0) {
+            throw new RuntimeException("Matrix is singular.");
+        }
+        return inverse;
+    }
+
+    /**
+     * Berechnet Determinante und Inverse einer 4x4 Matrix über die 2x2 Unterdeterminanten der oberen und unteren
+     * beiden Zeilen.
+     *
+     * @param a       die Matrix
+     * @param inverse das Ziel für die Inverse oder {@code null}, wenn nur die Determinante gebraucht wird
+     *
+     * @return die Determinante
+     */
+    private static double inverse4(double[][] a, double[][] inverse) {
+        double s0 = a[0][0] * a[1][1] - a[1][0] * a[0][1];
+        double s1 = a[0][0] * a[1][2] - a[1][0] * a[0][2];
+        double s2 = a[0][0] * a[1][3] - a[1][0] * a[0][3];
+        double s3 = a[0][1] * a[1][2] - a[1][1] * a[0][2];
+        double s4 = a[0][1] * a[1][3] - a[1][1] * a[0][3];
+        double s5 = a[0][2] * a[1][3] - a[1][2] * a[0][3];
+
+        double c5 = a[2][2] * a[3][3] - a[3][2] * a[2][3];
+        double c4 = a[2][1] * a[3][3] - a[3][1] * a[2][3];
+        double c3 = a[2][1] * a[3][2] - a[3][1] * a[2][2];
+        double c2 = a[2][0] * a[3][3] - a[3][0] * a[2][3];
+        double c1 = a[2][0] * a[3][2] - a[3][0] * a[2][2];
+        double c0 = a[2][0] * a[3][1] - a[3][0] * a[2][1];
+
+        double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        if (inverse == null || det == 0) {
+            return det;
+        }
+        double d = 1 / det;
+
+        inverse[0][0] = (a[1][1] * c5 - a[1][2] * c4 + a[1][3] * c3) * d;
+        inverse[0][1] = (-a[0][1] * c5 + a[0][2] * c4 - a[0][3] * c3) * d;
+        inverse[0][2] = (a[3][1] * s5 - a[3][2] * s4 + a[3][3] * s3) * d;
+        inverse[0][3] = (-a[2][1] * s5 + a[2][2] * s4 - a[2][3] * s3) * d;
+
+        inverse[1][0] = (-a[1][0] * c5 + a[1][2] * c2 - a[1][3] * c1) * d;
+        inverse[1][1] = (a[0][0] * c5 - a[0][2] * c2 + a[0][3] * c1) * d;
+        inverse[1][2] = (-a[3][0] * s5 + a[3][2] * s2 - a[3][3] * s1) * d;
+        inverse[1][3] = (a[2][0] * s5 - a[2][2] * s2 + a[2][3] * s1) * d;
+
+        inverse[2][0] = (a[1][0] * c4 - a[1][1] * c2 + a[1][3] * c0) * d;
+        inverse[2][1] = (-a[0][0] * c4 + a[0][1] * c2 - a[0][3] * c0) * d;
+        inverse[2][2] = (a[3][0] * s4 - a[3][1] * s2 + a[3][3] * s0) * d;
+        inverse[2][3] = (-a[2][0] * s4 + a[2][1] * s2 - a[2][3] * s0) * d;
+
+        inverse[3][0] = (-a[1][0] * c3 + a[1][1] * c1 - a[1][2] * c0) * d;
+        inverse[3][1] = (a[0][0] * c3 - a[0][1] * c1 + a[0][2] * c0) * d;
+        inverse[3][2] = (-a[3][0] * s3 + a[3][1] * s1 - a[3][2] * s0) * d;
+        inverse[3][3] = (a[2][0] * s3 - a[2][1] * s1 + a[2][2] * s0) * d;
+        return det;
+    }
+
     /**
      * Matrix rank
      *
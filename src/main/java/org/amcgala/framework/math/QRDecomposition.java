@@ -54,10 +54,38 @@ public class QRDecomposition implements java.io.Serializable {
      * @return Structure to access R and the Householder vectors and compute Q.
      */
     public QRDecomposition(Matrix A) {
+        this(A.getArrayCopy(), A.getRowDimension(), A.getColumnDimension());
+    }
+
+    /**
+     * QR Decomposition of a matrix in row-major storage.
+     *
+     * @param A Rectangular matrix
+     *
+     * @since 2.1
+     */
+    public QRDecomposition(DenseMatrix A) {
+        this(A.getArrayCopy(), A.getRowDimension(), A.getColumnDimension());
+    }
+
+    /**
+     * Zerlegt eine Matrix, ohne sie zu kopieren. A wird mit R und den Householder-Vektoren überschrieben.
+     *
+     * @param A Rectangular matrix, overwritten with the decomposition
+     *
+     * @return Structure to access R and the Householder vectors and compute Q.
+     *
+     * @since 2.1
+     */
+    public static QRDecomposition inPlace(Matrix A) {
+        return new QRDecomposition(A.getArray(), A.getRowDimension(), A.getColumnDimension());
+    }
+
+    private QRDecomposition(double[][] array, int rows, int columns) {
         // Initialize.
-        QR = A.getArrayCopy();
-        m = A.getRowDimension();
-        n = A.getColumnDimension();
+        QR = array;
+        m = rows;
+        n = columns;
         Rdiag = new double[n];
 
         // Main loop.
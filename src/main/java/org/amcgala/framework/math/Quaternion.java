@@ -59,13 +59,172 @@ public final class Quaternion {
      * @return das Resultat der Multiplikation
      */
     public Quaternion times(Quaternion that) {
-        x = w * that.x + x * that.w + y * that.z - z * that.y;
-        y = w * that.y + y * that.w + z * that.x - x * that.z;
-        z = w * that.z + z * that.w + x * that.y - y * that.x;
-        w = w * that.w - x * that.x - y * that.y - z * that.z;
+        return set(
+                w * that.x + x * that.w + y * that.z - z * that.y,
+                w * that.y + y * that.w + z * that.x - x * that.z,
+                w * that.z + z * that.w + x * that.y - y * that.x,
+                w * that.w - x * that.x - y * that.y - z * that.z);
+    }
+
+    /**
+     * Berechnet das Skalarprodukt mit einem anderen Quaternion.
+     *
+     * @param that das andere Quaternion
+     *
+     * @return das Skalarprodukt
+     *
+     * @since 2.1
+     */
+    public double dot(Quaternion that) {
+        return x * that.x + y * that.y + z * that.z + w * that.w;
+    }
+
+    /**
+     * Setzt das Quaternion auf die sphärische lineare Interpolation zwischen zwei Rotationen. Die Rotation ändert
+     * sich mit konstanter Winkelgeschwindigkeit. Es wird immer der kürzere Weg zwischen den Rotationen gewählt.
+     * Dieses Quaternion darf eines der beiden Quaternionen sein.
+     *
+     * @param from die Rotation bei {@code t = 0}
+     * @param to   die Rotation bei {@code t = 1}
+     * @param t    der Interpolationsfaktor
+     *
+     * @return das Quaternion mit den neuen Werten
+     *
+     * @since 2.1
+     */
+    public Quaternion slerp(Quaternion from, Quaternion to, double t) {
+        double cos = from.dot(to);
+        double sign = 1;
+        if (cos < 0) {
+            cos = -cos;
+            sign = -1;
+        }
+
+        double a = 1 - t;
+        double b = t;
+        // Fast gleiche Rotationen werden linear interpoliert, da sin(theta) gegen 0 geht.
+        if (cos < 0.9995) {
+            double theta = Math.acos(cos);
+            double sin = Math.sin(theta);
+            a = Math.sin(a * theta) / sin;
+            b = Math.sin(b * theta) / sin;
+        }
+        b *= sign;
+        set(a * from.x + b * to.x, a * from.y + b * to.y, a * from.z + b * to.z, a * from.w + b * to.w);
+        if (cos >= 0.9995) {
+            normalize();
+        }
         return this;
     }
 
+    /**
+     * Setzt das Quaternion auf die normalisierte lineare Interpolation zwischen zwei Rotationen. Anders als bei
+     * {@link #slerp(Quaternion, Quaternion, double)} ist die Winkelgeschwindigkeit nicht konstant, dafür werden
+     * keine trigonometrischen Funktionen benötigt. Für kleine Winkel zwischen den Rotationen, wie sie bei
+     * Animationen von Bild zu Bild auftreten, sind die Ergebnisse kaum zu unterscheiden.
+     *
+     * @param from die Rotation bei {@code t = 0}
+     * @param to   die Rotation bei {@code t = 1}
+     * @param t    der Interpolationsfaktor
+     *
+     * @return das Quaternion mit den neuen Werten
+     *
+     * @since 2.1
+     */
+    public Quaternion nlerp(Quaternion from, Quaternion to, double t) {
+        double a = 1 - t;
+        double b = from.dot(to) < 0 ? -t : t;
+        set(a * from.x + b * to.x, a * from.y + b * to.y, a * from.z + b * to.z, a * from.w + b * to.w);
+        normalize();
+        return this;
+    }
+
+    /**
+     * Schreibt den mit diesem Quaternion rotierten Vektor in einen Zielvektor. Das Quaternion muss normalisiert
+     * sein. Der Zielvektor darf der rotierte Vektor sein.
+     *
+     * @param v      der Vektor
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d rotateInto(Vector3d v, Vector3d result) {
+        // v' = v + 2w (q x v) + 2 q x (q x v), mit q = (x, y, z)
+        double tx = 2 * (y * v.z - z * v.y);
+        double ty = 2 * (z * v.x - x * v.z);
+        double tz = 2 * (x * v.y - y * v.x);
+        return result.set(
+                v.x + w * tx + y * tz - z * ty,
+                v.y + w * ty + z * tx - x * tz,
+                v.z + w * tz + x * ty - y * tx);
+    }
+
+    /**
+     * Gibt die homogene 4x4 Rotationsmatrix des Quaternions zurück. Das Quaternion muss normalisiert sein.
+     *
+     * @return die Rotationsmatrix
+     *
+     * @since 2.1
+     */
+    public Matrix toRotationMatrix() {
+        double xx = x * x, yy = y * y, zz = z * z;
+        double xy = x * y, xz = x * z, yz = y * z;
+        double wx = w * x, wy = w * y, wz = w * z;
+        double[][] values = {
+                {1 - 2 * (yy + zz), 2 * (xy - wz), 2 * (xz + wy), 0},
+                {2 * (xy + wz), 1 - 2 * (xx + zz), 2 * (yz - wx), 0},
+                {2 * (xz - wy), 2 * (yz + wx), 1 - 2 * (xx + yy), 0},
+                {0, 0, 0, 1}
+        };
+        return new Matrix(values);
+    }
+
+    /**
+     * Gibt die x-Komponente des Quaternions zurück.
+     *
+     * @return die x-Komponente
+     *
+     * @since 2.1
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gibt die y-Komponente des Quaternions zurück.
+     *
+     * @return die y-Komponente
+     *
+     * @since 2.1
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gibt die z-Komponente des Quaternions zurück.
+     *
+     * @return die z-Komponente
+     *
+     * @since 2.1
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Gibt die w-Komponente des Quaternions zurück.
+     *
+     * @return die w-Komponente
+     *
+     * @since 2.1
+     */
+    public double getW() {
+        return w;
+    }
+
     /**
      * Die Länge des Quaternion.
      *
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.math;
+
+import java.util.Random;
+
+/**
+ * Liefert die Startwerte aller Zufallszahlengeneratoren des Frameworks. Ohne festen Startwert erhält jeder Generator
+ * einen anderen, zeitabhängigen Startwert. Wird mit {@link #setSeed(long)} ein Startwert festgelegt, werden alle
+ * folgenden Startwerte aus diesem abgeleitet. Generatoren, die in derselben Reihenfolge erzeugt werden, liefern dann
+ * bei jedem Lauf dieselben Zufallszahlen.
+ *
+ * @since 2.1
+ */
+public final class RandomSource {
+    private static Random seeds;
+    private static long uniquifier = 8682522807148012L;
+
+    private RandomSource() {
+    }
+
+    /**
+     * Legt den Startwert fest, aus dem alle folgenden Startwerte abgeleitet werden.
+     *
+     * @param seed der Startwert
+     */
+    public static synchronized void setSeed(long seed) {
+        seeds = new Random(seed);
+    }
+
+    /**
+     * Verwirft einen festgelegten Startwert. Alle folgenden Startwerte sind wieder zeitabhängig.
+     */
+    public static synchronized void clearSeed() {
+        seeds = null;
+    }
+
+    /**
+     * Gibt zurück, ob ein fester Startwert verwendet wird.
+     *
+     * @return {@code true}, wenn die Startwerte reproduzierbar sind
+     */
+    public static synchronized boolean isSeeded() {
+        return seeds != null;
+    }
+
+    /**
+     * Gibt den Startwert für einen neuen Zufallszahlengenerator zurück.
+     *
+     * @return der nächste Startwert
+     */
+    public static synchronized long nextSeed() {
+        if (seeds != null) {
+            return seeds.nextLong();
+        }
+        uniquifier *= 181783497276652981L;
+        return uniquifier ^ System.nanoTime();
+    }
+
+    /**
+     * Erzeugt einen neuen Zufallszahlengenerator mit dem nächsten Startwert.
+     *
+     * @return der neue Generator
+     */
+    public static Random newRandom() {
+        return new Random(nextSeed());
+    }
+}
@@ -19,6 +19,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Repräsentation von 3D-Vektoren.
+ * <p/>
+ * Die Operationen {@link #add(Vector3d)}, {@link #sub(Vector3d)}, {@link #times(double)} usw. erzeugen jeweils einen
+ * neuen Vektor. Für häufig ausgeführten Code gibt es zusätzlich Varianten, die keine Objekte erzeugen: Die
+ * {@code ...Local} Methoden verändern den Vektor selbst, die {@code ...Into} Methoden schreiben das Ergebnis in einen
+ * übergebenen Zielvektor. Der Zielvektor darf dabei einer der Operanden sein. Alle diese Methoden geben den
+ * veränderten Vektor zurück, so dass Aufrufe verkettet werden können. Die Konstanten {@link #ZERO}, {@link #UNIT_X},
+ * {@link #UNIT_Y} und {@link #UNIT_Z} werden von vielen Objekten geteilt und dürfen nie verändert werden.
  */
 public class Vector3d implements Comparable<Vector3d> {
     private static final Logger log = LoggerFactory.getLogger(Vector3d.class);
@@ -192,8 +199,7 @@ public class Vector3d implements Comparable<Vector3d> {
      * @return der transformierte Vektor
      */
     public Vector3d transform(Matrix transformation) {
-        Matrix tmp = transformation.times(toMatrix());
-        return createVector3d(tmp.get(0, 0), tmp.get(1, 0), tmp.get(2, 0));
+        return transformInto(transformation, new Vector3d(0, 0, 0));
     }
 
     /**
@@ -206,6 +212,236 @@ public class Vector3d implements Comparable<Vector3d> {
         return new Vector3d(x + direction.x * t, y + direction.y * t, z + direction.z * t);
     }
 
+    /**
+     * Setzt die Komponenten dieses Vektors.
+     *
+     * @param x die neue x-Komponente
+     * @param y die neue y-Komponente
+     * @param z die neue z-Komponente
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Übernimmt die Komponenten eines anderen Vektors.
+     *
+     * @param that der andere Vektor
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d set(Vector3d that) {
+        return set(that.x, that.y, that.z);
+    }
+
+    /**
+     * Addiert einen Vektor zu diesem Vektor, ohne einen neuen Vektor zu erzeugen.
+     *
+     * @param that der andere Vektor
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d addLocal(Vector3d that) {
+        return set(x + that.x, y + that.y, z + that.z);
+    }
+
+    /**
+     * Subtrahiert einen Vektor von diesem Vektor, ohne einen neuen Vektor zu erzeugen.
+     *
+     * @param that der andere Vektor
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d subLocal(Vector3d that) {
+        return set(x - that.x, y - that.y, z - that.z);
+    }
+
+    /**
+     * Multipliziert diesen Vektor mit einem Skalar, ohne einen neuen Vektor zu erzeugen.
+     *
+     * @param s die skalare Größe
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d timesLocal(double s) {
+        return set(x * s, y * s, z * s);
+    }
+
+    /**
+     * Normalisiert diesen Vektor, ohne einen neuen Vektor zu erzeugen.
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d normalizeLocal() {
+        return timesLocal(1.0 / length());
+    }
+
+    /**
+     * Bewegt diesen Vektor entlang eines Richtungsvektors um den Faktor t, ohne einen neuen Vektor zu erzeugen.
+     *
+     * @param direction die Richtung
+     * @param t         der Faktor
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d travelLocal(Vector3d direction, double t) {
+        return set(x + direction.x * t, y + direction.y * t, z + direction.z * t);
+    }
+
+    /**
+     * Transformiert diesen Vektor mit einer Transformationsmatrix, ohne Objekte zu erzeugen.
+     *
+     * @param transformation die 4x4 Transformationsmatrix
+     *
+     * @return dieser Vektor
+     *
+     * @since 2.1
+     */
+    public Vector3d transformLocal(Matrix transformation) {
+        return transformInto(transformation, this);
+    }
+
+    /**
+     * Schreibt die Summe dieses und eines anderen Vektors in einen Zielvektor.
+     *
+     * @param that   der andere Vektor
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d addInto(Vector3d that, Vector3d result) {
+        return result.set(x + that.x, y + that.y, z + that.z);
+    }
+
+    /**
+     * Schreibt die Differenz dieses und eines anderen Vektors in einen Zielvektor.
+     *
+     * @param that   der andere Vektor
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d subInto(Vector3d that, Vector3d result) {
+        return result.set(x - that.x, y - that.y, z - that.z);
+    }
+
+    /**
+     * Schreibt das Produkt dieses Vektors mit einem Skalar in einen Zielvektor.
+     *
+     * @param s      die skalare Größe
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d timesInto(double s, Vector3d result) {
+        return result.set(x * s, y * s, z * s);
+    }
+
+    /**
+     * Schreibt das Kreuzprodukt dieses und eines anderen Vektors in einen Zielvektor.
+     *
+     * @param that   der andere Vektor
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d crossInto(Vector3d that, Vector3d result) {
+        return result.set(
+                this.y * that.z - this.z * that.y,
+                this.z * that.x - this.x * that.z,
+                this.x * that.y - this.y * that.x);
+    }
+
+    /**
+     * Schreibt diesen Vektor normalisiert in einen Zielvektor.
+     *
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d normalizeInto(Vector3d result) {
+        return timesInto(1.0 / length(), result);
+    }
+
+    /**
+     * Schreibt den entlang eines Richtungsvektors um den Faktor t bewegten Vektor in einen Zielvektor.
+     *
+     * @param direction die Richtung
+     * @param t         der Faktor
+     * @param result    der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d travelInto(Vector3d direction, double t, Vector3d result) {
+        return result.set(x + direction.x * t, y + direction.y * t, z + direction.z * t);
+    }
+
+    /**
+     * Schreibt den mit einer Transformationsmatrix transformierten Vektor in einen Zielvektor. Anders als
+     * {@link #transform(Matrix)} wird dabei keine Matrix für den Vektor erzeugt.
+     *
+     * @param transformation die 4x4 Transformationsmatrix
+     * @param result         der Zielvektor
+     *
+     * @return der Zielvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d transformInto(Matrix transformation, Vector3d result) {
+        double[][] m = transformation.getArray();
+        return result.set(
+                m[0][0] * x + m[0][1] * y + m[0][2] * z + m[0][3],
+                m[1][0] * x + m[1][1] * y + m[1][2] * z + m[1][3],
+                m[2][0] * x + m[2][1] * y + m[2][2] * z + m[2][3]);
+    }
+
+    /**
+     * Berechnet den quadrierten Abstand zu einem anderen Vektor, ohne einen Differenzvektor zu erzeugen.
+     *
+     * @param that der andere Vektor
+     *
+     * @return der quadrierte Abstand
+     *
+     * @since 2.1
+     */
+    public double distanceSquared(Vector3d that) {
+        double dx = x - that.x;
+        double dy = y - that.y;
+        double dz = z - that.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
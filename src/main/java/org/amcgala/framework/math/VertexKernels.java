@@ -0,0 +1,282 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.math;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Transformiert und projiziert viele Punkte auf einmal. Die Punkte liegen nicht als {@link Vector3d} Objekte vor,
+ * sondern getrennt nach Koordinaten in drei Arrays. Der Punkt {@code i} ist {@code (x[i], y[i], z[i])}.
+ * <p/>
+ * Die Einträge der Matrix werden einmal vor der Schleife gelesen, in der Schleife werden weder Objekte erzeugt noch
+ * Arrays der Matrix dereferenziert. Der JIT-Compiler kann sie deshalb entrollen und, soweit die Plattform es
+ * unterstützt, mit Vektorbefehlen ausführen. Ab {@value #MIN_VERTICES_PER_TASK} Punkten pro Kern werden die Arrays
+ * auf mehrere Threads aufgeteilt.
+ * <p/>
+ * Die Ergebnisse werden an dieselben Indizes geschrieben, an denen die Eingaben liegen. Die Ergebnisarrays dürfen
+ * die Eingabearrays sein.
+ *
+ * @since 2.1
+ */
+public final class VertexKernels {
+    /**
+     * Die Anzahl der Punkte, die mindestens von einem Thread bearbeitet werden.
+     */
+    public static final int MIN_VERTICES_PER_TASK = 16384;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("amcgala-kernel-%d").build());
+
+    private VertexKernels() {
+    }
+
+    /**
+     * Transformiert Punkte mit einer affinen 4x4 Matrix. Die letzte Zeile der Matrix wird nicht ausgewertet.
+     *
+     * @param transformation die Transformationsmatrix
+     * @param x              die x-Koordinaten
+     * @param y              die y-Koordinaten
+     * @param z              die z-Koordinaten
+     * @param offset         der Index des ersten Punkts
+     * @param count          die Anzahl der Punkte
+     * @param outX           die transformierten x-Koordinaten
+     * @param outY           die transformierten y-Koordinaten
+     * @param outZ           die transformierten z-Koordinaten
+     */
+    public static void transform(Matrix transformation, final double[] x, final double[] y, final double[] z,
+                                 int offset, int count,
+                                 final double[] outX, final double[] outY, final double[] outZ) {
+        final double[][] m = matrix(transformation);
+        checkRange(offset, count, x.length, y.length, z.length);
+        checkRange(offset, count, outX.length, outY.length, outZ.length);
+
+        int tasks = tasks(count);
+        if (tasks <= 1) {
+            transformRange(m, x, y, z, outX, outY, outZ, offset, offset + count);
+            return;
+        }
+        execute(offset, count, tasks, new Range() {
+            @Override
+            public void run(int from, int to) {
+                transformRange(m, x, y, z, outX, outY, outZ, from, to);
+            }
+        });
+    }
+
+    /**
+     * Transformiert Punkte mit einfacher Genauigkeit, siehe
+     * {@link #transform(Matrix, double[], double[], double[], int, int, double[], double[], double[])}.
+     */
+    public static void transform(Matrix transformation, final float[] x, final float[] y, final float[] z,
+                                 int offset, int count,
+                                 final float[] outX, final float[] outY, final float[] outZ) {
+        final double[][] m = matrix(transformation);
+        checkRange(offset, count, x.length, y.length, z.length);
+        checkRange(offset, count, outX.length, outY.length, outZ.length);
+
+        int tasks = tasks(count);
+        if (tasks <= 1) {
+            transformRange(m, x, y, z, outX, outY, outZ, offset, offset + count);
+            return;
+        }
+        execute(offset, count, tasks, new Range() {
+            @Override
+            public void run(int from, int to) {
+                transformRange(m, x, y, z, outX, outY, outZ, from, to);
+            }
+        });
+    }
+
+    /**
+     * Projiziert Punkte mit einer 4x4 Matrix. Die x- und y-Koordinate des Ergebnisses werden durch die w-Koordinate
+     * geteilt, so wie es die Kameras für einen einzelnen Punkt tun.
+     *
+     * @param projection die Projektionsmatrix, gegebenenfalls bereits mit einer Transformation verknüpft
+     * @param x          die x-Koordinaten
+     * @param y          die y-Koordinaten
+     * @param z          die z-Koordinaten
+     * @param offset     der Index des ersten Punkts
+     * @param count      die Anzahl der Punkte
+     * @param outX       die projizierten x-Koordinaten
+     * @param outY       die projizierten y-Koordinaten
+     */
+    public static void project(Matrix projection, final double[] x, final double[] y, final double[] z,
+                               int offset, int count, final double[] outX, final double[] outY) {
+        final double[][] m = matrix(projection);
+        checkRange(offset, count, x.length, y.length, z.length);
+        checkRange(offset, count, outX.length, outY.length);
+
+        int tasks = tasks(count);
+        if (tasks <= 1) {
+            projectRange(m, x, y, z, outX, outY, offset, offset + count);
+            return;
+        }
+        execute(offset, count, tasks, new Range() {
+            @Override
+            public void run(int from, int to) {
+                projectRange(m, x, y, z, outX, outY, from, to);
+            }
+        });
+    }
+
+    /**
+     * Projiziert Punkte mit einfacher Genauigkeit, siehe
+     * {@link #project(Matrix, double[], double[], double[], int, int, double[], double[])}.
+     */
+    public static void project(Matrix projection, final float[] x, final float[] y, final float[] z,
+                               int offset, int count, final float[] outX, final float[] outY) {
+        final double[][] m = matrix(projection);
+        checkRange(offset, count, x.length, y.length, z.length);
+        checkRange(offset, count, outX.length, outY.length);
+
+        int tasks = tasks(count);
+        if (tasks <= 1) {
+            projectRange(m, x, y, z, outX, outY, offset, offset + count);
+            return;
+        }
+        execute(offset, count, tasks, new Range() {
+            @Override
+            public void run(int from, int to) {
+                projectRange(m, x, y, z, outX, outY, from, to);
+            }
+        });
+    }
+
+    private static void transformRange(double[][] m, double[] x, double[] y, double[] z,
+                                       double[] outX, double[] outY, double[] outZ, int from, int to) {
+        double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+        double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], m13 = m[1][3];
+        double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], m23 = m[2][3];
+        for (int i = from; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            double pz = z[i];
+            outX[i] = m00 * px + m01 * py + m02 * pz + m03;
+            outY[i] = m10 * px + m11 * py + m12 * pz + m13;
+            outZ[i] = m20 * px + m21 * py + m22 * pz + m23;
+        }
+    }
+
+    private static void transformRange(double[][] m, float[] x, float[] y, float[] z,
+                                       float[] outX, float[] outY, float[] outZ, int from, int to) {
+        float m00 = (float) m[0][0], m01 = (float) m[0][1], m02 = (float) m[0][2], m03 = (float) m[0][3];
+        float m10 = (float) m[1][0], m11 = (float) m[1][1], m12 = (float) m[1][2], m13 = (float) m[1][3];
+        float m20 = (float) m[2][0], m21 = (float) m[2][1], m22 = (float) m[2][2], m23 = (float) m[2][3];
+        for (int i = from; i < to; i++) {
+            float px = x[i];
+            float py = y[i];
+            float pz = z[i];
+            outX[i] = m00 * px + m01 * py + m02 * pz + m03;
+            outY[i] = m10 * px + m11 * py + m12 * pz + m13;
+            outZ[i] = m20 * px + m21 * py + m22 * pz + m23;
+        }
+    }
+
+    private static void projectRange(double[][] m, double[] x, double[] y, double[] z,
+                                     double[] outX, double[] outY, int from, int to) {
+        double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+        double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], m13 = m[1][3];
+        double m30 = m[3][0], m31 = m[3][1], m32 = m[3][2], m33 = m[3][3];
+        for (int i = from; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            double pz = z[i];
+            double w = m30 * px + m31 * py + m32 * pz + m33;
+            outX[i] = (m00 * px + m01 * py + m02 * pz + m03) / w;
+            outY[i] = (m10 * px + m11 * py + m12 * pz + m13) / w;
+        }
+    }
+
+    private static void projectRange(double[][] m, float[] x, float[] y, float[] z,
+                                     float[] outX, float[] outY, int from, int to) {
+        float m00 = (float) m[0][0], m01 = (float) m[0][1], m02 = (float) m[0][2], m03 = (float) m[0][3];
+        float m10 = (float) m[1][0], m11 = (float) m[1][1], m12 = (float) m[1][2], m13 = (float) m[1][3];
+        float m30 = (float) m[3][0], m31 = (float) m[3][1], m32 = (float) m[3][2], m33 = (float) m[3][3];
+        for (int i = from; i < to; i++) {
+            float px = x[i];
+            float py = y[i];
+            float pz = z[i];
+            float w = m30 * px + m31 * py + m32 * pz + m33;
+            outX[i] = (m00 * px + m01 * py + m02 * pz + m03) / w;
+            outY[i] = (m10 * px + m11 * py + m12 * pz + m13) / w;
+        }
+    }
+
+    private static double[][] matrix(Matrix matrix) {
+        checkArgument(checkNotNull(matrix).getRowDimension() == 4 && matrix.getColumnDimension() == 4,
+                "Es wird eine 4x4 Matrix benötigt!");
+        return matrix.getArray();
+    }
+
+    private static void checkRange(int offset, int count, int lengthX, int lengthY, int lengthZ) {
+        checkArgument(count >= 0, "Die Anzahl der Punkte darf nicht negativ sein!");
+        checkPositionIndexes(offset, offset + count, Math.min(lengthX, Math.min(lengthY, lengthZ)));
+    }
+
+    private static void checkRange(int offset, int count, int lengthX, int lengthY) {
+        checkArgument(count >= 0, "Die Anzahl der Punkte darf nicht negativ sein!");
+        checkPositionIndexes(offset, offset + count, Math.min(lengthX, lengthY));
+    }
+
+    private static int tasks(int count) {
+        return Math.min(THREADS, count / MIN_VERTICES_PER_TASK);
+    }
+
+    private static void execute(int offset, int count, int tasks, final Range range) {
+        List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int from = offset + (int) ((long) t * count / tasks);
+            final int to = offset + (int) ((long) (t + 1) * count / tasks);
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    range.run(from, to);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Die Transformation wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Ein Abschnitt der Arrays, der von einem Thread bearbeitet wird.
+     */
+    private interface Range {
+        void run(int from, int to);
+    }
+}
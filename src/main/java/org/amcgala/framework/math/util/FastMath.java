@@ -0,0 +1,283 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.math.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Mathematische Funktionen für die Renderpfade, die zwischen exakter und schneller Berechnung umgeschaltet werden
+ * können. Im Modus {@link Mode#EXACT} werden die Methoden von {@link Math} aufgerufen. Im Modus {@link Mode#FAST}
+ * werden Näherungen aus Tabellen und Polynomen verwendet, deren Fehler bei der jeweiligen Methode angegeben ist.
+ * Der Modus gilt für das gesamte Framework und ist standardmäßig {@link Mode#EXACT}.
+ * <p/>
+ * Außerhalb des angegebenen Wertebereichs und für NaN, unendliche und subnormale Werte rechnen auch die Näherungen
+ * mit {@link Math}.
+ *
+ * @since 2.1
+ */
+public final class FastMath {
+
+    /**
+     * Die Genauigkeit, mit der gerechnet wird.
+     */
+    public static enum Mode {
+        /**
+         * Alle Funktionen liefern die Ergebnisse von {@link Math}.
+         */
+        EXACT,
+        /**
+         * Die Funktionen werden durch Tabellen und Polynome angenähert.
+         */
+        FAST
+    }
+
+    private static final double TWO_PI = 2 * Math.PI;
+    private static final double DEG_TO_RAD = Math.PI / 180;
+    private static final double LN2 = Math.log(2);
+
+    private static final int SIN_BITS = 12;
+    private static final int SIN_SIZE = 1 << SIN_BITS;
+    private static final int SIN_MASK = SIN_SIZE - 1;
+    private static final double SIN_SCALE = SIN_SIZE / TWO_PI;
+    private static final double SIN_LIMIT = 1 << 16;
+    private static final double[] SIN = new double[SIN_SIZE + 1];
+
+    private static final int EXP_BITS = 10;
+    private static final int EXP_SIZE = 1 << EXP_BITS;
+    private static final double EXP_SCALE = EXP_SIZE / LN2;
+    private static final double EXP_STEP = LN2 / EXP_SIZE;
+    private static final double EXP_LIMIT = 700;
+    private static final double[] EXP = new double[EXP_SIZE];
+
+    private static final int LOG_BITS = 10;
+    private static final int LOG_SIZE = 1 << LOG_BITS;
+    private static final double[] LOG = new double[LOG_SIZE];
+    private static final double[] LOG_INVERSE = new double[LOG_SIZE];
+
+    private static final int MAX_INTEGER_EXPONENT = 32;
+    private static final long INV_SQRT_MAGIC = 0x5FE6EB50C7B537A9L;
+
+    private static volatile boolean fast;
+
+    static {
+        for (int i = 0; i <= SIN_SIZE; i++) {
+            SIN[i] = Math.sin(i * TWO_PI / SIN_SIZE);
+        }
+        for (int i = 0; i < EXP_SIZE; i++) {
+            EXP[i] = Math.pow(2, i / (double) EXP_SIZE);
+        }
+        for (int i = 0; i < LOG_SIZE; i++) {
+            double m = 1 + i / (double) LOG_SIZE;
+            LOG[i] = Math.log(m);
+            LOG_INVERSE[i] = 1 / m;
+        }
+    }
+
+    private FastMath() {
+    }
+
+    /**
+     * Gibt die Genauigkeit zurück, mit der gerechnet wird.
+     *
+     * @return der aktuelle Modus
+     */
+    public static Mode getMode() {
+        return fast ? Mode.FAST : Mode.EXACT;
+    }
+
+    /**
+     * Legt die Genauigkeit fest, mit der im gesamten Framework gerechnet wird.
+     *
+     * @param mode der neue Modus
+     */
+    public static void setMode(Mode mode) {
+        fast = checkNotNull(mode) == Mode.FAST;
+    }
+
+    /**
+     * Berechnet den Sinus. Die Näherung interpoliert linear in einer Tabelle mit 4096 Einträgen pro Periode. Der
+     * absolute Fehler ist für |a| &lt; 2^16 kleiner als 3e-7.
+     *
+     * @param a der Winkel im Bogenmaß
+     *
+     * @return der Sinus des Winkels
+     */
+    public static double sin(double a) {
+        if (!fast || !(Math.abs(a) < SIN_LIMIT)) {
+            return Math.sin(a);
+        }
+        return lookupSin(a * SIN_SCALE);
+    }
+
+    /**
+     * Berechnet den Kosinus mit derselben Tabelle und demselben Fehler wie {@link #sin(double)}.
+     *
+     * @param a der Winkel im Bogenmaß
+     *
+     * @return der Kosinus des Winkels
+     */
+    public static double cos(double a) {
+        if (!fast || !(Math.abs(a) < SIN_LIMIT)) {
+            return Math.cos(a);
+        }
+        // cos(a) = sin(a + pi / 2), eine viertel Periode entspricht genau SIN_SIZE / 4 Einträgen.
+        return lookupSin(a * SIN_SCALE + SIN_SIZE / 4);
+    }
+
+    /**
+     * Rechnet einen Winkel von Grad ins Bogenmaß um. Die Näherung multipliziert mit einer vorberechneten Konstante,
+     * der Fehler liegt bei wenigen ulp.
+     *
+     * @param angdeg der Winkel in Grad
+     *
+     * @return der Winkel im Bogenmaß
+     */
+    public static double toRadians(double angdeg) {
+        if (!fast) {
+            return Math.toRadians(angdeg);
+        }
+        return angdeg * DEG_TO_RAD;
+    }
+
+    /**
+     * Berechnet e^x. Die Näherung zerlegt x in eine Zweierpotenz, einen Tabellenwert mit 1024 Einträgen und einen
+     * Rest, der mit einem Polynom dritten Grades angenähert wird. Der relative Fehler ist für |x| &lt; 700 kleiner
+     * als 1e-12.
+     *
+     * @param x der Exponent
+     *
+     * @return e^x
+     */
+    public static double exp(double x) {
+        if (!fast || !(Math.abs(x) < EXP_LIMIT)) {
+            return Math.exp(x);
+        }
+        return approximateExp(x);
+    }
+
+    /**
+     * Berechnet den natürlichen Logarithmus. Die Näherung zerlegt x in Exponent und Mantisse, der Logarithmus der
+     * Mantisse wird aus einer Tabelle mit 1024 Einträgen und einem Polynom vierten Grades berechnet. Der absolute
+     * Fehler ist kleiner als 1e-15 * (1 + |ln x|).
+     *
+     * @param x eine positive Zahl
+     *
+     * @return ln(x)
+     */
+    public static double log(double x) {
+        if (!fast || !(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return Math.log(x);
+        }
+        return approximateLog(x);
+    }
+
+    /**
+     * Berechnet x^y. Für ganzzahlige Exponenten bis 32, wie sie bei Glanzlichtern üblich sind, wird durch
+     * fortgesetztes Quadrieren multipliziert. Der relative Fehler liegt dann bei wenigen ulp. Für positive Basen wird
+     * sonst e^(y ln x) mit den Näherungen von {@link #exp(double)} und {@link #log(double)} berechnet. Der relative
+     * Fehler ist dann für |y ln x| &lt; 700 kleiner als 1e-12.
+     *
+     * @param x die Basis
+     * @param y der Exponent
+     *
+     * @return x^y
+     */
+    public static double pow(double x, double y) {
+        if (!fast) {
+            return Math.pow(x, y);
+        }
+        int n = (int) y;
+        if (n == y && Math.abs(n) <= MAX_INTEGER_EXPONENT) {
+            return integerPow(x, n);
+        }
+        if (x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY) {
+            double t = y * approximateLog(x);
+            if (Math.abs(t) < EXP_LIMIT) {
+                return approximateExp(t);
+            }
+        }
+        return Math.pow(x, y);
+    }
+
+    /**
+     * Berechnet 1 / sqrt(x). Die Näherung schätzt das Ergebnis aus der Bitdarstellung von x und verbessert es mit
+     * drei Newton-Schritten. Der relative Fehler ist kleiner als 1e-10. Auf Plattformen, auf denen
+     * {@link Math#sqrt(double)} ein Prozessorbefehl ist, ist die Näherung nicht schneller als {@code 1 / Math.sqrt(x)}.
+     *
+     * @param x eine positive Zahl
+     *
+     * @return der Kehrwert der Quadratwurzel
+     */
+    public static double invSqrt(double x) {
+        if (!fast || !(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return 1 / Math.sqrt(x);
+        }
+        double half = 0.5 * x;
+        double y = Double.longBitsToDouble(INV_SQRT_MAGIC - (Double.doubleToRawLongBits(x) >> 1));
+        y *= 1.5 - half * y * y;
+        y *= 1.5 - half * y * y;
+        y *= 1.5 - half * y * y;
+        return y;
+    }
+
+    private static double lookupSin(double x) {
+        long k = (long) x;
+        if (x < k) {
+            k--;
+        }
+        int i = (int) (k & SIN_MASK);
+        double a = SIN[i];
+        return a + (SIN[i + 1] - a) * (x - k);
+    }
+
+    private static double approximateExp(double x) {
+        // x = (e * EXP_SIZE + j) * ln2 / EXP_SIZE + r mit 0 <= r < ln2 / EXP_SIZE
+        double t = x * EXP_SCALE;
+        long n = (long) t;
+        if (t < n) {
+            n--;
+        }
+        double r = x - n * EXP_STEP;
+        int j = (int) (n & (EXP_SIZE - 1));
+        long e = n >> EXP_BITS;
+        double p = 1 + r * (1 + r * (0.5 + r * (1 / 6.0)));
+        return Double.longBitsToDouble((e + 1023) << 52) * EXP[j] * p;
+    }
+
+    private static double approximateLog(double x) {
+        // x = 2^e * m mit 1 <= m < 2, ln(m) = ln(m_j) + ln(1 + u) mit u = (m - m_j) / m_j < 1 / LOG_SIZE
+        long bits = Double.doubleToRawLongBits(x);
+        int e = (int) (bits >>> 52) - 1023;
+        double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+        int j = (int) ((bits >>> (52 - LOG_BITS)) & (LOG_SIZE - 1));
+        double u = (m - (1 + j / (double) LOG_SIZE)) * LOG_INVERSE[j];
+        double p = u * (1 - u * (0.5 - u * (1 / 3.0 - u * 0.25)));
+        return e * LN2 + LOG[j] + p;
+    }
+
+    private static double integerPow(double x, int n) {
+        int k = Math.abs(n);
+        double result = 1;
+        double base = x;
+        while (k != 0) {
+            if ((k & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            k >>= 1;
+        }
+        return n < 0 ? 1 / result : result;
+    }
+}
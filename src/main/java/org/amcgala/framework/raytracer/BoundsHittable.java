@@ -0,0 +1,26 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.raytracer;
+
+/**
+ * Kennzeichnet ein Shape, das keinen exakten Schnittpunkt mit einem Strahl berechnet und stattdessen über seine
+ * BoundingBox getroffen wird, z.B. bei der Auswahl mit
+ * {@link org.amcgala.framework.scenegraph.Octree#pick(Ray)}. Shapes ohne dieses Interface gelten nur dann als
+ * getroffen, wenn {@link Hittable#hit(Ray, ShadingInfo)} einen Schnittpunkt liefert.
+ *
+ * @since 2.1
+ */
+public interface BoundsHittable {
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.raytracer;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.amcgala.framework.renderer.PixelImage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Ein Framebuffer, der lineare RGB-Werte als float ohne Begrenzung auf [0, 1] speichert. Farbwerte werden während der
+ * Berechnung nur aufsummiert. Erst {@link #resolve(ToneMapper, PixelImage, int)} bildet sie über einen
+ * {@link ToneMapper} auf gepackte ARGB-Werte ab.
+ *
+ * @since 2.1
+ */
+public final class HdrFrameBuffer {
+    private static final int MIN_ROWS_PER_TASK = 16;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("amcgala-resolve-%d").build());
+
+    private final int width;
+    private final int height;
+    private final float[] data;
+
+    /**
+     * Erzeugt einen neuen, schwarzen Framebuffer.
+     *
+     * @param width  die Breite in Pixeln
+     * @param height die Höhe in Pixeln
+     */
+    public HdrFrameBuffer(int width, int height) {
+        checkArgument(width > 0 && height > 0, "Breite und Höhe müssen größer 0 sein!");
+        this.width = width;
+        this.height = height;
+        this.data = new float[width * height * 3];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Setzt alle Pixel auf Schwarz zurück.
+     */
+    public void clear() {
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Setzt den Farbwert eines Pixels.
+     *
+     * @param x     die Spalte
+     * @param y     die Zeile, von oben gezählt
+     * @param red   der rote Kanal
+     * @param green der grüne Kanal
+     * @param blue  der blaue Kanal
+     */
+    public void set(int x, int y, float red, float green, float blue) {
+        int i = (y * width + x) * 3;
+        data[i] = red;
+        data[i + 1] = green;
+        data[i + 2] = blue;
+    }
+
+    /**
+     * Addiert einen Farbwert auf ein Pixel.
+     *
+     * @param x     die Spalte
+     * @param y     die Zeile, von oben gezählt
+     * @param red   der rote Kanal
+     * @param green der grüne Kanal
+     * @param blue  der blaue Kanal
+     */
+    public void add(int x, int y, float red, float green, float blue) {
+        int i = (y * width + x) * 3;
+        data[i] += red;
+        data[i + 1] += green;
+        data[i + 2] += blue;
+    }
+
+    /**
+     * Addiert einen Farbwert auf ein Pixel. Die Kanäle werden dabei nicht begrenzt.
+     *
+     * @param x     die Spalte
+     * @param y     die Zeile, von oben gezählt
+     * @param color der Farbwert
+     */
+    public void add(int x, int y, RGBColor color) {
+        add(x, y, color.red, color.green, color.blue);
+    }
+
+    /**
+     * Multipliziert ein Pixel mit einem Faktor, z.B. um die Summe mehrerer Samples zu normalisieren.
+     *
+     * @param x      die Spalte
+     * @param y      die Zeile, von oben gezählt
+     * @param factor der Faktor
+     */
+    public void scale(int x, int y, float factor) {
+        int i = (y * width + x) * 3;
+        data[i] *= factor;
+        data[i + 1] *= factor;
+        data[i + 2] *= factor;
+    }
+
+    /**
+     * Bildet alle Pixel über einen ToneMapper auf ein Bild ab. Jedes Pixel wird dabei als Quadrat der Kantenlänge
+     * {@code scale} ausgegeben. Die Zeilen werden parallel bearbeitet.
+     *
+     * @param toneMapper der ToneMapper
+     * @param target     das Zielbild, mindestens {@code width * scale} x {@code height * scale} groß
+     * @param scale      die Kantenlänge eines Pixels im Zielbild
+     */
+    public void resolve(final ToneMapper toneMapper, final PixelImage target, final int scale) {
+        checkNotNull(toneMapper);
+        checkArgument(scale > 0, "Die Pixelgröße muss größer 0 sein!");
+        checkArgument(target.getWidth() >= width * scale && target.getHeight() >= height * scale,
+                "Das Zielbild ist zu klein!");
+
+        int tasks = Math.min(THREADS, height / MIN_ROWS_PER_TASK);
+        if (tasks <= 1) {
+            resolveRows(toneMapper, target, scale, 0, height);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int from = t * height / tasks;
+            final int to = (t + 1) * height / tasks;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    resolveRows(toneMapper, target, scale, from, to);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Auflösen des Framebuffers wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private void resolveRows(ToneMapper toneMapper, PixelImage target, int scale, int from, int to) {
+        int[] out = target.getPixels();
+        int stride = target.getWidth();
+        for (int y = from; y < to; y++) {
+            int row = y * scale * stride;
+            int i = y * width * 3;
+            for (int x = 0; x < width; x++, i += 3) {
+                int argb = toneMapper.toARGB(data[i], data[i + 1], data[i + 2]);
+                int o = row + x * scale;
+                for (int s = 0; s < scale; s++) {
+                    out[o + s] = argb;
+                }
+            }
+            // Die übrigen Zeilen eines Pixels sind Kopien der ersten.
+            for (int s = 1; s < scale; s++) {
+                System.arraycopy(out, row, out, row + s * stride, width * scale);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.amcgala.framework.raytracer;
 
 import com.google.common.base.Objects;
+import org.amcgala.framework.math.util.FastMath;
 
 import java.awt.*;
 
@@ -41,7 +42,7 @@ public class RGBColor {
     }
 
     public RGBColor pow(float p) {
-        return new RGBColor((float) Math.pow(red, p), (float) Math.pow(green, p), (float) Math.pow(blue, p));
+        return new RGBColor((float) FastMath.pow(red, p), (float) FastMath.pow(green, p), (float) FastMath.pow(blue, p));
     }
 
     public Color toColor() {
@@ -66,6 +67,34 @@ public class RGBColor {
         return blue;
     }
 
+    /**
+     * Vergleicht die Farbanteile zweier Farben.
+     *
+     * @param obj die andere Farbe
+     *
+     * @return {@code true}, wenn Rot-, Grün- und Blauanteil übereinstimmen
+     *
+     * @since 2.1
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RGBColor)) {
+            return false;
+        }
+        RGBColor that = (RGBColor) obj;
+        return Float.compare(red, that.red) == 0
+                && Float.compare(green, that.green) == 0
+                && Float.compare(blue, that.blue) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(red, green, blue);
+    }
+
     @Override
     public String toString() {
         return Objects.toStringHelper(getClass()).add("red", red).add("green", green).add("blue", blue).toString();
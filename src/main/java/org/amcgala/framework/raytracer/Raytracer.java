@@ -21,6 +21,10 @@ import org.amcgala.framework.raytracer.sampler.RegularSampler;
 import org.amcgala.framework.raytracer.tracer.RecursiveTracer;
 import org.amcgala.framework.raytracer.tracer.Tracer;
 import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.shape.Shape;
+import org.amcgala.framework.shape.shape3d.LodMesh;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Der RaytraceVisitor traversiert den {@link org.amcgala.framework.scenegraph.SceneGraph} und berechnet die
@@ -37,9 +41,21 @@ public class Raytracer {
     private Vector3d eye;
 
     public Raytracer() {
-        tracer = new RecursiveTracer(5);
-        viewPlane = new ViewPlane(600, 600, 1);
+        this(new ViewPlane(600, 600, 1));
         viewPlane.setSampler(new RandomSampler(128));
+    }
+
+    /**
+     * Erzeugt einen Raytracer, der in die übergebene ViewPlane rechnet. Der ViewPlane muss ein
+     * {@link org.amcgala.framework.raytracer.sampler.Sampler} zugewiesen sein.
+     *
+     * @param viewPlane die ViewPlane
+     *
+     * @since 2.1
+     */
+    public Raytracer(ViewPlane viewPlane) {
+        this.viewPlane = checkNotNull(viewPlane);
+        tracer = new RecursiveTracer(5);
         eye = new Vector3d(0, 0, 600);
     }
 
@@ -53,24 +69,64 @@ public class Raytracer {
     }
 
     public void traceScene() {
+        trace();
+
+        // Tone-Mapping und Ausgabe des gesamten Bildes
+        viewPlane.present();
+    }
+
+    /**
+     * Berechnet alle Pixel der ViewPlane in ihren Framebuffer, ohne das Bild auszugeben.
+     *
+     * @return der Framebuffer mit dem berechneten Bild
+     *
+     * @since 2.1
+     */
+    public HdrFrameBuffer trace() {
+        selectLevels();
+        HdrFrameBuffer frameBuffer = viewPlane.getFrameBuffer();
+        float norm = 1.0f / viewPlane.getNumberOfSamples();
         for (int row = 0; row < viewPlane.getVerticalResolution(); row++) {
             for (int column = 0; column < viewPlane.getHorizontalResolution(); column++) {
-                RGBColor color = new RGBColor(0, 0, 0);
+                float red = 0;
+                float green = 0;
+                float blue = 0;
                 for (int n = 0; n < viewPlane.getNumberOfSamples(); n++) {
                     final Vector3d o = viewPlane.getWorldCoordinates(column, row);
                     final Vector3d d = o.sub(eye);
                     Ray ray = new Ray(o, d);
-                    color = color.add(tracer.trace(ray, scene));
+                    RGBColor sample = tracer.trace(ray, scene);
+                    red += sample.red;
+                    green += sample.green;
+                    blue += sample.blue;
                 }
 
                 // Normalisieren der Farbe
-                color = color.times(1.0f / viewPlane.getNumberOfSamples());
-
-                // Rendering des Pixels
-                viewPlane.drawPixel(column, row, color);
+                frameBuffer.set(column, row, red * norm, green * norm, blue * norm);
+            }
+        }
+        return frameBuffer;
+    }
 
+    /**
+     * Wählt die Detailstufen aller {@link LodMesh}es der Szene einmal für das ganze Bild. Die ViewPlane liegt in der
+     * Ebene z = 0.
+     */
+    private void selectLevels() {
+        for (Shape shape : scene.getShapes()) {
+            if (shape instanceof LodMesh) {
+                ((LodMesh) shape).updateLevel(eye, Math.abs(eye.z), viewPlane.getPixelSize());
             }
         }
     }
+
+    /**
+     * Ändert die Abbildung der berechneten Farbwerte auf die Ausgabe.
+     *
+     * @param toneMapper der neue ToneMapper
+     */
+    public void setToneMapper(ToneMapper toneMapper) {
+        viewPlane.setToneMapper(toneMapper);
+    }
 }
 
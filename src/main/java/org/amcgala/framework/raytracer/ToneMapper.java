@@ -0,0 +1,123 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.raytracer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Bildet die linearen HDR-Farbwerte eines {@link HdrFrameBuffer} auf darstellbare 8 Bit Kanäle ab.
+ * <p/>
+ * Pro Kanal wird zuerst mit der Belichtung skaliert und dann der Tone-Mapping-Operator angewendet. Beide Operatoren
+ * liefern Werte im Intervall [0, 1]. Gammakorrektur und Quantisierung erfolgen anschließend über eine vorberechnete
+ * Tabelle, so dass pro Kanal kein {@link Math#pow(double, double)} mehr berechnet werden muss.
+ *
+ * @since 2.1
+ */
+public final class ToneMapper {
+    /**
+     * Die verfügbaren Tone-Mapping-Operatoren.
+     */
+    public enum Operator {
+        /**
+         * Werte außerhalb von [0, 1] werden abgeschnitten. Entspricht der Darstellung über {@link RGBColor#toColor()}.
+         */
+        CLAMP,
+        /**
+         * Reinhard-Operator x / (1 + x). Helle Werte werden weich komprimiert, anstatt abgeschnitten zu werden.
+         */
+        REINHARD
+    }
+
+    private static final int LUT_SIZE = 4096;
+
+    private final Operator operator;
+    private final float exposure;
+    private final float gamma;
+    private final int[] lut;
+
+    /**
+     * Erzeugt einen ToneMapper, der Werte nur abschneidet und keine Gammakorrektur durchführt.
+     */
+    public ToneMapper() {
+        this(Operator.CLAMP, 1, 1);
+    }
+
+    /**
+     * Erzeugt einen neuen ToneMapper.
+     *
+     * @param operator der Tone-Mapping-Operator
+     * @param exposure der Faktor, mit dem alle Werte vor dem Tone-Mapping multipliziert werden
+     * @param gamma    der Gammawert der Ausgabe, z.B. 2.2
+     */
+    public ToneMapper(Operator operator, float exposure, float gamma) {
+        checkArgument(exposure > 0, "Die Belichtung muss größer 0 sein!");
+        checkArgument(gamma > 0, "Der Gammawert muss größer 0 sein!");
+        this.operator = checkNotNull(operator);
+        this.exposure = exposure;
+        this.gamma = gamma;
+
+        lut = new int[LUT_SIZE];
+        double invGamma = 1.0 / gamma;
+        for (int i = 0; i < LUT_SIZE; i++) {
+            lut[i] = (int) Math.round(255 * Math.pow(i / (double) (LUT_SIZE - 1), invGamma));
+        }
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public float getExposure() {
+        return exposure;
+    }
+
+    public float getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Bildet einen linearen Farbwert auf einen Kanalwert zwischen 0 und 255 ab.
+     *
+     * @param value der lineare Farbwert
+     *
+     * @return der Kanalwert der Ausgabe
+     */
+    public int map(float value) {
+        float v = value * exposure;
+        if (v <= 0) {
+            return lut[0];
+        }
+        if (operator == Operator.REINHARD) {
+            v = v / (1 + v);
+        } else if (v >= 1) {
+            return lut[LUT_SIZE - 1];
+        }
+        return lut[(int) (v * (LUT_SIZE - 1) + 0.5f)];
+    }
+
+    /**
+     * Bildet einen linearen RGB-Wert auf einen deckenden, gepackten ARGB-Wert ab.
+     *
+     * @param red   der rote Kanal
+     * @param green der grüne Kanal
+     * @param blue  der blaue Kanal
+     *
+     * @return der gepackte ARGB-Wert
+     */
+    public int toARGB(float red, float green, float blue) {
+        return 0xff000000 | (map(red) << 16) | (map(green) << 8) | map(blue);
+    }
+}
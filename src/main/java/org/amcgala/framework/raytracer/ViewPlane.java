@@ -2,11 +2,12 @@ package org.amcgala.framework.raytracer;
 
 import org.amcgala.framework.math.Vector3d;
 import org.amcgala.framework.raytracer.sampler.Sampler;
-import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.PixelImage;
 import org.amcgala.framework.renderer.Renderer;
 
 import javax.vecmath.Point2d;
-import java.awt.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Die ViewPlane des Raytracers ist die Projektionsfläche, durch die die Strahlen in die Szene geschickt werden. Hierbei
@@ -23,6 +24,14 @@ public class ViewPlane {
     private int numberOfSamples;
     private Sampler sampler;
     private Renderer renderer;
+    private ToneMapper toneMapper = new ToneMapper();
+    private HdrFrameBuffer frameBuffer;
+    /**
+     * Die Bilder, in die der Framebuffer aufgelöst wird. Es wird reihum in ein anderes Bild geschrieben, da ein
+     * Renderthread ein bereits ausgegebenes Bild noch lesen kann.
+     */
+    private final PixelImage[] images = new PixelImage[3];
+    private int currentImage;
 
     public Sampler getSampler() {
         return sampler;
@@ -127,7 +136,68 @@ public class ViewPlane {
         this.renderer = renderer;
     }
 
+    /**
+     * Schreibt den Farbwert eines Pixels in den Framebuffer. Sichtbar wird das Pixel erst mit {@link #present()}.
+     *
+     * @param column der Spaltenindex des Pixels
+     * @param row    der Zeilenindex des Pixels
+     * @param color  der lineare Farbwert
+     */
     public void drawPixel(int column, int row, RGBColor color) {
-        renderer.fillRect(new Pixel(column, row), pixelSize, pixelSize, color.toColor());
+        getFrameBuffer().set(column, row, color.red, color.green, color.blue);
+    }
+
+    /**
+     * Gibt den Framebuffer zurück, in dem die linearen Farbwerte der ViewPlane gesammelt werden. Der Framebuffer wird
+     * neu angelegt, wenn sich die Auflösung geändert hat.
+     *
+     * @return der Framebuffer
+     *
+     * @since 2.1
+     */
+    public HdrFrameBuffer getFrameBuffer() {
+        if (frameBuffer == null
+                || frameBuffer.getWidth() != horizontalResolution
+                || frameBuffer.getHeight() != verticalResolution) {
+            frameBuffer = new HdrFrameBuffer(horizontalResolution, verticalResolution);
+        }
+        return frameBuffer;
+    }
+
+    public ToneMapper getToneMapper() {
+        return toneMapper;
+    }
+
+    /**
+     * Ändert die Abbildung der linearen Farbwerte auf die Ausgabe.
+     *
+     * @param toneMapper der neue ToneMapper
+     *
+     * @since 2.1
+     */
+    public void setToneMapper(ToneMapper toneMapper) {
+        this.toneMapper = checkNotNull(toneMapper);
+    }
+
+    /**
+     * Löst den Framebuffer über den ToneMapper in ein Bild auf und gibt es über den Renderer aus. Die linke obere Ecke
+     * der ViewPlane liegt in der linken oberen Ecke der Ausgabe.
+     *
+     * @since 2.1
+     */
+    public void present() {
+        HdrFrameBuffer buffer = getFrameBuffer();
+        int w = buffer.getWidth() * pixelSize;
+        int h = buffer.getHeight() * pixelSize;
+
+        currentImage = (currentImage + 1) % images.length;
+        PixelImage image = images[currentImage];
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = new PixelImage(w, h);
+            images[currentImage] = image;
+        }
+
+        buffer.resolve(toneMapper, image, pixelSize);
+        renderer.drawImage(image, -(renderer.getWidth() >> 1), renderer.getHeight() >> 1);
     }
 }
@@ -1,5 +1,6 @@
 package org.amcgala.framework.raytracer.sampler;
 
+import org.amcgala.framework.math.RandomSource;
 import org.apache.commons.math3.random.MersenneTwister;
 
 /**
@@ -7,7 +8,7 @@ import org.apache.commons.math3.random.MersenneTwister;
  */
 public abstract class AbstractSampler implements Sampler {
     protected int numberOfSamples = 1;
-    protected MersenneTwister random = new MersenneTwister(System.nanoTime());
+    protected MersenneTwister random = new MersenneTwister(RandomSource.nextSeed());
 
     @Override
     public int getNumberOfSamples() {
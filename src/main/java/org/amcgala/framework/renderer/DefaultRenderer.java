@@ -14,18 +14,25 @@
  */
 package org.amcgala.framework.renderer;
 
+import com.google.common.math.DoubleMath;
 import org.amcgala.framework.appearance.Appearance;
 import org.amcgala.framework.camera.Camera;
 import org.amcgala.framework.lighting.Light;
 import org.amcgala.framework.math.Matrix;
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.math.VertexKernels;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Wird von jedem DefaultRenderer erweitert und stellt die Funktionen drawPixel und show zur Verfügung.
@@ -45,14 +52,69 @@ public class DefaultRenderer implements Renderer {
     private int offsetY;
     private JFrame frame;
     private Graphics g;
+    private Graphics frameGraphics;
+    private RenderCommandBuffer frameCommands;
+    private boolean inLayer;
+    private Color color = Color.BLACK;
+    /**
+     * Der Puffer, in den im Pipeline-Betrieb aufgezeichnet wird. Ist {@code null}, wenn direkt gezeichnet wird.
+     */
+    private RenderCommandBuffer commands;
+    private RenderThread renderThread;
+    private boolean pipelined;
+    /**
+     * Leere Befehlspuffer, die von Forks wiederverwendet werden können.
+     */
+    private final List<RenderCommandBuffer> spareBuffers = new ArrayList<RenderCommandBuffer>();
     private Camera camera;
     private Matrix transformationMatrix;
     private List<Light> lights;
+    /**
+     * Die projizierten Punkte von {@link #drawLines(double[], double[], double[], int, int[], int)}.
+     */
+    private double[] projectedX = new double[0];
+    private double[] projectedY = new double[0];
 
     public DefaultRenderer(Camera camera) {
         this.camera = checkNotNull(camera);
     }
 
+    /**
+     * Schaltet den Pipeline-Betrieb ein oder aus. Im Pipeline-Betrieb zeichnet der Renderer nicht direkt in die
+     * {@link BufferStrategy}, sondern zeichnet alle Befehle eines Frames in einem {@link RenderCommandBuffer} auf.
+     * Mit {@link #show()} wird der Frame an einen {@link RenderThread} übergeben, der ihn ausgibt, während bereits
+     * der nächste Frame berechnet wird.
+     *
+     * @param pipelined {@code true}, wenn die Ausgabe in einem eigenen Thread erfolgen soll
+     *
+     * @since 2.1
+     */
+    public void setPipelined(boolean pipelined) {
+        checkState(!inLayer, "Während in einen Layer gezeichnet wird, kann der Betrieb nicht gewechselt werden!");
+        if (this.pipelined == pipelined) {
+            return;
+        }
+        this.pipelined = pipelined;
+        if (bs != null) {
+            if (pipelined) {
+                startPipeline();
+            } else {
+                stopPipeline();
+            }
+        }
+    }
+
+    /**
+     * Gibt zurück, ob der Renderer im Pipeline-Betrieb arbeitet.
+     *
+     * @return {@code true}, wenn die Ausgabe in einem eigenen Thread erfolgt
+     *
+     * @since 2.1
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
 
     @Override
     public int getWidth() {
@@ -92,8 +154,8 @@ public class DefaultRenderer implements Renderer {
     @Override
     public void drawPixel(Pixel pixel) {
         checkNotNull(pixel);
-        g.setColor(pixel.color);
-        g.fillRect(offsetX + pixel.x, -pixel.y + offsetY, 1, 1);
+        setColor(pixel.color);
+        emitFillRect(offsetX + pixel.x, -pixel.y + offsetY, 1, 1);
     }
 
     @Override
@@ -101,7 +163,7 @@ public class DefaultRenderer implements Renderer {
         checkNotNull(pixel);
         checkNotNull(color);
         setColor(color);
-        g.fillRect(offsetX + pixel.x, -pixel.y + offsetY, 1, 1);
+        emitFillRect(offsetX + pixel.x, -pixel.y + offsetY, 1, 1);
     }
 
     @Override
@@ -112,12 +174,21 @@ public class DefaultRenderer implements Renderer {
 
     @Override
     public void setColor(Color color) {
-        g.setColor(checkNotNull(color));
+        this.color = checkNotNull(color);
+        if (commands != null) {
+            commands.setColor(color.getRGB());
+        } else {
+            g.setColor(color);
+        }
     }
 
     @Override
     public void drawLine(int x1, int y1, int x2, int y2) {
-        g.drawLine(offsetX + x1, -y1 + offsetY, offsetX + x2, -y2 + offsetY);
+        if (commands != null) {
+            commands.drawLine(offsetX + x1, -y1 + offsetY, offsetX + x2, -y2 + offsetY);
+        } else {
+            g.drawLine(offsetX + x1, -y1 + offsetY, offsetX + x2, -y2 + offsetY);
+        }
     }
 
     @Override
@@ -126,14 +197,26 @@ public class DefaultRenderer implements Renderer {
         int xi = (int) Math.round(x);
         int yi = (int) Math.round(y);
 
-        g.drawOval(offsetX + xi + r2, -yi - r2 + offsetY, r2, r2);
+        if (commands != null) {
+            commands.drawOval(offsetX + xi + r2, -yi - r2 + offsetY, r2, r2);
+        } else {
+            g.drawOval(offsetX + xi + r2, -yi - r2 + offsetY, r2, r2);
+        }
     }
 
     @Override
     public void show() {
-        bs.show();
-        g = bs.getDrawGraphics();
-        g.clearRect(0, 0, frame.getWidth(), frame.getHeight());
+        checkState(bs != null, "Dem Renderer wurde keine Ausgabe zugewiesen!");
+        checkState(!inLayer, "Es wird noch in einen Layer gezeichnet!");
+        if (renderThread != null) {
+            commands = renderThread.publish();
+        } else {
+            bs.show();
+            g.dispose();
+            g = bs.getDrawGraphics();
+            g.clearRect(0, 0, width, height);
+            g.setColor(color);
+        }
     }
 
     @Override
@@ -145,6 +228,30 @@ public class DefaultRenderer implements Renderer {
         drawLine(sp.x, sp.y, ep.x, ep.y);
     }
 
+    @Override
+    public void drawLines(double[] x, double[] y, double[] z, int vertexCount, int[] lines, int lineCount) {
+        checkNotNull(lines);
+        checkArgument(lineCount >= 0 && lines.length >= lineCount * 2, "Das Array enthält zu wenige Linien!");
+        if (projectedX.length < vertexCount) {
+            projectedX = new double[vertexCount];
+            projectedY = new double[vertexCount];
+        }
+        Matrix projection = camera.getProjectionMatrix().times(transformationMatrix);
+        VertexKernels.project(projection, x, y, z, 0, vertexCount, projectedX, projectedY);
+
+        for (int i = 0; i < lineCount * 2; i += 2) {
+            int start = lines[i];
+            int end = lines[i + 1];
+            checkArgument(start < vertexCount && end < vertexCount, "Ungültiger Punkt in Linie %s", i / 2);
+            // Gerundet wird wie bei Pixel, damit die Linien auf denselben Pixeln liegen wie bei drawLine.
+            drawLine(round(projectedX[start]), round(projectedY[start]), round(projectedX[end]), round(projectedY[end]));
+        }
+    }
+
+    private static int round(double coordinate) {
+        return DoubleMath.roundToInt(coordinate, RoundingMode.HALF_DOWN);
+    }
+
     @Override
     public void drawCircle(Vector3d pos, double radius) {
         Vector3d tv = checkNotNull(pos).transform(transformationMatrix);
@@ -171,28 +278,164 @@ public class DefaultRenderer implements Renderer {
     @Override
     public void setFrame(JFrame frame) {
         this.frame = checkNotNull(frame);
+        frame.createBufferStrategy(2);
+        setBufferStrategy(frame.getBufferStrategy(), frame.getWidth(), frame.getHeight());
+    }
 
-        this.width = frame.getWidth();
-        this.height = frame.getHeight();
+    /**
+     * Legt die {@link BufferStrategy} fest, auf der ausgegeben wird.
+     *
+     * @param bufferStrategy die BufferStrategy der Ausgabe
+     * @param width          die Breite der Ausgabe
+     * @param height         die Höhe der Ausgabe
+     */
+    void setBufferStrategy(BufferStrategy bufferStrategy, int width, int height) {
+        this.width = width;
+        this.height = height;
 
-        this.offsetX = frame.getWidth() >> 1;
-        this.offsetY = frame.getHeight() >> 1;
+        this.offsetX = width >> 1;
+        this.offsetY = height >> 1;
 
-        frame.createBufferStrategy(2);
-        bs = frame.getBufferStrategy();
-        g = bs.getDrawGraphics();
+        if (renderThread != null) {
+            renderThread.stop();
+            renderThread = null;
+        }
+        if (g != null) {
+            g.dispose();
+        }
+
+        bs = checkNotNull(bufferStrategy);
+        if (pipelined) {
+            startPipeline();
+        } else {
+            g = bs.getDrawGraphics();
+            g.setColor(color);
+        }
     }
 
     @Override
     public void fillRect(Pixel pos, int width, int height, Color color) {
-
-        g.setColor(color);
-        g.fillRect(pos.x * width, pos.y * height, width, height);
+        setColor(color);
+        emitFillRect(pos.x * width, pos.y * height, width, height);
     }
 
     @Override
     public Color getColor() {
-        return g.getColor();
+        return color;
+    }
+
+    @Override
+    public void beginLayer(RenderLayer layer) {
+        checkState(!inLayer, "Es wird bereits in einen Layer gezeichnet!");
+        long presentedFrame = renderThread != null ? renderThread.getPresentedFrame() : Long.MAX_VALUE;
+        Graphics layerGraphics = checkNotNull(layer).prepareImage(width, height, presentedFrame).createGraphics();
+        layerGraphics.setColor(color);
+        frameGraphics = g;
+        frameCommands = commands;
+        g = layerGraphics;
+        commands = null;
+        inLayer = true;
+    }
+
+    @Override
+    public void endLayer() {
+        checkState(inLayer, "Es wird in keinen Layer gezeichnet!");
+        g.dispose();
+        g = frameGraphics;
+        commands = frameCommands;
+        frameGraphics = null;
+        frameCommands = null;
+        inLayer = false;
+        // Die im Layer zuletzt gesetzte Farbe gilt auch für die folgenden Zeichenbefehle.
+        setColor(color);
+    }
+
+    @Override
+    public void drawLayer(RenderLayer layer) {
+        if (checkNotNull(layer).getImage() != null) {
+            if (renderThread != null) {
+                layer.markUsed(renderThread.getWriteFrame());
+            }
+            if (commands != null) {
+                commands.drawImage(layer.getImage(), 0, 0);
+            } else {
+                g.drawImage(layer.getImage(), 0, 0, null);
+            }
+        }
+    }
+
+    @Override
+    public void drawImage(PixelImage image, int x, int y) {
+        BufferedImage img = checkNotNull(image).toBufferedImage();
+        if (commands != null) {
+            commands.drawImage(img, offsetX + x, -y + offsetY);
+        } else {
+            g.drawImage(img, offsetX + x, -y + offsetY, null);
+        }
+    }
+
+    @Override
+    public Renderer fork() {
+        checkState(!inLayer, "Während in einen Layer gezeichnet wird, kann kein Fork erzeugt werden!");
+        DefaultRenderer fork = new DefaultRenderer(camera);
+        fork.width = width;
+        fork.height = height;
+        fork.offsetX = offsetX;
+        fork.offsetY = offsetY;
+        fork.transformationMatrix = transformationMatrix;
+        fork.lights = lights;
+        // Layer, die ein Fork ausgibt, erscheinen im Frame des Renderthreads.
+        fork.renderThread = renderThread;
+        fork.commands = spareBuffers.isEmpty()
+                ? new RenderCommandBuffer()
+                : spareBuffers.remove(spareBuffers.size() - 1);
+        // Der Fork beginnt mit der aktuellen Farbe, unabhängig davon, in welcher Reihenfolge übernommen wird.
+        fork.setColor(color);
+        return fork;
+    }
+
+    @Override
+    public void merge(Renderer fork) {
+        checkArgument(fork instanceof DefaultRenderer, "Fork wurde nicht von einem DefaultRenderer erzeugt!");
+        checkState(!inLayer, "Während in einen Layer gezeichnet wird, kann kein Fork übernommen werden!");
+        DefaultRenderer other = (DefaultRenderer) fork;
+        if (commands != null) {
+            commands.append(other.commands);
+        } else {
+            other.commands.replay(g);
+        }
+        color = other.color;
+
+        other.commands.clear();
+        spareBuffers.add(other.commands);
+        other.commands = null;
+    }
+
+    private void emitFillRect(int x, int y, int width, int height) {
+        if (commands != null) {
+            commands.fillRect(x, y, width, height);
+        } else {
+            g.fillRect(x, y, width, height);
+        }
+    }
+
+    private void startPipeline() {
+        if (g != null) {
+            g.dispose();
+            g = null;
+        }
+        renderThread = new RenderThread(bs, width, height);
+        commands = renderThread.getWriteBuffer();
+        renderThread.start();
+    }
+
+    private void stopPipeline() {
+        renderThread.stop();
+        renderThread = null;
+        commands = null;
+        g = bs.getDrawGraphics();
+        g.clearRect(0, 0, width, height);
+        g.setColor(color);
     }
 
 
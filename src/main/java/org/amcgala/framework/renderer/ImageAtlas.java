@@ -0,0 +1,102 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.renderer;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Gemeinsamer Speicher für alle geladenen Bilder. Jedes Bild wird nur einmal dekodiert und als {@link PixelImage}
+ * abgelegt. Alle Sprites, die dasselbe Bild verwenden, teilen sich daher dessen Pixelarray.
+ * <p/>
+ * Ein Pfad wird zuerst im Dateisystem und danach im Klassenpfad gesucht. Die geteilten Bilder dürfen nicht verändert
+ * werden.
+ *
+ * @since 2.1
+ */
+public final class ImageAtlas {
+    private static final Logger log = LoggerFactory.getLogger(ImageAtlas.class);
+
+    private static final LoadingCache<String, PixelImage> images = CacheBuilder.newBuilder()
+            .build(new CacheLoader<String, PixelImage>() {
+                @Override
+                public PixelImage load(String path) throws IOException {
+                    return PixelImage.fromImage(read(path));
+                }
+            });
+
+    private ImageAtlas() {
+    }
+
+    /**
+     * Gibt das Bild zu einem Pfad zurück. Beim ersten Zugriff wird das Bild geladen und dekodiert.
+     *
+     * @param path der Pfad zu einer Bilddatei (jpeg, png, gif)
+     *
+     * @return das geteilte Bild
+     *
+     * @throws IllegalArgumentException wenn das Bild nicht geladen werden konnte
+     */
+    public static PixelImage getImage(String path) {
+        try {
+            return images.get(checkNotNull(path));
+        } catch (ExecutionException e) {
+            log.error("Konnte Bild {} nicht laden", path);
+            throw new IllegalArgumentException("Konnte Bild " + path + " nicht laden", e.getCause());
+        }
+    }
+
+    /**
+     * Entfernt ein Bild aus dem Atlas. Sprites, die das Bild bereits verwenden, behalten ihre Referenz.
+     *
+     * @param path der Pfad des Bildes
+     */
+    public static void evict(String path) {
+        images.invalidate(checkNotNull(path));
+    }
+
+    private static BufferedImage read(String path) throws IOException {
+        BufferedImage image;
+        File file = new File(path);
+        if (file.isFile()) {
+            image = ImageIO.read(file);
+        } else {
+            URL url = ImageAtlas.class.getClassLoader().getResource(path);
+            if (url == null) {
+                throw new FileNotFoundException(path);
+            }
+            image = ImageIO.read(url);
+        }
+
+        if (image == null) {
+            throw new IOException("Unbekanntes Bildformat: " + path);
+        }
+        log.debug("Bild {} geladen", path);
+        return image;
+    }
+}
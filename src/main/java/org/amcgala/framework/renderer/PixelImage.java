@@ -0,0 +1,275 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.renderer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Ein Rasterbild, dessen Pixel zeilenweise als gepackte ARGB-Werte in einem einzigen int-Array liegen. Die erste Zeile
+ * des Arrays ist die oberste Zeile des Bildes.
+ * <p/>
+ * Bilder können zeilenweise mit {@link System#arraycopy} ineinander kopiert werden. Alle Kopiermethoden schneiden das
+ * Quellbild an den Rändern des Zielbildes ab.
+ *
+ * @since 2.1
+ */
+public final class PixelImage {
+    private static final int[] MASKS = {0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000};
+    private static final ColorModel COLOR_MODEL = new DirectColorModel(32, MASKS[0], MASKS[1], MASKS[2], MASKS[3]);
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private BufferedImage bufferedImage;
+
+    /**
+     * Erzeugt ein neues, vollständig transparentes Bild.
+     *
+     * @param width  die Breite des Bildes
+     * @param height die Höhe des Bildes
+     */
+    public PixelImage(int width, int height) {
+        this(width, height, new int[width * height]);
+    }
+
+    /**
+     * Erzeugt ein neues Bild, das ein bestehendes Pixelarray verwendet. Das Array wird nicht kopiert.
+     *
+     * @param width  die Breite des Bildes
+     * @param height die Höhe des Bildes
+     * @param pixels die Pixel als gepackte ARGB-Werte, zeilenweise von oben nach unten
+     */
+    public PixelImage(int width, int height, int[] pixels) {
+        checkArgument(width > 0 && height > 0, "Breite und Höhe müssen größer 0 sein!");
+        checkArgument(checkNotNull(pixels).length == width * height, "Das Pixelarray passt nicht zur Größe des Bildes!");
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Erzeugt ein neues Bild aus einem {@link BufferedImage}. Die Pixel werden einmalig ausgelesen.
+     *
+     * @param image das Quellbild
+     *
+     * @return das neue Bild
+     */
+    public static PixelImage fromImage(BufferedImage image) {
+        int w = checkNotNull(image).getWidth();
+        int h = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, w, h, null, 0, w);
+        return new PixelImage(w, h, pixels);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gibt das Pixelarray des Bildes zurück. Änderungen am Array ändern das Bild.
+     *
+     * @return die Pixel als gepackte ARGB-Werte
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Gibt den ARGB-Wert eines Pixels zurück.
+     *
+     * @param x die Spalte
+     * @param y die Zeile, von oben gezählt
+     *
+     * @return der gepackte ARGB-Wert
+     */
+    public int getPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    /**
+     * Setzt den ARGB-Wert eines Pixels.
+     *
+     * @param x    die Spalte
+     * @param y    die Zeile, von oben gezählt
+     * @param argb der gepackte ARGB-Wert
+     */
+    public void setPixel(int x, int y, int argb) {
+        pixels[y * width + x] = argb;
+    }
+
+    /**
+     * Füllt das gesamte Bild mit einer Farbe.
+     *
+     * @param argb der gepackte ARGB-Wert
+     */
+    public void fill(int argb) {
+        Arrays.fill(pixels, argb);
+    }
+
+    /**
+     * Kopiert ein Bild an die Position (x, y) dieses Bildes. Die Pixel der Quelle ersetzen die Pixel des Ziels
+     * einschließlich ihres Alphawerts. Es wird eine Zeile pro {@link System#arraycopy} kopiert.
+     *
+     * @param src das Quellbild
+     * @param x   die Spalte der linken oberen Ecke im Zielbild
+     * @param y   die Zeile der linken oberen Ecke im Zielbild
+     */
+    public void blit(PixelImage src, int x, int y) {
+        int sx = Math.max(0, -x);
+        int sy = Math.max(0, -y);
+        int w = Math.min(src.width, width - x) - sx;
+        int h = Math.min(src.height, height - y) - sy;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        int srcIndex = sy * src.width + sx;
+        int dstIndex = (y + sy) * width + x + sx;
+        for (int row = 0; row < h; row++) {
+            System.arraycopy(src.pixels, srcIndex, pixels, dstIndex, w);
+            srcIndex += src.width;
+            dstIndex += width;
+        }
+    }
+
+    /**
+     * Zeichnet ein Bild an die Position (x, y) dieses Bildes und mischt es dabei über seinen Alphawert mit dem Ziel
+     * (Source-Over). Vollständig deckende Zeilenabschnitte werden direkt kopiert, vollständig transparente Pixel
+     * übersprungen.
+     *
+     * @param src das Quellbild
+     * @param x   die Spalte der linken oberen Ecke im Zielbild
+     * @param y   die Zeile der linken oberen Ecke im Zielbild
+     */
+    public void blend(PixelImage src, int x, int y) {
+        int sx = Math.max(0, -x);
+        int sy = Math.max(0, -y);
+        int w = Math.min(src.width, width - x) - sx;
+        int h = Math.min(src.height, height - y) - sy;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        int[] s = src.pixels;
+        int[] d = pixels;
+        for (int row = 0; row < h; row++) {
+            int srcIndex = (sy + row) * src.width + sx;
+            int dstIndex = (y + sy + row) * width + x + sx;
+            int i = 0;
+            while (i < w) {
+                int argb = s[srcIndex + i];
+                int a = argb >>> 24;
+                if (a == 0xff) {
+                    // Deckenden Abschnitt suchen und am Stück kopieren
+                    int end = i + 1;
+                    while (end < w && (s[srcIndex + end] >>> 24) == 0xff) {
+                        end++;
+                    }
+                    System.arraycopy(s, srcIndex + i, d, dstIndex + i, end - i);
+                    i = end;
+                } else {
+                    if (a != 0) {
+                        d[dstIndex + i] = blend(argb, a, d[dstIndex + i]);
+                    }
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Zeichnet eine einfarbige Maske an die Position (x, y) dieses Bildes. Jeder Wert der Maske gibt die Deckkraft
+     * der Farbe an dieser Stelle an (0 bis 255). Es wird ein rechteckiger Ausschnitt (mx, my, w, h) der Maske
+     * gezeichnet, die zeilenweise mit der Zeilenlänge {@code stride} im Array liegt.
+     *
+     * @param mask   die Deckkraftwerte der Maske
+     * @param stride die Länge einer Zeile der Maske
+     * @param mx     die Spalte des Ausschnitts in der Maske
+     * @param my     die Zeile des Ausschnitts in der Maske
+     * @param w      die Breite des Ausschnitts
+     * @param h      die Höhe des Ausschnitts
+     * @param x      die Spalte der linken oberen Ecke im Zielbild
+     * @param y      die Zeile der linken oberen Ecke im Zielbild
+     * @param argb   die Farbe, mit der die Maske gezeichnet wird
+     */
+    public void blendMask(byte[] mask, int stride, int mx, int my, int w, int h, int x, int y, int argb) {
+        int sx = Math.max(0, -x);
+        int sy = Math.max(0, -y);
+        int cw = Math.min(w, width - x) - sx;
+        int ch = Math.min(h, height - y) - sy;
+        if (cw <= 0 || ch <= 0) {
+            return;
+        }
+
+        int colorAlpha = argb >>> 24;
+        int rgb = argb & 0x00ffffff;
+        for (int row = 0; row < ch; row++) {
+            int maskIndex = (my + sy + row) * stride + mx + sx;
+            int dstIndex = (y + sy + row) * width + x + sx;
+            for (int i = 0; i < cw; i++) {
+                int a = ((mask[maskIndex + i] & 0xff) * colorAlpha + 127) / 255;
+                if (a == 0xff) {
+                    pixels[dstIndex + i] = argb;
+                } else if (a != 0) {
+                    pixels[dstIndex + i] = blend(rgb, a, pixels[dstIndex + i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt ein {@link BufferedImage} zurück, das sich das Pixelarray mit diesem Bild teilt. Das Bild wird nur einmal
+     * erzeugt und muss daher nicht kopiert werden.
+     *
+     * @return das BufferedImage dieses Bildes
+     */
+    public BufferedImage toBufferedImage() {
+        BufferedImage image = bufferedImage;
+        if (image == null) {
+            DataBufferInt buffer = new DataBufferInt(pixels, pixels.length);
+            SinglePixelPackedSampleModel model =
+                    new SinglePixelPackedSampleModel(buffer.getDataType(), width, height, MASKS);
+            WritableRaster raster = Raster.createWritableRaster(model, buffer, null);
+            image = new BufferedImage(COLOR_MODEL, raster, false, null);
+            bufferedImage = image;
+        }
+        return image;
+    }
+
+    private static int blend(int src, int a, int dst) {
+        // Nicht vormultipliziertes Source-Over: Der Anteil des Ziels wird mit dessen eigenem Alphawert gewichtet.
+        int dw = ((dst >>> 24) * (255 - a) + 127) / 255;
+        int outA = a + dw;
+        int half = outA >> 1;
+        int r = (((src >> 16) & 0xff) * a + ((dst >> 16) & 0xff) * dw + half) / outA;
+        int g = (((src >> 8) & 0xff) * a + ((dst >> 8) & 0xff) * dw + half) / outA;
+        int b = ((src & 0xff) * a + (dst & 0xff) * dw + half) / outA;
+        return (outA << 24) | (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.util.Arrays;
+
+/**
+ * Ein Befehlspuffer, in dem die Zeichenbefehle eines Frames in bereits projizierter Form aufgezeichnet werden. Die
+ * Befehle liegen als einfache int-Folge vor (Opcode gefolgt von seinen Argumenten), so dass das Aufzeichnen keine
+ * Objekte erzeugt. Bilder werden in einer separaten Tabelle gehalten und über ihren Index referenziert.
+ * <p/>
+ * Ein Befehlspuffer gehört immer nur einem Thread. Die Übergabe zwischen Update- und Renderthread übernimmt der
+ * {@link RenderThread}.
+ *
+ * @since 2.1
+ */
+public final class RenderCommandBuffer {
+    private static final int SET_COLOR = 0;
+    private static final int FILL_RECT = 1;
+    private static final int DRAW_LINE = 2;
+    private static final int DRAW_OVAL = 3;
+    private static final int DRAW_IMAGE = 4;
+
+    private int[] commands;
+    private int size;
+    private Object[] images;
+    private int imageCount;
+
+    /**
+     * Die Nummer des Frames, der in diesem Puffer aufgezeichnet wurde.
+     */
+    volatile long frame;
+
+    /**
+     * Erzeugt einen neuen, leeren Befehlspuffer.
+     */
+    public RenderCommandBuffer() {
+        commands = new int[4096];
+        images = new Object[16];
+    }
+
+    /**
+     * Verwirft alle aufgezeichneten Befehle. Der Speicher des Puffers wird weiterverwendet.
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(images, 0, imageCount, null);
+        imageCount = 0;
+    }
+
+    /**
+     * Gibt zurück, ob der Puffer Befehle enthält.
+     *
+     * @return {@code true}, wenn keine Befehle aufgezeichnet wurden
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Zeichnet einen Farbwechsel auf.
+     *
+     * @param argb die neue Farbe als gepackter ARGB-Wert
+     */
+    public void setColor(int argb) {
+        ensureCapacity(2);
+        commands[size++] = SET_COLOR;
+        commands[size++] = argb;
+    }
+
+    /**
+     * Zeichnet ein gefülltes Rechteck auf.
+     *
+     * @param x      die x-Koordinate der linken oberen Ecke
+     * @param y      die y-Koordinate der linken oberen Ecke
+     * @param width  die Breite
+     * @param height die Höhe
+     */
+    public void fillRect(int x, int y, int width, int height) {
+        add(FILL_RECT, x, y, width, height);
+    }
+
+    /**
+     * Zeichnet eine Linie auf.
+     *
+     * @param x1 x-Koordinate des Startpunkts
+     * @param y1 y-Koordinate des Startpunkts
+     * @param x2 x-Koordinate des Endpunkts
+     * @param y2 y-Koordinate des Endpunkts
+     */
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        add(DRAW_LINE, x1, y1, x2, y2);
+    }
+
+    /**
+     * Zeichnet eine Ellipse auf.
+     *
+     * @param x      die x-Koordinate der linken oberen Ecke
+     * @param y      die y-Koordinate der linken oberen Ecke
+     * @param width  die Breite
+     * @param height die Höhe
+     */
+    public void drawOval(int x, int y, int width, int height) {
+        add(DRAW_OVAL, x, y, width, height);
+    }
+
+    /**
+     * Zeichnet die Ausgabe eines Bildes auf. Das Bild darf nach dem Aufzeichnen nicht mehr verändert werden, da es
+     * vom Renderthread zu einem späteren Zeitpunkt gelesen wird.
+     *
+     * @param image das Bild
+     * @param x     die x-Koordinate der linken oberen Ecke
+     * @param y     die y-Koordinate der linken oberen Ecke
+     */
+    public void drawImage(Image image, int x, int y) {
+        if (imageCount == images.length) {
+            images = Arrays.copyOf(images, imageCount * 2);
+        }
+        images[imageCount] = image;
+        ensureCapacity(4);
+        commands[size++] = DRAW_IMAGE;
+        commands[size++] = imageCount++;
+        commands[size++] = x;
+        commands[size++] = y;
+    }
+
+    /**
+     * Hängt alle Befehle eines anderen Puffers an diesen Puffer an.
+     *
+     * @param other der Puffer, dessen Befehle angehängt werden sollen
+     */
+    public void append(RenderCommandBuffer other) {
+        int offset = imageCount;
+        for (int i = 0; i < other.imageCount; i++) {
+            if (imageCount == images.length) {
+                images = Arrays.copyOf(images, imageCount * 2);
+            }
+            images[imageCount++] = other.images[i];
+        }
+
+        ensureCapacity(other.size);
+        int start = size;
+        System.arraycopy(other.commands, 0, commands, size, other.size);
+        size += other.size;
+
+        if (offset > 0) {
+            // Bildindizes des angehängten Puffers verschieben
+            int i = start;
+            while (i < size) {
+                int op = commands[i];
+                if (op == DRAW_IMAGE) {
+                    commands[i + 1] += offset;
+                }
+                i += length(op);
+            }
+        }
+    }
+
+    /**
+     * Führt alle aufgezeichneten Befehle auf einem {@link Graphics} Objekt aus.
+     *
+     * @param g das Ziel der Befehle
+     */
+    public void replay(Graphics g) {
+        Color color = null;
+        int i = 0;
+        while (i < size) {
+            int op = commands[i];
+            switch (op) {
+                case SET_COLOR:
+                    if (color == null || color.getRGB() != commands[i + 1]) {
+                        color = new Color(commands[i + 1], true);
+                        g.setColor(color);
+                    }
+                    break;
+                case FILL_RECT:
+                    g.fillRect(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+                    break;
+                case DRAW_LINE:
+                    g.drawLine(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+                    break;
+                case DRAW_OVAL:
+                    g.drawOval(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+                    break;
+                case DRAW_IMAGE:
+                    g.drawImage((Image) images[commands[i + 1]], commands[i + 2], commands[i + 3], null);
+                    break;
+                default:
+                    throw new IllegalStateException("Unbekannter Befehl " + op);
+            }
+            i += length(op);
+        }
+    }
+
+    private void add(int op, int a, int b, int c, int d) {
+        ensureCapacity(5);
+        commands[size++] = op;
+        commands[size++] = a;
+        commands[size++] = b;
+        commands[size++] = c;
+        commands[size++] = d;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > commands.length) {
+            commands = Arrays.copyOf(commands, Math.max(commands.length * 2, size + additional));
+        }
+    }
+
+    private static int length(int op) {
+        switch (op) {
+            case SET_COLOR:
+                return 2;
+            case DRAW_IMAGE:
+                return 4;
+            default:
+                return 5;
+        }
+    }
+}
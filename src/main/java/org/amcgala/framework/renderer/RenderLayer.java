@@ -0,0 +1,166 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.renderer;
+
+import com.google.common.base.Objects;
+import org.amcgala.framework.camera.Camera;
+import org.amcgala.framework.math.Vector3d;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Ein Layer speichert das gerasterte Ergebnis eines statischen Teilbaums des Szenengraphs. Solange sich der Teilbaum
+ * nicht verändert, kann der Renderer das Bild des Layers ausgeben, anstatt alle Shapes erneut zu zeichnen.
+ * <p/>
+ * Ein Layer merkt sich die Version des Teilbaums, einen Schlüssel aus den Änderungszählern aller Knoten des Teilbaums
+ * und die Lage der Kamera zum Zeitpunkt der Rasterung. Ändert sich einer dieser Werte, ist der Layer
+ * ungültig und muss neu gezeichnet werden.
+ *
+ * @since 2.1
+ */
+public class RenderLayer {
+    private BufferedImage image;
+    /**
+     * Die Nummer des letzten Frames, in dem das Bild ausgegeben wurde.
+     */
+    private long imageFrame;
+    /**
+     * Das vorherige Bild, das wiederverwendet wird, sobald es in keinem ausstehenden Frame mehr vorkommt.
+     */
+    private BufferedImage spare;
+    private long spareFrame;
+    private boolean valid;
+    private long version;
+    private double[] key;
+    private Camera camera;
+    private Vector3d cameraPosition;
+    private Vector3d cameraDirection;
+    private Vector3d cameraUp;
+
+    /**
+     * Prüft, ob der Inhalt des Layers noch dem Zustand des Teilbaums entspricht.
+     *
+     * @param version    die aktuelle Version des Teilbaums
+     * @param key        der aktuelle Schlüssel aus den Änderungszählern des Teilbaums
+     * @param camera     die aktuell verwendete Kamera
+     *
+     * @return {@code true}, wenn der Layer ohne erneutes Zeichnen verwendet werden kann
+     */
+    public boolean isValid(long version, double[] key, Camera camera) {
+        return valid
+                && this.version == version
+                && this.camera == camera
+                && Objects.equal(cameraPosition, camera.getPosition())
+                && Objects.equal(cameraDirection, camera.getDirection())
+                && Objects.equal(cameraUp, camera.getVup())
+                && Arrays.equals(this.key, key);
+    }
+
+    /**
+     * Speichert den Zustand, mit dem der Layer zuletzt gerastert wurde.
+     *
+     * @param version    die Version des Teilbaums
+     * @param key        der Schlüssel aus den Änderungszählern des Teilbaums. Das Array wird nicht kopiert und darf
+     *                   danach nicht verändert werden.
+     * @param camera     die verwendete Kamera
+     */
+    public void validate(long version, double[] key, Camera camera) {
+        this.version = version;
+        this.key = key;
+        this.camera = camera;
+        this.cameraPosition = copy(camera.getPosition());
+        this.cameraDirection = copy(camera.getDirection());
+        this.cameraUp = copy(camera.getVup());
+        this.valid = true;
+    }
+
+    /**
+     * Erzwingt, dass der Layer beim nächsten Frame neu gezeichnet wird.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Gibt das Bild des Layers zurück.
+     *
+     * @return das Bild oder {@code null}, wenn noch nicht gerastert wurde
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Gibt ein leeres Bild der Größe width x height zurück, in das der Layer gerastert werden kann. Ein vorhandenes Bild
+     * gleicher Größe wird geleert und wiederverwendet, sofern es in keinem Frame nach {@code presentedFrame}
+     * ausgegeben wurde. Im Pipeline-Betrieb kann das bisherige Bild noch in einem {@link RenderCommandBuffer}
+     * referenziert sein, den der Renderthread gerade ausgibt. Dann wird das vorherige Bild des Layers verwendet oder,
+     * wenn auch dieses noch benötigt wird, ein neues Bild angelegt.
+     *
+     * @param width          die Breite des Bildes
+     * @param height         die Höhe des Bildes
+     * @param presentedFrame die Nummer des zuletzt vollständig ausgegebenen Frames
+     *
+     * @return das leere Bild des Layers
+     */
+    BufferedImage prepareImage(int width, int height, long presentedFrame) {
+        if (fits(image, width, height) && imageFrame <= presentedFrame) {
+            clear(image);
+            return image;
+        }
+        BufferedImage previous = image;
+        long previousFrame = imageFrame;
+        if (fits(spare, width, height) && spareFrame <= presentedFrame) {
+            image = spare;
+            clear(image);
+        } else {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        imageFrame = 0;
+        spare = previous;
+        spareFrame = previousFrame;
+        return image;
+    }
+
+    /**
+     * Merkt sich, dass das Bild des Layers im Frame mit der übergebenen Nummer ausgegeben wird.
+     *
+     * @param frame die Nummer des Frames
+     */
+    void markUsed(long frame) {
+        imageFrame = frame;
+    }
+
+    private static boolean fits(BufferedImage image, int width, int height) {
+        return image != null && image.getWidth() == width && image.getHeight() == height;
+    }
+
+    private static void clear(BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static Vector3d copy(Vector3d v) {
+        return v != null ? v.copy() : null;
+    }
+}
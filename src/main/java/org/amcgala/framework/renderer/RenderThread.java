@@ -0,0 +1,180 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.renderer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Graphics;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Der Renderthread gibt die vom Updatethread aufgezeichneten {@link RenderCommandBuffer} auf einer
+ * {@link BufferStrategy} aus. Während der Renderthread Frame n ausgibt, kann der Updatethread bereits Frame n + 1
+ * berechnen und aufzeichnen.
+ * <p/>
+ * Die Übergabe der Frames erfolgt ohne Sperren über drei Puffer: Der Updatethread zeichnet in seinen Schreibpuffer,
+ * der Renderthread gibt seinen Ausgabepuffer aus. Der dritte Puffer liegt in einer {@link AtomicReference} und wird
+ * von beiden Seiten per {@code getAndSet} getauscht. Ist der Updatethread schneller als die Ausgabe, werden ältere,
+ * noch nicht ausgegebene Frames verworfen, der Updatethread muss aber nie warten.
+ *
+ * @since 2.1
+ */
+public final class RenderThread implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(RenderThread.class);
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final BufferStrategy bufferStrategy;
+    private final int width;
+    private final int height;
+    private final AtomicReference<RenderCommandBuffer> pending;
+    private RenderCommandBuffer writing;
+    private RenderCommandBuffer front;
+    private long frameCounter;
+    private long lastFrame;
+    /**
+     * Die Nummer des zuletzt vollständig ausgegebenen Frames.
+     */
+    private volatile long presentedFrame;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Erzeugt einen neuen Renderthread, der auf eine {@link BufferStrategy} zeichnet.
+     *
+     * @param bufferStrategy die BufferStrategy des Ausgabefensters
+     * @param width          die Breite der Ausgabe
+     * @param height         die Höhe der Ausgabe
+     */
+    public RenderThread(BufferStrategy bufferStrategy, int width, int height) {
+        this.bufferStrategy = checkNotNull(bufferStrategy);
+        this.width = width;
+        this.height = height;
+        this.pending = new AtomicReference<RenderCommandBuffer>(new RenderCommandBuffer());
+        this.writing = new RenderCommandBuffer();
+        this.front = new RenderCommandBuffer();
+    }
+
+    /**
+     * Startet den Renderthread.
+     */
+    public synchronized void start() {
+        checkState(thread == null, "Der Renderthread läuft bereits!");
+        running = true;
+        thread = new Thread(this, "amcgala-render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Beendet den Renderthread und wartet, bis der aktuelle Frame ausgegeben wurde.
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Gibt den Puffer zurück, in den der Updatethread den aktuellen Frame aufzeichnet. Darf nur vom Updatethread
+     * aufgerufen werden.
+     *
+     * @return der aktuelle Schreibpuffer
+     */
+    public RenderCommandBuffer getWriteBuffer() {
+        return writing;
+    }
+
+    /**
+     * Gibt die Nummer zurück, die der Frame im aktuellen Schreibpuffer bei {@link #publish()} erhält. Darf nur vom
+     * Updatethread aufgerufen werden.
+     *
+     * @return die Nummer des aktuell aufgezeichneten Frames
+     */
+    public long getWriteFrame() {
+        return frameCounter + 1;
+    }
+
+    /**
+     * Gibt die Nummer des zuletzt vollständig ausgegebenen Frames zurück. Frames werden in aufsteigender Reihenfolge
+     * ausgegeben oder verworfen. Alle Frames bis einschließlich dieser Nummer werden also nicht mehr gelesen.
+     *
+     * @return die Nummer des zuletzt ausgegebenen Frames oder 0, wenn noch kein Frame ausgegeben wurde
+     */
+    public long getPresentedFrame() {
+        return presentedFrame;
+    }
+
+    /**
+     * Übergibt den aufgezeichneten Frame an den Renderthread und gibt einen leeren Schreibpuffer für den nächsten
+     * Frame zurück. Darf nur vom Updatethread aufgerufen werden.
+     *
+     * @return der leere Schreibpuffer für den nächsten Frame
+     */
+    public RenderCommandBuffer publish() {
+        writing.frame = ++frameCounter;
+        writing = pending.getAndSet(writing);
+        writing.clear();
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return writing;
+    }
+
+    @Override
+    public void run() {
+        log.debug("Renderthread gestartet");
+        while (running) {
+            if (pending.get().frame > lastFrame) {
+                front = pending.getAndSet(front);
+                lastFrame = front.frame;
+                present(front);
+                presentedFrame = lastFrame;
+            } else {
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        log.debug("Renderthread beendet");
+    }
+
+    private void present(RenderCommandBuffer buffer) {
+        do {
+            do {
+                Graphics g = bufferStrategy.getDrawGraphics();
+                try {
+                    g.clearRect(0, 0, width, height);
+                    buffer.replay(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+    }
+}
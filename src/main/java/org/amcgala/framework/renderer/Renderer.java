@@ -91,6 +91,22 @@ public interface Renderer {
 
     void drawLine(Vector3d start, Vector3d end);
 
+    /**
+     * Zeichnet mehrere Linien zwischen gemeinsamen Punkten. Die Punkte liegen getrennt nach Koordinaten in drei
+     * Arrays und werden wie bei {@link #drawLine(Vector3d, Vector3d)} transformiert und projiziert, jeder Punkt aber
+     * nur einmal.
+     *
+     * @param x           die x-Koordinaten der Punkte
+     * @param y           die y-Koordinaten der Punkte
+     * @param z           die z-Koordinaten der Punkte
+     * @param vertexCount die Anzahl der Punkte
+     * @param lines       je zwei aufeinanderfolgende Einträge sind die Indizes von Start- und Endpunkt einer Linie
+     * @param lineCount   die Anzahl der Linien
+     *
+     * @since 2.1
+     */
+    void drawLines(double[] x, double[] y, double[] z, int vertexCount, int[] lines, int lineCount);
+
     void drawCircle(Vector3d pos, double radius);
 
     void drawPixel(Vector3d point, Color color);
@@ -103,4 +119,62 @@ public interface Renderer {
 
     Color getColor();
 
+    /**
+     * Lenkt alle folgenden Zeichenbefehle in einen {@link RenderLayer} um, bis {@link #endLayer()} aufgerufen wird.
+     * Der Inhalt des Layers wird vorher gelöscht.
+     *
+     * @param layer der Layer, in den gezeichnet werden soll
+     *
+     * @since 2.1
+     */
+    void beginLayer(RenderLayer layer);
+
+    /**
+     * Beendet das Zeichnen in den aktuellen Layer. Alle folgenden Zeichenbefehle gehen wieder in die Ausgabe.
+     *
+     * @since 2.1
+     */
+    void endLayer();
+
+    /**
+     * Gibt den Inhalt eines bereits gerasterten {@link RenderLayer} in der Ausgabe aus.
+     *
+     * @param layer der Layer, der ausgegeben werden soll
+     *
+     * @since 2.1
+     */
+    void drawLayer(RenderLayer layer);
+
+    /**
+     * Gibt ein Rasterbild unverändert aus. Die Position bezieht sich auf die linke obere Ecke des Bildes und wird wie
+     * bei {@link #drawLine(int, int, int, int)} im Koordinatensystem der Ausgabe angegeben.
+     *
+     * @param image das Bild
+     * @param x     die x-Koordinate der linken oberen Ecke
+     * @param y     die y-Koordinate der linken oberen Ecke
+     *
+     * @since 2.1
+     */
+    void drawImage(PixelImage image, int x, int y);
+
+    /**
+     * Erzeugt einen Renderer, der von einem anderen Thread verwendet werden kann. Der Fork übernimmt Kamera und Farbe,
+     * besitzt aber eigene Transformationsmatrix und Lichter und zeichnet seine Ausgabe nur auf. Mit
+     * {@link #merge(Renderer)} wird die Ausgabe übernommen.
+     *
+     * @return ein neuer Fork dieses Renderers
+     *
+     * @since 2.1
+     */
+    Renderer fork();
+
+    /**
+     * Übernimmt die aufgezeichnete Ausgabe eines mit {@link #fork()} erzeugten Renderers. Der Fork darf danach nicht
+     * mehr verwendet werden.
+     *
+     * @param fork der Fork, dessen Ausgabe übernommen werden soll
+     *
+     * @since 2.1
+     */
+    void merge(Renderer fork);
 }
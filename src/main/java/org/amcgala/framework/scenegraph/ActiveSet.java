@@ -0,0 +1,161 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph;
+
+import com.google.common.base.Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Die Menge der Knoten, die bei einer Aktualisierung des Szenengraphs tatsächlich etwas zu tun haben. Dazu gehören
+ * alle Knoten mit animierten Transformationen oder Shapes sowie alle Nachfahren von Knoten mit animierten
+ * Transformationen, deren BoundingBoxen sich mitbewegen. Alle übrigen Knoten werden übersprungen, so dass eine
+ * weitgehend statische Szene pro Aktualisierung kaum Zeit kostet.
+ * <p/>
+ * Die Menge wird neu aufgebaut, wenn sich die Struktur des Graphen ändert oder über {@link #invalidate()} ein Shape
+ * oder eine Transformation animiert wird oder nicht mehr animiert ist. Die erste Aktualisierung nach dem Aufbau
+ * besucht einmalig alle Knoten, damit auch die BoundingBoxen der statischen Shapes zum aktuellen Stand passen.
+ * Wird die Transformation eines statischen Knotens direkt verändert, werden nur die BoundingBoxen dieses Knotens und
+ * seiner Nachfahren neu berechnet, siehe {@link Node#markTransformChanged()}.
+ *
+ * @since 2.1
+ */
+public final class ActiveSet {
+    private static final AtomicLong epoch = new AtomicLong();
+
+    private final Node root;
+    private final long version;
+    private final long builtEpoch;
+    private final Node[] nodes;
+    private final boolean[] moving;
+    private final AtomicBoolean fullPassPending = new AtomicBoolean(true);
+
+    private ActiveSet(Node root, long version, long builtEpoch, List<Node> nodes, List<Boolean> moving) {
+        this.root = root;
+        this.version = version;
+        this.builtEpoch = builtEpoch;
+        this.nodes = nodes.toArray(new Node[nodes.size()]);
+        this.moving = new boolean[nodes.size()];
+        for (int i = 0; i < this.moving.length; i++) {
+            this.moving[i] = moving.get(i);
+        }
+    }
+
+    /**
+     * Gibt den aktuellen Änderungszähler aller Animationen zurück.
+     *
+     * @return der Änderungszähler
+     */
+    public static long getEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Erhöht den Änderungszähler. Muss aufgerufen werden, wenn ein Shape oder eine Transformation animiert wird oder
+     * nicht mehr animiert ist, z.B. weil eine Animation oder Interpolation zugewiesen oder entfernt wurde.
+     */
+    public static void invalidate() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Baut die Menge für den Teilbaum eines Knotens auf.
+     *
+     * @param root die Wurzel des Teilbaums
+     *
+     * @return die Menge der aktiven Knoten
+     */
+    public static ActiveSet build(Node root) {
+        long builtEpoch = epoch.get();
+        long version = root.getVersion();
+        List<Node> nodes = new ArrayList<Node>();
+        List<Boolean> moving = new ArrayList<Boolean>();
+        collect(root, false, nodes, moving);
+        return new ActiveSet(root, version, builtEpoch, nodes, moving);
+    }
+
+    private static void collect(Node node, boolean ancestorMoving, List<Node> nodes, List<Boolean> moving) {
+        boolean nodeMoving = ancestorMoving || node.hasAnimatedTransformations();
+        if (nodeMoving || node.hasAnimatedShapes()) {
+            nodes.add(node);
+            moving.add(nodeMoving);
+        }
+        for (Node child : node.getChildNodes()) {
+            collect(child, nodeMoving, nodes, moving);
+        }
+    }
+
+    /**
+     * Prüft, ob die Menge noch dem aktuellen Stand des Graphen und der Animationen entspricht.
+     *
+     * @return {@code true}, wenn die Menge weiter verwendet werden kann
+     */
+    public boolean isValid() {
+        return version == root.getVersion() && builtEpoch == epoch.get();
+    }
+
+    /**
+     * Gibt die Anzahl der aktiven Knoten zurück.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Aktualisiert alle aktiven Knoten und berechnet die BoundingBoxen der Teilbäume neu, deren Transformation direkt
+     * verändert wurde. Beim ersten Aufruf werden alle Knoten des Teilbaums aktualisiert.
+     */
+    public void update() {
+        if (fullPassPending.compareAndSet(true, false)) {
+            while (root.pollChangedNode() != null) {
+                // Die vollständige Aktualisierung erfasst auch die veränderten Knoten.
+            }
+            updateAll(root);
+            return;
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i].update(moving[i]);
+        }
+        Node changed;
+        while ((changed = root.pollChangedNode()) != null) {
+            updateBoundingBoxes(changed);
+        }
+    }
+
+    private static void updateAll(Node node) {
+        node.update();
+        for (Node child : node.getChildNodes()) {
+            updateAll(child);
+        }
+    }
+
+    private static void updateBoundingBoxes(Node node) {
+        node.updateBoundingBoxes();
+        for (Node child : node.getChildNodes()) {
+            updateBoundingBoxes(child);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass()).add("version", version).add("epoch", builtEpoch)
+                .add("nodes", nodes.length).toString();
+    }
+}
@@ -14,16 +14,20 @@
  */
 package org.amcgala.framework.scenegraph;
 
+import com.google.common.collect.ImmutableList;
 import org.amcgala.framework.lighting.Light;
 import org.amcgala.framework.scenegraph.transform.Transformation;
+import org.amcgala.framework.scenegraph.visitor.ParallelVisitor;
 import org.amcgala.framework.scenegraph.visitor.Visitor;
 import org.amcgala.framework.shape.Shape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -31,6 +35,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 /**
  * Standardimplementierung des Szenengraph des Frameworks. In den meisten Fällen sollte man ohne die direkte Benutzung dieser
  * Klasse auskommen. Die Klasse {@link org.amcgala.Scene} bietet einige Hilfsmethoden für die Handhabung eines Szenengraphs an.
+ * <p/>
+ * Alle Änderungen am Szenengraph werden nacheinander ausgeführt, auch wenn sie aus verschiedenen Threads kommen, z.B.
+ * aus einem InputHandler im AWT-Thread. Lesende Zugriffe wie {@link #accept(Visitor)} und {@link #getAllShapes()}
+ * arbeiten auf einem unveränderlichen Abbild des Graphen, das nach einer Änderung beim nächsten Lesen einmalig neu
+ * aufgebaut wird. Eine Traversierung sieht daher immer einen vollständigen Stand des Graphen und benötigt keine Sperre.
+ * Das Abbild legt nur die Knoten und ihre Reihenfolge fest. Shapes und Lichter eines Knotens werden beim Besuch
+ * gelesen; sie bleiben während eines Frames nur dann unverändert, wenn Änderungen wie bei {@link org.amcgala.Scene}
+ * gesammelt und zwischen den Frames ausgeführt werden.
  *
  * @author Robert Giacinto
  * @since 2.0
@@ -41,34 +53,38 @@ public class DefaultSceneGraph implements SceneGraph {
     private Map<String, Node> nodes;
     private Map<String, Shape> shapes;
     private Map<String, Light> lights;
+    private volatile TransformHierarchy transformHierarchy;
+    private volatile ActiveSet activeSet;
+    private volatile Octree octree;
+    private volatile Snapshot snapshot = new Snapshot(-1, ImmutableList.<Node>of(), new int[0], ImmutableList.<Shape>of());
 
     /**
      * Standardkonstruktor.
      */
     public DefaultSceneGraph() {
         root = new Node("root");
-        nodes = new HashMap<String, Node>();
-        shapes = new HashMap<String, Shape>();
-        lights = new HashMap<String, Light>();
+        nodes = new ConcurrentHashMap<String, Node>();
+        shapes = new ConcurrentHashMap<String, Shape>();
+        lights = new ConcurrentHashMap<String, Light>();
 
         nodes.put(root.getLabel(), root);
     }
 
     @Override
-    public void addNode(Node child) {
+    public synchronized void addNode(Node child) {
         root.add(checkNotNull(child));
         nodes.put(child.getLabel(), child);
     }
 
     @Override
-    public void addNode(Node child, Node parent) {
+    public synchronized void addNode(Node child, Node parent) {
         checkArgument(nodes.containsKey(parent.getLabel()), "Elternknoten konnte im Szenengraph nicht gefunden werden");
         parent.add(checkNotNull(child));
         nodes.put(child.getLabel(), child);
     }
 
     @Override
-    public void addNode(Node child, String parentLabel) {
+    public synchronized void addNode(Node child, String parentLabel) {
         checkArgument(nodes.containsKey(parentLabel), "Elternknoten konnte im Szenengraph nicht gefunden werden");
         Node parent = nodes.get(parentLabel);
         parent.add(child);
@@ -76,7 +92,7 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void addShape(Shape shape, String nodeLabel) {
+    public synchronized void addShape(Shape shape, String nodeLabel) {
         checkArgument(nodes.containsKey(nodeLabel), "Knoten konnte im Szenengraph nicht gefunden werden");
         Node node = nodes.get(nodeLabel);
         node.add(shape);
@@ -85,7 +101,7 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void addShape(Shape shape, Node node) {
+    public synchronized void addShape(Shape shape, Node node) {
         node.add(shape);
         shape.setNode(node);
         shapes.put(shape.getLabel(), shape);
@@ -98,7 +114,7 @@ public class DefaultSceneGraph implements SceneGraph {
 
 
     @Override
-    public void removeNode(Node node) {
+    public synchronized void removeNode(Node node) {
         checkArgument(checkNotNull(node).getParent() != null, "Root-Knoten darf nicht gelöscht werden!");
         Node parent = node.getParent();
         Collection<Node> children = node.getAllChildren();
@@ -116,7 +132,7 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void removeNode(String label) {
+    public synchronized void removeNode(String label) {
         checkArgument(!"root".equalsIgnoreCase(label), "Root-Knoten darf nicht gelöscht werden!");
         Node node = nodes.get(label);
         Node parent = node.getParent();
@@ -135,7 +151,7 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void removeShape(Shape shape) {
+    public synchronized void removeShape(Shape shape) {
         shape.getNode().remove(shape);
         shapes.remove(shape.getLabel());
     }
@@ -148,18 +164,30 @@ public class DefaultSceneGraph implements SceneGraph {
 
 
     @Override
-    public void addShape(Shape shape) {
+    public synchronized void addShape(Shape shape) {
         root.add(checkNotNull(shape));
         shapes.put(shape.getLabel(), shape);
     }
 
     @Override
     public void accept(Visitor visitor) {
-        root.accept(visitor);
+        Snapshot current = snapshot();
+        ParallelTraversal.visit(current.nodes, current.ends, 0, current.nodes.size(), visitor);
     }
 
     @Override
-    public void removeShape(String label) {
+    public void accept(Visitor visitor, int threshold) {
+        checkArgument(threshold > 0, "Der Schwellwert muss größer 0 sein!");
+        if (visitor instanceof ParallelVisitor) {
+            Snapshot current = snapshot();
+            ParallelTraversal.traverse(current.nodes, current.ends, (ParallelVisitor) visitor, threshold);
+        } else {
+            accept(visitor);
+        }
+    }
+
+    @Override
+    public synchronized void removeShape(String label) {
         checkArgument(shapes.containsKey(label), "Shape " + label + " konnte nicht gefunden werden");
         Shape shape = shapes.get(label);
         shape.getNode().remove(shape);
@@ -173,18 +201,18 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void addTransformation(Transformation... transformations) {
+    public synchronized void addTransformation(Transformation... transformations) {
         root.add(transformations);
     }
 
     @Override
-    public void addLight(Light light) {
+    public synchronized void addLight(Light light) {
         root.addLight(light);
         lights.put(light.getLabel(), light);
     }
 
     @Override
-    public void addLight(Light light, Node node) {
+    public synchronized void addLight(Light light, Node node) {
         if (!nodes.containsValue(node)) {
             addNode(node);
         }
@@ -192,12 +220,12 @@ public class DefaultSceneGraph implements SceneGraph {
     }
 
     @Override
-    public void addLight(Light light, String label) {
+    public synchronized void addLight(Light light, String label) {
         getNode(label).addLight(light);
     }
 
     @Override
-    public void addTransformation(String label, Transformation... transformations) {
+    public synchronized void addTransformation(String label, Transformation... transformations) {
         nodes.get(label).add(transformations);
     }
 
@@ -213,11 +241,123 @@ public class DefaultSceneGraph implements SceneGraph {
 
     @Override
     public Collection<Shape> getAllShapes() {
-        return shapes.values();
+        return snapshot().shapes;
     }
 
     @Override
     public boolean hasLight() {
         return lights.size() > 0;
     }
+
+    @Override
+    public long getVersion() {
+        return root.getVersion();
+    }
+
+    @Override
+    public TransformHierarchy getTransformHierarchy() {
+        TransformHierarchy current = transformHierarchy;
+        if (current == null || !current.isValid()) {
+            synchronized (this) {
+                current = transformHierarchy;
+                if (current == null || !current.isValid()) {
+                    current = TransformHierarchy.compile(root);
+                    transformHierarchy = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public ActiveSet getActiveSet() {
+        ActiveSet current = activeSet;
+        if (current == null || !current.isValid()) {
+            synchronized (this) {
+                current = activeSet;
+                if (current == null || !current.isValid()) {
+                    current = ActiveSet.build(root);
+                    activeSet = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public Octree getOctree() {
+        Octree current = octree;
+        if (current == null || !current.isValid()) {
+            synchronized (this) {
+                current = octree;
+                if (current == null || !current.isValid()) {
+                    octree = Octree.build(root);
+                    return octree;
+                }
+            }
+        }
+        current.refit();
+        return current;
+    }
+
+    /**
+     * Gibt das Abbild des aktuellen Stands zurück. Hat sich der Graph seit dem letzten Aufruf verändert, wird das
+     * Abbild neu aufgebaut.
+     *
+     * @return das aktuelle Abbild
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current.version == root.getVersion()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long version = root.getVersion();
+            if (current.version != version) {
+                List<Node> allNodes = new ArrayList<Node>();
+                List<Integer> ends = new ArrayList<Integer>();
+                ImmutableList.Builder<Shape> allShapes = ImmutableList.builder();
+                collect(root, allNodes, ends, allShapes);
+                int[] subtreeEnds = new int[ends.size()];
+                for (int i = 0; i < subtreeEnds.length; i++) {
+                    subtreeEnds[i] = ends.get(i);
+                }
+                current = new Snapshot(version, ImmutableList.copyOf(allNodes), subtreeEnds, allShapes.build());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private static void collect(Node node, List<Node> allNodes, List<Integer> ends,
+                                ImmutableList.Builder<Shape> allShapes) {
+        int index = allNodes.size();
+        allNodes.add(node);
+        ends.add(index + 1);
+        allShapes.addAll(node.getShapes());
+        for (Node child : node.getChildNodes()) {
+            collect(child, allNodes, ends, allShapes);
+        }
+        ends.set(index, allNodes.size());
+    }
+
+    /**
+     * Ein unveränderliches Abbild des Graphen. Die Knoten liegen in der Reihenfolge vor, in der sie auch
+     * {@link Node#accept(Visitor)} besucht. Der Teilbaum des Knotens an Position i endet vor Position
+     * {@code ends[i]}.
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final List<Node> nodes;
+        private final int[] ends;
+        private final List<Shape> shapes;
+
+        private Snapshot(long version, List<Node> nodes, int[] ends, List<Shape> shapes) {
+            this.version = version;
+            this.nodes = nodes;
+            this.ends = ends;
+            this.shapes = shapes;
+        }
+    }
 }
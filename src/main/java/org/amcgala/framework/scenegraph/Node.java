@@ -15,11 +15,17 @@
 package org.amcgala.framework.scenegraph;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import org.amcgala.framework.animation.Animated;
 import org.amcgala.framework.animation.Updatable;
+import org.amcgala.framework.lighting.AbstractLight;
 import org.amcgala.framework.lighting.Light;
+import org.amcgala.framework.lighting.LightCulling;
 import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.scenegraph.transform.AbstractTransformation;
 import org.amcgala.framework.scenegraph.transform.Transformation;
 import org.amcgala.framework.scenegraph.transform.Translation;
+import org.amcgala.framework.scenegraph.visitor.PruningVisitor;
 import org.amcgala.framework.scenegraph.visitor.Visitor;
 import org.amcgala.framework.shape.Shape;
 import org.amcgala.framework.shape.util.bounds.BoundingBox;
@@ -28,15 +34,22 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Eine Node ist Teil des Scenegraphs und kann beliebig viele Kindsknoten und
  * Geometrieobjekte zugewiesen bekommen.
+ * <p/>
+ * Kindsknoten, Shapes, Lichter und Transformationen werden in unveränderlichen Listen gehalten. Jede Änderung erzeugt
+ * eine neue Liste und veröffentlicht sie mit einem einzigen Schreibzugriff. Lesende Threads, z.B. die Visitor im
+ * Animator-Thread, sehen daher immer eine vollständige Liste und müssen nicht synchronisieren. Schreibende Zugriffe
+ * auf denselben Knoten werden über den Knoten selbst serialisiert.
  *
  * @author Robert Giacinto
  * @since 1.0
@@ -44,6 +57,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 public final class Node implements Updatable {
 
     private static final Logger log = LoggerFactory.getLogger(Node.class);
+    private static final AtomicLongFieldUpdater<Node> VERSION = AtomicLongFieldUpdater.newUpdater(Node.class, "version");
+    private static final AtomicLongFieldUpdater<Node> BOUNDS_VERSION =
+            AtomicLongFieldUpdater.newUpdater(Node.class, "boundsVersion");
+    private static final AtomicLongFieldUpdater<Node> LIGHT_VERSION =
+            AtomicLongFieldUpdater.newUpdater(Node.class, "lightVersion");
+    private static final AtomicLongFieldUpdater<Node> TRANSFORM_VERSION =
+            AtomicLongFieldUpdater.newUpdater(Node.class, "transformVersion");
+    private static final AtomicIntegerFieldUpdater<Node> TRANSFORM_CHANGED =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "transformChanged");
 
     /**
      * Das Label dieses Knotens. Über diesen lässt sich der Knoten bestimmen und kann dazu verwendet werden,
@@ -60,29 +82,79 @@ public final class Node implements Updatable {
     /**
      * Die Kindsknoten, die an diesem Knoten hängen.
      */
-    private final List<Node> children;
+    private volatile ImmutableList<Node> children;
 
     /**
      * Die Geometrieobjekte, die an diesem Knoten hängen und von dem DefaultRenderer
      * dargestellt werden.
      */
-    private final List<Shape> shapes;
+    private volatile ImmutableList<Shape> shapes;
 
     /**
      * Die Lichtobjekte, die an diesem Knoten hängen.
      */
-    private final List<Light> lights;
+    private volatile ImmutableList<Light> lights;
 
     /**
      * Die Transformationen, die an diesem Knoten hängen und sich auf die {@link Shape} Objekte
      * des Knotens und aller Kindsknoten auswirkt.
      */
-    private List<Transformation> transformations;
+    private volatile ImmutableList<Transformation> transformations;
 
     /**
-     * Die BoundingBox, die um die Shapes dieses und aller Kindsknoten aufgespannt wird.
+     * Der achsenparallele Quader in Weltkoordinaten, der um die Shapes dieses und aller Kindsknoten aufgespannt wird.
+     * Wird erst bei Bedarf neu berechnet, wenn sich {@code boundsVersion} seit der letzten Berechnung verändert hat.
      */
-    private BoundingBox boundingBox;
+    private volatile double[] bounds;
+    private volatile long boundsVersion;
+    private volatile long computedBoundsVersion = -1;
+
+    /**
+     * Markiert den Teilbaum dieses Knotens als statisch. Statische Teilbäume werden vom
+     * {@link org.amcgala.framework.scenegraph.visitor.RenderVisitor} einmalig in einen Layer gezeichnet und danach nur
+     * noch als fertiges Bild ausgegeben.
+     */
+    private volatile boolean staticSubtree;
+
+    /**
+     * Änderungszähler des Teilbaums. Wird bei jeder strukturellen Änderung an diesem Knoten oder einem seiner
+     * Kindsknoten erhöht.
+     */
+    private volatile long version;
+
+    /**
+     * Die zuletzt berechnete Größe des Teilbaums und die Version, zu der sie berechnet wurde.
+     */
+    private int subtreeSize;
+    private long subtreeSizeVersion = -1;
+
+    /**
+     * Die zwischengespeicherten Lichtlisten, siehe {@link #getInheritedLights()} und {@link #getEffectiveLights()}.
+     */
+    private volatile LightCache inheritedLights;
+    private volatile LightCache effectiveLights;
+
+    /**
+     * Änderungszähler der geerbten Lichter. Wird erhöht, wenn diesem Knoten oder einem seiner Vorfahren ein Licht
+     * hinzugefügt wird oder der Knoten in der Hierarchie verschoben wird.
+     */
+    private volatile long lightVersion;
+
+    /**
+     * Änderungszähler der Transformationen dieses Knotens, siehe {@link #getTransformVersion()}.
+     */
+    private volatile long transformVersion;
+
+    /**
+     * 1, solange dieser Knoten in der Warteschlange {@code changedNodes} seines Rootknotens steht.
+     */
+    private volatile int transformChanged;
+
+    /**
+     * Die Knoten des Teilbaums, deren Transformationen seit der letzten Aktualisierung direkt verändert wurden. Wird
+     * nur am Rootknoten und erst bei Bedarf angelegt, siehe {@link #markTransformChanged()}.
+     */
+    private volatile Queue<Node> changedNodes;
 
 
     /**
@@ -93,12 +165,12 @@ public final class Node implements Updatable {
      */
     public Node(String label) {
         this.label = label;
-        transformations = new ArrayList<Transformation>();
-        transformations.add(new Translation(0, 0, 0));
-        shapes = new CopyOnWriteArrayList<Shape>();
-        children = new CopyOnWriteArrayList<Node>();
-        lights = new CopyOnWriteArrayList<Light>();
-        boundingBox = new BoundingBox();
+        Translation translation = new Translation(0, 0, 0);
+        translation.setNode(this);
+        transformations = ImmutableList.<Transformation>of(translation);
+        shapes = ImmutableList.of();
+        children = ImmutableList.of();
+        lights = ImmutableList.of();
     }
 
     /**
@@ -124,9 +196,13 @@ public final class Node implements Updatable {
      */
     protected Node add(Node childNode) {
         childNode.parent = this;
-        synchronized (children) {
-            children.add(childNode);
+        synchronized (this) {
+            children = ImmutableList.<Node>builder().addAll(children).add(childNode).build();
         }
+        childNode.invalidateLights();
+        childNode.moveChangedNodes();
+        invalidateBounds();
+        markModified();
         return this;
     }
 
@@ -138,8 +214,14 @@ public final class Node implements Updatable {
      * @return true, wenn Knoten gefunden und entfernt wurde
      */
     protected boolean remove(Node node) {
-        checkArgument(children.contains(node), "Node mit Label " + node.getLabel() + " konnte nicht gefunden werden.");
-        return children.remove(node);
+        synchronized (this) {
+            checkArgument(children.contains(node), "Node mit Label " + node.getLabel() + " konnte nicht gefunden werden.");
+            children = without(children, node);
+        }
+        node.invalidateLights();
+        invalidateBounds();
+        markModified();
+        return true;
     }
 
     /**
@@ -150,8 +232,19 @@ public final class Node implements Updatable {
      * @return {@code true}, wenn Shape entfern wurde
      */
     protected boolean remove(Shape shape) {
-        checkArgument(shapes.contains(shape), "Shape mit Label " + shape.getLabel() + " konnte nicht gefunden werden.");
-        return shapes.remove(shape);
+        synchronized (this) {
+            checkArgument(shapes.contains(shape), "Shape mit Label " + shape.getLabel() + " konnte nicht gefunden werden.");
+            shapes = without(shapes, shape);
+        }
+        invalidateBounds();
+        markModified();
+        return true;
+    }
+
+    private static <T> ImmutableList<T> without(List<T> list, T element) {
+        List<T> copy = new ArrayList<T>(list);
+        copy.remove(element);
+        return ImmutableList.copyOf(copy);
     }
 
 
@@ -163,10 +256,12 @@ public final class Node implements Updatable {
      * @return {@code true}, wenn es erfolgreich hinzugefügt wurde
      */
     protected boolean add(Shape shape) {
-        synchronized (shapes) {
-            shape.setNode(this);
-            shapes.add(shape);
+        shape.setNode(this);
+        synchronized (this) {
+            shapes = ImmutableList.<Shape>builder().addAll(shapes).add(shape).build();
         }
+        invalidateBounds();
+        markModified();
         return true;
     }
 
@@ -175,32 +270,34 @@ public final class Node implements Updatable {
      *
      * @param label Label des Knoten, der gefunden werden soll
      *
-     * @return true, wenn Knoten gefunden wurde
+     * @return der gefundene Knoten oder {@code null}
      */
     public Node getNode(String label) {
-        synchronized (children) {
-            if (this.label.equalsIgnoreCase(label)) {
-                return this;
-            } else {
-                for (Node n : children) {
-                    n.getNode(label);
-                }
+        if (this.label.equalsIgnoreCase(label)) {
+            return this;
+        }
+        for (Node n : children) {
+            Node found = n.getNode(label);
+            if (found != null) {
+                return found;
             }
         }
         return null;
     }
 
     /**
-     * Übergibt einen neuen Visitor an den Knoten.
+     * Übergibt einen neuen Visitor an den Knoten. Anschließend werden die Kindsknoten besucht, sofern ein
+     * {@link PruningVisitor} sie nicht ausschließt.
      *
      * @param visitor der Visitor, der den Knoten besuchen soll
      */
     public void accept(Visitor visitor) {
-        synchronized (children) {
-            visitor.visit(this);
-            for (Node n : children) {
-                n.accept(visitor);
-            }
+        visitor.visit(this);
+        if (visitor instanceof PruningVisitor && !((PruningVisitor) visitor).visitChildren(this)) {
+            return;
+        }
+        for (Node n : children) {
+            n.accept(visitor);
         }
     }
 
@@ -225,11 +322,12 @@ public final class Node implements Updatable {
     /**
      * Gibt die Kindsknoten zurück.
      * Die zurückgegebene ist read-only. Um einen neuen Kindsknoten hinzuzufügen sollte die entsprochende Methode {@code addNode} verwendet werden.
+     * Die Liste ändert sich nicht, wenn danach Kindsknoten hinzugefügt oder entfernt werden.
      *
      * @return die Kindsknoten
      */
-    public Collection<Node> getChildNodes() {
-        return Collections.unmodifiableCollection(children);
+    public List<Node> getChildNodes() {
+        return children;
     }
 
     /**
@@ -244,9 +342,10 @@ public final class Node implements Updatable {
     }
 
     private static void getAllChildren(Node node, Collection<Node> children) {
-        if (node.children.size() > 0) {
-            children.addAll(node.children);
-            for (Node child : node.children) {
+        List<Node> direct = node.children;
+        if (direct.size() > 0) {
+            children.addAll(direct);
+            for (Node child : direct) {
                 getAllChildren(child, children);
             }
         }
@@ -254,12 +353,13 @@ public final class Node implements Updatable {
 
 
     /**
-     * Gibt die Geometrieobjekt zurück, die an dem Knoten hängen.
+     * Gibt die Geometrieobjekt zurück, die an dem Knoten hängen. Die Liste ändert sich nicht, wenn danach Shapes
+     * hinzugefügt oder entfernt werden.
      *
      * @return die Geometrieobjekte
      */
-    public Collection<Shape> getShapes() {
-        return Collections.unmodifiableCollection(shapes);
+    public List<Shape> getShapes() {
+        return shapes;
     }
 
 
@@ -270,7 +370,19 @@ public final class Node implements Updatable {
      * @param transformations die Transformationen, die hinzugefügt werden sollen
      */
     public void add(Transformation... transformations) {
-        Collections.addAll(this.transformations, transformations);
+        synchronized (this) {
+            this.transformations = ImmutableList.<Transformation>builder()
+                    .addAll(this.transformations)
+                    .add(transformations)
+                    .build();
+        }
+        for (Transformation t : transformations) {
+            if (t instanceof AbstractTransformation) {
+                ((AbstractTransformation) t).setNode(this);
+            }
+        }
+        TRANSFORM_VERSION.incrementAndGet(this);
+        markModified();
         log.info("Neue Transformation hinzugefügt: {}", transformations);
     }
 
@@ -280,34 +392,386 @@ public final class Node implements Updatable {
      * @return die Transformationsmatrix dieses Knotens
      */
     public Matrix getTransformMatrix() {
-        Matrix matrix = Matrix.identity(4, 4);
+        Matrix matrix = getLocalTransformMatrix();
+
+        if (parent != null) {
+            Matrix parentTransformMatrix = parent.getTransformMatrix();
+            matrix = parentTransformMatrix.times(matrix);
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Gibt die Transformationsmatrix zurück, die sich nur aus den Transformationen dieses Knotens ergibt, ohne die
+     * Transformationen der Vorfahren.
+     *
+     * @return die lokale Transformationsmatrix
+     *
+     * @since 2.1
+     */
+    public Matrix getLocalTransformMatrix() {
+        Matrix matrix = null;
 
         for (Transformation t : transformations) {
             Matrix tmp = t.getTransformMatrix();
             if (tmp != null) {
-                matrix = matrix.times(tmp);
+                // Die erste Matrix wird kopiert statt mit der Einheitsmatrix multipliziert.
+                matrix = matrix == null ? tmp.copy() : matrix.times(tmp);
             }
         }
+        return matrix == null ? Matrix.identity(4, 4) : matrix;
+    }
 
-        if (parent != null) {
-            Matrix parentTransformMatrix = parent.getTransformMatrix();
-            matrix = parentTransformMatrix.times(matrix);
+    public void addLight(Light light) {
+        if (light instanceof AbstractLight) {
+            ((AbstractLight) light).setNode(this);
+        }
+        synchronized (this) {
+            lights = ImmutableList.<Light>builder().addAll(lights).add(light).build();
         }
+        invalidateLights();
+        markModified();
+    }
 
-        return matrix;
+    /**
+     * Markiert den Teilbaum dieses Knotens als statisch oder dynamisch. Der Inhalt eines statischen Teilbaums wird
+     * nur dann neu gezeichnet, wenn sich seine Struktur, seine Transformationen oder eines seiner Shapes ändern, siehe
+     * {@link org.amcgala.framework.shape.AbstractShape#markChanged()}.
+     *
+     * @param staticSubtree {@code true}, wenn sich der Teilbaum in der Regel nicht verändert
+     */
+    public void setStatic(boolean staticSubtree) {
+        this.staticSubtree = staticSubtree;
+        markModified();
     }
 
-    public void addLight(Light light) {
-        synchronized (lights) {
-            lights.add(light);
+    /**
+     * Gibt zurück, ob der Teilbaum dieses Knotens als statisch markiert wurde.
+     *
+     * @return {@code true}, wenn der Teilbaum statisch ist
+     */
+    public boolean isStatic() {
+        return staticSubtree;
+    }
+
+    /**
+     * Gibt den Änderungszähler des Teilbaums zurück. Solange sich der Wert nicht ändert, wurden weder Knoten, Shapes,
+     * Lichter noch Transformationen hinzugefügt oder entfernt.
+     *
+     * @return der aktuelle Änderungszähler
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gibt die Anzahl der Knoten im Teilbaum dieses Knotens zurück, einschließlich des Knotens selbst. Der Wert wird
+     * zwischengespeichert, bis sich die Struktur des Teilbaums ändert.
+     *
+     * @return die Größe des Teilbaums
+     *
+     * @since 2.1
+     */
+    public int getSubtreeSize() {
+        long v = version;
+        if (subtreeSizeVersion != v) {
+            int size = 1;
+            for (Node child : children) {
+                size += child.getSubtreeSize();
+            }
+            subtreeSize = size;
+            subtreeSizeVersion = v;
+        }
+        return subtreeSize;
+    }
+
+    /**
+     * Erhöht den Änderungszähler dieses Knotens und aller Vorfahren.
+     */
+    public void markModified() {
+        Node n = this;
+        while (n != null) {
+            VERSION.incrementAndGet(n);
+            n = n.parent;
+        }
+    }
+
+    /**
+     * Markiert diesen Knoten, nachdem eine seiner Transformationen außerhalb der Aktualisierung verändert wurde, z.B.
+     * über einen Setter. Bei der nächsten Aktualisierung werden die BoundingBoxen der Shapes dieses Knotens und seiner
+     * Nachfahren neu berechnet, auch wenn sie nicht in der {@link ActiveSet} stehen. Die übrigen Knoten sind davon
+     * nicht betroffen.
+     *
+     * @since 2.1
+     */
+    public void markTransformChanged() {
+        TRANSFORM_VERSION.incrementAndGet(this);
+        if (TRANSFORM_CHANGED.compareAndSet(this, 0, 1)) {
+            getRoot().getChangedNodes().add(this);
         }
     }
 
+    /**
+     * Gibt den Änderungszähler der Transformationen dieses Knotens zurück. Er wird erhöht, wenn Transformationen
+     * hinzugefügt oder über einen Setter verändert werden und bei jeder Aktualisierung einer animierten
+     * Transformation. Die Transformationen der Vorfahren sind nicht enthalten.
+     *
+     * @return der Änderungszähler der lokalen Transformation
+     *
+     * @since 2.1
+     */
+    public long getTransformVersion() {
+        return transformVersion;
+    }
+
+    private Node getRoot() {
+        Node root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root;
+    }
+
+    /**
+     * Übergibt die veränderten Knoten, die sich in der Warteschlange dieses bisher losgelösten Knotens angesammelt
+     * haben, an die Warteschlange seines neuen Rootknotens. Ohne diesen Schritt würden die Knoten nie aktualisiert und
+     * weitere Änderungen ihrer Transformationen blieben unbemerkt.
+     */
+    private void moveChangedNodes() {
+        Queue<Node> pending = changedNodes;
+        if (pending == null) {
+            return;
+        }
+        Node root = getRoot();
+        Node node;
+        while ((node = pending.poll()) != null) {
+            root.getChangedNodes().add(node);
+        }
+    }
+
+    private Queue<Node> getChangedNodes() {
+        Queue<Node> queue = changedNodes;
+        if (queue == null) {
+            synchronized (this) {
+                queue = changedNodes;
+                if (queue == null) {
+                    queue = new ConcurrentLinkedQueue<Node>();
+                    changedNodes = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Entnimmt einen Knoten aus der Warteschlange der veränderten Knoten dieses Rootknotens.
+     *
+     * @return der Knoten oder {@code null}, wenn kein Knoten verändert wurde
+     */
+    Node pollChangedNode() {
+        Queue<Node> queue = changedNodes;
+        Node node = queue != null ? queue.poll() : null;
+        if (node != null) {
+            TRANSFORM_CHANGED.set(node, 0);
+        }
+        return node;
+    }
+
+    /**
+     * Gibt den Änderungszähler der geerbten Lichter zurück. Er ändert sich, wenn diesem Knoten oder einem seiner
+     * Vorfahren ein Licht hinzugefügt, eines der geerbten Lichter über einen Setter verändert oder der Knoten
+     * umgehängt wird.
+     *
+     * @return der Änderungszähler der geerbten Lichter
+     *
+     * @since 2.1
+     */
+    public long getLightVersion() {
+        return lightVersion;
+    }
+
+    /**
+     * Erhöht den Änderungszähler der geerbten Lichter dieses Knotens und aller Kindsknoten. Andere Teilbäume sind von
+     * der Änderung nicht betroffen und behalten ihre zwischengespeicherten Lichtlisten. Wird von
+     * {@link AbstractLight} aufgerufen, wenn sich ein Licht dieses Knotens verändert.
+     *
+     * @since 2.1
+     */
+    public void invalidateLights() {
+        LIGHT_VERSION.incrementAndGet(this);
+        for (Node child : children) {
+            child.invalidateLights();
+        }
+    }
+
+    /**
+     * Gibt die Lichter zurück, die direkt an diesem Knoten hängen. Für die Beleuchtung des Knotens sind
+     * {@link #getEffectiveLights()} maßgeblich.
+     *
+     * @return die Lichter dieses Knotens
+     */
     public List<Light> getLights() {
-        // TODO hier muss die gesamte Lichthierarchie übergeben werden.
         return lights;
     }
 
+    /**
+     * Gibt alle Lichter zurück, die auf diesen Knoten wirken: die Lichter aller Vorfahren, gefolgt von den Lichtern
+     * dieses Knotens. Die Liste wird zwischengespeichert, bis sich {@link #getLightVersion()} ändert.
+     *
+     * @return die geerbten Lichter
+     *
+     * @since 2.1
+     */
+    public List<Light> getInheritedLights() {
+        long v = lightVersion;
+        LightCache cache = inheritedLights;
+        if (cache == null || cache.version != v) {
+            List<Light> own = lights;
+            Node p = parent;
+            List<Light> inherited;
+            if (p == null) {
+                inherited = own;
+            } else if (own.isEmpty()) {
+                inherited = p.getInheritedLights();
+            } else {
+                inherited = ImmutableList.<Light>builder().addAll(p.getInheritedLights()).addAll(own).build();
+            }
+            cache = new LightCache(v, -1, inherited);
+            inheritedLights = cache;
+        }
+        return cache.lights;
+    }
+
+    /**
+     * Gibt die geerbten Lichter zurück, die für die Shapes dieses Knotens nicht vernachlässigbar sind. Lichter, deren
+     * Abschwächung an jedem Punkt der BoundingBoxen der Shapes unter {@link LightCulling#NEGLIGIBLE} liegt, werden
+     * durch ihr ambientes Licht ersetzt. Sind die Ausmaße der Shapes nicht bekannt, werden alle geerbten Lichter
+     * zurückgegeben. Die Liste wird zwischengespeichert, bis sich {@link #getLightVersion()} oder die Ausmaße des
+     * Teilbaums ändern.
+     *
+     * @return die wirksamen Lichter
+     *
+     * @since 2.1
+     */
+    public List<Light> getEffectiveLights() {
+        long lightV = lightVersion;
+        long boundsV = boundsVersion;
+        LightCache cache = effectiveLights;
+        if (cache != null && cache.version == lightV && cache.boundsVersion == boundsV) {
+            return cache.lights;
+        }
+
+        List<Light> effective = getInheritedLights();
+        if (!effective.isEmpty()) {
+            double[] bounds = getShapeBounds();
+            if (bounds != null) {
+                effective = LightCulling.cull(effective, bounds);
+            }
+        }
+        effectiveLights = new LightCache(lightV, boundsV, effective);
+        return effective;
+    }
+
+    /**
+     * Berechnet den achsenparallelen Quader um die BoundingBoxen aller Shapes dieses Knotens.
+     *
+     * @return der Quader als {minX, minY, minZ, maxX, maxY, maxZ} oder {@code null}, wenn er nicht bekannt ist
+     */
+    private double[] getShapeBounds() {
+        List<Shape> current = shapes;
+        if (current.isEmpty()) {
+            return null;
+        }
+        double[] bounds = BoundingBox.empty();
+        for (Shape shape : current) {
+            BoundingBox box = shape.getBoundingBox();
+            if (box == null || box.isEmpty()) {
+                return null;
+            }
+            BoundingBox.union(bounds, box.getBounds());
+        }
+        return bounds;
+    }
+
+    /**
+     * Gibt den achsenparallelen Quader in Weltkoordinaten zurück, der die Shapes dieses Knotens und aller Kindsknoten
+     * umschließt. Shapes, deren Ausmaße nicht bekannt sind, werden nicht berücksichtigt. Der Quader wird nur für die
+     * Knoten neu berechnet, deren Teilbaum sich seit der letzten Abfrage verändert hat. Für alle übrigen Kindsknoten
+     * wird der zwischengespeicherte Quader verwendet.
+     *
+     * @return eine Kopie des Quaders als {minX, minY, minZ, maxX, maxY, maxZ} oder {@code null}, wenn der Teilbaum
+     *         keine Shapes mit bekannten Ausmaßen enthält
+     *
+     * @since 2.1
+     */
+    public double[] getBounds() {
+        double[] b = computeBounds();
+        return b == null ? null : b.clone();
+    }
+
+    private double[] computeBounds() {
+        long v = boundsVersion;
+        if (computedBoundsVersion != v) {
+            // Die Version wird vor der Berechnung gelesen, damit eine gleichzeitige Änderung erneut berechnet wird.
+            double[] b = BoundingBox.empty();
+            for (Shape shape : shapes) {
+                BoundingBox box = shape.getBoundingBox();
+                if (box != null && !box.isEmpty()) {
+                    BoundingBox.union(b, box.getBounds());
+                }
+            }
+            for (Node child : children) {
+                double[] c = child.computeBounds();
+                if (c != null) {
+                    BoundingBox.union(b, c);
+                }
+            }
+            bounds = BoundingBox.isEmpty(b) ? null : b;
+            computedBoundsVersion = v;
+        }
+        return bounds;
+    }
+
+    /**
+     * Markiert den Quader dieses Knotens und aller Vorfahren als veraltet, indem ihr Zähler für Änderungen der
+     * Ausmaße erhöht wird.
+     *
+     * @since 2.1
+     */
+    public void invalidateBounds() {
+        Node n = this;
+        while (n != null) {
+            BOUNDS_VERSION.incrementAndGet(n);
+            n = n.parent;
+        }
+    }
+
+    /**
+     * Gibt den Zähler für Änderungen der Ausmaße zurück. Der Wert ändert sich, wenn sich die BoundingBox eines Shapes
+     * im Teilbaum dieses Knotens verändert haben kann oder Shapes bzw. Knoten hinzugefügt oder entfernt wurden.
+     *
+     * @return der aktuelle Zähler
+     */
+    long getBoundsVersion() {
+        return boundsVersion;
+    }
+
+    /**
+     * Eine zwischengespeicherte Lichtliste und die Änderungszähler, zu denen sie berechnet wurde.
+     */
+    private static final class LightCache {
+        private final long version;
+        private final long boundsVersion;
+        private final List<Light> lights;
+
+        private LightCache(long version, long boundsVersion, List<Light> lights) {
+            this.version = version;
+            this.boundsVersion = boundsVersion;
+            this.lights = lights;
+        }
+    }
+
 
     @Override
     public String toString() {
@@ -318,11 +782,99 @@ public final class Node implements Updatable {
     public void update() {
         for (Transformation t : transformations) {
             t.update();
+            if (isAnimated(t)) {
+                TRANSFORM_VERSION.incrementAndGet(this);
+            }
         }
         Matrix transform = getTransformMatrix();
         for (Shape shape : shapes) {
             shape.update();
             shape.updateBoundingBox(transform);
         }
+        if (!shapes.isEmpty()) {
+            invalidateBounds();
+        }
+    }
+
+    /**
+     * Aktualisiert nur die animierten Transformationen und Shapes dieses Knotens. Die BoundingBoxen der übrigen
+     * Shapes werden nur neu berechnet, wenn sich die Transformation des Knotens verändert haben kann.
+     *
+     * @param moving {@code true}, wenn dieser Knoten oder einer seiner Vorfahren animierte Transformationen hat
+     */
+    void update(boolean moving) {
+        for (Transformation t : transformations) {
+            if (isAnimated(t)) {
+                t.update();
+                TRANSFORM_VERSION.incrementAndGet(this);
+            }
+        }
+        Matrix transform = null;
+        for (Shape shape : shapes) {
+            boolean animated = isAnimated(shape);
+            if (animated) {
+                shape.update();
+            }
+            if (animated || moving) {
+                if (transform == null) {
+                    transform = getTransformMatrix();
+                }
+                shape.updateBoundingBox(transform);
+            }
+        }
+        if (transform != null) {
+            invalidateBounds();
+        }
+    }
+
+    /**
+     * Prüft, ob eine der Transformationen dieses Knotens animiert ist.
+     *
+     * @return {@code true}, wenn sich die Transformation des Knotens bei einer Aktualisierung ändert
+     *
+     * @since 2.1
+     */
+    public boolean hasAnimatedTransformations() {
+        for (Transformation t : transformations) {
+            if (isAnimated(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prüft, ob eines der Shapes dieses Knotens animiert ist.
+     *
+     * @return {@code true}, wenn sich eines der Shapes bei einer Aktualisierung ändert
+     */
+    boolean hasAnimatedShapes() {
+        for (Shape shape : shapes) {
+            if (isAnimated(shape)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Berechnet die BoundingBoxen aller Shapes dieses Knotens neu, ohne sie zu aktualisieren.
+     */
+    void updateBoundingBoxes() {
+        if (shapes.isEmpty()) {
+            return;
+        }
+        Matrix transform = getTransformMatrix();
+        for (Shape shape : shapes) {
+            shape.updateBoundingBox(transform);
+        }
+        invalidateBounds();
+    }
+
+    /**
+     * Shapes und Transformationen, die nicht angeben, ob sie animiert sind, werden immer aktualisiert.
+     */
+    private static boolean isAnimated(Object o) {
+        return !(o instanceof Animated) || ((Animated) o).isAnimated();
     }
 }
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph;
+
+import com.google.common.base.Objects;
+import org.amcgala.Scene;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.BoundsHittable;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.raytracer.Ray;
+import org.amcgala.framework.raytracer.ShadingInfo;
+import org.amcgala.framework.raytracer.tracer.Tracer;
+import org.amcgala.framework.shape.Shape;
+import org.amcgala.framework.shape.util.bounds.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Ein räumlicher Index über die BoundingBoxen von Shapes in Weltkoordinaten.
+ * <p/>
+ * Es handelt sich um einen lockeren Octree: Jede Zelle wird für die Zuordnung von Shapes auf die doppelte
+ * Kantenlänge erweitert. Ein Shape liegt in der tiefsten Zelle, deren Kantenlänge mindestens so groß wie seine größte
+ * Ausdehnung ist und die seinen Mittelpunkt enthält. Dadurch passt jedes Shape vollständig in die erweiterte Zelle
+ * und muss nie auf mehrere Zellen verteilt werden. Bewegt sich ein Shape nur innerhalb der erweiterten Zelle, bleibt
+ * es an seinem Platz. Shapes außerhalb der Wurzelzelle werden in der Wurzel gespeichert.
+ * <p/>
+ * Ein mit {@link #build(Node)} aufgebauter Octree kennt den Teilbaum, aus dem er erzeugt wurde.
+ * {@link #refit()} gleicht ihn mit den aktuellen BoundingBoxen ab und besucht dabei nur Teilbäume, deren Ausmaße
+ * sich seit dem letzten Abgleich verändert haben. Ändert sich die Struktur des Teilbaums, muss neu aufgebaut werden,
+ * siehe {@link #isValid()}.
+ *
+ * @since 2.1
+ */
+public final class Octree {
+    private static final int MAX_DEPTH = 10;
+    private static final double MIN_HALF_SIZE = 1;
+
+    /**
+     * Ein Tracer für Materialien, die beim Schneiden weitere Strahlen verfolgen. Beim Auswählen eines Shapes wird nur
+     * der Schnittpunkt benötigt, daher werden keine weiteren Strahlen berechnet.
+     */
+    private static final Tracer NO_TRACER = new Tracer() {
+        @Override
+        public RGBColor trace(Ray ray, Scene scene) {
+            return new RGBColor(0, 0, 0);
+        }
+
+        @Override
+        public RGBColor trace(Ray ray, Scene scene, int depth) {
+            return new RGBColor(0, 0, 0);
+        }
+    };
+
+    private static final Comparator<Hit> BY_DISTANCE = new Comparator<Hit>() {
+        @Override
+        public int compare(Hit a, Hit b) {
+            return Double.compare(a.distance, b.distance);
+        }
+    };
+
+    private final Cell root;
+    private final Map<Shape, Entry> entries = new HashMap<Shape, Entry>();
+
+    private final Node graphRoot;
+    private final long graphVersion;
+    private final Node[] nodes;
+    private final int[] subtreeEnd;
+    private final long[] boundsVersions;
+
+    /**
+     * Erzeugt einen leeren Octree, dessen Wurzelzelle den angegebenen Quader umschließt.
+     *
+     * @param bounds der Bereich, in dem die meisten Shapes liegen, als {minX, minY, minZ, maxX, maxY, maxZ}
+     */
+    public Octree(double[] bounds) {
+        this(bounds, null, -1, new ArrayList<Node>(), new int[0]);
+    }
+
+    private Octree(double[] bounds, Node graphRoot, long graphVersion, List<Node> nodes, int[] subtreeEnd) {
+        checkArgument(bounds.length == 6 && !BoundingBox.isEmpty(bounds), "Der Bereich darf nicht leer sein!");
+        double half = Math.max(bounds[3] - bounds[0], Math.max(bounds[4] - bounds[1], bounds[5] - bounds[2])) / 2;
+        root = new Cell(null, 0, (bounds[0] + bounds[3]) / 2, (bounds[1] + bounds[4]) / 2,
+                (bounds[2] + bounds[5]) / 2, Math.max(half, MIN_HALF_SIZE));
+        this.graphRoot = graphRoot;
+        this.graphVersion = graphVersion;
+        this.nodes = nodes.toArray(new Node[nodes.size()]);
+        this.subtreeEnd = subtreeEnd;
+        this.boundsVersions = new long[this.nodes.length];
+        Arrays.fill(boundsVersions, -1);
+    }
+
+    /**
+     * Baut einen Octree über alle Shapes im Teilbaum eines Knotens auf.
+     *
+     * @param root die Wurzel des Teilbaums
+     *
+     * @return der Octree
+     */
+    public static Octree build(Node root) {
+        long version = root.getVersion();
+        List<Node> nodes = new ArrayList<Node>();
+        List<Integer> ends = new ArrayList<Integer>();
+        collect(root, nodes, ends);
+        int[] subtreeEnd = new int[ends.size()];
+        for (int i = 0; i < subtreeEnd.length; i++) {
+            subtreeEnd[i] = ends.get(i);
+        }
+
+        double[] bounds = root.getBounds();
+        Octree octree = new Octree(bounds == null ? new double[]{-1, -1, -1, 1, 1, 1} : bounds, root, version, nodes,
+                subtreeEnd);
+        octree.refit();
+        return octree;
+    }
+
+    private static void collect(Node node, List<Node> nodes, List<Integer> ends) {
+        int index = nodes.size();
+        nodes.add(node);
+        ends.add(0);
+        for (Node child : node.getChildNodes()) {
+            collect(child, nodes, ends);
+        }
+        ends.set(index, nodes.size());
+    }
+
+    /**
+     * Prüft, ob der Octree noch der Struktur des Teilbaums entspricht, aus dem er aufgebaut wurde.
+     *
+     * @return {@code true}, wenn der Octree weiter verwendet werden kann
+     */
+    public boolean isValid() {
+        return graphRoot != null && graphVersion == graphRoot.getVersion();
+    }
+
+    /**
+     * Gleicht den Octree mit den aktuellen BoundingBoxen der Shapes im Teilbaum ab. Teilbäume, deren Ausmaße sich
+     * seit dem letzten Abgleich nicht verändert haben, werden übersprungen.
+     *
+     * @return die Anzahl der Shapes, die in eine andere Zelle verschoben, eingefügt oder entfernt wurden
+     */
+    public synchronized int refit() {
+        int moved = 0;
+        int i = 0;
+        while (i < nodes.length) {
+            long v = nodes[i].getBoundsVersion();
+            if (v == boundsVersions[i]) {
+                i = subtreeEnd[i];
+                continue;
+            }
+            boundsVersions[i] = v;
+            for (Shape shape : nodes[i].getShapes()) {
+                if (update(shape)) {
+                    moved++;
+                }
+            }
+            i++;
+        }
+        return moved;
+    }
+
+    /**
+     * Fügt ein Shape ein oder aktualisiert seine Position. Shapes ohne bekannte Ausmaße werden entfernt.
+     *
+     * @param shape das Shape
+     *
+     * @return {@code true}, wenn das Shape eingefügt, entfernt oder in eine andere Zelle verschoben wurde
+     */
+    public synchronized boolean update(Shape shape) {
+        BoundingBox box = checkNotNull(shape).getBoundingBox();
+        double[] bounds = box == null ? null : box.getBounds();
+        Entry entry = entries.get(shape);
+        if (bounds == null) {
+            return entry != null && remove(shape);
+        }
+        if (entry == null) {
+            entry = new Entry(shape);
+            entries.put(shape, entry);
+        } else if (Arrays.equals(entry.bounds, bounds)) {
+            return false;
+        } else if (entry.cell.encloses(bounds)) {
+            entry.bounds = bounds;
+            return false;
+        } else {
+            entry.cell.remove(entry);
+        }
+        entry.bounds = bounds;
+        find(bounds).add(entry);
+        return true;
+    }
+
+    /**
+     * Fügt ein Shape ein. Ist das Shape bereits enthalten, wird seine Position aktualisiert.
+     *
+     * @param shape das Shape
+     */
+    public void insert(Shape shape) {
+        update(shape);
+    }
+
+    /**
+     * Entfernt ein Shape.
+     *
+     * @param shape das Shape
+     *
+     * @return {@code true}, wenn das Shape enthalten war
+     */
+    public synchronized boolean remove(Shape shape) {
+        Entry entry = entries.remove(shape);
+        if (entry == null) {
+            return false;
+        }
+        entry.cell.remove(entry);
+        return true;
+    }
+
+    /**
+     * Gibt die Anzahl der Shapes im Octree zurück.
+     *
+     * @return die Anzahl der Shapes
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sucht die Zelle, in die ein Shape mit den angegebenen Ausmaßen gehört, und legt fehlende Zellen an.
+     */
+    private Cell find(double[] bounds) {
+        double extent = Math.max(bounds[3] - bounds[0], Math.max(bounds[4] - bounds[1], bounds[5] - bounds[2]));
+        double x = (bounds[0] + bounds[3]) / 2;
+        double y = (bounds[1] + bounds[4]) / 2;
+        double z = (bounds[2] + bounds[5]) / 2;
+        Cell cell = root;
+        if (!root.contains(x, y, z)) {
+            return root;
+        }
+        while (cell.depth < MAX_DEPTH && extent <= cell.half) {
+            cell = cell.child(x, y, z);
+        }
+        return cell;
+    }
+
+    /**
+     * Gibt alle Shapes zurück, deren BoundingBox einen Quader schneidet.
+     *
+     * @param bounds der Quader als {minX, minY, minZ, maxX, maxY, maxZ}
+     *
+     * @return die gefundenen Shapes in beliebiger Reihenfolge
+     */
+    public synchronized List<Shape> query(double[] bounds) {
+        List<Shape> result = new ArrayList<Shape>();
+        query(root, bounds, result);
+        return result;
+    }
+
+    private static void query(Cell cell, double[] bounds, List<Shape> result) {
+        if (cell.count == 0 || (cell.parent != null && !BoundingBox.intersects(cell.loose, bounds))) {
+            return;
+        }
+        for (Entry entry : cell.entries) {
+            if (BoundingBox.intersects(entry.bounds, bounds)) {
+                result.add(entry.shape);
+            }
+        }
+        if (cell.children != null) {
+            for (Cell child : cell.children) {
+                if (child != null) {
+                    query(child, bounds, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Shapes zurück, deren BoundingBox von einem Strahl getroffen wird, geordnet nach dem Abstand, in dem
+     * der Strahl die BoundingBox erreicht.
+     *
+     * @param ray der Strahl
+     *
+     * @return die getroffenen Shapes, das nächste zuerst
+     */
+    public List<Shape> raycast(Ray ray) {
+        List<Hit> hits = raycastHits(ray);
+        List<Shape> result = new ArrayList<Shape>(hits.size());
+        for (Hit hit : hits) {
+            result.add(hit.entry.shape);
+        }
+        return result;
+    }
+
+    private synchronized List<Hit> raycastHits(Ray ray) {
+        double[] origin = {ray.origin.x, ray.origin.y, ray.origin.z};
+        double[] inverse = {1 / ray.direction.x, 1 / ray.direction.y, 1 / ray.direction.z};
+        List<Hit> hits = new ArrayList<Hit>();
+        raycast(root, origin, inverse, hits);
+        Collections.sort(hits, BY_DISTANCE);
+        return hits;
+    }
+
+    private static void raycast(Cell cell, double[] origin, double[] inverse, List<Hit> hits) {
+        if (cell.count == 0 || (cell.parent != null && entry(cell.loose, origin, inverse) < 0)) {
+            return;
+        }
+        for (Entry entry : cell.entries) {
+            double t = entry(entry.bounds, origin, inverse);
+            if (t >= 0) {
+                hits.add(new Hit(entry, t));
+            }
+        }
+        if (cell.children != null) {
+            for (Cell child : cell.children) {
+                if (child != null) {
+                    raycast(child, origin, inverse, hits);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bestimmt das vorderste Shape, das von einem Strahl getroffen wird. Die Shapes werden in der Reihenfolge
+     * geprüft, in der der Strahl ihre BoundingBoxen erreicht, und die Suche endet, sobald keine BoundingBox mehr vor
+     * dem nächsten exakten Schnittpunkt liegt. Für Shapes, die {@link BoundsHittable} implementieren, gilt der
+     * Eintrittspunkt in ihre BoundingBox als Schnittpunkt.
+     *
+     * @param ray der Strahl
+     *
+     * @return das vorderste Shape oder {@code null}, wenn kein Shape getroffen wird
+     */
+    public Shape pick(Ray ray) {
+        List<Hit> hits = raycastHits(ray);
+        Shape nearest = null;
+        double nearestT = Double.POSITIVE_INFINITY;
+        for (Hit hit : hits) {
+            if (hit.distance > nearestT) {
+                break;
+            }
+            Shape shape = hit.entry.shape;
+            if (shape instanceof BoundsHittable) {
+                if (hit.distance < nearestT) {
+                    nearest = shape;
+                    nearestT = hit.distance;
+                }
+                continue;
+            }
+            ShadingInfo info = new ShadingInfo();
+            info.tracer = NO_TRACER;
+            if (shape.hit(ray, info) && info.t < nearestT) {
+                nearest = shape;
+                nearestT = info.t;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Gibt die {@code k} Shapes zurück, deren BoundingBoxen einem Punkt am nächsten liegen. Liegt der Punkt innerhalb
+     * einer BoundingBox, ist ihr Abstand 0.
+     *
+     * @param point der Punkt
+     * @param k     die Anzahl der gesuchten Shapes
+     *
+     * @return die nächsten Shapes, das nächste zuerst
+     */
+    public synchronized List<Shape> nearest(Vector3d point, int k) {
+        checkArgument(k >= 0, "Die Anzahl darf nicht negativ sein!");
+        List<Shape> result = new ArrayList<Shape>(Math.min(k, entries.size()));
+        if (k == 0) {
+            return result;
+        }
+
+        // Zellen und Shapes werden gemeinsam nach ihrem Abstand abgearbeitet. Da jede erweiterte Zelle ihre Shapes
+        // vollständig enthält, kann ein Shape ausgegeben werden, sobald es vorne in der Warteschlange steht.
+        PriorityQueue<Hit> queue = new PriorityQueue<Hit>(64, BY_DISTANCE);
+        queue.add(new Hit(root, 0));
+        while (!queue.isEmpty()) {
+            Hit next = queue.poll();
+            if (next.entry != null) {
+                result.add(next.entry.shape);
+                if (result.size() == k) {
+                    break;
+                }
+                continue;
+            }
+            Cell cell = next.cell;
+            for (Entry entry : cell.entries) {
+                queue.add(new Hit(entry, distanceSquared(entry.bounds, point)));
+            }
+            if (cell.children != null) {
+                for (Cell child : cell.children) {
+                    if (child != null && child.count > 0) {
+                        queue.add(new Hit(child, distanceSquared(child.loose, point)));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Berechnet den Abstand, in dem ein Strahl einen Quader erreicht.
+     *
+     * @return der Abstand in Vielfachen des Richtungsvektors, 0, wenn der Ursprung im Quader liegt, oder -1, wenn
+     *         der Strahl den Quader verfehlt
+     */
+    private static double entry(double[] bounds, double[] origin, double[] inverse) {
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            double t1 = (bounds[axis] - origin[axis]) * inverse[axis];
+            double t2 = (bounds[axis + 3] - origin[axis]) * inverse[axis];
+            if (Double.isNaN(t1) || Double.isNaN(t2)) {
+                // Der Strahl verläuft parallel zu dieser Achse genau auf einer Seite des Quaders.
+                continue;
+            }
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) {
+                return -1;
+            }
+        }
+        // Ein achsenparalleler Strahl, der außerhalb des Quaders verläuft, erreicht ihn erst im Unendlichen.
+        return near == Double.POSITIVE_INFINITY ? -1 : near;
+    }
+
+    private static double distanceSquared(double[] bounds, Vector3d point) {
+        double dx = Math.max(0, Math.max(bounds[0] - point.x, point.x - bounds[3]));
+        double dy = Math.max(0, Math.max(bounds[1] - point.y, point.y - bounds[4]));
+        double dz = Math.max(0, Math.max(bounds[2] - point.z, point.z - bounds[5]));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return Objects.toStringHelper(getClass()).add("shapes", entries.size()).add("version", graphVersion)
+                .toString();
+    }
+
+    /**
+     * Eine Zelle des Octrees. Die Kindszellen werden erst angelegt, wenn ein Shape in sie eingefügt wird.
+     */
+    private static final class Cell {
+        private final Cell parent;
+        private final int depth;
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double half;
+        private final double[] loose;
+        private final List<Entry> entries = new ArrayList<Entry>(2);
+        private Cell[] children;
+        private int count;
+
+        private Cell(Cell parent, int depth, double x, double y, double z, double half) {
+            this.parent = parent;
+            this.depth = depth;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.half = half;
+            double l = 2 * half;
+            this.loose = new double[]{x - l, y - l, z - l, x + l, y + l, z + l};
+        }
+
+        private boolean contains(double px, double py, double pz) {
+            return Math.abs(px - x) <= half && Math.abs(py - y) <= half && Math.abs(pz - z) <= half;
+        }
+
+        private boolean encloses(double[] bounds) {
+            if (parent == null) {
+                // Die Wurzel nimmt alle Shapes auf, die in keine Kindszelle passen.
+                return true;
+            }
+            return bounds[0] >= loose[0] && bounds[1] >= loose[1] && bounds[2] >= loose[2]
+                    && bounds[3] <= loose[3] && bounds[4] <= loose[4] && bounds[5] <= loose[5];
+        }
+
+        private Cell child(double px, double py, double pz) {
+            int index = (px >= x ? 1 : 0) | (py >= y ? 2 : 0) | (pz >= z ? 4 : 0);
+            if (children == null) {
+                children = new Cell[8];
+            }
+            Cell child = children[index];
+            if (child == null) {
+                double h = half / 2;
+                child = new Cell(this, depth + 1, x + ((index & 1) != 0 ? h : -h), y + ((index & 2) != 0 ? h : -h),
+                        z + ((index & 4) != 0 ? h : -h), h);
+                children[index] = child;
+            }
+            return child;
+        }
+
+        private void add(Entry entry) {
+            entries.add(entry);
+            entry.cell = this;
+            for (Cell c = this; c != null; c = c.parent) {
+                c.count++;
+            }
+        }
+
+        private void remove(Entry entry) {
+            entries.remove(entry);
+            entry.cell = null;
+            for (Cell c = this; c != null; c = c.parent) {
+                c.count--;
+            }
+        }
+    }
+
+    /**
+     * Ein Shape im Octree mit der BoundingBox, mit der es eingeordnet wurde.
+     */
+    private static final class Entry {
+        private final Shape shape;
+        private double[] bounds;
+        private Cell cell;
+
+        private Entry(Shape shape) {
+            this.shape = shape;
+        }
+    }
+
+    /**
+     * Eine Zelle oder ein Shape mit seinem Abstand für die geordnete Ausgabe von Suchergebnissen.
+     */
+    private static final class Hit {
+        private final Entry entry;
+        private final Cell cell;
+        private final double distance;
+
+        private Hit(Entry entry, double distance) {
+            this.entry = entry;
+            this.cell = null;
+            this.distance = distance;
+        }
+
+        private Hit(Cell cell, double distance) {
+            this.entry = null;
+            this.cell = cell;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.amcgala.framework.scenegraph.visitor.ParallelVisitor;
+import org.amcgala.framework.scenegraph.visitor.PruningVisitor;
+import org.amcgala.framework.scenegraph.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parallele Traversierung des Szenengraphs.
+ * <p/>
+ * Traversiert wird über die Knoten eines Abbilds des Graphen in Tiefensuchreihenfolge, nicht über die Kindsknoten der
+ * Knoten selbst. Änderungen der Struktur während der Traversierung sind so erst bei der nächsten Traversierung
+ * sichtbar. Das Abbild wird in Abschnitte zerlegt: Knoten, deren Teilbaum größer als der Schwellwert ist, werden
+ * einzeln im aufrufenden Thread besucht. Alle kleineren Teilbäume werden zu Aufgaben von etwa Schwellwertgröße
+ * zusammengefasst und parallel in einem Threadpool besucht. Da die Vorfahren jeder Aufgabe vorher im aufrufenden
+ * Thread besucht werden, sehen die Aufgaben immer den bereits aktualisierten Zustand ihrer Elternknoten.
+ *
+ * @since 2.1
+ */
+final class ParallelTraversal {
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("amcgala-traversal-%d").build());
+
+    private ParallelTraversal() {
+    }
+
+    /**
+     * Besucht die Knoten eines Bereichs des Abbilds der Reihe nach. Lehnt ein {@link PruningVisitor} die Kindsknoten
+     * eines Knotens ab, wird sein Teilbaum übersprungen.
+     *
+     * @param nodes   die Knoten in Tiefensuchreihenfolge
+     * @param ends    zu jedem Knoten der erste Index nach seinem Teilbaum
+     * @param from    der erste Index des Bereichs
+     * @param to      der erste Index nach dem Bereich
+     * @param visitor der Visitor
+     */
+    static void visit(List<Node> nodes, int[] ends, int from, int to, Visitor visitor) {
+        PruningVisitor pruning = visitor instanceof PruningVisitor ? (PruningVisitor) visitor : null;
+        int i = from;
+        while (i < to) {
+            Node node = nodes.get(i);
+            visitor.visit(node);
+            i = pruning != null && !pruning.visitChildren(node) ? ends[i] : i + 1;
+        }
+    }
+
+    /**
+     * Besucht die Knoten eines Abbilds mit einem Visitor. Sind es nicht mehr Knoten als der Schwellwert, wird
+     * sequentiell traversiert.
+     *
+     * @param nodes     die Knoten in Tiefensuchreihenfolge
+     * @param ends      zu jedem Knoten der erste Index nach seinem Teilbaum
+     * @param visitor   der Visitor
+     * @param threshold die Anzahl an Knoten, ab der ein Teilbaum weiter aufgeteilt wird
+     */
+    static void traverse(final List<Node> nodes, final int[] ends, ParallelVisitor visitor, int threshold) {
+        if (nodes.size() <= threshold) {
+            visit(nodes, ends, 0, nodes.size(), visitor);
+            return;
+        }
+
+        List<Segment> segments = partition(nodes, ends, threshold, visitor);
+
+        List<Visitor> forks = new ArrayList<Visitor>(segments.size());
+        for (Segment segment : segments) {
+            segment.visitor = visitor.fork();
+            forks.add(segment.visitor);
+        }
+
+        // Zuerst die Vorfahren aller Aufgaben in Traversierungsreihenfolge besuchen.
+        for (Segment segment : segments) {
+            if (!segment.subtree) {
+                for (Node node : segment.nodes) {
+                    segment.visitor.visit(node);
+                }
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(segments.size());
+        for (final Segment segment : segments) {
+            if (segment.subtree) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        visit(nodes, ends, segment.from, segment.to, segment.visitor);
+                        return null;
+                    }
+                }));
+            }
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Traversierung wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+
+        visitor.join(forks);
+    }
+
+    /**
+     * Zerlegt das Abbild in einem linearen Durchlauf. Benachbarte kleine Teilbäume werden zusammengefasst, solange
+     * kein einzeln zu besuchender Knoten zwischen ihnen liegt.
+     */
+    private static List<Segment> partition(List<Node> nodes, int[] ends, int threshold, Visitor visitor) {
+        PruningVisitor pruning = visitor instanceof PruningVisitor ? (PruningVisitor) visitor : null;
+        List<Segment> segments = new ArrayList<Segment>();
+        int i = 0;
+        while (i < nodes.size()) {
+            int end = ends[i];
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (end - i > threshold) {
+                Node node = nodes.get(i);
+                if (last != null && !last.subtree) {
+                    last.nodes.add(node);
+                } else {
+                    segments.add(new Segment(node));
+                }
+                i = pruning != null && !pruning.visitChildren(node) ? end : i + 1;
+            } else {
+                if (last != null && last.subtree && last.to == i && end - last.from <= threshold) {
+                    last.to = end;
+                } else {
+                    segments.add(new Segment(i, end));
+                }
+                i = end;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Ein Abschnitt der Traversierung. Entweder eine Folge einzeln zu besuchender Knoten oder ein Bereich des Abbilds,
+     * der aus vollständigen Teilbäumen besteht.
+     */
+    private static final class Segment {
+        private final List<Node> nodes = new ArrayList<Node>();
+        private final boolean subtree;
+        private int from;
+        private int to;
+        private Visitor visitor;
+
+        private Segment(Node node) {
+            this.subtree = false;
+            nodes.add(node);
+        }
+
+        private Segment(int from, int to) {
+            this.subtree = true;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -148,6 +148,19 @@ public interface SceneGraph {
      */
     void accept(Visitor visitor);
 
+    /**
+     * Teil des Visitor-Patterns. Besucht den Szenengraph parallel, sofern der Visitor ein
+     * {@link org.amcgala.framework.scenegraph.visitor.ParallelVisitor} ist. Teilbäume, die höchstens
+     * {@code threshold} Knoten enthalten, werden nicht weiter aufgeteilt. Alle anderen Visitor werden sequentiell
+     * ausgeführt.
+     *
+     * @param visitor   der Visitor
+     * @param threshold die Anzahl an Knoten, ab der ein Teilbaum auf mehrere Threads verteilt wird
+     *
+     * @since 2.1
+     */
+    void accept(Visitor visitor, int threshold);
+
     /**
      * Entfernt ein {@link Shape} aus dem Szenengraph.
      *
@@ -175,4 +188,46 @@ public interface SceneGraph {
      * @return {@code true}, wenn Lichter im Szenengraph vorhanden sind
      */
     boolean hasLight();
+
+    /**
+     * Gibt den Änderungszähler des Szenengraphs zurück. Der Wert ändert sich bei jeder Änderung an Knoten, Shapes,
+     * Lichtern oder Transformationen.
+     *
+     * @return der aktuelle Änderungszähler
+     *
+     * @since 2.1
+     */
+    long getVersion();
+
+    /**
+     * Gibt die kompilierte Transformationshierarchie des Szenengraphs zurück. Die Hierarchie wird nach jeder
+     * strukturellen Änderung neu kompiliert. Die Matrizen werden erst mit {@link TransformHierarchy#update()}
+     * berechnet.
+     *
+     * @return die Transformationshierarchie
+     *
+     * @since 2.1
+     */
+    TransformHierarchy getTransformHierarchy();
+
+    /**
+     * Gibt die Menge der Knoten zurück, die bei einer Aktualisierung etwas zu tun haben. Die Menge wird neu aufgebaut,
+     * wenn sich die Struktur des Graphen oder eine Animation verändert hat.
+     *
+     * @return die aktiven Knoten
+     *
+     * @since 2.1
+     */
+    ActiveSet getActiveSet();
+
+    /**
+     * Gibt einen räumlichen Index über alle Shapes des Szenengraphs zurück. Der Index wird nach einer strukturellen
+     * Änderung neu aufgebaut und vor der Rückgabe mit den aktuellen BoundingBoxen abgeglichen, wobei nur Teilbäume
+     * mit veränderten Ausmaßen besucht werden.
+     *
+     * @return der Octree
+     *
+     * @since 2.1
+     */
+    Octree getOctree();
 }
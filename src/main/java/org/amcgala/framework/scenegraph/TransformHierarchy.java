@@ -0,0 +1,383 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.amcgala.framework.math.Matrix;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Eine kompilierte Form der Transformationshierarchie eines Szenengraphs.
+ * <p/>
+ * Die Knoten werden in Tiefensuchreihenfolge durchnummeriert. Zu jedem Knoten werden der Index des Elternknotens,
+ * das Ende seines Teilbaums sowie die lokale und die globale Transformationsmatrix als 16 aufeinanderfolgende Werte in
+ * einfachen Arrays gespeichert. Da jeder Elternknoten vor seinen Kindsknoten liegt, lassen sich alle globalen
+ * Matrizen in einem einzigen linearen Durchlauf berechnen, ohne Objekte zu erzeugen. Jeder Teilbaum belegt einen
+ * zusammenhängenden Bereich der Arrays und kann daher unabhängig von anderen Teilbäumen berechnet werden.
+ * <p/>
+ * Die Struktur wird beim Kompilieren festgelegt. Ändert sich der Szenengraph, muss neu kompiliert werden, siehe
+ * {@link #isValid()}.
+ *
+ * @since 2.1
+ */
+public final class TransformHierarchy {
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("amcgala-transform-%d").build());
+
+    private final Node root;
+    private final long version;
+    private final Node[] nodes;
+    private final int[] parent;
+    private final int[] subtreeEnd;
+    private final double[] local;
+    private final double[] world;
+    /**
+     * Die mit {@link #capture()} gespeicherten globalen Matrizen, {@code null} solange nichts gespeichert wurde.
+     */
+    private double[] previous;
+    /**
+     * Die mit {@link #interpolate(double)} gemischten Matrizen für die Darstellung, {@code null} solange nicht
+     * interpoliert wurde.
+     */
+    private double[] interpolated;
+    /**
+     * {@code true}, wenn {@link #interpolated} zum aktuellen Stand von {@link #world} gehört.
+     */
+    private boolean interpolatedValid;
+    private final Map<Node, Integer> indices;
+
+    private TransformHierarchy(Node root) {
+        this.root = root;
+        this.version = root.getVersion();
+
+        List<Node> order = new ArrayList<Node>();
+        List<Integer> parents = new ArrayList<Integer>();
+        List<Integer> ends = new ArrayList<Integer>();
+        flatten(root, -1, order, parents, ends);
+
+        int n = order.size();
+        nodes = order.toArray(new Node[n]);
+        parent = new int[n];
+        subtreeEnd = new int[n];
+        indices = new IdentityHashMap<Node, Integer>(n);
+        for (int i = 0; i < n; i++) {
+            parent[i] = parents.get(i);
+            subtreeEnd[i] = ends.get(i);
+            indices.put(nodes[i], i);
+        }
+        local = new double[n * 16];
+        world = new double[n * 16];
+    }
+
+    private static void flatten(Node node, int parentIndex, List<Node> order, List<Integer> parents,
+                                List<Integer> ends) {
+        int index = order.size();
+        order.add(node);
+        parents.add(parentIndex);
+        ends.add(0);
+        for (Node child : node.getChildNodes()) {
+            flatten(child, index, order, parents, ends);
+        }
+        ends.set(index, order.size());
+    }
+
+    /**
+     * Kompiliert den Teilbaum eines Knotens. Der Knoten wird dabei als Wurzel behandelt, die Transformationen seiner
+     * Vorfahren werden nicht berücksichtigt.
+     *
+     * @param root die Wurzel der Hierarchie
+     *
+     * @return die kompilierte Hierarchie
+     */
+    public static TransformHierarchy compile(Node root) {
+        return new TransformHierarchy(checkNotNull(root));
+    }
+
+    /**
+     * Prüft, ob die Struktur der Hierarchie noch dem Szenengraph entspricht.
+     *
+     * @return {@code false}, wenn sich der Szenengraph seit dem Kompilieren verändert hat
+     */
+    public boolean isValid() {
+        return root.getVersion() == version;
+    }
+
+    /**
+     * Gibt die Anzahl der Knoten zurück.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Gibt den Index eines Knotens zurück.
+     *
+     * @param node der Knoten
+     *
+     * @return der Index oder -1, wenn der Knoten beim Kompilieren nicht Teil der Hierarchie war
+     */
+    public int indexOf(Node node) {
+        Integer index = indices.get(node);
+        return index == null ? -1 : index;
+    }
+
+    public Node getNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Gibt den Index des Elternknotens zurück.
+     *
+     * @param index der Index des Knotens
+     *
+     * @return der Index des Elternknotens oder -1 für die Wurzel
+     */
+    public int getParent(int index) {
+        return parent[index];
+    }
+
+    /**
+     * Gibt das Ende des Teilbaums eines Knotens zurück. Der Teilbaum belegt die Indizes von {@code index}
+     * (einschließlich) bis zum Ende (ausschließlich).
+     *
+     * @param index der Index des Knotens
+     *
+     * @return der erste Index nach dem Teilbaum
+     */
+    public int getSubtreeEnd(int index) {
+        return subtreeEnd[index];
+    }
+
+    /**
+     * Übernimmt die aktuellen lokalen Transformationen aller Knoten und berechnet daraus die globalen
+     * Transformationen.
+     */
+    public void update() {
+        interpolatedValid = false;
+        updateLocal(0, nodes.length);
+        propagate(0, nodes.length);
+    }
+
+    /**
+     * Wie {@link #update()}, verteilt aber Teilbäume mit höchstens {@code threshold} Knoten auf mehrere Threads. Die
+     * Vorfahren dieser Teilbäume werden vorher im aufrufenden Thread berechnet.
+     *
+     * @param threshold die Anzahl an Knoten, ab der ein Teilbaum weiter aufgeteilt wird
+     */
+    public void update(int threshold) {
+        checkArgument(threshold > 0, "Der Schwellwert muss größer 0 sein!");
+        interpolatedValid = false;
+        if (nodes.length <= threshold) {
+            update();
+            return;
+        }
+
+        // Vorfahren großer Teilbäume der Reihe nach berechnen, kleine Teilbäume zu Bereichen zusammenfassen.
+        List<int[]> ranges = new ArrayList<int[]>();
+        int i = 0;
+        while (i < nodes.length) {
+            int end = subtreeEnd[i];
+            if (end - i > threshold) {
+                updateLocal(i, i + 1);
+                propagate(i, i + 1);
+                i++;
+            } else {
+                int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && last[1] == i && end - last[0] <= threshold) {
+                    last[1] = end;
+                } else {
+                    ranges.add(new int[]{i, end});
+                }
+                i = end;
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(ranges.size());
+        for (final int[] range : ranges) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    updateLocal(range[0], range[1]);
+                    propagate(range[0], range[1]);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Berechnung der Transformationen wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private void updateLocal(int from, int to) {
+        for (int i = from; i < to; i++) {
+            double[][] m = nodes[i].getLocalTransformMatrix().getArray();
+            int o = i * 16;
+            for (int r = 0; r < 4; r++) {
+                System.arraycopy(m[r], 0, local, o + r * 4, 4);
+            }
+        }
+    }
+
+    /**
+     * Berechnet die globalen Matrizen eines zusammenhängenden Bereichs. Die Elternknoten aller Knoten des Bereichs
+     * müssen entweder im Bereich liegen oder bereits berechnet sein.
+     */
+    private void propagate(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int p = parent[i];
+            if (p < 0) {
+                System.arraycopy(local, i * 16, world, i * 16, 16);
+            } else {
+                multiply(world, p * 16, local, i * 16, world, i * 16);
+            }
+        }
+    }
+
+    /**
+     * Multipliziert zwei zeilenweise gespeicherte 4x4 Matrizen: c = a * b.
+     */
+    static void multiply(double[] a, int ao, double[] b, int bo, double[] c, int co) {
+        for (int r = 0; r < 4; r++) {
+            int ar = ao + r * 4;
+            double a0 = a[ar];
+            double a1 = a[ar + 1];
+            double a2 = a[ar + 2];
+            double a3 = a[ar + 3];
+            for (int col = 0; col < 4; col++) {
+                c[co + r * 4 + col] = a0 * b[bo + col]
+                        + a1 * b[bo + 4 + col]
+                        + a2 * b[bo + 8 + col]
+                        + a3 * b[bo + 12 + col];
+            }
+        }
+    }
+
+    /**
+     * Speichert die zuletzt berechneten globalen Transformationen als vorherigen Zustand für
+     * {@link #interpolate(double)}.
+     */
+    public void capture() {
+        if (previous == null) {
+            previous = new double[world.length];
+        }
+        System.arraycopy(world, 0, previous, 0, world.length);
+    }
+
+    /**
+     * Mischt die zuletzt berechneten globalen Transformationen mit dem über {@link #capture()} gespeicherten Zustand.
+     * Jeder Wert der Matrizen wird linear interpoliert. Bei kleinen Drehungen zwischen zwei Zuständen, wie sie zwischen
+     * zwei Simulationsschritten auftreten, ist der Fehler gegenüber einer Interpolation der Rotation vernachlässigbar.
+     * <p/>
+     * Das Ergebnis wird getrennt von den globalen Transformationen gespeichert und über
+     * {@link #getRenderMatrix(int)} und {@link #getRender(int, double[], int)} gelesen, bis zum nächsten
+     * {@link #update()}. Wurde noch kein Zustand gespeichert, entspricht es den globalen Transformationen.
+     *
+     * @param alpha der Anteil des aktuellen Zustands, 0 ergibt den gespeicherten, 1 den aktuellen Zustand
+     */
+    public void interpolate(double alpha) {
+        if (previous == null || alpha >= 1) {
+            interpolatedValid = false;
+            return;
+        }
+        if (interpolated == null) {
+            interpolated = new double[world.length];
+        }
+        for (int i = 0; i < world.length; i++) {
+            interpolated[i] = previous[i] + alpha * (world[i] - previous[i]);
+        }
+        interpolatedValid = true;
+    }
+
+    /**
+     * Gibt die Transformationsmatrix eines Knotens für die Darstellung zurück. Das ist die beim letzten
+     * {@link #interpolate(double)} gemischte Matrix oder, wenn seit dem letzten {@link #update()} nicht interpoliert
+     * wurde, die globale Matrix.
+     *
+     * @param index der Index des Knotens
+     *
+     * @return eine Kopie der Matrix
+     */
+    public Matrix getRenderMatrix(int index) {
+        return toMatrix(interpolatedValid ? interpolated : world, index);
+    }
+
+    /**
+     * Kopiert die Transformationsmatrix eines Knotens für die Darstellung zeilenweise in ein Array, siehe
+     * {@link #getRenderMatrix(int)}.
+     *
+     * @param index  der Index des Knotens
+     * @param dest   das Zielarray
+     * @param offset die Position im Zielarray
+     */
+    public void getRender(int index, double[] dest, int offset) {
+        System.arraycopy(interpolatedValid ? interpolated : world, index * 16, dest, offset, 16);
+    }
+
+    /**
+     * Gibt die globale Transformationsmatrix eines Knotens zurück, wie sie beim letzten {@link #update()} berechnet
+     * wurde.
+     *
+     * @param index der Index des Knotens
+     *
+     * @return eine Kopie der globalen Matrix
+     */
+    public Matrix getWorldMatrix(int index) {
+        return toMatrix(world, index);
+    }
+
+    private static Matrix toMatrix(double[] values, int index) {
+        double[][] m = new double[4][4];
+        int o = index * 16;
+        for (int r = 0; r < 4; r++) {
+            System.arraycopy(values, o + r * 4, m[r], 0, 4);
+        }
+        return new Matrix(m);
+    }
+
+    /**
+     * Kopiert die globale Transformationsmatrix eines Knotens zeilenweise in ein Array.
+     *
+     * @param index  der Index des Knotens
+     * @param dest   das Zielarray
+     * @param offset die Position im Zielarray
+     */
+    public void getWorld(int index, double[] dest, int offset) {
+        System.arraycopy(world, index * 16, dest, offset, 16);
+    }
+}
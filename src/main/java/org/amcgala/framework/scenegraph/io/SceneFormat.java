@@ -0,0 +1,52 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.io;
+
+/**
+ * Die Konstanten des Binärformats für Szenen. Alle Werte werden im Big-Endian-Format gespeichert.
+ * <pre>
+ * Datei:   int MAGIC, int VERSION, String Label der Szene, 3 float Hintergrundfarbe, int Anzahl der Knoten, Knoten...
+ * Knoten:  String Label, int Index des Elternknotens (-1 für den Rootknoten), boolean statisch,
+ *          boolean Transformation vorhanden [, 16 double Matrix zeilenweise],
+ *          int Anzahl der Lichter, Lichter..., int Anzahl der Shapes, Shapes...
+ * Licht:   byte Typ, String Label, double Intensität, int RGB
+ *          [Punkt- und Spotlicht: boolean ambient vorhanden [, Ambientlicht ohne Typ], Vektor Position,
+ *          3 double Abschwächung konstant, linear, exponentiell [Spotlicht: Vektor Richtung]]
+ * Shape:   byte Typ, String Label, int ARGB, 3 float Materialfarbe, Daten des Typs
+ * Netz:    int Anzahl der Flächen, Auffüllen auf ein Vielfaches von 8 Byte, 16 double pro Fläche
+ * Vektor:  boolean vorhanden [, 3 double]
+ * String:  int Länge in Byte, UTF-8
+ * </pre>
+ * Knoten werden in Preorder gespeichert, ein Elternknoten steht also immer vor seinen Kindsknoten.
+ */
+final class SceneFormat {
+    static final int MAGIC = 0x414d4353;
+    static final int VERSION = 1;
+
+    static final byte LIGHT_AMBIENT = 1;
+    static final byte LIGHT_POINT = 2;
+    static final byte LIGHT_SPOT = 3;
+
+    static final byte SHAPE_MESH = 1;
+    static final byte SHAPE_LINE = 2;
+    static final byte SHAPE_CIRCLE = 3;
+    static final byte SHAPE_SPHERE = 4;
+    static final byte SHAPE_BOX = 5;
+
+    static final String CHARSET = "UTF-8";
+
+    private SceneFormat() {
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.io;
+
+import org.amcgala.Scene;
+import org.amcgala.framework.lighting.AbstractLight;
+import org.amcgala.framework.lighting.AmbientLight;
+import org.amcgala.framework.lighting.Light;
+import org.amcgala.framework.lighting.PointLight;
+import org.amcgala.framework.lighting.SpotLight;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.scenegraph.SceneGraph;
+import org.amcgala.framework.scenegraph.transform.FixedTransformation;
+import org.amcgala.framework.scenegraph.transform.Transformation;
+import org.amcgala.framework.shape.AbstractShape;
+import org.amcgala.framework.shape.Circle;
+import org.amcgala.framework.shape.Line;
+import org.amcgala.framework.shape.shape3d.Box;
+import org.amcgala.framework.shape.shape3d.PolygonMesh;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Lädt eine mit {@link SceneWriter} gespeicherte Szene.
+ * <p/>
+ * Die Datei wird über einen {@link FileChannel} in den Speicher abgebildet. Die Geometrie der Netze wird dabei nicht
+ * kopiert: jedes {@link PolygonMesh} erhält eine Sicht auf seinen Bereich der Datei und liest seine Flächen beim
+ * Zeichnen direkt daraus. Die Abbildung bleibt gültig, solange eines der Netze erreichbar ist.
+ *
+ * @since 2.1
+ */
+public final class SceneReader {
+    private static final Logger log = LoggerFactory.getLogger(SceneReader.class);
+    /**
+     * Platzhalter für den Rootknoten der Szene, in die geladen wird.
+     */
+    private static final Node ROOT = new Node("root");
+
+    private SceneReader() {
+    }
+
+    /**
+     * Lädt eine Szene aus einer Datei in eine neue Szene.
+     *
+     * @param file die Datei
+     *
+     * @return die geladene Szene
+     *
+     * @throws IOException wenn nicht gelesen werden konnte oder das Format ungültig ist
+     */
+    public static Scene read(File file) throws IOException {
+        ByteBuffer buffer = map(file);
+        Scene scene = new Scene(readHeader(buffer));
+        SceneContent content = readBody(buffer);
+        scene.setBackground(content.background);
+        content.apply(scene);
+        return scene;
+    }
+
+    /**
+     * Lädt die Knoten, Lichter und Shapes aus einer Datei in eine vorhandene Szene. Die Inhalte des gespeicherten
+     * Rootknotens werden dem Rootknoten der Szene hinzugefügt. Die Datei wird vollständig gelesen, bevor die Szene
+     * verändert wird, und alle Inhalte werden in einer einzigen Änderung übernommen. Ist die Datei ungültig, bleibt
+     * die Szene unverändert. Ist die Szene aktiv, wird die Änderung wie alle anderen Änderungen an der Szene zu Beginn
+     * der nächsten Aktualisierung ausgeführt.
+     *
+     * @param file  die Datei
+     * @param scene die Szene, in die geladen wird
+     *
+     * @throws IOException wenn nicht gelesen werden konnte oder das Format ungültig ist
+     */
+    public static void read(File file, Scene scene) throws IOException {
+        checkNotNull(scene);
+        ByteBuffer buffer = map(file);
+        readHeader(buffer);
+        readBody(buffer).apply(scene);
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        checkNotNull(file);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return buffer;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static String readHeader(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != SceneFormat.MAGIC) {
+                throw new IOException("Keine gespeicherte Szene");
+            }
+            int version = in.getInt();
+            if (version != SceneFormat.VERSION) {
+                throw new IOException("Nicht unterstützte Version " + version);
+            }
+            return readString(in);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unerwartetes Dateiende", e);
+        }
+    }
+
+    private static SceneContent readBody(ByteBuffer in) throws IOException {
+        try {
+            SceneContent content = new SceneContent(readColor(in));
+            int count = readCount(in, "Knoten");
+            Node[] nodes = new Node[count];
+            for (int i = 0; i < count; i++) {
+                nodes[i] = readNode(in, content, nodes);
+            }
+            return content;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unerwartetes Dateiende", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ungültige Szene", e);
+        }
+    }
+
+    /**
+     * Liest einen Knoten. Die Knoten werden noch keinem Szenengraph hinzugefügt, sondern nur in {@code content}
+     * gesammelt.
+     */
+    private static Node readNode(ByteBuffer in, SceneContent content, Node[] nodes) throws IOException {
+        String label = readString(in);
+        int parent = in.getInt();
+        boolean staticSubtree = in.get() != 0;
+
+        FixedTransformation transformation = null;
+        if (in.get() != 0) {
+            double[] values = new double[16];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.getDouble();
+            }
+            transformation = new FixedTransformation(values);
+        }
+
+        Node node = null;
+        if (parent < 0) {
+            content.rootRead = true;
+            content.rootStatic = staticSubtree;
+            if (transformation != null) {
+                content.rootTransformations.add(transformation);
+            }
+        } else {
+            if (parent >= nodes.length || nodes[parent] == null) {
+                throw new IOException("Ungültiger Elternknoten " + parent + " für Knoten " + label);
+            }
+            node = new Node(label);
+            if (transformation != null) {
+                node.add(transformation);
+            }
+            node.setStatic(staticSubtree);
+            content.nodes.add(node);
+            content.parents.add(nodes[parent]);
+        }
+
+        int lights = readCount(in, "Lichter");
+        for (int i = 0; i < lights; i++) {
+            Light light = readLight(in);
+            if (node == null) {
+                content.rootLights.add(light);
+            } else {
+                node.addLight(light);
+            }
+        }
+
+        int shapes = readCount(in, "Shapes");
+        for (int i = 0; i < shapes; i++) {
+            content.shapes.add(readShape(in));
+            content.shapeNodes.add(node);
+        }
+        return node != null ? node : ROOT;
+    }
+
+    /**
+     * Liest eine Anzahl und prüft, ob sie nicht negativ ist. Da jedes Element mindestens ein Byte belegt, kann die
+     * Anzahl auch nicht größer als der Rest der Datei sein.
+     */
+    private static int readCount(ByteBuffer in, String name) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Ungültige Anzahl " + name + ": " + count);
+        }
+        return count;
+    }
+
+    private static Light readLight(ByteBuffer in) throws IOException {
+        byte type = in.get();
+        String label = readString(in);
+        double intensity = in.getDouble();
+        Color color = new Color(in.getInt());
+        if (type == SceneFormat.LIGHT_AMBIENT) {
+            return new AmbientLight(label, intensity, color);
+        }
+
+        if (type != SceneFormat.LIGHT_POINT && type != SceneFormat.LIGHT_SPOT) {
+            throw new IOException("Unbekannter Lichttyp " + type);
+        }
+
+        AmbientLight ambient = null;
+        if (in.get() != 0) {
+            ambient = new AmbientLight(readString(in), in.getDouble(), new Color(in.getInt()));
+        }
+        Vector3d position = readVector(in);
+        double constantAttenuation = in.getDouble();
+        double linearAttenuation = in.getDouble();
+        double exponentialAttenuation = in.getDouble();
+
+        AbstractLight light;
+        if (type == SceneFormat.LIGHT_POINT) {
+            light = new PointLight(label, ambient, position);
+            light.setIntensity(intensity);
+        } else {
+            light = new SpotLight(label, ambient, intensity, position, readVector(in));
+        }
+        light.setColor(color);
+        light.setConstantAttenuation(constantAttenuation);
+        light.setLinearAttenuation(linearAttenuation);
+        light.setExponentialAttenuation(exponentialAttenuation);
+        return light;
+    }
+
+    private static AbstractShape readShape(ByteBuffer in) throws IOException {
+        byte type = in.get();
+        String label = readString(in);
+        Color color = new Color(in.getInt());
+        RGBColor materialColor = readColor(in);
+
+        AbstractShape shape;
+        switch (type) {
+            case SceneFormat.SHAPE_MESH:
+                int faces = in.getInt();
+                in.position(Math.min((in.position() + 7) & ~7, in.limit()));
+                if (faces < 0 || faces > in.remaining() / (PolygonMesh.FACE_STRIDE * 8)) {
+                    throw new IOException("Ungültige Anzahl Flächen: " + faces);
+                }
+                int length = faces * PolygonMesh.FACE_STRIDE * 8;
+                ByteBuffer data = in.slice();
+                data.limit(length);
+                in.position(in.position() + length);
+                shape = new PolygonMesh(data.asDoubleBuffer(), faces);
+                break;
+            case SceneFormat.SHAPE_LINE:
+                shape = new Line(readVector(in), readVector(in));
+                break;
+            case SceneFormat.SHAPE_CIRCLE:
+                shape = new Circle(readVector(in), in.getDouble());
+                break;
+            case SceneFormat.SHAPE_SPHERE:
+                shape = new Sphere(readVector(in), in.getDouble());
+                break;
+            case SceneFormat.SHAPE_BOX:
+                shape = new Box(readVector(in), in.getDouble(), in.getDouble(), in.getDouble());
+                break;
+            default:
+                throw new IOException("Unbekannter Shapetyp " + type);
+        }
+        shape.setLabel(label);
+        shape.setColor(color);
+        shape.getMaterial().setColor(materialColor);
+        return shape;
+    }
+
+    private static Vector3d readVector(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        return new Vector3d(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    private static RGBColor readColor(ByteBuffer in) {
+        return new RGBColor(in.getFloat(), in.getFloat(), in.getFloat());
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Ungültige Zeichenkettenlänge " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, SceneFormat.CHARSET);
+    }
+
+    /**
+     * Der vollständig gelesene Inhalt einer Datei, der noch keiner Szene hinzugefügt wurde. Die Knoten sind in der
+     * Reihenfolge gespeichert, in der sie in der Datei stehen, so dass jeder Elternknoten vor seinen Kindsknoten
+     * hinzugefügt wird.
+     */
+    private static final class SceneContent {
+        private final RGBColor background;
+        private boolean rootRead;
+        private boolean rootStatic;
+        private final List<Transformation> rootTransformations = new ArrayList<Transformation>();
+        private final List<Light> rootLights = new ArrayList<Light>();
+        private final List<Node> nodes = new ArrayList<Node>();
+        private final List<Node> parents = new ArrayList<Node>();
+        private final List<AbstractShape> shapes = new ArrayList<AbstractShape>();
+        private final List<Node> shapeNodes = new ArrayList<Node>();
+
+        private SceneContent(RGBColor background) {
+            this.background = background;
+        }
+
+        /**
+         * Fügt den Inhalt in einer einzigen Änderung der Szene hinzu.
+         */
+        private void apply(final Scene scene) {
+            scene.change(new Scene.GraphChange() {
+                @Override
+                public void apply(SceneGraph sceneGraph) {
+                    Node root = sceneGraph.getNode("root");
+                    if (rootRead) {
+                        root.setStatic(rootStatic);
+                    }
+                    for (Transformation transformation : rootTransformations) {
+                        sceneGraph.addTransformation(transformation);
+                    }
+                    for (Light light : rootLights) {
+                        sceneGraph.addLight(light);
+                    }
+                    for (int i = 0; i < nodes.size(); i++) {
+                        Node parent = parents.get(i);
+                        sceneGraph.addNode(nodes.get(i), parent == ROOT ? root : parent);
+                    }
+                    for (int i = 0; i < shapes.size(); i++) {
+                        Node node = shapeNodes.get(i);
+                        if (node == null) {
+                            sceneGraph.addShape(shapes.get(i));
+                        } else {
+                            sceneGraph.addShape(shapes.get(i), node);
+                        }
+                    }
+                    log.info("Szene {} mit {} Knoten geladen", scene.getLabel(), nodes.size() + 1);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.io;
+
+import org.amcgala.Scene;
+import org.amcgala.framework.lighting.AbstractLight;
+import org.amcgala.framework.lighting.AmbientLight;
+import org.amcgala.framework.lighting.Light;
+import org.amcgala.framework.lighting.PointLight;
+import org.amcgala.framework.lighting.SpotLight;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.raytracer.material.Material;
+import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.shape.Circle;
+import org.amcgala.framework.shape.Line;
+import org.amcgala.framework.shape.Polygon;
+import org.amcgala.framework.shape.Shape;
+import org.amcgala.framework.shape.shape3d.Box;
+import org.amcgala.framework.shape.shape3d.PolygonMesh;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Speichert eine Szene im Binärformat, das mit {@link SceneReader} wieder geladen werden kann.
+ * <p/>
+ * Gespeichert werden die Knoten mit ihren lokalen Transformationsmatrizen, Lichtern und Shapes. Aufeinanderfolgende
+ * {@link Polygon}e gleicher Farbe werden dabei zu einem {@link PolygonMesh} zusammengefasst. Animationen,
+ * Interpolationen und Texturen werden nicht gespeichert, ebenso Shapes und Lichter anderer Typen.
+ *
+ * @since 2.1
+ */
+public final class SceneWriter {
+    private static final Logger log = LoggerFactory.getLogger(SceneWriter.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SceneWriter() {
+    }
+
+    /**
+     * Speichert eine Szene in eine Datei. Eine vorhandene Datei wird überschrieben.
+     *
+     * @param scene die Szene
+     * @param file  die Datei
+     *
+     * @throws IOException wenn nicht geschrieben werden konnte
+     */
+    public static void write(Scene scene, File file) throws IOException {
+        checkNotNull(scene);
+        checkNotNull(file);
+
+        List<Node> nodes = new ArrayList<Node>();
+        collect(scene.getRootNode(), nodes);
+        Map<Node, Integer> indices = new IdentityHashMap<Node, Integer>();
+        for (int i = 0; i < nodes.size(); i++) {
+            indices.put(nodes.get(i), i);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        try {
+            out.writeInt(SceneFormat.MAGIC);
+            out.writeInt(SceneFormat.VERSION);
+            writeString(out, scene.getLabel() == null ? "" : scene.getLabel());
+            writeColor(out, scene.getBackground());
+            out.writeInt(nodes.size());
+            for (Node node : nodes) {
+                Integer parent = indices.get(node.getParent());
+                writeNode(out, node, parent == null ? -1 : parent);
+            }
+        } finally {
+            out.close();
+        }
+        log.info("Szene {} mit {} Knoten gespeichert", scene.getLabel(), nodes.size());
+    }
+
+    private static void collect(Node node, List<Node> nodes) {
+        nodes.add(node);
+        for (Node child : node.getChildNodes()) {
+            collect(child, nodes);
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, Node node, int parent) throws IOException {
+        writeString(out, node.getLabel());
+        out.writeInt(parent);
+        out.writeBoolean(node.isStatic());
+
+        Matrix local = node.getLocalTransformMatrix();
+        boolean identity = isIdentity(local);
+        out.writeBoolean(!identity);
+        if (!identity) {
+            for (double v : local.getRowPackedCopy()) {
+                out.writeDouble(v);
+            }
+        }
+
+        List<AbstractLight> lights = new ArrayList<AbstractLight>();
+        for (Light light : node.getLights()) {
+            if (light instanceof AmbientLight || light instanceof PointLight || light instanceof SpotLight) {
+                lights.add((AbstractLight) light);
+            } else {
+                log.warn("Licht {} wird nicht gespeichert, der Typ wird nicht unterstützt", light.getLabel());
+            }
+        }
+        out.writeInt(lights.size());
+        for (AbstractLight light : lights) {
+            writeLight(out, light);
+        }
+
+        List<Shape> shapes = node.getShapes();
+        List<Object> blocks = new ArrayList<Object>();
+        for (int i = 0; i < shapes.size(); ) {
+            Shape shape = shapes.get(i);
+            if (shape instanceof Polygon) {
+                List<Polygon> run = new ArrayList<Polygon>();
+                while (i < shapes.size() && shapes.get(i) instanceof Polygon && sameAppearance(shape, shapes.get(i))) {
+                    run.add((Polygon) shapes.get(i++));
+                }
+                blocks.add(run);
+            } else {
+                if (shape instanceof PolygonMesh || shape instanceof Line || shape instanceof Circle
+                        || shape instanceof Sphere || shape instanceof Box) {
+                    blocks.add(shape);
+                } else {
+                    log.warn("Shape {} wird nicht gespeichert, der Typ wird nicht unterstützt", shape.getLabel());
+                }
+                i++;
+            }
+        }
+        out.writeInt(blocks.size());
+        for (Object block : blocks) {
+            if (block instanceof Shape) {
+                writeShape(out, (Shape) block);
+            } else {
+                @SuppressWarnings("unchecked")
+                List<Polygon> run = (List<Polygon>) block;
+                PolygonMesh mesh = PolygonMesh.fromPolygons(run);
+                mesh.setLabel(run.get(0).getLabel());
+                mesh.setColor(run.get(0).getColor());
+                mesh.setMaterial(run.get(0).getMaterial());
+                writeShape(out, mesh);
+            }
+        }
+    }
+
+    private static boolean isIdentity(Matrix matrix) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                if (matrix.get(i, j) != (i == j ? 1 : 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameAppearance(Shape a, Shape b) {
+        if (!a.getColor().equals(b.getColor())) {
+            return false;
+        }
+        RGBColor ca = a.getMaterial().getColor();
+        RGBColor cb = b.getMaterial().getColor();
+        return ca.getRed() == cb.getRed() && ca.getGreen() == cb.getGreen() && ca.getBlue() == cb.getBlue();
+    }
+
+    private static void writeLight(DataOutputStream out, AbstractLight light) throws IOException {
+        if (light instanceof SpotLight) {
+            out.writeByte(SceneFormat.LIGHT_SPOT);
+        } else if (light instanceof PointLight) {
+            out.writeByte(SceneFormat.LIGHT_POINT);
+        } else {
+            out.writeByte(SceneFormat.LIGHT_AMBIENT);
+        }
+        writeLightBase(out, light);
+        if (light instanceof AmbientLight) {
+            return;
+        }
+
+        AmbientLight ambient = light.getAmbient();
+        out.writeBoolean(ambient != null);
+        if (ambient != null) {
+            writeLightBase(out, ambient);
+        }
+        writeVector(out, light.getPosition());
+        out.writeDouble(light.getConstantAttenuation());
+        out.writeDouble(light.getLinearAttenuation());
+        out.writeDouble(light.getExponentialAttenuation());
+        if (light instanceof SpotLight) {
+            writeVector(out, light.getDirection());
+        }
+    }
+
+    private static void writeLightBase(DataOutputStream out, AbstractLight light) throws IOException {
+        writeString(out, light.getLabel());
+        out.writeDouble(light.getIntensity());
+        out.writeInt(light.getColor().getRGB());
+    }
+
+    private static void writeShape(DataOutputStream out, Shape shape) throws IOException {
+        if (shape instanceof PolygonMesh) {
+            out.writeByte(SceneFormat.SHAPE_MESH);
+        } else if (shape instanceof Line) {
+            out.writeByte(SceneFormat.SHAPE_LINE);
+        } else if (shape instanceof Circle) {
+            out.writeByte(SceneFormat.SHAPE_CIRCLE);
+        } else if (shape instanceof Sphere) {
+            out.writeByte(SceneFormat.SHAPE_SPHERE);
+        } else {
+            out.writeByte(SceneFormat.SHAPE_BOX);
+        }
+        writeString(out, shape.getLabel());
+        out.writeInt(shape.getColor().getRGB());
+        Material material = shape.getMaterial();
+        if (material.getClass() != Material.class || material.getTexture() != null) {
+            log.warn("Das Material von {} wird nur mit seiner Farbe gespeichert", shape.getLabel());
+        }
+        writeColor(out, material.getColor());
+
+        if (shape instanceof PolygonMesh) {
+            PolygonMesh mesh = (PolygonMesh) shape;
+            out.writeInt(mesh.getFaceCount());
+            // Die Flächen beginnen an einer durch 8 teilbaren Position, damit der Reader sie direkt abbilden kann.
+            while (out.size() % 8 != 0) {
+                out.writeByte(0);
+            }
+            DoubleBuffer faces = mesh.getFaces();
+            while (faces.hasRemaining()) {
+                out.writeDouble(faces.get());
+            }
+        } else if (shape instanceof Line) {
+            Line line = (Line) shape;
+            writeVector(out, line.getStart());
+            writeVector(out, line.getEnd());
+        } else if (shape instanceof Circle) {
+            Circle circle = (Circle) shape;
+            writeVector(out, circle.getPosition());
+            out.writeDouble(circle.getRadius());
+        } else if (shape instanceof Sphere) {
+            Sphere sphere = (Sphere) shape;
+            writeVector(out, sphere.getCenter());
+            out.writeDouble(sphere.getRadius());
+        } else {
+            Box box = (Box) shape;
+            writeVector(out, box.getPosition());
+            out.writeDouble(box.getWidth());
+            out.writeDouble(box.getHeight());
+            out.writeDouble(box.getDepth());
+        }
+    }
+
+    private static void writeVector(DataOutputStream out, Vector3d v) throws IOException {
+        out.writeBoolean(v != null);
+        if (v != null) {
+            out.writeDouble(v.x);
+            out.writeDouble(v.y);
+            out.writeDouble(v.z);
+        }
+    }
+
+    private static void writeColor(DataOutputStream out, RGBColor color) throws IOException {
+        out.writeFloat(color.getRed());
+        out.writeFloat(color.getGreen());
+        out.writeFloat(color.getBlue());
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(SceneFormat.CHARSET);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
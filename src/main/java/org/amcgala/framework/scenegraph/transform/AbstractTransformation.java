@@ -0,0 +1,73 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.transform;
+
+import org.amcgala.framework.animation.Animated;
+import org.amcgala.framework.scenegraph.ActiveSet;
+import org.amcgala.framework.scenegraph.Node;
+
+/**
+ * Oberklasse der Transformationen im Framework. Sie kennt den Knoten, an dem sie hängt, so dass eine direkte Änderung
+ * über einen Setter nur diesen Knoten und seine Nachfahren für die nächste Aktualisierung markiert, statt die
+ * {@link ActiveSet} des ganzen Szenengraphs neu aufzubauen. Wie ein Shape gehört eine Transformation zu genau einem
+ * Knoten.
+ *
+ * @since 2.1
+ */
+public abstract class AbstractTransformation implements Transformation, Animated {
+    private volatile Node node;
+
+    /**
+     * Gibt den Knoten zurück, an dem die Transformation hängt.
+     *
+     * @return der Knoten oder {@code null}
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    /**
+     * Legt den Knoten fest, an dem die Transformation hängt. Wird von {@link Node#add(Transformation...)} aufgerufen.
+     *
+     * @param node der Knoten
+     */
+    public void setNode(Node node) {
+        this.node = node;
+    }
+
+    /**
+     * Muss aufgerufen werden, nachdem die Transformation außerhalb von {@link #update()} verändert wurde. Die Shapes
+     * des Knotens und seiner Nachfahren werden dann bei der nächsten Aktualisierung neu eingeordnet.
+     */
+    protected void transformChanged() {
+        Node n = node;
+        if (n != null) {
+            n.markTransformChanged();
+        }
+    }
+
+    /**
+     * Muss aufgerufen werden, nachdem Interpolationen zugewiesen oder entfernt wurden. Die {@link ActiveSet} wird nur
+     * dann neu aufgebaut, wenn die Transformation dadurch animiert wird oder nicht mehr animiert ist.
+     *
+     * @param wasAnimated der Wert von {@link #isAnimated()} vor der Änderung
+     */
+    protected void animationChanged(boolean wasAnimated) {
+        if (wasAnimated != isAnimated()) {
+            ActiveSet.invalidate();
+        }
+        transformChanged();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.transform;
+
+import org.amcgala.framework.animation.Animated;
+import org.amcgala.framework.math.Matrix;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Eine Transformation mit einer festen Transformationsmatrix. Wird z.B. beim Laden einer gespeicherten Szene
+ * verwendet, in der von den ursprünglichen Transformationen nur noch die Matrix bekannt ist.
+ *
+ * @since 2.1
+ */
+public final class FixedTransformation implements Transformation, Animated {
+    private final Matrix transformMatrix;
+
+    /**
+     * Erstellt eine neue Transformation aus einer 4x4 Matrix.
+     *
+     * @param transformMatrix die Transformationsmatrix, die kopiert wird
+     */
+    public FixedTransformation(Matrix transformMatrix) {
+        checkNotNull(transformMatrix);
+        checkArgument(transformMatrix.getRowDimension() == 4 && transformMatrix.getColumnDimension() == 4,
+                "Die Transformationsmatrix muss eine 4x4 Matrix sein!");
+        this.transformMatrix = transformMatrix.copy();
+    }
+
+    /**
+     * Erstellt eine neue Transformation aus 16 Werten in zeilenweiser Reihenfolge.
+     *
+     * @param values die Werte der Matrix
+     */
+    public FixedTransformation(double[] values) {
+        checkArgument(values.length == 16, "Es werden genau 16 Werte benötigt!");
+        this.transformMatrix = new Matrix(new double[][]{
+                {values[0], values[1], values[2], values[3]},
+                {values[4], values[5], values[6], values[7]},
+                {values[8], values[9], values[10], values[11]},
+                {values[12], values[13], values[14], values[15]}
+        });
+    }
+
+    @Override
+    public Matrix getTransformMatrix() {
+        return transformMatrix;
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return false;
+    }
+
+    @Override
+    public void update() {
+    }
+}
@@ -16,11 +16,12 @@ package org.amcgala.framework.scenegraph.transform;
 
 import org.amcgala.framework.animation.interpolation.Interpolation;
 import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.util.FastMath;
 
 /**
  * Eine Rotation entlang der x-Achse.
  */
-public class RotationX implements Transformation {
+public class RotationX extends AbstractTransformation {
 
     private double phi;
     private Matrix transformMatrix;
@@ -47,10 +48,12 @@ public class RotationX implements Transformation {
      * Aktualisiert die Transformationsmatrix.
      */
     private void updateMatrix() {
+        double cos = FastMath.cos(phi);
+        double sin = FastMath.sin(phi);
         double[][] values = {
                 {1, 0, 0, 0},
-                {0, Math.cos(phi), -Math.sin(phi), 0},
-                {0, Math.sin(phi), Math.cos(phi), 0},
+                {0, cos, -sin, 0},
+                {0, sin, cos, 0},
                 {0, 0, 0, 1}
         };
         transformMatrix = Matrix.constructWithCopy(values);
@@ -66,7 +69,9 @@ public class RotationX implements Transformation {
     }
 
     public void setInterpolationPhi(Interpolation interpolationPhi) {
+        boolean wasAnimated = isAnimated();
         this.interpolationPhi = interpolationPhi;
+        animationChanged(wasAnimated);
     }
 
     public double getPhi() {
@@ -76,6 +81,12 @@ public class RotationX implements Transformation {
     public void setPhi(double phi) {
         this.phi = phi;
         updateMatrix();
+        transformChanged();
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolationPhi != null;
     }
 
     @Override
@@ -16,11 +16,12 @@ package org.amcgala.framework.scenegraph.transform;
 
 import org.amcgala.framework.animation.interpolation.Interpolation;
 import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.util.FastMath;
 
 /**
  * Eine Rotation entlang der y-Achse.
  */
-public class RotationY implements Transformation {
+public class RotationY extends AbstractTransformation {
 
     private double phi;
     private Interpolation interpolationPhi;
@@ -47,10 +48,12 @@ public class RotationY implements Transformation {
      * Aktualisiert die Transformationsmatrix.
      */
     private void updateMatrix() {
+        double cos = FastMath.cos(phi);
+        double sin = FastMath.sin(phi);
         double[][] values = {
-                {Math.cos(phi), 0, Math.sin(phi), 0},
+                {cos, 0, sin, 0},
                 {0, 1, 0, 0},
-                {-Math.sin(phi), 0, Math.cos(phi), 0},
+                {-sin, 0, cos, 0},
                 {0, 0, 0, 1}
         };
         transformMatrix = Matrix.constructWithCopy(values);
@@ -66,7 +69,9 @@ public class RotationY implements Transformation {
     }
 
     public void setInterpolationPhi(Interpolation interpolationPhi) {
+        boolean wasAnimated = isAnimated();
         this.interpolationPhi = interpolationPhi;
+        animationChanged(wasAnimated);
     }
 
     public double getPhi() {
@@ -76,6 +81,12 @@ public class RotationY implements Transformation {
     public void setPhi(double phi) {
         this.phi = phi;
         updateMatrix();
+        transformChanged();
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolationPhi != null;
     }
 
     @Override
@@ -16,6 +16,7 @@ package org.amcgala.framework.scenegraph.transform;
 
 import org.amcgala.framework.animation.interpolation.Interpolation;
 import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.util.FastMath;
 
 /**
  * Eine Rotation um die z-Achse.
@@ -24,7 +25,7 @@ import org.amcgala.framework.math.Matrix;
  *
  * @author Robert Giacinto
  */
-public class RotationZ implements Transformation {
+public class RotationZ extends AbstractTransformation {
 
     private double phi;
     private Interpolation interpolationPhi;
@@ -51,9 +52,11 @@ public class RotationZ implements Transformation {
      * Aktualisiert die Transformationsmatrix.
      */
     private void updateMatrix() {
+        double cos = FastMath.cos(phi);
+        double sin = FastMath.sin(phi);
         double[][] values = {
-                {Math.cos(phi), -Math.sin(phi), 0, 0},
-                {Math.sin(phi), Math.cos(phi), 0, 0},
+                {cos, -sin, 0, 0},
+                {sin, cos, 0, 0},
                 {0, 0, 1, 0},
                 {0, 0, 0, 1}
         };
@@ -70,7 +73,9 @@ public class RotationZ implements Transformation {
     }
 
     public void setInterpolationPhi(Interpolation interpolationPhi) {
+        boolean wasAnimated = isAnimated();
         this.interpolationPhi = interpolationPhi;
+        animationChanged(wasAnimated);
     }
 
     public double getPhi() {
@@ -80,6 +85,12 @@ public class RotationZ implements Transformation {
     public void setPhi(double phi) {
         this.phi = phi;
         updateMatrix();
+        transformChanged();
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolationPhi != null;
     }
 
     @Override
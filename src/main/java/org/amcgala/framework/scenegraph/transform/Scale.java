@@ -20,7 +20,7 @@ import org.amcgala.framework.math.Matrix;
 /**
  * Skalierung um den Faktor s = (sx, sy, sz)
  */
-public class Scale implements Transformation {
+public class Scale extends AbstractTransformation {
 
     private double scaleX, scaleY, scaleZ;
     private Matrix transformMatrix;
@@ -32,6 +32,7 @@ public class Scale implements Transformation {
         this.scaleX = scaleX;
         this.scaleY = scaleY;
         this.scaleZ = scaleZ;
+        updateMatrix();
     }
 
     private void updateMatrix() {
@@ -50,7 +51,9 @@ public class Scale implements Transformation {
     }
 
     public void setInterpolationX(Interpolation interpolationX) {
+        boolean wasAnimated = isAnimated();
         this.interpolationX = interpolationX;
+        animationChanged(wasAnimated);
     }
 
     public Interpolation getInterpolationY() {
@@ -58,7 +61,9 @@ public class Scale implements Transformation {
     }
 
     public void setInterpolationY(Interpolation interpolationY) {
+        boolean wasAnimated = isAnimated();
         this.interpolationY = interpolationY;
+        animationChanged(wasAnimated);
     }
 
     public Interpolation getInterpolationZ() {
@@ -66,7 +71,9 @@ public class Scale implements Transformation {
     }
 
     public void setInterpolationZ(Interpolation interpolationZ) {
+        boolean wasAnimated = isAnimated();
         this.interpolationZ = interpolationZ;
+        animationChanged(wasAnimated);
     }
 
     @Override
@@ -77,35 +84,49 @@ public class Scale implements Transformation {
     public void setScaleX(double scaleX) {
         this.scaleX = scaleX;
         updateMatrix();
+        transformChanged();
     }
 
     public void setScaleY(double scaleY) {
         this.scaleY = scaleY;
         updateMatrix();
+        transformChanged();
     }
 
     public void setScaleZ(double scaleZ) {
         this.scaleZ = scaleZ;
         updateMatrix();
+        transformChanged();
     }
 
     public void changeScaleX(double diffX) {
         scaleX += diffX;
         updateMatrix();
+        transformChanged();
     }
 
     public void changeScaleY(double diffY) {
-        scaleY= diffY;
+        scaleY += diffY;
         updateMatrix();
+        transformChanged();
     }
 
     public void changeScaleZ(double diffZ) {
-        scaleZ+= diffZ;
+        scaleZ += diffZ;
         updateMatrix();
+        transformChanged();
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolationX != null || interpolationY != null || interpolationZ != null;
     }
 
     @Override
     public void update() {
+        if (!isAnimated()) {
+            return;
+        }
         if (interpolationX != null) {
             scaleX = interpolationX.nextValue();
         }
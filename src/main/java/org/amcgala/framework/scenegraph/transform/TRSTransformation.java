@@ -0,0 +1,275 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.transform;
+
+import org.amcgala.framework.animation.interpolation.Interpolation;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Quaternion;
+import org.amcgala.framework.math.Vector3d;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Eine Transformation aus Translation, Rotation und Skalierung. Ein Punkt wird zuerst skaliert, dann rotiert und
+ * zuletzt verschoben. Die Rotation wird als {@link Quaternion} gespeichert.
+ * <p/>
+ * Anders als eine Kette aus {@link Translation}, {@link RotationX}, {@link RotationY}, {@link RotationZ} und
+ * {@link Scale} lassen sich solche Transformationen ohne Matrizenmultiplikation verknüpfen und zwischen zwei
+ * Schlüsselstellungen interpolieren. Die Transformationsmatrix wird erst beim nächsten Aufruf von
+ * {@link #getTransformMatrix()} nach einer Änderung berechnet, also höchstens einmal pro Bild.
+ *
+ * @since 2.1
+ */
+public class TRSTransformation extends AbstractTransformation {
+
+    private final Vector3d translation = new Vector3d(0, 0, 0);
+    private final Quaternion rotation = new Quaternion();
+    private final Vector3d scale = new Vector3d(1, 1, 1);
+    private final Vector3d tmp = new Vector3d(0, 0, 0);
+    private TRSTransformation from;
+    private TRSTransformation to;
+    private Interpolation interpolation;
+    private boolean spherical = true;
+    private volatile Matrix transformMatrix;
+
+    /**
+     * Erzeugt die identische Transformation.
+     */
+    public TRSTransformation() {
+    }
+
+    /**
+     * Erzeugt eine neue Transformation.
+     *
+     * @param translation die Verschiebung
+     * @param rotation    die Rotation, sie wird normalisiert übernommen
+     * @param scale       die Skalierung entlang der x-, y- und z-Achse
+     */
+    public TRSTransformation(Vector3d translation, Quaternion rotation, Vector3d scale) {
+        this.translation.set(translation);
+        this.rotation.set(rotation).normalize();
+        this.scale.set(scale);
+    }
+
+    /**
+     * Setzt die Werte dieser Transformation auf die Werte einer anderen Transformation. Interpolationen werden nicht
+     * übernommen.
+     *
+     * @param that die andere Transformation
+     */
+    public void set(TRSTransformation that) {
+        translation.set(that.translation);
+        rotation.set(that.rotation);
+        scale.set(that.scale);
+        changed();
+    }
+
+    /**
+     * Gibt eine Kopie der Verschiebung zurück.
+     *
+     * @return die Verschiebung
+     */
+    public Vector3d getTranslation() {
+        return translation.copy();
+    }
+
+    public void setTranslation(double x, double y, double z) {
+        translation.set(x, y, z);
+        changed();
+    }
+
+    /**
+     * Gibt eine Kopie der Rotation zurück.
+     *
+     * @return die Rotation
+     */
+    public Quaternion getRotation() {
+        return new Quaternion().set(rotation);
+    }
+
+    /**
+     * Setzt die Rotation. Das Quaternion wird normalisiert übernommen.
+     *
+     * @param rotation die neue Rotation
+     */
+    public void setRotation(Quaternion rotation) {
+        this.rotation.set(rotation).normalize();
+        changed();
+    }
+
+    /**
+     * Gibt eine Kopie der Skalierung zurück.
+     *
+     * @return die Skalierung entlang der x-, y- und z-Achse
+     */
+    public Vector3d getScale() {
+        return scale.copy();
+    }
+
+    public void setScale(double x, double y, double z) {
+        scale.set(x, y, z);
+        changed();
+    }
+
+    /**
+     * Verknüpft diese Transformation mit einer weiteren. Danach wirkt diese Transformation so, als würde zuerst
+     * {@code child} und dann die bisherige Transformation angewendet, so wie ein Knoten die Transformation seines
+     * Elternknotens auf die eigene anwendet. Die Verknüpfung ist exakt, solange diese Transformation gleichmäßig
+     * skaliert. Bei ungleichmäßiger Skalierung entsteht im Allgemeinen eine Scherung, die sich nicht als
+     * Translation, Rotation und Skalierung darstellen lässt. Die Skalierungen werden dann komponentenweise
+     * multipliziert.
+     *
+     * @param child die Transformation, die zuerst angewendet wird
+     */
+    public void combine(TRSTransformation child) {
+        // Die Translation des Kindes wird in das Koordinatensystem dieser Transformation gebracht.
+        tmp.set(child.translation.x * scale.x, child.translation.y * scale.y, child.translation.z * scale.z);
+        rotation.rotateInto(tmp, tmp);
+        translation.addLocal(tmp);
+        rotation.times(child.rotation);
+        scale.set(scale.x * child.scale.x, scale.y * child.scale.y, scale.z * child.scale.z);
+        changed();
+    }
+
+    /**
+     * Setzt diese Transformation auf die Interpolation zwischen zwei Transformationen. Verschiebung und Skalierung
+     * werden linear interpoliert, die Rotation abhängig von {@link #isSpherical()} mit
+     * {@link Quaternion#slerp(Quaternion, Quaternion, double)} oder
+     * {@link Quaternion#nlerp(Quaternion, Quaternion, double)}.
+     *
+     * @param from die Transformation bei {@code t = 0}
+     * @param to   die Transformation bei {@code t = 1}
+     * @param t    der Interpolationsfaktor
+     */
+    public void interpolate(TRSTransformation from, TRSTransformation to, double t) {
+        blend(from, to, t);
+        transformChanged();
+    }
+
+    /**
+     * Schreibt den transformierten Punkt in einen Zielvektor, ohne die Transformationsmatrix zu berechnen. Der
+     * Zielvektor darf der Punkt selbst sein.
+     *
+     * @param v      der Punkt
+     * @param result der Zielvektor
+     *
+     * @return der Zielvektor
+     */
+    public Vector3d transformInto(Vector3d v, Vector3d result) {
+        result.set(v.x * scale.x, v.y * scale.y, v.z * scale.z);
+        return rotation.rotateInto(result, result).addLocal(translation);
+    }
+
+    /**
+     * Weist der Transformation eine Animation zwischen zwei Schlüsselstellungen zu. Bei jeder Aktualisierung wird der
+     * nächste Wert der Interpolation als Interpolationsfaktor verwendet, er sollte also zwischen 0 und 1 liegen. Die
+     * Schlüsselstellungen werden nicht kopiert.
+     *
+     * @param from          die Transformation bei einem Interpolationswert von 0
+     * @param to            die Transformation bei einem Interpolationswert von 1
+     * @param interpolation die Interpolation des Faktors, {@code null} beendet die Animation
+     */
+    public void setInterpolation(TRSTransformation from, TRSTransformation to, Interpolation interpolation) {
+        if (interpolation != null) {
+            checkNotNull(from);
+            checkNotNull(to);
+        }
+        boolean wasAnimated = isAnimated();
+        this.from = from;
+        this.to = to;
+        this.interpolation = interpolation;
+        animationChanged(wasAnimated);
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * Gibt zurück, ob Rotationen sphärisch interpoliert werden. Andernfalls wird die günstigere normalisierte lineare
+     * Interpolation verwendet.
+     *
+     * @return {@code true}, wenn {@link Quaternion#slerp(Quaternion, Quaternion, double)} verwendet wird
+     */
+    public boolean isSpherical() {
+        return spherical;
+    }
+
+    public void setSpherical(boolean spherical) {
+        this.spherical = spherical;
+    }
+
+    @Override
+    public Matrix getTransformMatrix() {
+        Matrix matrix = transformMatrix;
+        if (matrix == null) {
+            matrix = updateMatrix();
+            transformMatrix = matrix;
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolation != null;
+    }
+
+    @Override
+    public void update() {
+        if (interpolation != null) {
+            blend(from, to, interpolation.nextValue());
+        }
+    }
+
+    private void blend(TRSTransformation from, TRSTransformation to, double t) {
+        double s = 1 - t;
+        translation.set(
+                s * from.translation.x + t * to.translation.x,
+                s * from.translation.y + t * to.translation.y,
+                s * from.translation.z + t * to.translation.z);
+        scale.set(
+                s * from.scale.x + t * to.scale.x,
+                s * from.scale.y + t * to.scale.y,
+                s * from.scale.z + t * to.scale.z);
+        if (spherical) {
+            rotation.slerp(from.rotation, to.rotation, t);
+        } else {
+            rotation.nlerp(from.rotation, to.rotation, t);
+        }
+        transformMatrix = null;
+    }
+
+    private void changed() {
+        transformMatrix = null;
+        transformChanged();
+    }
+
+    /**
+     * Berechnet T * R * S direkt aus den Komponenten, ohne die einzelnen Matrizen zu multiplizieren.
+     */
+    private Matrix updateMatrix() {
+        double x = rotation.getX(), y = rotation.getY(), z = rotation.getZ(), w = rotation.getW();
+        double xx = x * x, yy = y * y, zz = z * z;
+        double xy = x * y, xz = x * z, yz = y * z;
+        double wx = w * x, wy = w * y, wz = w * z;
+        double[][] values = {
+                {(1 - 2 * (yy + zz)) * scale.x, 2 * (xy - wz) * scale.y, 2 * (xz + wy) * scale.z, translation.x},
+                {2 * (xy + wz) * scale.x, (1 - 2 * (xx + zz)) * scale.y, 2 * (yz - wx) * scale.z, translation.y},
+                {2 * (xz - wy) * scale.x, 2 * (yz + wx) * scale.y, (1 - 2 * (xx + yy)) * scale.z, translation.z},
+                {0, 0, 0, 1}
+        };
+        return new Matrix(values);
+    }
+}
@@ -20,7 +20,7 @@ import org.amcgala.framework.math.Matrix;
 /**
  * Eine Translation entlang der x-, y- und z-Achse.
  */
-public class Translation implements Transformation {
+public class Translation extends AbstractTransformation {
 
     private double translateX;
     private double translateY;
@@ -47,31 +47,37 @@ public class Translation implements Transformation {
     public void changeX(double diffX) {
         translateX += diffX;
         updateMatrix();
+        transformChanged();
     }
 
     public void changeY(double diffY) {
         translateY += diffY;
         updateMatrix();
+        transformChanged();
     }
 
     public void changeZ(double diffZ) {
         translateZ += diffZ;
         updateMatrix();
+        transformChanged();
     }
 
     public void setTranslateX(double translateX) {
         this.translateX = translateX;
         updateMatrix();
+        transformChanged();
     }
 
     public void setTranslateY(double translateY) {
         this.translateY = translateY;
         updateMatrix();
+        transformChanged();
     }
 
     public void setTranslateZ(double translateZ) {
         this.translateZ = translateZ;
         updateMatrix();
+        transformChanged();
     }
 
     private void updateMatrix() {
@@ -94,7 +100,9 @@ public class Translation implements Transformation {
     }
 
     public void setInterpolationX(Interpolation interpolationX) {
+        boolean wasAnimated = isAnimated();
         this.interpolationX = interpolationX;
+        animationChanged(wasAnimated);
     }
 
     public Interpolation getInterpolationY() {
@@ -102,7 +110,9 @@ public class Translation implements Transformation {
     }
 
     public void setInterpolationY(Interpolation interpolationY) {
+        boolean wasAnimated = isAnimated();
         this.interpolationY = interpolationY;
+        animationChanged(wasAnimated);
     }
 
     public Interpolation getInterpolationZ() {
@@ -110,11 +120,21 @@ public class Translation implements Transformation {
     }
 
     public void setInterpolationZ(Interpolation interpolationZ) {
+        boolean wasAnimated = isAnimated();
         this.interpolationZ = interpolationZ;
+        animationChanged(wasAnimated);
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return interpolationX != null || interpolationY != null || interpolationZ != null;
     }
 
     @Override
     public void update() {
+        if (!isAnimated()) {
+            return;
+        }
         if (interpolationX != null) {
             translateX = interpolationX.nextValue();
         }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.visitor;
+
+import java.util.List;
+
+/**
+ * Ein Visitor, der Teilbäume des Szenengraphs parallel besuchen darf. Für jeden parallel besuchten Abschnitt des
+ * Szenengraphs wird mit {@link #fork()} ein eigener Visitor erzeugt, der nur von einem Thread verwendet wird. Nach der
+ * Traversierung werden die Ergebnisse aller Forks mit {@link #join(List)} wieder zusammengeführt.
+ * <p/>
+ * Ein Visitor, der dieses Interface nicht implementiert, wird immer sequentiell ausgeführt.
+ *
+ * @since 2.1
+ */
+public interface ParallelVisitor extends Visitor {
+
+    /**
+     * Erzeugt einen Visitor, der einen Abschnitt des Szenengraphs in einem eigenen Thread besuchen kann. Hat der
+     * Visitor keinen veränderlichen Zustand, kann er sich selbst zurückgeben.
+     *
+     * @return ein Visitor für einen Arbeitsthread
+     */
+    Visitor fork();
+
+    /**
+     * Führt die Ergebnisse der Forks zusammen. Die Forks werden in der Reihenfolge übergeben, in der ihre Abschnitte
+     * bei einer sequentiellen Traversierung besucht worden wären. Die Methode wird im aufrufenden Thread ausgeführt,
+     * nachdem alle Forks ihre Arbeit beendet haben.
+     *
+     * @param forks die mit {@link #fork()} erzeugten Visitor
+     */
+    void join(List<Visitor> forks);
+}
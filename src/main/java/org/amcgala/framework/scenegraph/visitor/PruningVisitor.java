@@ -0,0 +1,36 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.scenegraph.visitor;
+
+import org.amcgala.framework.scenegraph.Node;
+
+/**
+ * Ein Visitor, der ganze Teilbäume von der Traversierung ausschließen kann. Nach dem Besuch eines Knotens werden
+ * seine Nachfahren nur dann besucht, wenn {@link #visitChildren(Node)} {@code true} zurückgibt. Die Entscheidung darf
+ * nur vom Knoten abhängen, da eine parallele Traversierung sie auch treffen kann, bevor der Knoten besucht wurde.
+ *
+ * @since 2.1
+ */
+public interface PruningVisitor extends Visitor {
+
+    /**
+     * Gibt zurück, ob die Nachfahren eines Knotens besucht werden sollen.
+     *
+     * @param node der Knoten
+     *
+     * @return {@code false}, wenn der Teilbaum unterhalb des Knotens übersprungen werden soll
+     */
+    boolean visitChildren(Node node);
+}
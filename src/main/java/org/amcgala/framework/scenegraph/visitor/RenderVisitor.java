@@ -17,25 +17,64 @@ package org.amcgala.framework.scenegraph.visitor;
 import org.amcgala.framework.camera.Camera;
 import org.amcgala.framework.lighting.Light;
 import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.renderer.RenderLayer;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.scenegraph.TransformHierarchy;
+import org.amcgala.framework.shape.AbstractShape;
 import org.amcgala.framework.shape.Shape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ConcurrentModificationException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Der RenderVisitor traversiert einmal pro Frame über den Szenengraph und
  * zeichnet jedes AbstractShape, das gefunden wird, auf den Canvas des Fensters.
+ * <p/>
+ * Knoten, die über {@link Node#setStatic(boolean)} als statisch markiert wurden, werden zusammen mit ihrem gesamten
+ * Teilbaum in einen {@link RenderLayer} gezeichnet. In den folgenden Frames wird nur noch das Bild des Layers
+ * ausgegeben, solange sich Struktur, Kamera und die Änderungszähler der Transformationen
+ * ({@link Node#getTransformVersion()}), der Shapes ({@link AbstractShape#getChangeCount()}) und der Lichter nicht
+ * verändern. Die Nachfahren eines statischen Knotens werden bei der Traversierung übersprungen.
+ * <p/>
+ * Bei paralleler Traversierung zeichnet jeder Fork über einen eigenen, mit {@link Renderer#fork()} erzeugten Renderer.
+ * Die Ergebnisse werden anschließend in Traversierungsreihenfolge in den Renderer übernommen.
  *
  * @author Robert Giacinto
  */
-public class RenderVisitor implements Visitor {
+public class RenderVisitor implements ParallelVisitor, PruningVisitor {
 
     private static final Logger log = LoggerFactory.getLogger(RenderVisitor.class);
     private Renderer renderer;
+    private final Map<Node, StaticLayer> layers;
+    private volatile TransformHierarchy transformHierarchy;
+
+    public RenderVisitor() {
+        layers = Collections.synchronizedMap(new WeakHashMap<Node, StaticLayer>());
+    }
+
+    private RenderVisitor(Renderer renderer, Map<Node, StaticLayer> layers, TransformHierarchy transformHierarchy) {
+        this.renderer = renderer;
+        this.layers = layers;
+        this.transformHierarchy = transformHierarchy;
+    }
+
+    /**
+     * Legt eine bereits berechnete Transformationshierarchie fest, aus der die globalen Transformationen der Knoten
+     * gelesen werden. Knoten, die nicht Teil der Hierarchie sind, berechnen ihre Transformation wie bisher selbst.
+     *
+     * @param transformHierarchy die Hierarchie oder {@code null}, um die Transformationen an den Knoten zu berechnen
+     *
+     * @since 2.1
+     */
+    public void setTransformHierarchy(TransformHierarchy transformHierarchy) {
+        this.transformHierarchy = transformHierarchy;
+    }
 
     /**
      * Setzt den DefaultRenderer, der von diesem
@@ -45,6 +84,7 @@ public class RenderVisitor implements Visitor {
      */
     public void setRenderer(Renderer renderer) {
         this.renderer = renderer;
+        layers.clear();
     }
 
     /**
@@ -60,20 +100,187 @@ public class RenderVisitor implements Visitor {
 
     @Override
     public void visit(Node node) {
-        synchronized (node.getShapes()) {
-            Matrix transform = node.getTransformMatrix();
-            renderer.setTransformationMatrix(transform);
-
-            List<Light> lights = node.getLights();
-            renderer.setLights(lights);
-
-            for (Shape shape : node.getShapes()) {
-                try {
-                    shape.render(renderer);
-                } catch (ConcurrentModificationException ex) {
-                    log.error("Caught an exception...", ex);
+        if (node.isStatic()) {
+            renderStatic(node);
+        } else {
+            render(node);
+        }
+    }
+
+    /**
+     * Die Nachfahren eines statischen Knotens sind bereits Teil seines Layers.
+     */
+    @Override
+    public boolean visitChildren(Node node) {
+        return !node.isStatic();
+    }
+
+    @Override
+    public Visitor fork() {
+        return new RenderVisitor(renderer.fork(), layers, transformHierarchy);
+    }
+
+    @Override
+    public void join(List<Visitor> forks) {
+        for (Visitor fork : forks) {
+            renderer.merge(((RenderVisitor) fork).renderer);
+        }
+    }
+
+    /**
+     * Gibt einen statischen Teilbaum aus. Ist der Layer des Teilbaums noch gültig, wird nur sein Bild ausgegeben.
+     * Andernfalls wird der Teilbaum neu in den Layer gezeichnet.
+     *
+     * @param node der statische Knoten
+     */
+    private void renderStatic(Node node) {
+        StaticLayer state = layers.get(node);
+        if (state == null) {
+            state = new StaticLayer();
+            layers.put(node, state);
+        }
+        Node[] subtree = state.subtree(node);
+
+        if (state.animated || !state.computeKey(node)) {
+            // Animierte Shapes und Transformationen verändern sich in jedem Frame, bei Shapes ohne Änderungszähler
+            // kann eine Änderung nicht erkannt werden. Ein Layer würde hier nur zusätzliche Arbeit bedeuten.
+            for (Node n : subtree) {
+                render(n);
+            }
+            return;
+        }
+
+        RenderLayer layer = state.layer;
+        if (!layer.isValid(node.getVersion(), state.key, renderer.getCamera())) {
+            log.debug("Zeichne Layer von {} neu", node);
+            renderer.beginLayer(layer);
+            try {
+                for (Node n : subtree) {
+                    render(n);
+                }
+            } finally {
+                renderer.endLayer();
+            }
+            layer.validate(node.getVersion(), state.key, renderer.getCamera());
+            state.swapKey();
+        }
+        renderer.drawLayer(layer);
+    }
+
+    private void render(Node node) {
+        TransformHierarchy hierarchy = transformHierarchy;
+        int index = hierarchy != null ? hierarchy.indexOf(node) : -1;
+        Matrix transform = index >= 0 ? hierarchy.getRenderMatrix(index) : node.getTransformMatrix();
+        renderer.setTransformationMatrix(transform);
+
+        List<Light> lights = node.getEffectiveLights();
+        renderer.setLights(lights);
+
+        for (Shape shape : node.getShapes()) {
+            shape.render(renderer);
+        }
+    }
+
+    /**
+     * Der Layer eines statischen Knotens und die Werte, aus denen sein Schlüssel berechnet wird. Die Knoten des
+     * Teilbaums werden nur bei strukturellen Änderungen neu gesammelt. Der Schlüssel wird abwechselnd in zwei Arrays
+     * berechnet, von denen eines im {@link RenderLayer} gespeichert ist, so dass pro Frame nichts angelegt wird.
+     */
+    private static final class StaticLayer {
+        private static final int VALUES_PER_NODE = 3;
+
+        private final RenderLayer layer = new RenderLayer();
+        private long version = -1;
+        private Node[] subtree;
+        private boolean animated;
+        private double[] key;
+        private double[] spare;
+
+        /**
+         * Gibt die Knoten des Teilbaums zurück und sammelt sie neu, wenn sich die Struktur verändert hat.
+         */
+        private Node[] subtree(Node node) {
+            long v = node.getVersion();
+            if (subtree == null || version != v) {
+                Collection<Node> children = node.getAllChildren();
+                Node[] nodes = new Node[children.size() + 1];
+                nodes[0] = node;
+                int i = 1;
+                for (Node child : children) {
+                    nodes[i++] = child;
+                }
+                subtree = nodes;
+                key = new double[1 + nodes.length * VALUES_PER_NODE];
+                spare = new double[key.length];
+                version = v;
+            }
+            animated = isAnimated(node, subtree);
+            return subtree;
+        }
+
+        /**
+         * Berechnet den Schlüssel aus den Änderungszählern der Transformationen aller Vorfahren sowie den
+         * Änderungszählern der Transformationen, der Shapes und der geerbten Lichter aller Knoten des Teilbaums. Die
+         * Weltmatrizen müssen dafür nicht berechnet werden. Der Layer wird nur neu gezeichnet, wenn sich einer seiner
+         * Knoten oder Vorfahren ändert, nicht bei Änderungen in anderen Teilen des Scenegraphs.
+         *
+         * @return {@code false}, wenn ein Shape keinen Änderungszähler hat und der Teilbaum nicht zwischengespeichert
+         *         werden kann
+         */
+        private boolean computeKey(Node node) {
+            double[] values = key;
+            long ancestors = 0;
+            for (Node p = node.getParent(); p != null; p = p.getParent()) {
+                ancestors += p.getTransformVersion();
+            }
+            values[0] = ancestors;
+            for (int i = 0; i < subtree.length; i++) {
+                Node n = subtree[i];
+                int offset = 1 + i * VALUES_PER_NODE;
+                long changes = 0;
+                for (Shape shape : n.getShapes()) {
+                    if (!(shape instanceof AbstractShape)) {
+                        return false;
+                    }
+                    changes += ((AbstractShape) shape).getChangeCount();
+                }
+                values[offset] = n.getTransformVersion();
+                values[offset + 1] = changes;
+                values[offset + 2] = n.getLightVersion();
+            }
+            return true;
+        }
+
+        /**
+         * Tauscht die beiden Arrays des Schlüssels, nachdem der aktuelle Schlüssel im Layer gespeichert wurde.
+         */
+        private void swapKey() {
+            double[] tmp = key;
+            key = spare;
+            spare = tmp;
+        }
+    }
+
+    /**
+     * Prüft, ob sich ein statischer Teilbaum in jedem Frame verändert, weil eines seiner Shapes animiert ist oder er
+     * selbst oder einer seiner Vorfahren animierte Transformationen hat.
+     */
+    private static boolean isAnimated(Node node, Node[] nodes) {
+        for (Node p = node.getParent(); p != null; p = p.getParent()) {
+            if (p.hasAnimatedTransformations()) {
+                return true;
+            }
+        }
+        for (Node n : nodes) {
+            if (n.hasAnimatedTransformations()) {
+                return true;
+            }
+            for (Shape shape : n.getShapes()) {
+                if (shape.getAnimation() != null) {
+                    return true;
                 }
             }
         }
+        return false;
     }
 }
@@ -15,16 +15,19 @@
 package org.amcgala.framework.scenegraph.visitor;
 
 import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.scenegraph.SceneGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Der UpdateVisitor traversiert den Szenengraph und ruft die update Methode aller Objekte auf, die das Interface
  * Updatable implementieren.
  *
  * @author Robert Giacinto
  */
-public class UpdateVisitor implements Visitor {
+public class UpdateVisitor implements ParallelVisitor {
     private static final Logger log = LoggerFactory.getLogger(UpdateVisitor.class);
     private boolean paused;
 
@@ -37,10 +40,38 @@ public class UpdateVisitor implements Visitor {
         this.paused = paused;
     }
 
+    /**
+     * Aktualisiert nur die aktiven Knoten eines Szenengraphs, siehe {@link SceneGraph#getActiveSet()}.
+     *
+     * @param sceneGraph der Szenengraph
+     *
+     * @since 2.1
+     */
+    public void update(SceneGraph sceneGraph) {
+        if (!paused) {
+            sceneGraph.getActiveSet().update();
+        }
+    }
+
     @Override
     public void visit(Node node) {
         if (!paused) {
             node.update();
         }
     }
+
+    /**
+     * Die Aktualisierung eines Knotens betrifft nur seine eigenen Transformationen und Shapes. Alle Threads können
+     * daher denselben Visitor verwenden.
+     *
+     * @return dieser Visitor
+     */
+    @Override
+    public Visitor fork() {
+        return this;
+    }
+
+    @Override
+    public void join(List<Visitor> forks) {
+    }
 }
@@ -14,6 +14,7 @@
  */
 package org.amcgala.framework.shape;
 
+import org.amcgala.framework.animation.Animated;
 import org.amcgala.framework.animation.Animation;
 import org.amcgala.framework.math.Matrix;
 import org.amcgala.framework.raytracer.RGBColor;
@@ -21,27 +22,37 @@ import org.amcgala.framework.raytracer.Ray;
 import org.amcgala.framework.raytracer.ShadingInfo;
 import org.amcgala.framework.raytracer.material.Material;
 import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.scenegraph.ActiveSet;
 import org.amcgala.framework.scenegraph.Node;
 import org.amcgala.framework.shape.util.bounds.BoundingBox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Diese Klasse stellt die Oberklasse aller darstellbaren Objekte dar.
  *
  * @author Robert Giacinto
  */
-public abstract class AbstractShape implements Shape {
+public abstract class AbstractShape implements Shape, Animated {
 
     private static final Logger log = LoggerFactory.getLogger(AbstractShape.class);
+    /**
+     * Speichert für jede Klasse, ob sie {@link #update()} überschreibt, siehe {@link #isAnimated()}.
+     */
+    private static final ConcurrentMap<Class<?>, Boolean> updateOverrides = new ConcurrentHashMap<Class<?>, Boolean>();
     private Animation animation;
     private Node node;
     protected String label = getClass().getSimpleName() + " - " + System.nanoTime();
     protected BoundingBox boundingBox = new BoundingBox();
     protected RGBColor color = new RGBColor(0, 0, 0);
     protected Material material = new Material();
+    private volatile long changeCount;
 
 
     @Override
@@ -53,11 +64,13 @@ public abstract class AbstractShape implements Shape {
     public void setColor(Color color) {
         float [] colors = color.getColorComponents(null);
         this.color = new RGBColor(colors[0], colors[1], colors[2]);
+        markChanged();
     }
 
     @Override
     public void setColor(RGBColor color) {
         this.color = color;
+        markChanged();
     }
 
     @Override
@@ -65,6 +78,18 @@ public abstract class AbstractShape implements Shape {
         return label;
     }
 
+    /**
+     * Setzt das Label, über das das Shape im Scenegraph gefunden werden kann. Das Label muss gesetzt werden, bevor das
+     * Shape dem Scenegraph hinzugefügt wird.
+     *
+     * @param label das neue Label
+     *
+     * @since 2.1
+     */
+    public void setLabel(String label) {
+        this.label = checkNotNull(label);
+    }
+
     @Override
     public void update() {
         if (animation != null) {
@@ -77,9 +102,57 @@ public abstract class AbstractShape implements Shape {
         boundingBox.updateBox(transform);
     }
 
+    /**
+     * Setzt die Ausmaße des Shapes im lokalen Koordinatensystem. Hängt das Shape bereits an einem Knoten, wird dessen
+     * Quader als veraltet markiert.
+     *
+     * @param minX die kleinste x-Koordinate
+     * @param minY die kleinste y-Koordinate
+     * @param minZ die kleinste z-Koordinate
+     * @param maxX die größte x-Koordinate
+     * @param maxY die größte y-Koordinate
+     * @param maxZ die größte z-Koordinate
+     *
+     * @since 2.1
+     */
+    protected void setLocalBounds(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        boundingBox.updateBox(new double[]{minX, minY, minZ, maxX, maxY, maxZ});
+        if (node != null) {
+            node.invalidateBounds();
+        }
+        markChanged();
+    }
+
+    /**
+     * Gibt den Änderungszähler des Shapes zurück. Der Zähler wird erhöht, wenn sich Farbe, Material, Geometrie oder
+     * sonstiger Inhalt des Shapes verändern, siehe {@link #markChanged()}.
+     *
+     * @return der aktuelle Änderungszähler
+     *
+     * @since 2.1
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Markiert das Shape als verändert. Wird von allen Settern aufgerufen, die das Aussehen des Shapes beeinflussen.
+     * Wer öffentliche Felder eines Shapes direkt verändert oder ein übergebenes Objekt wie die Farbe nachträglich
+     * verändert, muss die Methode selbst aufrufen, damit zwischengespeicherte Layer neu gezeichnet werden.
+     *
+     * @since 2.1
+     */
+    public void markChanged() {
+        changeCount++;
+    }
+
     @Override
     public void setAnimation(Animation animation) {
+        boolean wasAnimated = isAnimated();
         this.animation = animation;
+        if (wasAnimated != isAnimated()) {
+            ActiveSet.invalidate();
+        }
     }
 
     @Override
@@ -87,6 +160,34 @@ public abstract class AbstractShape implements Shape {
         return animation;
     }
 
+    /**
+     * Gibt zurück, ob sich das Shape bei {@link #update()} verändert. Das ist der Fall, wenn dem Shape eine Animation
+     * zugewiesen wurde oder seine Klasse {@link #update()} überschreibt. Unterklassen, die nur zeitweise animiert
+     * sind, können die Methode überschreiben und müssen bei jeder Änderung des Rückgabewerts
+     * {@link ActiveSet#invalidate()} aufrufen.
+     *
+     * @return {@code true}, wenn das Shape animiert ist
+     *
+     * @since 2.1
+     */
+    @Override
+    public boolean isAnimated() {
+        return animation != null || overridesUpdate(getClass());
+    }
+
+    private static boolean overridesUpdate(Class<?> type) {
+        Boolean overrides = updateOverrides.get(type);
+        if (overrides == null) {
+            try {
+                overrides = type.getMethod("update").getDeclaringClass() != AbstractShape.class;
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError(e);
+            }
+            updateOverrides.put(type, overrides);
+        }
+        return overrides;
+    }
+
     @Override
     public Node getNode() {
         return node;
@@ -116,6 +217,7 @@ public abstract class AbstractShape implements Shape {
     @Override
     public void setMaterial(Material material) {
         this.material = material;
+        markChanged();
     }
 
     @Override
@@ -46,6 +46,7 @@ public class Circle extends AbstractShape {
         this.z = z;
         this.radius = radius;
         pos = Vector3d.createVector3d(x, y, z);
+        updateLocalBounds();
     }
 
     /**
@@ -60,6 +61,7 @@ public class Circle extends AbstractShape {
         this.z = center.z;
         this.radius = radius;
         pos = Vector3d.createVector3d(x, y, z);
+        updateLocalBounds();
     }
 
     /**
@@ -69,6 +71,7 @@ public class Circle extends AbstractShape {
      */
     public void setRadius(double r) {
         this.radius = r;
+        updateLocalBounds();
     }
 
     /**
@@ -87,6 +90,7 @@ public class Circle extends AbstractShape {
         this.x = x;
         this.y = y;
         this.z = z;
+        updateLocalBounds();
     }
 
     /**
@@ -96,6 +100,7 @@ public class Circle extends AbstractShape {
         this.x = center.x;
         this.y = center.y;
         this.z = center.z;
+        updateLocalBounds();
     }
 
     /**
@@ -108,6 +113,10 @@ public class Circle extends AbstractShape {
     }
 
 
+    private void updateLocalBounds() {
+        setLocalBounds(x - radius, y - radius, z, x + radius, y + radius, z);
+    }
+
     @Override
     public void render(Renderer renderer) {
         pos = Vector3d.createVector3d(x, y, z);
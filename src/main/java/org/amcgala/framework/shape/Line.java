@@ -60,6 +60,7 @@ public class Line extends AbstractShape {
 
         start = Vector3d.createVector3d(x1, y1, -1);
         end = Vector3d.createVector3d(x2, y2, -1);
+        updateLocalBounds();
     }
 
     /**
@@ -92,6 +93,12 @@ public class Line extends AbstractShape {
         this.x2 = end.x;
         this.y2 = end.y;
         this.z2 = end.z;
+        updateLocalBounds();
+    }
+
+    private void updateLocalBounds() {
+        setLocalBounds(Math.min(start.x, end.x), Math.min(start.y, end.y), Math.min(start.z, end.z),
+                Math.max(start.x, end.x), Math.max(start.y, end.y), Math.max(start.z, end.z));
     }
 
     /**
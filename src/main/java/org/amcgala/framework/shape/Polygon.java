@@ -21,6 +21,8 @@ import org.amcgala.framework.renderer.Renderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -50,7 +52,6 @@ public class Polygon extends AbstractShape {
      * @param norm der Normalenvektor
      */
     public Polygon(Vector3d v1, Vector3d v2, Vector3d v3, Vector3d norm) {
-        // TODO Die Vektoren sollten auch außerhalb der Linien verfügbar sein. Sie werden für die Berechnung der Bounding Boxes benötigt.
         checkNotNull(v1);
         checkNotNull(v2);
         checkNotNull(v3);
@@ -59,6 +60,7 @@ public class Polygon extends AbstractShape {
         line2 = new Line(v2, v3);
         line3 = new Line(v3, v1);
         this.norm = norm;
+        boundingBox.updateBox(Arrays.asList(getVertices()));
     }
 
     public Polygon(Vector3d v1, Vector3d v2, Vector3d v3, Vector3d norm, String label) {
@@ -78,6 +80,7 @@ public class Polygon extends AbstractShape {
         line3 = new Line(v3, v4);
         line4 = new Line(v4, v1);
         this.norm = norm;
+        boundingBox.updateBox(Arrays.asList(getVertices()));
     }
 
     public Polygon(Vector3d v1, Vector3d v2, Vector3d v3, Vector3d v4,
@@ -105,6 +108,31 @@ public class Polygon extends AbstractShape {
         }
     }
 
+    /**
+     * Gibt die Eckpunkte des Polygons zurück.
+     *
+     * @return drei oder vier Eckpunkte in der Reihenfolge, in der sie übergeben wurden
+     *
+     * @since 2.1
+     */
+    public Vector3d[] getVertices() {
+        if (line4 == null) {
+            return new Vector3d[]{line1.getStart(), line2.getStart(), line3.getStart()};
+        }
+        return new Vector3d[]{line1.getStart(), line2.getStart(), line3.getStart(), line4.getStart()};
+    }
+
+    /**
+     * Gibt den Normalenvektor des Polygons zurück.
+     *
+     * @return der Normalenvektor
+     *
+     * @since 2.1
+     */
+    public Vector3d getNorm() {
+        return norm;
+    }
+
     @Override
     public String toString() {
         return Objects.toStringHelper(getClass()).add("line1", line1).add("line2", line2).add("line3", line3).add("line4", line4).toString();
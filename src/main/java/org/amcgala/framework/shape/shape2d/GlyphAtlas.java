@@ -0,0 +1,72 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.shape.shape2d;
+
+import org.amcgala.framework.renderer.ImageAtlas;
+import org.amcgala.framework.renderer.PixelImage;
+
+/**
+ * Die Zeichen der Standardschrift als Alphamasken. Die Schriftgrafik enthält 16 x 16 Zeichen mit je 16 x 16 Pixeln,
+ * schwarz auf weiß. Sie wird einmalig geladen und in eine Maske umgerechnet, deren Werte die Deckkraft jedes Pixels
+ * angeben.
+ *
+ * @since 2.1
+ */
+final class GlyphAtlas {
+    /**
+     * Breite und Höhe eines Zeichens in Pixeln.
+     */
+    static final int GLYPH_SIZE = 16;
+
+    private static final String AMCGALA_FONT_GIF = "org/amcgala/font.gif";
+    private static final int GLYPHS_PER_ROW = 16;
+    private static final int STRIDE = GLYPH_SIZE * GLYPHS_PER_ROW;
+
+    private static byte[] mask;
+
+    private GlyphAtlas() {
+    }
+
+    /**
+     * Zeichnet ein Zeichen in ein Bild.
+     *
+     * @param target das Zielbild
+     * @param c      das Zeichen
+     * @param x      die Spalte der linken oberen Ecke im Zielbild
+     * @param y      die Zeile der linken oberen Ecke im Zielbild
+     * @param argb   die Farbe des Zeichens
+     */
+    static void drawGlyph(PixelImage target, char c, int x, int y, int argb) {
+        int index = c & 0xff;
+        int mx = index % GLYPHS_PER_ROW * GLYPH_SIZE;
+        int my = index / GLYPHS_PER_ROW * GLYPH_SIZE;
+        target.blendMask(getMask(), STRIDE, mx, my, GLYPH_SIZE, GLYPH_SIZE, x, y, argb);
+    }
+
+    private static synchronized byte[] getMask() {
+        if (mask == null) {
+            int[] pixels = ImageAtlas.getImage(AMCGALA_FONT_GIF).getPixels();
+            byte[] m = new byte[pixels.length];
+            for (int i = 0; i < pixels.length; i++) {
+                int p = pixels[i];
+                int luminance = (((p >> 16) & 0xff) + ((p >> 8) & 0xff) + (p & 0xff)) / 3;
+                // Die Schrift ist schwarz auf weiß: je dunkler, desto deckender.
+                m[i] = (byte) (255 - luminance);
+            }
+            mask = m;
+        }
+        return mask;
+    }
+}
@@ -14,37 +14,34 @@
  */
 package org.amcgala.framework.shape.shape2d;
 
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.PixelImage;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.shape.AbstractShape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import java.awt.Color;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-
 /**
- * Ein Zeichen dass an der Stelle (x,y) dargestellt wird. Beim ersten Verwenden
- * wird hier die Grafik in fontResource geladen und spaeter statisch genutzt.
+ * Ein Zeichen dass an der Stelle (x,y) dargestellt wird. Das Zeichen wird aus dem {@link GlyphAtlas} in ein kleines
+ * Bild in der Farbe des Shapes gezeichnet und als Ganzes ausgegeben.
  *
  * @author Robert Giacinto, Steffen Troester
  */
 public class Letter extends AbstractShape {
-    private static final String AMCGALA_FONT_GIF = "org/amcgala/font.gif";
-    private ArrayList<Point2d> point2ds;
-    private static int[] fontResources = null;
     private static final Logger log = LoggerFactory.getLogger(Letter.class);
     private double x;
     private double y;
     private final char letter;
+    private PixelImage image;
+    /**
+     * Eine Kopie der Farbe, mit der das Bild gezeichnet wurde.
+     */
+    private RGBColor imageColor;
 
     /**
-     * Ein Zeichen dass an der Stelle (x,y) dargestellt wird. Beim ersten
-     * Verwenden wird hier die Grafik in fontResource geladen und spaeter
-     * statisch genutzt.
+     * Ein Zeichen dass an der Stelle (x,y) dargestellt wird.
      *
      * @param x      Position
      * @param y      Position
@@ -54,68 +51,27 @@ public class Letter extends AbstractShape {
         this.x = x;
         this.y = y;
         this.letter = letter;
-        // initialisieren falls notwendig
-        if (fontResources == null) {
-            try {
-                initLetters();
-                log.info("Successful loading Font Resources!");
-            } catch (IOException e) {
-                log.error("Error loading Font Resources!");
-            }
-        }
-        // Letter lokalisieren
-        point2ds = new ArrayList<Point2d>();
-        for (int i = 0; i < 16 * 16; i++) {
-            // Position jedes Pixels
-            int index = i % 16 + (letter % 16 * 16) + (letter / 16 * 256 * 16)
-                    + (i / 16 * 256);
-            // Farbwerte auswerfen (Shiftenaufgrund von RGB-int-Values)
-            int red = (fontResources[index] >> 16) & 0xFF;
-            int green = (fontResources[index] >> 8) & 0xFF;
-            int blue = (fontResources[index]) & 0xFF;
-            // Farbe definieren (Grafik also austauschbar !)
-            Color c = new Color(red, green, blue);
-            Point2d pixel = new Point2d(i % 16 + x, 16 - (i / 16) + y, c);
-            point2ds.add(pixel);
-        }
     }
 
     @Override
     public void render(Renderer renderer) {
-        Color old = renderer.getColor();
-        if (point2ds != null) {
-            for (Point2d p : point2ds) {
-                p.render(renderer);
-            }
+        if (image == null || !color.equals(imageColor)) {
+            image = new PixelImage(GlyphAtlas.GLYPH_SIZE, GlyphAtlas.GLYPH_SIZE);
+            GlyphAtlas.drawGlyph(image, letter, 0, 0, getColor().getRGB());
+            imageColor = new RGBColor(color);
         }
-        renderer.setColor(old);
-    }
-
-    /**
-     * Initialisiert die statische Grafik
-     *
-     * @throws IOException
-     */
-    private static void initLetters() throws IOException {
-        // Datei öffnen
-        InputStream f = ClassLoader.getSystemResourceAsStream(AMCGALA_FONT_GIF);
-
-        // Imagefile auslesen
-        BufferedImage image = ImageIO.read(f);
-        // Groesse definieren
-        int width = image.getWidth();
-        int height = image.getHeight();
-        fontResources = new int[width * height];
-        // Pixel beziehen
-        image.getRGB(0, 0, width, height, fontResources, 0, width);
+        Pixel p = renderer.getPixel(Vector3d.createVector3d(x, y + GlyphAtlas.GLYPH_SIZE, -1));
+        renderer.drawImage(image, p.getX(), p.getY());
     }
 
     public void setX(double x) {
         this.x = x;
+        markChanged();
     }
 
     public void setY(double y) {
         this.y = y;
+        markChanged();
     }
 
     public double getX() {
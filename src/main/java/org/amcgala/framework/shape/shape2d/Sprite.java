@@ -16,30 +16,29 @@ package org.amcgala.framework.shape.shape2d;
 
 
 import com.google.common.base.Objects;
-import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.ImageAtlas;
+import org.amcgala.framework.renderer.PixelImage;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.shape.AbstractShape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Spriteobjekt zum Darstellen
+ * Spriteobjekt zum Darstellen. Das Bild eines Sprites wird als {@link PixelImage} gehalten und in einem Stück
+ * ausgegeben. Sprites, die aus derselben Datei geladen werden, teilen sich das Bild über den {@link ImageAtlas}.
  *
  * @author Steffen Tröster
  */
 public class Sprite extends AbstractShape {
     private static final Logger log = LoggerFactory.getLogger(Sprite.class.getName());
-    private Pixel[] pixels;
+    private PixelImage image;
     private String path;
 
     /**
@@ -48,65 +47,38 @@ public class Sprite extends AbstractShape {
      * @param path der Pfad zu dem Sprite, das geladen werden soll
      */
     public Sprite(String path) {
-
         this.path = checkNotNull(path);
-        FileInputStream f = null;
-        try {
-            f = new FileInputStream(path);
-        } catch (FileNotFoundException e) {
-            log.error("Konnte Datei {} nicht finden", path);
-        }
-
-        try {
-            loadImage(f);
-        } finally {
-            try {
-                if (f != null) {
-                    f.close();
-                }
-            } catch (IOException e) {
-                log.error("Konnte Datei nicht schließen", e);
-            }
-        }
+        this.image = ImageAtlas.getImage(path);
     }
 
     /**
-     * Spriteobjekt aus einer Datei (jpeg,png,gif)
+     * Spriteobjekt aus einer Datei (jpeg,png,gif). Das Bild wird nicht im {@link ImageAtlas} abgelegt.
      *
      * @param inputStream
      */
     public void loadImage(InputStream inputStream) {
-        BufferedImage image = null;
+        BufferedImage bufferedImage = null;
         try {
-            image = ImageIO.read(inputStream);
+            bufferedImage = ImageIO.read(inputStream);
         } catch (IOException e) {
             log.error("Konnte Bild nicht laden!", e);
         }
 
-        int width = checkNotNull(image).getWidth();
-        int height = checkNotNull(image).getHeight();
-
-        // Farbwerte auslesen
-        int[] colorValues = new int[width * height];
-        if (image != null) {
-            image.getRGB(0, 0, width, height, colorValues, 0, width);
-        } else {
-            log.error("Couldn't load image from InputStream.");
-        }
-
-        // Pixel erzeugen
-        pixels = new Pixel[colorValues.length];
+        image = PixelImage.fromImage(checkNotNull(bufferedImage));
+    }
 
-        for (int i = 0; i < width * height; i++) {
-            pixels[i] = new Pixel(i % width, (height - i) / width, new Color(colorValues[i]));
-        }
+    /**
+     * Gibt das Bild des Sprites zurück.
+     *
+     * @return das Bild
+     */
+    public PixelImage getImage() {
+        return image;
     }
 
     @Override
     public void render(Renderer renderer) {
-        for (Pixel pixel : pixels) {
-            renderer.drawPixel(pixel);
-        }
+        renderer.drawImage(image, 0, 0);
     }
 
     @Override
@@ -14,24 +14,37 @@
  */
 package org.amcgala.framework.shape.shape2d;
 
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.PixelImage;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.shape.AbstractShape;
-import org.amcgala.framework.shape.Shape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Eine Klasse, die Text darstellen kann. Die grundlegenden Zeichen werden
- * unterstützt und als Vektorbuchstaben ausgegeben.
+ * unterstützt und als Bild ausgegeben.
+ * <p/>
+ * Der gesamte Text wird einmalig aus den Masken des {@link GlyphAtlas} in ein Bild gezeichnet. Pro Frame wird nur noch
+ * die Position projiziert und das Bild ausgegeben. Das Bild wird erst neu erzeugt, wenn sich Text oder Farbe ändern.
  *
  * @author Robert Giacinto, Steffen Troester
  */
 public class Text extends AbstractShape {
 
-    private static final double SPACING = 14;
+    private static final int SPACING = 14;
     private double x;
     private double y;
-    private Letter[] letters;
+    private String text;
+    private PixelImage image;
+    /**
+     * Eine Kopie der Farbe, mit der das Bild gezeichnet wurde.
+     */
+    private RGBColor imageColor;
 
     /**
      * Erzeugt ein Text-AbstractShape, das den Text an der Position (x,y) darstellt.
@@ -42,21 +55,38 @@ public class Text extends AbstractShape {
      * @param y    die y-Kootdinate der Position
      */
     public Text(String text, double x, double y) {
+        this.text = checkNotNull(text);
         this.x = x;
         this.y = y;
-        this.letters = new Letter[text.length()];
-        for (int i = 0; i < letters.length; i++) {
-            char c = text.charAt(i);
-            letters[i] = new Letter(x + i * SPACING, y, c);
+    }
+
+    /**
+     * Ändert den dargestellten Text.
+     *
+     * @param text der neue Text
+     *
+     * @since 2.1
+     */
+    public void setText(String text) {
+        if (!checkNotNull(text).equals(this.text)) {
+            this.text = text;
+            image = null;
+            markChanged();
         }
     }
 
+    public String getText() {
+        return text;
+    }
+
     public void setX(double x) {
         this.x = x;
+        markChanged();
     }
 
     public void setY(double y) {
         this.y = y;
+        markChanged();
     }
 
     public double getY() {
@@ -69,9 +99,27 @@ public class Text extends AbstractShape {
 
     @Override
     public void render(Renderer renderer) {
-        for (Shape s : letters) {
-            s.render(renderer);
+        if (text.isEmpty()) {
+            return;
+        }
+        if (image == null || !color.equals(imageColor)) {
+            layout();
+        }
+        Pixel p = renderer.getPixel(Vector3d.createVector3d(x, y + GlyphAtlas.GLYPH_SIZE, -1));
+        renderer.drawImage(image, p.getX(), p.getY());
+    }
+
+    /**
+     * Zeichnet alle Zeichen des Textes nebeneinander in ein neues Bild.
+     */
+    private void layout() {
+        int argb = getColor().getRGB();
+        PixelImage img = new PixelImage((text.length() - 1) * SPACING + GlyphAtlas.GLYPH_SIZE, GlyphAtlas.GLYPH_SIZE);
+        for (int i = 0; i < text.length(); i++) {
+            GlyphAtlas.drawGlyph(img, text.charAt(i), i * SPACING, 0, argb);
         }
+        image = img;
+        imageColor = new RGBColor(color);
     }
 
     private static final Logger log = LoggerFactory.getLogger(Text.class.getName());
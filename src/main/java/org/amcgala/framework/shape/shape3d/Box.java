@@ -15,6 +15,7 @@
 package org.amcgala.framework.shape.shape3d;
 
 import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.BoundsHittable;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.shape.AbstractShape;
 import org.amcgala.framework.shape.Line;
@@ -23,11 +24,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Draws a 3D Box.
+ * Draws a 3D Box. Since the box is axis-aligned, it is picked by its bounding box.
  *
  * @author Robert Giacinto
  */
-public class Box extends AbstractShape {
+public class Box extends AbstractShape implements BoundsHittable {
 
     private CompositeShape lines;
     private Vector3d position;
@@ -48,7 +49,6 @@ public class Box extends AbstractShape {
         this.width = width;
         this.height = height;
         this.depth = depth;
-        lines = new CompositeShape();
         this.calculate();
     }
 
@@ -56,6 +56,10 @@ public class Box extends AbstractShape {
      * Updates the Box at runtime.
      */
     private void calculate() {
+        lines = new CompositeShape();
+        setLocalBounds(Math.min(position.x, position.x + width), Math.min(position.y, position.y + height),
+                Math.min(position.z, position.z - depth), Math.max(position.x, position.x + width),
+                Math.max(position.y, position.y + height), Math.max(position.z, position.z - depth));
         lines.add(new Line(Vector3d.createVector3d(position.x, position.y, position.z), Vector3d.createVector3d(position.x + width, position.y, position.z)));
         lines.add(new Line(Vector3d.createVector3d(position.x, position.y, position.z), Vector3d.createVector3d(position.x, position.y + height, position.z)));
         lines.add(new Line(Vector3d.createVector3d(position.x, position.y, position.z), Vector3d.createVector3d(position.x, position.y, position.z - depth)));
@@ -86,7 +90,6 @@ public class Box extends AbstractShape {
      */
     public void setPosition(Vector3d position) {
         this.position = position;
-        lines = new CompositeShape();
         calculate();
     }
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.shape.shape3d;
+
+import com.google.common.base.Objects;
+import org.amcgala.framework.camera.Camera;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.raytracer.Ray;
+import org.amcgala.framework.raytracer.ShadingInfo;
+import org.amcgala.framework.raytracer.material.Material;
+import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.shape.AbstractShape;
+import org.amcgala.framework.shape.util.MeshSimplifier;
+import org.amcgala.framework.shape.util.bounds.BoundingBox;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Ein Netz mit mehreren Detailstufen. Bei jeder Darstellung wird die Größe der umgebenden Kugel auf dem Bildschirm
+ * bestimmt und die gröbste Stufe gewählt, deren Mindestgröße noch erreicht wird. Weit entfernte Objekte werden so mit
+ * einem Bruchteil ihrer Flächen gezeichnet und geschnitten.
+ * <p/>
+ * Die Stufen können mit {@link #generate(PolygonMesh, int, double)} über den {@link MeshSimplifier} aus dem
+ * vollständigen Netz erzeugt werden.
+ *
+ * @since 2.1
+ */
+public class LodMesh extends AbstractShape {
+    private final PolygonMesh[] levels;
+    private final double[] minSizes;
+    private final Vector3d center;
+    private final double radius;
+    private volatile int currentLevel;
+
+    /**
+     * Erstellt ein neues Netz mit Detailstufen.
+     *
+     * @param levels   die Stufen, beginnend mit der feinsten
+     * @param minSizes die Größe in Pixeln, ab der die jeweilige Stufe verwendet wird, absteigend sortiert
+     */
+    public LodMesh(List<PolygonMesh> levels, double[] minSizes) {
+        checkArgument(!levels.isEmpty(), "Es wird mindestens eine Detailstufe benötigt!");
+        checkArgument(levels.size() == minSizes.length, "Für jede Detailstufe wird eine Mindestgröße benötigt!");
+        for (int i = 1; i < minSizes.length; i++) {
+            checkArgument(minSizes[i] <= minSizes[i - 1], "Die Mindestgrößen müssen absteigend sortiert sein!");
+        }
+        this.levels = levels.toArray(new PolygonMesh[levels.size()]);
+        this.minSizes = minSizes.clone();
+        for (PolygonMesh level : this.levels) {
+            checkNotNull(level).setMaterial(material);
+            level.setColor(color);
+        }
+
+        // Die BoundingBox und die umgebende Kugel werden aus der feinsten Stufe bestimmt.
+        double[] bounds = this.levels[0].getLocalBounds();
+        boundingBox.updateBox(bounds);
+        if (BoundingBox.isEmpty(bounds)) {
+            center = new Vector3d(0, 0, 0);
+            radius = 0;
+        } else {
+            center = new Vector3d((bounds[0] + bounds[3]) / 2, (bounds[1] + bounds[4]) / 2, (bounds[2] + bounds[5]) / 2);
+            radius = new Vector3d(bounds[3], bounds[4], bounds[5]).sub(center).length();
+        }
+    }
+
+    /**
+     * Erzeugt die Detailstufen eines Netzes. Jede Stufe hat ein Viertel der Dreiecke der vorherigen Stufe und wird ab
+     * der halben Größe der vorherigen Stufe verwendet.
+     *
+     * @param mesh           das vollständige Netz
+     * @param levelCount     die Anzahl der Stufen einschließlich des vollständigen Netzes
+     * @param fullDetailSize die Größe in Pixeln, ab der das vollständige Netz gezeichnet wird
+     *
+     * @return das Netz mit Detailstufen
+     */
+    public static LodMesh generate(PolygonMesh mesh, int levelCount, double fullDetailSize) {
+        checkArgument(levelCount > 0, "Es wird mindestens eine Detailstufe benötigt!");
+        checkArgument(fullDetailSize > 0, "Die Größe muss größer 0 sein!");
+        List<PolygonMesh> levels = new ArrayList<PolygonMesh>();
+        double[] minSizes = new double[levelCount];
+        levels.add(mesh);
+        minSizes[0] = fullDetailSize;
+        for (int i = 1; i < levelCount; i++) {
+            PolygonMesh previous = levels.get(i - 1);
+            // Das Ergebnis besteht nur aus Dreiecken, daher wird auch bei der vorherigen Stufe in Dreiecken gezählt.
+            levels.add(MeshSimplifier.simplify(previous, Math.max(4, previous.getTriangleCount() / 4)));
+            minSizes[i] = minSizes[i - 1] / 2;
+        }
+        minSizes[levelCount - 1] = 0;
+        return new LodMesh(levels, minSizes);
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public PolygonMesh getLevel(int level) {
+        return levels[level];
+    }
+
+    /**
+     * Gibt die zuletzt gewählte Detailstufe zurück. Sie wird auch beim Schneiden mit Strahlen verwendet.
+     *
+     * @return der Index der Stufe, 0 ist die feinste
+     */
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    /**
+     * Wählt die Detailstufe für eine Größe auf dem Bildschirm.
+     *
+     * @param size der Durchmesser der umgebenden Kugel in Pixeln
+     *
+     * @return der Index der Stufe
+     */
+    public int selectLevel(double size) {
+        for (int i = 0; i < levels.length - 1; i++) {
+            if (size >= minSizes[i]) {
+                return i;
+            }
+        }
+        return levels.length - 1;
+    }
+
+    /**
+     * Bestimmt den Durchmesser der umgebenden Kugel auf dem Bildschirm.
+     *
+     * @param renderer der Renderer mit der aktuellen Transformation und Kamera
+     *
+     * @return der Durchmesser in Pixeln oder 0, wenn die Kugel nicht projiziert werden kann
+     */
+    public double getProjectedSize(Renderer renderer) {
+        Matrix m = renderer.getTransformationMatrix();
+        Camera camera = renderer.getCamera();
+        double scale = 0;
+        for (int j = 0; j < 3; j++) {
+            scale = Math.max(scale, Math.sqrt(m.get(0, j) * m.get(0, j) + m.get(1, j) * m.get(1, j)
+                    + m.get(2, j) * m.get(2, j)));
+        }
+        Vector3d c = center.transform(m);
+        Vector3d up = camera.getVup();
+        Vector3d edge = c.add(up.times(radius * scale / up.length()));
+        try {
+            Pixel a = camera.getImageSpaceCoordinates(c);
+            Pixel b = camera.getImageSpaceCoordinates(edge);
+            double dx = a.getX() - b.getX();
+            double dy = a.getY() - b.getY();
+            return 2 * Math.sqrt(dx * dx + dy * dy);
+        } catch (ArithmeticException e) {
+            // Punkte in der Ebene des Auges lassen sich nicht projizieren.
+            return 0;
+        }
+    }
+
+    /**
+     * Wählt die Detailstufe für eine Zentralprojektion, wie sie der {@link org.amcgala.framework.raytracer.Raytracer}
+     * verwendet. Der Raytracer ruft die Methode einmal vor jedem Bild auf, damit alle Strahlen dieselbe Stufe
+     * schneiden.
+     *
+     * @param eye          die Position des Auges
+     * @param viewDistance der Abstand des Auges zur ViewPlane
+     * @param pixelSize    die Größe eines Pixels auf der ViewPlane
+     *
+     * @return der Index der gewählten Stufe
+     */
+    public int updateLevel(Vector3d eye, double viewDistance, double pixelSize) {
+        checkArgument(pixelSize > 0, "Die Pixelgröße muss größer 0 sein!");
+        double distance = center.sub(eye).length();
+        double size = distance > radius ? 2 * radius * viewDistance / (distance * pixelSize) : Double.POSITIVE_INFINITY;
+        int level = selectLevel(size);
+        currentLevel = level;
+        return level;
+    }
+
+    @Override
+    public void render(Renderer renderer) {
+        int level = selectLevel(getProjectedSize(renderer));
+        currentLevel = level;
+        levels[level].render(renderer);
+    }
+
+    /**
+     * Schneidet einen Strahl mit der zuletzt gewählten Detailstufe, siehe
+     * {@link #updateLevel(Vector3d, double, double)}. Primär- und Sekundärstrahlen treffen so dieselbe Geometrie.
+     */
+    @Override
+    public boolean hit(Ray ray, ShadingInfo shadingInfo) {
+        if (!levels[currentLevel].hit(ray, shadingInfo)) {
+            return false;
+        }
+        shadingInfo.label = getLabel();
+        return true;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        super.setColor(color);
+        for (PolygonMesh level : levels) {
+            level.setColor(color);
+        }
+    }
+
+    @Override
+    public void setColor(RGBColor color) {
+        super.setColor(color);
+        for (PolygonMesh level : levels) {
+            level.setColor(color);
+        }
+    }
+
+    @Override
+    public void setMaterial(Material material) {
+        super.setMaterial(material);
+        for (PolygonMesh level : levels) {
+            level.setMaterial(material);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass()).add("label", label).add("levels", levels.length)
+                .add("currentLevel", currentLevel).toString();
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.shape.shape3d;
+
+import com.google.common.base.Objects;
+import org.amcgala.framework.math.MathConstants;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.Ray;
+import org.amcgala.framework.raytracer.ShadingInfo;
+import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.shape.AbstractShape;
+import org.amcgala.framework.shape.Polygon;
+import org.amcgala.framework.shape.util.bounds.BoundingBox;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Ein Netz aus Drei- und Vierecken, deren Daten in einem {@link DoubleBuffer} liegen. Jede Fläche belegt
+ * {@link #FACE_STRIDE} Werte: die Anzahl der Ecken, den Normalenvektor und vier Eckpunkte. Bei Dreiecken wird der
+ * vierte Eckpunkt ignoriert.
+ * <p/>
+ * Der Buffer kann direkt auf eine Datei abgebildet sein, siehe {@link org.amcgala.framework.scenegraph.io.SceneReader}.
+ * Zeichnen und Strahlschnitt lesen die Flächen direkt aus dem Buffer, so dass die Geometrie nicht in den Heap kopiert
+ * wird. Beim Zeichnen werden die Eckpunkte von höchstens {@value #BATCH_FACES} Flächen getrennt nach Koordinaten in
+ * drei Arrays gesammelt und mit {@link Renderer#drawLines(double[], double[], double[], int, int[], int)} gemeinsam
+ * projiziert.
+ *
+ * @since 2.1
+ */
+public class PolygonMesh extends AbstractShape {
+    /**
+     * Die Anzahl der Werte, die eine Fläche im Buffer belegt.
+     */
+    public static final int FACE_STRIDE = 16;
+
+    /**
+     * Die Anzahl der Flächen, deren Eckpunkte beim Zeichnen höchstens gleichzeitig auf dem Heap liegen.
+     */
+    private static final int BATCH_FACES = 1024;
+
+    private final DoubleBuffer faces;
+    private final int faceCount;
+    private volatile boolean boundsComputed;
+
+    /**
+     * Erstellt ein neues Netz aus den Flächen in einem Buffer. Der Buffer wird nicht kopiert und darf danach nicht
+     * mehr verändert werden.
+     *
+     * @param faces     die Flächen ab der aktuellen Position des Buffers
+     * @param faceCount die Anzahl der Flächen
+     */
+    public PolygonMesh(DoubleBuffer faces, int faceCount) {
+        checkNotNull(faces);
+        checkArgument(faceCount >= 0, "Die Anzahl der Flächen darf nicht negativ sein!");
+        checkArgument(faces.remaining() >= faceCount * FACE_STRIDE, "Der Buffer enthält zu wenige Flächen!");
+        DoubleBuffer view = faces.slice();
+        view.limit(faceCount * FACE_STRIDE);
+        this.faces = view;
+        this.faceCount = faceCount;
+    }
+
+    /**
+     * Fasst mehrere Polygone zu einem Netz zusammen.
+     *
+     * @param polygons die Polygone
+     *
+     * @return das neue Netz
+     */
+    public static PolygonMesh fromPolygons(List<Polygon> polygons) {
+        double[] data = new double[polygons.size() * FACE_STRIDE];
+        int i = 0;
+        for (Polygon polygon : polygons) {
+            Vector3d[] v = polygon.getVertices();
+            Vector3d norm = polygon.getNorm();
+            data[i] = v.length;
+            data[i + 1] = norm.x;
+            data[i + 2] = norm.y;
+            data[i + 3] = norm.z;
+            for (int k = 0; k < v.length; k++) {
+                data[i + 4 + k * 3] = v[k].x;
+                data[i + 5 + k * 3] = v[k].y;
+                data[i + 6 + k * 3] = v[k].z;
+            }
+            i += FACE_STRIDE;
+        }
+        return new PolygonMesh(DoubleBuffer.wrap(data), polygons.size());
+    }
+
+    /**
+     * Gibt die Anzahl der Flächen zurück.
+     *
+     * @return die Anzahl der Flächen
+     */
+    public int getFaceCount() {
+        return faceCount;
+    }
+
+    /**
+     * Gibt die Anzahl der Dreiecke zurück, in die die Flächen zerlegt werden. Ein Viereck zählt als zwei Dreiecke.
+     *
+     * @return die Anzahl der Dreiecke
+     */
+    public int getTriangleCount() {
+        int count = 0;
+        for (int f = 0, i = 0; f < faceCount; f++, i += FACE_STRIDE) {
+            count += Math.max(0, (int) faces.get(i) - 2);
+        }
+        return count;
+    }
+
+    /**
+     * Gibt eine schreibgeschützte Sicht auf die Flächen zurück.
+     *
+     * @return die Flächen, {@link #FACE_STRIDE} Werte pro Fläche
+     */
+    public DoubleBuffer getFaces() {
+        return faces.asReadOnlyBuffer();
+    }
+
+    /**
+     * Berechnet den Quader um alle Eckpunkte des Netzes im lokalen Koordinatensystem.
+     *
+     * @return der Quader als {minX, minY, minZ, maxX, maxY, maxZ}, leer, wenn das Netz keine Flächen hat
+     */
+    public double[] getLocalBounds() {
+        double[] bounds = BoundingBox.empty();
+        DoubleBuffer d = faces.duplicate();
+        for (int f = 0, i = 0; f < faceCount; f++, i += FACE_STRIDE) {
+            int n = (int) d.get(i);
+            for (int k = 0; k < n; k++) {
+                int v = i + 4 + k * 3;
+                BoundingBox.include(bounds, d.get(v), d.get(v + 1), d.get(v + 2));
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Gibt die BoundingBox des Netzes zurück. Die lokale Box wird erst beim ersten Aufruf aus dem Buffer berechnet,
+     * damit das Laden einer Szene nicht die gesamte Geometrie lesen muss.
+     *
+     * @return die BoundingBox
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (!boundsComputed) {
+            synchronized (this) {
+                if (!boundsComputed) {
+                    boundingBox.updateBox(getLocalBounds());
+                    boundsComputed = true;
+                }
+            }
+        }
+        return boundingBox;
+    }
+
+    @Override
+    public void render(Renderer renderer) {
+        Vector3d direction = renderer.getCamera().getDirection();
+        renderer.setColor(getColor());
+        DoubleBuffer d = faces;
+        int batch = Math.min(faceCount, BATCH_FACES);
+        double[] xs = new double[batch * 4];
+        double[] ys = new double[batch * 4];
+        double[] zs = new double[batch * 4];
+        int[] lines = new int[batch * 8];
+        int vertexCount = 0;
+        int lineCount = 0;
+        for (int f = 0, i = 0; f < faceCount; f++, i += FACE_STRIDE) {
+            // Wie bei Polygon werden abgewandte Flächen nicht gezeichnet.
+            if (direction.x * d.get(i + 1) + direction.y * d.get(i + 2) + direction.z * d.get(i + 3) < 0) {
+                continue;
+            }
+            if (vertexCount == xs.length) {
+                renderer.drawLines(xs, ys, zs, vertexCount, lines, lineCount);
+                vertexCount = 0;
+                lineCount = 0;
+            }
+            int n = (int) d.get(i);
+            for (int k = 0; k < n; k++) {
+                int v = i + 4 + k * 3;
+                xs[vertexCount + k] = d.get(v);
+                ys[vertexCount + k] = d.get(v + 1);
+                zs[vertexCount + k] = d.get(v + 2);
+                lines[lineCount * 2] = vertexCount + k;
+                lines[lineCount * 2 + 1] = vertexCount + (k + 1) % n;
+                lineCount++;
+            }
+            vertexCount += 4;
+        }
+        if (lineCount > 0) {
+            renderer.drawLines(xs, ys, zs, vertexCount, lines, lineCount);
+        }
+    }
+
+    /**
+     * Schneidet einen Strahl mit allen Flächen des Netzes. Vierecke werden dafür in zwei Dreiecke zerlegt.
+     */
+    @Override
+    public boolean hit(Ray ray, ShadingInfo shadingInfo) {
+        DoubleBuffer d = faces;
+        double ox = ray.origin.x, oy = ray.origin.y, oz = ray.origin.z;
+        double dx = ray.direction.x, dy = ray.direction.y, dz = ray.direction.z;
+        double nearest = Double.POSITIVE_INFINITY;
+        int hitFace = -1;
+
+        for (int f = 0, i = 0; f < faceCount; f++, i += FACE_STRIDE) {
+            int n = (int) d.get(i);
+            for (int k = 2; k < n; k++) {
+                double t = intersect(d, i + 4, i + 1 + k * 3, i + 4 + k * 3, ox, oy, oz, dx, dy, dz);
+                if (t > MathConstants.EPSILON && t < nearest) {
+                    nearest = t;
+                    hitFace = f;
+                }
+            }
+        }
+
+        if (hitFace < 0) {
+            return false;
+        }
+        shadingInfo.ray = ray;
+        shadingInfo.label = getLabel();
+        shadingInfo.t = nearest;
+        int i = hitFace * FACE_STRIDE;
+        shadingInfo.normal = new Vector3d(d.get(i + 1), d.get(i + 2), d.get(i + 3)).normalize();
+        shadingInfo.hitPoint = ray.origin.add(ray.direction.times(nearest));
+        shadingInfo.color = material.getColor(shadingInfo);
+        return true;
+    }
+
+    /**
+     * Schnitt eines Strahls mit einem Dreieck nach Möller und Trumbore.
+     *
+     * @return der Strahlparameter des Schnittpunkts oder {@link Double#NaN}
+     */
+    private static double intersect(DoubleBuffer d, int a, int b, int c,
+                                    double ox, double oy, double oz, double dx, double dy, double dz) {
+        double ax = d.get(a), ay = d.get(a + 1), az = d.get(a + 2);
+        double e1x = d.get(b) - ax, e1y = d.get(b + 1) - ay, e1z = d.get(b + 2) - az;
+        double e2x = d.get(c) - ax, e2y = d.get(c + 1) - ay, e2z = d.get(c + 2) - az;
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (Math.abs(det) < MathConstants.EPSILON) {
+            return Double.NaN;
+        }
+        double inv = 1 / det;
+        double tx = ox - ax, ty = oy - ay, tz = oz - az;
+        double u = (tx * px + ty * py + tz * pz) * inv;
+        if (u < 0 || u > 1) {
+            return Double.NaN;
+        }
+        double qx = ty * e1z - tz * e1y, qy = tz * e1x - tx * e1z, qz = tx * e1y - ty * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v < 0 || u + v > 1) {
+            return Double.NaN;
+        }
+        return (e2x * qx + e2y * qy + e2z * qz) * inv;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass()).add("label", label).add("faces", faceCount).toString();
+    }
+}
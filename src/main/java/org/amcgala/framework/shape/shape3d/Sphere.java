@@ -20,38 +20,45 @@ public class Sphere extends AbstractShape {
     public Sphere(Vector3d center, double radius) {
         this.center = center;
         this.radius = radius;
+        updateLocalBounds();
+    }
+
+    private void updateLocalBounds() {
+        setLocalBounds(center.x - radius, center.y - radius, center.z - radius,
+                center.x + radius, center.y + radius, center.z + radius);
     }
 
     @Override
     public boolean hit(Ray ray, ShadingInfo shadingInfo) {
         shadingInfo.ray = ray;
         shadingInfo.label = getLabel();
-        Vector3d tmp = ray.origin.sub(center);
-        double a = ray.direction.dot(ray.direction);
-        double b = ray.direction.dot(tmp) * 2;
-        double c = tmp.dot(tmp) - radius * radius;
+        // Der Vektor vom Mittelpunkt zum Ursprung des Strahls wird komponentenweise berechnet, damit ein Test ohne
+        // Treffer keine Objekte erzeugt.
+        Vector3d d = ray.direction;
+        double ox = ray.origin.x - center.x;
+        double oy = ray.origin.y - center.y;
+        double oz = ray.origin.z - center.z;
+        double a = d.dot(d);
+        double b = (d.x * ox + d.y * oy + d.z * oz) * 2;
+        double c = ox * ox + oy * oy + oz * oz - radius * radius;
         double discriminant = b * b - 4.0 * a * c;
 
         if (discriminant >= 0) {
             double e = Math.sqrt(discriminant);
             double denominator = 2.0 * a;
             double t = (-b - e) / denominator;
+            if (t <= MathConstants.EPSILON) {
+                t = (-b + e) / denominator;
+            }
 
             if (t > MathConstants.EPSILON) {
+                double inverseRadius = 1 / radius;
                 shadingInfo.t = t;
-                shadingInfo.normal = tmp.add(ray.direction.times(t)).times(1 / radius);
-                shadingInfo.hitPoint = ray.origin.add(ray.direction.times(t));
+                shadingInfo.normal = new Vector3d((ox + d.x * t) * inverseRadius, (oy + d.y * t) * inverseRadius,
+                        (oz + d.z * t) * inverseRadius);
+                shadingInfo.hitPoint = ray.origin.travel(d, t);
                 shadingInfo.color = material.getColor(shadingInfo);
                 return true;
-            } else {
-                t = (-b + e) / denominator;
-                if (t > MathConstants.EPSILON) {
-                    shadingInfo.t = t;
-                    shadingInfo.normal = tmp.add(ray.direction.times(t)).times(1 / radius);
-                    shadingInfo.hitPoint = ray.origin.add(ray.direction.times(t));
-                    shadingInfo.color = material.getColor(shadingInfo);
-                    return true;
-                }
             }
         }
         return false;
@@ -63,6 +70,7 @@ public class Sphere extends AbstractShape {
 
     public void setCenter(Vector3d center) {
         this.center = center;
+        updateLocalBounds();
     }
 
     public double getRadius() {
@@ -71,5 +79,6 @@ public class Sphere extends AbstractShape {
 
     public void setRadius(double radius) {
         this.radius = radius;
+        updateLocalBounds();
     }
 }
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.shape.util;
+
+import org.amcgala.framework.shape.shape3d.PolygonMesh;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Vereinfacht ein {@link PolygonMesh} durch das Zusammenziehen von Kanten nach Garland und Heckbert.
+ * <p/>
+ * Für jeden Eckpunkt wird eine Fehlerquadrik aus den Ebenen der angrenzenden Dreiecke aufsummiert. Es wird jeweils
+ * die Kante zusammengezogen, deren neuer Punkt den kleinsten Abstand zu diesen Ebenen hat. Offene Ränder werden über
+ * zusätzliche, senkrecht stehende Ebenen stärker gewichtet, damit die Umrisse eines Modells erhalten bleiben.
+ * Zusammenziehungen, die ein angrenzendes Dreieck umklappen würden, werden verworfen.
+ * <p/>
+ * Vierecke werden vor der Vereinfachung in Dreiecke zerlegt. Das Ergebnis besteht nur aus Dreiecken, deren Normalen
+ * in dieselbe Richtung zeigen wie die der ursprünglichen Flächen.
+ *
+ * @since 2.1
+ */
+public final class MeshSimplifier {
+    private static final Logger log = LoggerFactory.getLogger(MeshSimplifier.class);
+    private static final double BOUNDARY_WEIGHT = 1000;
+    private static final double MIN_NORMAL_DOT = 0.2;
+
+    private static final int STRIDE = PolygonMesh.FACE_STRIDE;
+
+    private double[] positions;
+    private double[] quadrics;
+    private int[] stamps;
+    private boolean[] removedVertices;
+    private int[][] vertexFaces;
+    private int[] vertexFaceCounts;
+
+    private int[] triangles;
+    private double[] faceNormals;
+    private boolean[] removedFaces;
+    private int faceCount;
+
+    private MeshSimplifier() {
+    }
+
+    /**
+     * Vereinfacht ein Netz, bis es höchstens die angegebene Anzahl an Dreiecken enthält oder keine Kante mehr
+     * zusammengezogen werden kann.
+     *
+     * @param mesh        das Netz
+     * @param targetFaces die gewünschte Anzahl an Dreiecken
+     *
+     * @return ein neues Netz aus Dreiecken
+     */
+    public static PolygonMesh simplify(PolygonMesh mesh, int targetFaces) {
+        checkNotNull(mesh);
+        checkArgument(targetFaces > 0, "Die gewünschte Anzahl an Flächen muss größer 0 sein!");
+        MeshSimplifier simplifier = new MeshSimplifier();
+        simplifier.load(mesh);
+        int before = simplifier.faceCount;
+        simplifier.collapse(targetFaces);
+        PolygonMesh result = simplifier.toMesh();
+        log.info("Netz von {} auf {} Dreiecke vereinfacht", before, result.getFaceCount());
+        return result;
+    }
+
+    private void load(PolygonMesh mesh) {
+        DoubleBuffer faces = mesh.getFaces();
+        int count = mesh.getFaceCount();
+        double[] data = new double[count * STRIDE];
+        faces.get(data);
+
+        // Gleiche Eckpunkte der Flächen werden zu einem Eckpunkt zusammengefasst.
+        Map<VertexKey, Integer> indices = new HashMap<VertexKey, Integer>();
+        double[] pos = new double[count * 12];
+        int vertexCount = 0;
+        int[] tris = new int[count * 6];
+        double[] normals = new double[count * 6];
+        int triCount = 0;
+
+        int[] corner = new int[4];
+        for (int f = 0, i = 0; f < count; f++, i += STRIDE) {
+            int n = (int) data[i];
+            for (int k = 0; k < n; k++) {
+                int o = i + 4 + k * 3;
+                VertexKey key = new VertexKey(data[o], data[o + 1], data[o + 2]);
+                Integer index = indices.get(key);
+                if (index == null) {
+                    index = vertexCount++;
+                    indices.put(key, index);
+                    System.arraycopy(data, o, pos, index * 3, 3);
+                }
+                corner[k] = index;
+            }
+            for (int k = 2; k < n; k++) {
+                tris[triCount * 3] = corner[0];
+                tris[triCount * 3 + 1] = corner[k - 1];
+                tris[triCount * 3 + 2] = corner[k];
+                System.arraycopy(data, i + 1, normals, triCount * 3, 3);
+                triCount++;
+            }
+        }
+
+        positions = Arrays.copyOf(pos, vertexCount * 3);
+        triangles = Arrays.copyOf(tris, triCount * 3);
+        faceNormals = Arrays.copyOf(normals, triCount * 3);
+        removedFaces = new boolean[triCount];
+        faceCount = triCount;
+
+        quadrics = new double[vertexCount * 10];
+        stamps = new int[vertexCount];
+        removedVertices = new boolean[vertexCount];
+        vertexFaces = new int[vertexCount][];
+        vertexFaceCounts = new int[vertexCount];
+        for (int t = 0; t < triCount; t++) {
+            for (int k = 0; k < 3; k++) {
+                addFace(triangles[t * 3 + k], t);
+            }
+        }
+
+        double[] plane = new double[4];
+        Map<Long, Integer> edges = new HashMap<Long, Integer>();
+        for (int t = 0; t < triCount; t++) {
+            if (!plane(t, plane)) {
+                continue;
+            }
+            double area = plane[3];
+            plane[3] = -(plane[0] * positions[triangles[t * 3] * 3] + plane[1] * positions[triangles[t * 3] * 3 + 1]
+                    + plane[2] * positions[triangles[t * 3] * 3 + 2]);
+            for (int k = 0; k < 3; k++) {
+                addQuadric(triangles[t * 3 + k], plane, area);
+                Long edge = edgeKey(triangles[t * 3 + k], triangles[t * 3 + (k + 1) % 3]);
+                Integer seen = edges.get(edge);
+                edges.put(edge, seen == null ? 1 : seen + 1);
+            }
+        }
+
+        // Ränder werden durch Ebenen senkrecht zum angrenzenden Dreieck festgehalten.
+        for (int t = 0; t < triCount; t++) {
+            if (!plane(t, plane)) {
+                continue;
+            }
+            for (int k = 0; k < 3; k++) {
+                int a = triangles[t * 3 + k];
+                int b = triangles[t * 3 + (k + 1) % 3];
+                if (edges.get(edgeKey(a, b)) != 1) {
+                    continue;
+                }
+                double ex = positions[b * 3] - positions[a * 3];
+                double ey = positions[b * 3 + 1] - positions[a * 3 + 1];
+                double ez = positions[b * 3 + 2] - positions[a * 3 + 2];
+                double nx = ey * plane[2] - ez * plane[1];
+                double ny = ez * plane[0] - ex * plane[2];
+                double nz = ex * plane[1] - ey * plane[0];
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length == 0) {
+                    continue;
+                }
+                double[] border = {nx / length, ny / length, nz / length, 0};
+                border[3] = -(border[0] * positions[a * 3] + border[1] * positions[a * 3 + 1]
+                        + border[2] * positions[a * 3 + 2]);
+                addQuadric(a, border, BOUNDARY_WEIGHT);
+                addQuadric(b, border, BOUNDARY_WEIGHT);
+            }
+        }
+    }
+
+    private void collapse(int targetFaces) {
+        PriorityQueue<Collapse> queue = new PriorityQueue<Collapse>(Math.max(1, triangles.length));
+        for (int t = 0; t < removedFaces.length; t++) {
+            for (int k = 0; k < 3; k++) {
+                int a = triangles[t * 3 + k];
+                int b = triangles[t * 3 + (k + 1) % 3];
+                if (a < b) {
+                    queue.add(evaluate(a, b));
+                }
+            }
+        }
+
+        while (faceCount > targetFaces && !queue.isEmpty()) {
+            Collapse c = queue.poll();
+            if (removedVertices[c.keep] || removedVertices[c.remove]
+                    || stamps[c.keep] != c.keepStamp || stamps[c.remove] != c.removeStamp) {
+                continue;
+            }
+            if (flips(c.keep, c.remove, c) || flips(c.remove, c.keep, c)) {
+                continue;
+            }
+            apply(c);
+            for (int neighbour : neighbours(c.keep)) {
+                queue.add(evaluate(c.keep, neighbour));
+            }
+        }
+    }
+
+    private void apply(Collapse c) {
+        int keep = c.keep;
+        int remove = c.remove;
+        positions[keep * 3] = c.x;
+        positions[keep * 3 + 1] = c.y;
+        positions[keep * 3 + 2] = c.z;
+        for (int i = 0; i < 10; i++) {
+            quadrics[keep * 10 + i] += quadrics[remove * 10 + i];
+        }
+        removedVertices[remove] = true;
+        stamps[keep]++;
+
+        for (int i = 0; i < vertexFaceCounts[remove]; i++) {
+            int t = vertexFaces[remove][i];
+            if (removedFaces[t]) {
+                continue;
+            }
+            boolean shared = false;
+            for (int k = 0; k < 3; k++) {
+                if (triangles[t * 3 + k] == keep) {
+                    shared = true;
+                }
+            }
+            if (shared) {
+                removedFaces[t] = true;
+                faceCount--;
+            } else {
+                for (int k = 0; k < 3; k++) {
+                    if (triangles[t * 3 + k] == remove) {
+                        triangles[t * 3 + k] = keep;
+                    }
+                }
+                addFace(keep, t);
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob eines der Dreiecke an {@code moved}, die nicht an {@code other} grenzen, durch die Verschiebung
+     * umklappen würde.
+     */
+    private boolean flips(int moved, int other, Collapse c) {
+        double[] before = new double[4];
+        for (int i = 0; i < vertexFaceCounts[moved]; i++) {
+            int t = vertexFaces[moved][i];
+            if (removedFaces[t]) {
+                continue;
+            }
+            int a = triangles[t * 3], b = triangles[t * 3 + 1], d = triangles[t * 3 + 2];
+            if (a == other || b == other || d == other || !plane(t, before)) {
+                continue;
+            }
+
+            double[] p = new double[9];
+            for (int k = 0; k < 3; k++) {
+                int v = triangles[t * 3 + k];
+                if (v == moved) {
+                    p[k * 3] = c.x;
+                    p[k * 3 + 1] = c.y;
+                    p[k * 3 + 2] = c.z;
+                } else {
+                    System.arraycopy(positions, v * 3, p, k * 3, 3);
+                }
+            }
+            double e1x = p[3] - p[0], e1y = p[4] - p[1], e1z = p[5] - p[2];
+            double e2x = p[6] - p[0], e2y = p[7] - p[1], e2z = p[8] - p[2];
+            double nx = e1y * e2z - e1z * e2y;
+            double ny = e1z * e2x - e1x * e2z;
+            double nz = e1x * e2y - e1y * e2x;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0 || (nx * before[0] + ny * before[1] + nz * before[2]) / length < MIN_NORMAL_DOT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] neighbours(int v) {
+        int[] result = new int[vertexFaceCounts[v] * 2];
+        int count = 0;
+        for (int i = 0; i < vertexFaceCounts[v]; i++) {
+            int t = vertexFaces[v][i];
+            if (removedFaces[t]) {
+                continue;
+            }
+            for (int k = 0; k < 3; k++) {
+                int n = triangles[t * 3 + k];
+                if (n == v) {
+                    continue;
+                }
+                boolean known = false;
+                for (int j = 0; j < count && !known; j++) {
+                    known = result[j] == n;
+                }
+                if (!known) {
+                    result[count++] = n;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private Collapse evaluate(int a, int b) {
+        double[] q = new double[10];
+        for (int i = 0; i < 10; i++) {
+            q[i] = quadrics[a * 10 + i] + quadrics[b * 10 + i];
+        }
+
+        Collapse c = new Collapse();
+        c.keep = a;
+        c.remove = b;
+        c.keepStamp = stamps[a];
+        c.removeStamp = stamps[b];
+
+        // Optimaler Punkt: Lösung von A * p = -b für den oberen 3x3 Teil der Quadrik.
+        double a00 = q[0], a01 = q[1], a02 = q[2], a11 = q[4], a12 = q[5], a22 = q[7];
+        double b0 = -q[3], b1 = -q[6], b2 = -q[8];
+        double c00 = a11 * a22 - a12 * a12;
+        double c01 = a02 * a12 - a01 * a22;
+        double c02 = a01 * a12 - a02 * a11;
+        double det = a00 * c00 + a01 * c01 + a02 * c02;
+        if (Math.abs(det) > 1e-12) {
+            double c11 = a00 * a22 - a02 * a02;
+            double c12 = a01 * a02 - a00 * a12;
+            double c22 = a00 * a11 - a01 * a01;
+            c.x = (c00 * b0 + c01 * b1 + c02 * b2) / det;
+            c.y = (c01 * b0 + c11 * b1 + c12 * b2) / det;
+            c.z = (c02 * b0 + c12 * b1 + c22 * b2) / det;
+            c.cost = error(q, c.x, c.y, c.z);
+            return c;
+        }
+
+        // Nicht eindeutig lösbar: der beste der beiden Endpunkte oder ihr Mittelpunkt.
+        c.cost = Double.POSITIVE_INFINITY;
+        for (int candidate = 0; candidate < 3; candidate++) {
+            double x, y, z;
+            if (candidate < 2) {
+                int v = candidate == 0 ? a : b;
+                x = positions[v * 3];
+                y = positions[v * 3 + 1];
+                z = positions[v * 3 + 2];
+            } else {
+                x = (positions[a * 3] + positions[b * 3]) / 2;
+                y = (positions[a * 3 + 1] + positions[b * 3 + 1]) / 2;
+                z = (positions[a * 3 + 2] + positions[b * 3 + 2]) / 2;
+            }
+            double e = error(q, x, y, z);
+            if (e < c.cost) {
+                c.cost = e;
+                c.x = x;
+                c.y = y;
+                c.z = z;
+            }
+        }
+        return c;
+    }
+
+    private static double error(double[] q, double x, double y, double z) {
+        return q[0] * x * x + 2 * q[1] * x * y + 2 * q[2] * x * z + 2 * q[3] * x
+                + q[4] * y * y + 2 * q[5] * y * z + 2 * q[6] * y
+                + q[7] * z * z + 2 * q[8] * z + q[9];
+    }
+
+    /**
+     * Berechnet die normierte Ebenennormale eines Dreiecks und die Fläche des Dreiecks als vierten Wert.
+     *
+     * @return {@code false}, wenn das Dreieck entartet ist
+     */
+    private boolean plane(int t, double[] plane) {
+        int a = triangles[t * 3] * 3, b = triangles[t * 3 + 1] * 3, c = triangles[t * 3 + 2] * 3;
+        double e1x = positions[b] - positions[a], e1y = positions[b + 1] - positions[a + 1];
+        double e1z = positions[b + 2] - positions[a + 2];
+        double e2x = positions[c] - positions[a], e2y = positions[c + 1] - positions[a + 1];
+        double e2z = positions[c + 2] - positions[a + 2];
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length == 0) {
+            return false;
+        }
+        plane[0] = nx / length;
+        plane[1] = ny / length;
+        plane[2] = nz / length;
+        plane[3] = length / 2;
+        return true;
+    }
+
+    private void addQuadric(int v, double[] p, double weight) {
+        int o = v * 10;
+        quadrics[o] += weight * p[0] * p[0];
+        quadrics[o + 1] += weight * p[0] * p[1];
+        quadrics[o + 2] += weight * p[0] * p[2];
+        quadrics[o + 3] += weight * p[0] * p[3];
+        quadrics[o + 4] += weight * p[1] * p[1];
+        quadrics[o + 5] += weight * p[1] * p[2];
+        quadrics[o + 6] += weight * p[1] * p[3];
+        quadrics[o + 7] += weight * p[2] * p[2];
+        quadrics[o + 8] += weight * p[2] * p[3];
+        quadrics[o + 9] += weight * p[3] * p[3];
+    }
+
+    private void addFace(int v, int t) {
+        int[] list = vertexFaces[v];
+        if (list == null) {
+            list = new int[6];
+        } else if (vertexFaceCounts[v] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[vertexFaceCounts[v]++] = t;
+        vertexFaces[v] = list;
+    }
+
+    private static Long edgeKey(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    private PolygonMesh toMesh() {
+        double[] data = new double[faceCount * STRIDE];
+        int f = 0;
+        for (int t = 0; t < removedFaces.length; t++) {
+            if (removedFaces[t]) {
+                continue;
+            }
+            int i = f * STRIDE;
+            data[i] = 3;
+            double[] plane = new double[4];
+            if (plane(t, plane)) {
+                // Die Normale zeigt wie die der ursprünglichen Fläche, auch wenn deren Eckpunkte anders sortiert waren.
+                double sign = plane[0] * faceNormals[t * 3] + plane[1] * faceNormals[t * 3 + 1]
+                        + plane[2] * faceNormals[t * 3 + 2] < 0 ? -1 : 1;
+                data[i + 1] = sign * plane[0];
+                data[i + 2] = sign * plane[1];
+                data[i + 3] = sign * plane[2];
+            } else {
+                System.arraycopy(faceNormals, t * 3, data, i + 1, 3);
+            }
+            for (int k = 0; k < 3; k++) {
+                System.arraycopy(positions, triangles[t * 3 + k] * 3, data, i + 4 + k * 3, 3);
+            }
+            f++;
+        }
+        return new PolygonMesh(DoubleBuffer.wrap(data), faceCount);
+    }
+
+    /**
+     * Eine mögliche Zusammenziehung der Kante zwischen zwei Eckpunkten. Sie ist nur gültig, solange sich keiner der
+     * beiden Eckpunkte seit ihrer Berechnung verändert hat.
+     */
+    private static final class Collapse implements Comparable<Collapse> {
+        private int keep;
+        private int remove;
+        private int keepStamp;
+        private int removeStamp;
+        private double x;
+        private double y;
+        private double z;
+        private double cost;
+
+        @Override
+        public int compareTo(Collapse o) {
+            return Double.compare(cost, o.cost);
+        }
+    }
+
+    private static final class VertexKey {
+        private final double x;
+        private final double y;
+        private final double z;
+
+        private VertexKey(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof VertexKey)) {
+                return false;
+            }
+            VertexKey that = (VertexKey) o;
+            return Double.compare(x, that.x) == 0 && Double.compare(y, that.y) == 0 && Double.compare(z, that.z) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(x) * 31 + Double.doubleToLongBits(y) * 17 + Double.doubleToLongBits(z);
+            return (int) (bits ^ (bits >>> 32));
+        }
+    }
+}
@@ -34,8 +34,14 @@ public class Particle extends AbstractShape implements Updatable {
         this.direction = direction.normalize();
 
         this.point2d = new Point2d(x, y);
-        Vector3d v = this.direction.copy();
-        v.times(particleSpeed);
+    }
+
+    /**
+     * Ein Partikel verändert sich bei jeder Aktualisierung.
+     */
+    @Override
+    public boolean isAnimated() {
+        return true;
     }
 
     @Override
@@ -1,6 +1,8 @@
 package org.amcgala.framework.shape.util;
 
+import org.amcgala.framework.animation.Clock;
 import org.amcgala.framework.animation.Updatable;
+import org.amcgala.framework.math.RandomSource;
 import org.amcgala.framework.math.Vector3d;
 import org.amcgala.framework.renderer.Renderer;
 import org.amcgala.framework.scenegraph.transform.RotationZ;
@@ -27,13 +29,22 @@ public class ParticleEmitter extends AbstractShape implements Updatable {
     private final List<Particle> particles = new CopyOnWriteArrayList<Particle>();
     private final List<ParticleManipulation> particleManipulations = new CopyOnWriteArrayList<ParticleManipulation>();
     private RotationZ rectrotation = new RotationZ(Math.PI / 2);
+    private final Vector3d emitPosition = new Vector3d(0, 0, 0);
     private boolean visible;
     // Emitting Settings
     private int timeIntervalMs = 100;
     private double particleSpeed = 1.0;
     // Temp Settings
     private long timeStamp;
-    private Random r = new Random();
+    private Random r = RandomSource.newRandom();
+
+    /**
+     * Ein Partikelemitter verändert sich bei jeder Aktualisierung.
+     */
+    @Override
+    public boolean isAnimated() {
+        return true;
+    }
 
     @Override
     public void update() {
@@ -46,15 +57,14 @@ public class ParticleEmitter extends AbstractShape implements Updatable {
             if (getTimeStampDifference() > timeIntervalMs) {
                 setTimeStamp();
                 // rotate direction
-                Vector3d rot = rectrotation.getTransformMatrix().times(direction.copy().toMatrix()).toVector3d();
+                Vector3d rot = direction.transformInto(rectrotation.getTransformMatrix(), emitPosition);
                 // scale
-                rot.times(r.nextDouble() * width);
+                rot.timesLocal(r.nextDouble() * width);
                 // translate
                 rot.x += x;
                 rot.y += y;
                 // addNode
-                particles.add(new Particle(particleSpeed, direction.copy(),
-                        rot.x, rot.y));
+                particles.add(new Particle(particleSpeed, direction, rot.x, rot.y));
             }
         }
         // Partikel updaten und gegebenenfalls manipulieren
@@ -73,11 +83,11 @@ public class ParticleEmitter extends AbstractShape implements Updatable {
     }
 
     public void setTimeStamp() {
-        timeStamp = System.nanoTime() / 1000000;
+        timeStamp = Clock.millis();
     }
 
     public long getTimeStampDifference() {
-        return (System.nanoTime() / 1000000) - timeStamp;
+        return Clock.millis() - timeStamp;
     }
 
     /**
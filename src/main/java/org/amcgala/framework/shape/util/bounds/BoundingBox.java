@@ -6,12 +6,16 @@ import org.amcgala.framework.math.Vector3d;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Eine BoundingBox umschließt das Volumen eines {@link org.amcgala.framework.shape.Shape} Objekts.
  * Die Bounding Box umschließt das Volumen der Punkte und kann für Kollisionsbestimmungen etc. eingesetzt werden.
+ * <p/>
+ * Die Box wird aus den Punkten des Objekts im lokalen Koordinatensystem berechnet. {@link #updateBox(Matrix)} bildet
+ * diese lokale Box mit der Transformation des Knotens in Weltkoordinaten ab, wobei alle acht Ecken der Box
+ * berücksichtigt werden. Mittelpunkt und Ausmaße beziehen sich immer auf die zuletzt berechnete Box in
+ * Weltkoordinaten.
  *
  * @author Robert Giacinto
  */
@@ -21,8 +25,9 @@ public class BoundingBox {
     private double width;
     private double height;
     private double depth;
-    private List<Vector3d> vectors;
-    private boolean debug;
+    private double[] local;
+    private double[] world;
+    private Matrix transform;
 
     /**
      * Erzeugt eine Bounding Box um ein Objekt, das durch eine Anzahl von Punkten definiert ist.
@@ -38,58 +43,86 @@ public class BoundingBox {
         center = Vector3d.ZERO;
     }
 
+    /**
+     * Berechnet die lokale Box aus den Punkten des Objekts. Wurde bereits eine Transformation gesetzt, wird die Box
+     * in Weltkoordinaten mit dieser Transformation neu berechnet.
+     *
+     * @param vectors die Punkte des Objekts im lokalen Koordinatensystem
+     */
     public void updateBox(List<Vector3d> vectors) {
-        this.vectors = vectors;
-        double xMin = Double.MAX_VALUE;
-        double yMin = Double.MAX_VALUE;
-        double zMin = Double.MAX_VALUE;
-
-        double xMax = Double.MIN_VALUE;
-        double yMax = Double.MIN_VALUE;
-        double zMax = Double.MIN_VALUE;
-
+        double[] bounds = empty();
         for (Vector3d v : vectors) {
-            if (v.x < xMin) {
-                xMin = v.x;
-            }
-            if (v.y < yMin) {
-                yMin = v.y;
-            }
-            if (v.z < zMin) {
-                zMin = v.z;
-            }
-            if (v.x > xMax) {
-                xMax = v.x;
-            }
-            if (v.y > yMax) {
-                yMax = v.y;
-            }
-            if (v.z > zMax) {
-                zMax = v.z;
-            }
+            include(bounds, v.x, v.y, v.z);
         }
+        setLocal(bounds);
+    }
 
-        center = new Vector3d(xMin + xMax, yMin + yMax, zMin + zMax);
-        center = center.times(0.5);
+    /**
+     * Setzt die lokale Box direkt.
+     *
+     * @param bounds die Box als {minX, minY, minZ, maxX, maxY, maxZ}
+     *
+     * @since 2.1
+     */
+    public void updateBox(double[] bounds) {
+        setLocal(bounds.clone());
+    }
 
-        width = xMax - center.x;
-        height = yMax - center.y;
-        depth = zMax - center.z;
+    /**
+     * Bildet die lokale Box mit einer Transformation in Weltkoordinaten ab. Die Transformation ersetzt eine zuvor
+     * gesetzte Transformation und wird nicht mit ihr verknüpft.
+     *
+     * @param transform die Transformation des Knotens, an dem das Objekt hängt
+     */
+    public void updateBox(Matrix transform) {
+        this.transform = transform;
+        if (local != null) {
+            setWorld(transform(local, transform));
+        }
+    }
 
-        width *= 2;
-        height *= 2;
-        depth *= 2;
+    private void setLocal(double[] bounds) {
+        local = bounds;
+        if (isEmpty(bounds)) {
+            world = bounds;
+            center = Vector3d.ZERO;
+            width = 0;
+            height = 0;
+            depth = 0;
+        } else {
+            setWorld(transform == null ? bounds : transform(bounds, transform));
+        }
     }
 
-    public void updateBox(Matrix transform) {
-        double scaleX = transform.get(0, 0);
-        double scaleY = transform.get(1, 1);
-        double scaleZ = transform.get(2, 2);
+    private void setWorld(double[] bounds) {
+        world = bounds;
+        center = new Vector3d((bounds[0] + bounds[3]) / 2, (bounds[1] + bounds[4]) / 2, (bounds[2] + bounds[5]) / 2);
+        width = bounds[3] - bounds[0];
+        height = bounds[4] - bounds[1];
+        depth = bounds[5] - bounds[2];
+    }
 
-        center = center.transform(transform);
-        width *= scaleX;
-        height *= scaleY;
-        depth *= scaleZ;
+    /**
+     * Prüft, ob die BoundingBox jemals aus Punkten berechnet wurde. Eine leere BoundingBox sagt nichts über die Lage
+     * des Objekts aus.
+     *
+     * @return {@code true}, wenn keine Punkte bekannt sind
+     *
+     * @since 2.1
+     */
+    public boolean isEmpty() {
+        return local == null || isEmpty(local);
+    }
+
+    /**
+     * Gibt die Box in Weltkoordinaten zurück.
+     *
+     * @return eine Kopie der Box als {minX, minY, minZ, maxX, maxY, maxZ} oder {@code null}, wenn die Box leer ist
+     *
+     * @since 2.1
+     */
+    public double[] getBounds() {
+        return isEmpty() ? null : world.clone();
     }
 
     public Vector3d getCenter() {
@@ -108,6 +141,109 @@ public class BoundingBox {
         return depth;
     }
 
+    /**
+     * Erzeugt eine leere Box, die durch {@link #include(double[], double, double, double)} erweitert werden kann.
+     *
+     * @return die leere Box
+     *
+     * @since 2.1
+     */
+    public static double[] empty() {
+        return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Prüft, ob eine Box keinen Punkt enthält.
+     *
+     * @param bounds die Box
+     *
+     * @return {@code true}, wenn die Box leer ist
+     *
+     * @since 2.1
+     */
+    public static boolean isEmpty(double[] bounds) {
+        return bounds[0] > bounds[3] || bounds[1] > bounds[4] || bounds[2] > bounds[5];
+    }
+
+    /**
+     * Erweitert eine Box um einen Punkt.
+     *
+     * @param bounds die Box, die verändert wird
+     * @param x      die x-Koordinate des Punkts
+     * @param y      die y-Koordinate des Punkts
+     * @param z      die z-Koordinate des Punkts
+     *
+     * @since 2.1
+     */
+    public static void include(double[] bounds, double x, double y, double z) {
+        bounds[0] = Math.min(bounds[0], x);
+        bounds[1] = Math.min(bounds[1], y);
+        bounds[2] = Math.min(bounds[2], z);
+        bounds[3] = Math.max(bounds[3], x);
+        bounds[4] = Math.max(bounds[4], y);
+        bounds[5] = Math.max(bounds[5], z);
+    }
+
+    /**
+     * Erweitert eine Box um eine andere Box.
+     *
+     * @param bounds die Box, die verändert wird
+     * @param other  die Box, die eingeschlossen werden soll
+     *
+     * @since 2.1
+     */
+    public static void union(double[] bounds, double[] other) {
+        for (int i = 0; i < 3; i++) {
+            bounds[i] = Math.min(bounds[i], other[i]);
+            bounds[i + 3] = Math.max(bounds[i + 3], other[i + 3]);
+        }
+    }
+
+    /**
+     * Prüft, ob sich zwei Boxen überschneiden. Berührende Boxen gelten als überschneidend.
+     *
+     * @param a die erste Box
+     * @param b die zweite Box
+     *
+     * @return {@code true}, wenn sich die Boxen überschneiden
+     *
+     * @since 2.1
+     */
+    public static boolean intersects(double[] a, double[] b) {
+        return a[0] <= b[3] && a[3] >= b[0] && a[1] <= b[4] && a[4] >= b[1] && a[2] <= b[5] && a[5] >= b[2];
+    }
+
+    /**
+     * Bildet eine Box mit einer affinen Transformation ab. Das Ergebnis ist die kleinste achsenparallele Box um die
+     * acht transformierten Ecken. Sie wird ohne die Ecken einzeln zu transformieren über den Mittelpunkt und die
+     * Beträge der Matrixeinträge berechnet.
+     *
+     * @param bounds    die Box
+     * @param transform die 4x4 Transformationsmatrix
+     *
+     * @return die abgebildete Box
+     *
+     * @since 2.1
+     */
+    public static double[] transform(double[] bounds, Matrix transform) {
+        double[][] m = transform.getArray();
+        double[] result = new double[6];
+        for (int i = 0; i < 3; i++) {
+            double c = m[i][3];
+            double e = 0;
+            for (int j = 0; j < 3; j++) {
+                double mid = (bounds[j] + bounds[j + 3]) / 2;
+                double half = (bounds[j + 3] - bounds[j]) / 2;
+                c += m[i][j] * mid;
+                e += Math.abs(m[i][j]) * half;
+            }
+            result[i] = c - e;
+            result[i + 3] = c + e;
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return Objects.toStringHelper(BoundingBox.class)
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.statistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sammelt die Laufzeiten der einzelnen {@link Phase}n aller Frames in je einem {@link LatencyHistogram}. Über
+ * {@link #register()} werden die Werte als MXBean unter {@value #OBJECT_NAME} veröffentlicht und können z.B. mit
+ * JConsole oder VisualVM beobachtet werden.
+ *
+ * @since 2.1
+ */
+public class FrameStatistics implements FrameStatisticsMXBean {
+    /**
+     * Der Name, unter dem die Statistik beim MBeanServer registriert wird.
+     */
+    public static final String OBJECT_NAME = "org.amcgala:type=FrameStatistics";
+
+    private static final Logger log = LoggerFactory.getLogger(FrameStatistics.class);
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<Phase, LatencyHistogram>(Phase.class);
+    private volatile boolean enabled = true;
+
+    public FrameStatistics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Zeichnet die Laufzeit einer Phase auf.
+     *
+     * @param phase die Phase
+     * @param nanos die Laufzeit in Nanosekunden
+     */
+    public void record(Phase phase, long nanos) {
+        histograms.get(phase).record(nanos);
+    }
+
+    /**
+     * Gibt das Histogramm einer Phase zurück.
+     *
+     * @param phase die Phase
+     *
+     * @return das Histogramm der Phase
+     */
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms.get(checkNotNull(phase));
+    }
+
+    /**
+     * Gibt zurück, ob Laufzeiten gemessen werden sollen.
+     *
+     * @return {@code true}, wenn die Messung aktiv ist
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schaltet die Messung ein oder aus. Ist sie ausgeschaltet, werden auch keine Zeitstempel genommen.
+     *
+     * @param enabled {@code true}, wenn Laufzeiten gemessen werden sollen
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registriert die Statistik beim MBeanServer der Plattform. Eine bereits registrierte Statistik wird ersetzt.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            log.warn("Konnte Statistik nicht über JMX veröffentlichen", e);
+        }
+    }
+
+    /**
+     * Entfernt die Statistik wieder vom MBeanServer der Plattform.
+     */
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            log.warn("Konnte Statistik nicht vom MBeanServer entfernen", e);
+        }
+    }
+
+    @Override
+    public PhaseStatistics getUpdateVisitor() {
+        return PhaseStatistics.of(histograms.get(Phase.UPDATE_VISITOR));
+    }
+
+    @Override
+    public PhaseStatistics getRenderVisitor() {
+        return PhaseStatistics.of(histograms.get(Phase.RENDER_VISITOR));
+    }
+
+    @Override
+    public PhaseStatistics getOtherVisitors() {
+        return PhaseStatistics.of(histograms.get(Phase.OTHER_VISITORS));
+    }
+
+    @Override
+    public PhaseStatistics getRaytrace() {
+        return PhaseStatistics.of(histograms.get(Phase.RAYTRACE));
+    }
+
+    @Override
+    public PhaseStatistics getShow() {
+        return PhaseStatistics.of(histograms.get(Phase.SHOW));
+    }
+
+    @Override
+    public PhaseStatistics getFrame() {
+        return PhaseStatistics.of(histograms.get(Phase.FRAME));
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+}
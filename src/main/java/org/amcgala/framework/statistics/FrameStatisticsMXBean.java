@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.statistics;
+
+/**
+ * Die JMX-Schnittstelle der {@link FrameStatistics}.
+ *
+ * @since 2.1
+ */
+public interface FrameStatisticsMXBean {
+
+    PhaseStatistics getUpdateVisitor();
+
+    PhaseStatistics getRenderVisitor();
+
+    PhaseStatistics getOtherVisitors();
+
+    PhaseStatistics getRaytrace();
+
+    PhaseStatistics getShow();
+
+    PhaseStatistics getFrame();
+
+    /**
+     * Setzt alle Histogramme zurück.
+     */
+    void reset();
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.statistics;
+
+import com.google.common.base.Objects;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Ein Histogramm für Laufzeiten in Nanosekunden mit festem Speicherbedarf.
+ * <p/>
+ * Die Werte werden in logarithmisch wachsende Bereiche einsortiert, die jeweils in 16 gleich große Unterbereiche
+ * aufgeteilt sind. Der relative Fehler eines Perzentils beträgt daher höchstens 1/16, unabhängig davon, ob die
+ * gemessenen Zeiten im Mikro- oder im Sekundenbereich liegen. Das Aufzeichnen erzeugt keine Objekte und darf aus
+ * beliebigen Threads erfolgen.
+ *
+ * @since 2.1
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Zeichnet eine gemessene Laufzeit auf. Negative Werte werden als 0 gezählt.
+     *
+     * @param nanos die Laufzeit in Nanosekunden
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der aufgezeichneten Werte zurück.
+     *
+     * @return die Anzahl der Werte
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gibt den größten aufgezeichneten Wert zurück.
+     *
+     * @return das Maximum in Nanosekunden
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gibt den Mittelwert aller aufgezeichneten Werte zurück.
+     *
+     * @return der Mittelwert in Nanosekunden oder 0, wenn keine Werte vorhanden sind
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Gibt einen Wert zurück, den der angegebene Anteil aller Werte nicht überschreitet. Zurückgegeben wird die
+     * Obergrenze des Bereichs, in den das Perzentil fällt, höchstens aber das Maximum.
+     *
+     * @param percentile das Perzentil zwischen 0 und 100
+     *
+     * @return der Wert des Perzentils in Nanosekunden oder 0, wenn keine Werte vorhanden sind
+     */
+    public long getPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Das Perzentil muss zwischen 0 und 100 liegen!");
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Setzt das Histogramm zurück. Werte, die gleichzeitig aufgezeichnet werden, können dabei verloren gehen.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("count", getCount())
+                .add("p50", getPercentile(50))
+                .add("p99", getPercentile(99))
+                .add("max", getMax())
+                .toString();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011-2012 Cologne University of Applied Sciences Licensed under the
+ * Educational Community License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.osedu.org/licenses/ECL-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.amcgala.framework.statistics;
+
+/**
+ * Die Phasen eines Frames, deren Laufzeit gemessen wird.
+ *
+ * @since 2.1
+ */
+public enum Phase {
+    /**
+     * Traversierung des Szenengraphs durch den {@link org.amcgala.framework.scenegraph.visitor.UpdateVisitor}.
+     */
+    UPDATE_VISITOR,
+    /**
+     * Traversierung des Szenengraphs durch den {@link org.amcgala.framework.scenegraph.visitor.RenderVisitor}.
+     */
+    RENDER_VISITOR,
+    /**
+     * Traversierung des Szenengraphs durch alle übrigen Visitor.
+     */
+    OTHER_VISITORS,
+    /**
+     * Berechnung des Bildes durch den {@link org.amcgala.framework.raytracer.Raytracer}.
+     */
+    RAYTRACE,
+    /**
+     * Ausgabe des Frames über {@link org.amcgala.framework.renderer.Renderer#show()}.
+     */
+    SHOW,
+    /**
+     * Gesamtdauer von Aktualisierung und Ausgabe eines Frames.
+     */
+    FRAME
+}
@@ -0,0 +1,95 @@
+package org.amcgala;
+
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die gesammelten Änderungen einer {@link Scene}.
+ */
+public class SceneTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SceneTest.class);
+    private Scene scene;
+
+    @Before
+    public void setup() {
+        scene = new Scene("test");
+        scene.setDeferChanges(true);
+    }
+
+    @Test
+    public void eagerValidation() {
+        log.info("Unbekannte Labels werden auch bei gesammelten Änderungen sofort abgelehnt");
+        try {
+            scene.addShape(new Sphere(new Vector3d(0, 0, 0), 1), "missing");
+            fail("Unbekannter Knoten wurde akzeptiert");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            scene.removeShape("x");
+            fail("Unbekanntes Shape wurde akzeptiert");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            scene.addNode(new Node("child"), "missing");
+            fail("Unbekannter Elternknoten wurde akzeptiert");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, scene.applyChanges());
+    }
+
+    @Test
+    public void pendingLabels() {
+        log.info("Knoten und Shapes aus noch nicht ausgeführten Änderungen gelten als vorhanden");
+        scene.addNode(new Node("parent"));
+        scene.addNode(new Node("child"), "parent");
+        Sphere sphere = new Sphere(new Vector3d(0, 0, 0), 1);
+        sphere.setLabel("sphere");
+        scene.addShape(sphere, "child");
+        scene.removeShape("sphere");
+
+        // Lesende Zugriffe sehen die Änderungen erst nach der Ausführung.
+        assertNull(scene.getSceneGraph().getNode("parent"));
+        assertEquals(4, scene.applyChanges());
+        assertNotNull(scene.getSceneGraph().getNode("child"));
+        assertNull(scene.getSceneGraph().getShape("sphere"));
+
+        // Nach der Ausführung zählen nur noch die Knoten und Shapes des Szenengraphs.
+        try {
+            scene.removeShape("sphere");
+            fail("Bereits entferntes Shape wurde akzeptiert");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void failingChange() {
+        log.info("Eine fehlerhafte Änderung verhindert die folgenden Änderungen nicht");
+        final boolean[] applied = {false};
+        scene.change(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("Testfehler");
+            }
+        });
+        scene.addNode(new Node("after"));
+        scene.change(new Runnable() {
+            @Override
+            public void run() {
+                applied[0] = true;
+            }
+        });
+
+        assertEquals(2, scene.applyChanges());
+        assertTrue(applied[0]);
+        assertNotNull(scene.getSceneGraph().getNode("after"));
+        assertEquals(0, scene.applyChanges());
+    }
+}
@@ -1,12 +1,53 @@
 package org.amcgala.framework;
 
+import com.google.common.collect.ImmutableList;
+import org.amcgala.Scene;
+import org.amcgala.framework.animation.interpolation.LinearInterpolation;
+import org.amcgala.framework.appearance.Appearance;
+import org.amcgala.framework.camera.Camera;
+import org.amcgala.framework.camera.SimplePerspectiveCamera;
+import org.amcgala.framework.lighting.AmbientLight;
+import org.amcgala.framework.lighting.Light;
+import org.amcgala.framework.lighting.PointLight;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.Ray;
+import org.amcgala.framework.raytracer.ShadingInfo;
+import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.PixelImage;
+import org.amcgala.framework.renderer.RenderLayer;
+import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.scenegraph.ActiveSet;
 import org.amcgala.framework.scenegraph.DefaultSceneGraph;
+import org.amcgala.framework.scenegraph.Node;
 import org.amcgala.framework.scenegraph.SceneGraph;
+import org.amcgala.framework.scenegraph.TransformHierarchy;
+import org.amcgala.framework.scenegraph.io.SceneReader;
+import org.amcgala.framework.scenegraph.io.SceneWriter;
+import org.amcgala.framework.scenegraph.transform.Transformation;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.amcgala.framework.scenegraph.visitor.ParallelVisitor;
+import org.amcgala.framework.scenegraph.visitor.RenderVisitor;
+import org.amcgala.framework.scenegraph.visitor.Visitor;
+import org.amcgala.framework.shape.Circle;
+import org.amcgala.framework.shape.Line;
+import org.amcgala.framework.shape.Polygon;
+import org.amcgala.framework.shape.Shape;
+import org.amcgala.framework.shape.shape3d.PolygonMesh;
+import org.amcgala.framework.shape.shape3d.Sphere;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.swing.JFrame;
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -32,4 +73,640 @@ public class SceneGraphTest {
         assertEquals(nodeCount, 1);
 
     }
+
+    @Test
+    public void parallelTraversal() {
+        log.info("Eine parallele Traversierung besucht alle Knoten in derselben Reihenfolge wie eine sequentielle");
+        for (int i = 0; i < 10; i++) {
+            Node child = new Node("child" + i);
+            sceneGraph.addNode(child);
+            for (int j = 0; j < 20; j++) {
+                sceneGraph.addNode(new Node("child" + i + "-" + j), child);
+            }
+        }
+
+        RecordingVisitor sequential = new RecordingVisitor();
+        sceneGraph.accept(sequential);
+        RecordingVisitor parallel = new RecordingVisitor();
+        sceneGraph.accept(parallel, 5);
+
+        assertEquals(sceneGraph.getNodeCount(), sequential.nodes.size());
+        assertEquals(sequential.nodes, parallel.nodes);
+
+        // Auch die parallele Traversierung sieht Änderungen der Struktur erst bei der nächsten Traversierung.
+        final int count = sceneGraph.getNodeCount();
+        final Node target = sceneGraph.getNode("child3");
+        class MutatingVisitor extends RecordingVisitor {
+            @Override
+            public void visit(Node node) {
+                super.visit(node);
+                if (node.getLabel().equals("root")) {
+                    sceneGraph.addNode(new Node("added"), target);
+                }
+            }
+
+            @Override
+            public Visitor fork() {
+                return new MutatingVisitor();
+            }
+        }
+        RecordingVisitor mutating = new MutatingVisitor();
+        sceneGraph.accept(mutating, 5);
+        assertEquals(count, mutating.nodes.size());
+        RecordingVisitor after = new RecordingVisitor();
+        sceneGraph.accept(after, 5);
+        assertEquals(count + 1, after.nodes.size());
+    }
+
+    @Test
+    public void transformHierarchy() {
+        log.info("Die kompilierte Hierarchie berechnet dieselben globalen Transformationen wie die Knoten selbst");
+        for (int i = 0; i < 10; i++) {
+            Node child = new Node("child" + i);
+            child.add(new Translation(i, 2 * i, 0));
+            sceneGraph.addNode(child);
+            for (int j = 0; j < 20; j++) {
+                Node grandChild = new Node("child" + i + "-" + j);
+                grandChild.add(new Translation(0, j, -j));
+                sceneGraph.addNode(grandChild, child);
+            }
+        }
+
+        TransformHierarchy hierarchy = sceneGraph.getTransformHierarchy();
+        assertEquals(sceneGraph.getNodeCount(), hierarchy.size());
+        for (int threshold : new int[]{Integer.MAX_VALUE, 5}) {
+            hierarchy.update(threshold);
+            for (int i = 0; i < hierarchy.size(); i++) {
+                double[] expected = hierarchy.getNode(i).getTransformMatrix().getRowPackedCopy();
+                assertArrayEquals(expected, hierarchy.getWorldMatrix(i).getRowPackedCopy(), 1e-9);
+            }
+        }
+
+        sceneGraph.addNode(new Node("late"));
+        assertFalse(hierarchy.isValid());
+        assertEquals(hierarchy.size() + 1, sceneGraph.getTransformHierarchy().size());
+    }
+
+    @Test
+    public void interpolatedTransforms() {
+        log.info("Die globalen Transformationen werden zwischen gespeichertem und aktuellem Zustand gemischt");
+        Node parent = new Node("parent");
+        Translation translation = new Translation(0, 0, 0);
+        parent.add(translation);
+        sceneGraph.addNode(parent);
+        Node child = new Node("child");
+        child.add(new Translation(1, 2, 3));
+        sceneGraph.addNode(child, parent);
+
+        TransformHierarchy hierarchy = sceneGraph.getTransformHierarchy();
+        hierarchy.update();
+        hierarchy.interpolate(0.5);
+        // Ohne gespeicherten Zustand bleibt der aktuelle Zustand erhalten.
+        assertEquals(1, hierarchy.getRenderMatrix(hierarchy.indexOf(child)).get(0, 3), 1e-9);
+
+        hierarchy.capture();
+        translation.setTranslateX(8);
+        translation.setTranslateY(-4);
+        hierarchy.update();
+        hierarchy.interpolate(0.25);
+        Matrix rendered = hierarchy.getRenderMatrix(hierarchy.indexOf(child));
+        assertEquals(1 + 0.25 * 8, rendered.get(0, 3), 1e-9);
+        assertEquals(2 - 0.25 * 4, rendered.get(1, 3), 1e-9);
+        assertEquals(3, rendered.get(2, 3), 1e-9);
+        // Die globalen Transformationen bleiben der simulierte Zustand.
+        assertEquals(9, hierarchy.getWorldMatrix(hierarchy.indexOf(child)).get(0, 3), 1e-9);
+        double[] values = new double[16];
+        hierarchy.getWorld(hierarchy.indexOf(child), values, 0);
+        assertEquals(9, values[3], 1e-9);
+
+        // Mehrere Bilder zwischen zwei Simulationsschritten mischen jeweils mit dem simulierten Zustand.
+        hierarchy.interpolate(0.5);
+        assertEquals(1 + 0.5 * 8, hierarchy.getRenderMatrix(hierarchy.indexOf(child)).get(0, 3), 1e-9);
+
+        hierarchy.interpolate(1);
+        assertEquals(9, hierarchy.getRenderMatrix(hierarchy.indexOf(child)).get(0, 3), 1e-9);
+        hierarchy.interpolate(0.5);
+        hierarchy.update();
+        assertEquals("Nach einer Aktualisierung gilt wieder der simulierte Zustand", 9,
+                hierarchy.getRenderMatrix(hierarchy.indexOf(child)).get(0, 3), 1e-9);
+    }
+
+    @Test
+    public void snapshotTraversal() {
+        log.info("Änderungen während einer Traversierung werden erst bei der nächsten Traversierung sichtbar");
+        for (int i = 0; i < 10; i++) {
+            sceneGraph.addNode(new Node("child" + i));
+        }
+
+        final int[] added = {0};
+        Visitor mutating = new Visitor() {
+            @Override
+            public void visit(Node node) {
+                sceneGraph.addNode(new Node("added" + added[0]++));
+            }
+        };
+        sceneGraph.accept(mutating);
+        assertEquals(11, added[0]);
+
+        RecordingVisitor recording = new RecordingVisitor();
+        sceneGraph.accept(recording);
+        assertEquals(22, recording.nodes.size());
+    }
+
+    @Test
+    public void activeSet() {
+        log.info("Nur animierte Knoten und ihre Nachfahren werden bei einer Aktualisierung besucht");
+        Node animated = new Node("animated");
+        Translation translation = new Translation(0, 0, 0);
+        animated.add(translation);
+        sceneGraph.addNode(animated);
+        sceneGraph.addNode(new Node("moved"), animated);
+        for (int i = 0; i < 100; i++) {
+            sceneGraph.addNode(new Node("static" + i));
+        }
+
+        ActiveSet active = sceneGraph.getActiveSet();
+        assertEquals(0, active.size());
+        assertSame(active, sceneGraph.getActiveSet());
+
+        translation.setInterpolationX(new LinearInterpolation(0, 10, 10, true));
+        assertFalse(active.isValid());
+        active = sceneGraph.getActiveSet();
+        assertEquals(2, active.size());
+
+        active.update();
+        active.update();
+        assertTrue(animated.getTransformMatrix().get(0, 3) > 0);
+    }
+
+    @Test
+    public void activeSetMembership() {
+        log.info("Shapes, die update() überschreiben, und unbekannte Transformationen werden immer aktualisiert");
+        final int[] updates = new int[1];
+        Sphere updating = new Sphere(new Vector3d(0, 0, 0), 1) {
+            @Override
+            public void update() {
+                updates[0]++;
+            }
+        };
+        assertTrue(updating.isAnimated());
+        assertFalse(new Sphere(new Vector3d(0, 0, 0), 1).isAnimated());
+        Node shapeNode = new Node("shapeNode");
+        sceneGraph.addNode(shapeNode);
+        sceneGraph.addShape(updating, shapeNode);
+
+        Node transformNode = new Node("transformNode");
+        final Matrix identity = Matrix.identity(4, 4);
+        transformNode.add(new Transformation() {
+            @Override
+            public Matrix getTransformMatrix() {
+                return identity;
+            }
+
+            @Override
+            public void update() {
+                updates[0] += 100;
+            }
+        });
+        sceneGraph.addNode(transformNode);
+        sceneGraph.addNode(new Node("static"));
+
+        ActiveSet active = sceneGraph.getActiveSet();
+        assertEquals(2, active.size());
+        active.update();
+        active.update();
+        assertEquals(202, updates[0]);
+    }
+
+    @Test
+    public void transformSetter() {
+        log.info("Ein Setter verändert die ActiveSet nicht, verschiebt aber die BoundingBoxen seines Teilbaums");
+        Node moved = new Node("moved");
+        Translation translation = new Translation(0, 0, 0);
+        moved.add(translation);
+        sceneGraph.addNode(moved);
+        Node child = new Node("child");
+        sceneGraph.addNode(child, moved);
+        Sphere sphere = new Sphere(new Vector3d(0, 0, 0), 1);
+        sceneGraph.addShape(sphere, child);
+        Node fixed = new Node("fixed");
+        sceneGraph.addNode(fixed);
+        sceneGraph.addShape(new Sphere(new Vector3d(0, 0, 0), 1), fixed);
+
+        ActiveSet active = sceneGraph.getActiveSet();
+        active.update();
+        assertEquals(0, active.size());
+
+        translation.setTranslateX(5);
+        assertTrue("Ein Setter baut die ActiveSet nicht neu auf", active.isValid());
+        assertSame(active, sceneGraph.getActiveSet());
+        active.update();
+        assertArrayEquals(new double[]{4, -1, -1, 6, 1, 1}, sphere.getBoundingBox().getBounds(), 1e-9);
+        assertArrayEquals(new double[]{-1, -1, -1, 6, 1, 1}, sceneGraph.getNode("root").getBounds(), 1e-9);
+
+        LinearInterpolation interpolation = new LinearInterpolation(0, 10, 10, true);
+        translation.setInterpolationX(interpolation);
+        assertFalse(active.isValid());
+        active = sceneGraph.getActiveSet();
+        translation.setInterpolationX(new LinearInterpolation(0, 20, 10, true));
+        assertTrue("Eine weitere Interpolation ändert nichts an der ActiveSet", active.isValid());
+    }
+
+    @Test
+    public void transformSetterOnDetachedNode() {
+        log.info("Ein Setter an einem losgelösten Knoten geht beim Einhängen nicht verloren");
+        Node detached = new Node("detached");
+        Translation translation = new Translation(0, 0, 0);
+        detached.add(translation);
+        translation.setTranslateX(3);
+
+        sceneGraph.addNode(detached);
+        Sphere sphere = new Sphere(new Vector3d(0, 0, 0), 1);
+        sceneGraph.addShape(sphere, detached);
+        ActiveSet active = sceneGraph.getActiveSet();
+        active.update();
+        assertArrayEquals(new double[]{2, -1, -1, 4, 1, 1}, sphere.getBoundingBox().getBounds(), 1e-9);
+
+        translation.setTranslateX(7);
+        active.update();
+        assertArrayEquals(new double[]{6, -1, -1, 8, 1, 1}, sphere.getBoundingBox().getBounds(), 1e-9);
+        assertArrayEquals(new double[]{6, -1, -1, 8, 1, 1}, sceneGraph.getNode("root").getBounds(), 1e-9);
+    }
+
+    @Test
+    public void nodeBounds() {
+        log.info("Der Quader eines Knotens umschließt alle Shapes seines Teilbaums und folgt bewegten Kindsknoten");
+        Node moving = new Node("moving");
+        Translation translation = new Translation(10, 0, 0);
+        moving.add(translation);
+        sceneGraph.addNode(moving);
+        sceneGraph.addShape(new Sphere(new Vector3d(0, 0, 0), 1), moving);
+        Node fixed = new Node("fixed");
+        sceneGraph.addNode(fixed);
+        sceneGraph.addShape(new Sphere(new Vector3d(0, 0, 0), 1), fixed);
+        moving.update();
+        fixed.update();
+
+        Node root = sceneGraph.getNode("root");
+        assertArrayEquals(new double[]{-1, -1, -1, 11, 1, 1}, root.getBounds(), 1e-9);
+
+        translation.setTranslateX(-10);
+        moving.update();
+        assertArrayEquals(new double[]{-11, -1, -1, 1, 1, 1}, root.getBounds(), 1e-9);
+        assertArrayEquals(new double[]{-1, -1, -1, 1, 1, 1}, fixed.getBounds(), 1e-9);
+    }
+
+    @Test
+    public void sceneFileRoundTrip() throws IOException {
+        log.info("Eine gespeicherte Szene wird mit derselben Struktur, Geometrie und denselben Lichtern geladen");
+        Scene scene = new Scene("original");
+        Node child = new Node("child");
+        child.add(new Translation(1, 2, 3));
+        child.addLight(new PointLight("light", new AmbientLight("ambient", 0.5, Color.RED), new Vector3d(0, 10, 0)));
+        scene.addNode(child);
+        for (int i = 0; i < 100; i++) {
+            scene.add(new Polygon(new Vector3d(i, 0, 0), new Vector3d(i + 1, 0, 0), new Vector3d(i, 1, 0),
+                    Vector3d.UNIT_Z), child);
+        }
+        scene.addShape(new Sphere(new Vector3d(0, 0, -5), 2));
+
+        File file = File.createTempFile("scene", ".amcs");
+        file.deleteOnExit();
+        SceneWriter.write(scene, file);
+        Scene loaded = SceneReader.read(file);
+
+        assertEquals("original", loaded.getLabel());
+        Node loadedChild = loaded.getRootNode().getNode("child");
+        assertArrayEquals(child.getTransformMatrix().getRowPackedCopy(),
+                loadedChild.getTransformMatrix().getRowPackedCopy(), 0);
+        assertEquals("light", loadedChild.getLights().get(0).getLabel());
+
+        assertEquals(1, loadedChild.getShapes().size());
+        PolygonMesh mesh = (PolygonMesh) loadedChild.getShapes().get(0);
+        assertEquals(100, mesh.getFaceCount());
+        assertTrue("Die Flächen werden nicht in den Heap kopiert", mesh.getFaces().isDirect());
+        assertEquals(42.0, mesh.getFaces().get(42 * PolygonMesh.FACE_STRIDE + 4), 0);
+        ShadingInfo info = new ShadingInfo();
+        assertTrue(mesh.hit(new Ray(new Vector3d(42.25, 0.25, 5), new Vector3d(0, 0, -1)), info));
+        assertEquals(5, info.t, 1e-9);
+
+        Shape sphere = loaded.getRootNode().getShapes().get(0);
+        assertEquals(2, ((Sphere) sphere).getRadius(), 0);
+    }
+
+    @Test
+    public void sceneFileValidation() throws IOException {
+        log.info("Eine ungültige Datei wird mit einer IOException abgelehnt und verändert die Szene nicht");
+        Scene scene = new Scene("s");
+        Node child = new Node("child");
+        scene.addNode(child);
+        scene.add(new Sphere(new Vector3d(0, 0, 0), 1), child);
+        File file = File.createTempFile("scene", ".amcs");
+        file.deleteOnExit();
+        SceneWriter.write(scene, file);
+
+        // Magic, Version, Label "s" und Hintergrundfarbe stehen vor der Anzahl der Knoten.
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(4 + 4 + 4 + 1 + 12);
+            raf.writeInt(-1);
+        } finally {
+            raf.close();
+        }
+        Scene target = new Scene("target");
+        try {
+            SceneReader.read(file, target);
+            fail("Eine negative Anzahl von Knoten muss abgelehnt werden");
+        } catch (IOException e) {
+            log.info("Erwarteter Fehler: {}", e.getMessage());
+        }
+
+        SceneWriter.write(scene, file);
+        raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - 8);
+        } finally {
+            raf.close();
+        }
+        try {
+            SceneReader.read(file, target);
+            fail("Eine abgeschnittene Datei muss abgelehnt werden");
+        } catch (IOException e) {
+            log.info("Erwarteter Fehler: {}", e.getMessage());
+        }
+        assertNull("Die Szene darf nicht teilweise verändert werden", target.getRootNode().getNode("child"));
+        assertTrue(target.getShapes().isEmpty());
+
+        SceneWriter.write(scene, file);
+        target.setDeferChanges(true);
+        SceneReader.read(file, target);
+        assertNull(target.getRootNode().getNode("child"));
+        assertEquals("Die Inhalte werden in einer einzigen Änderung übernommen", 1, target.applyChanges());
+        assertEquals(1, target.getRootNode().getNode("child").getShapes().size());
+    }
+
+    @Test
+    public void parallelRender() {
+        log.info("Ein parallel gezeichneter Szenengraph ergibt dieselbe Ausgabe wie ein sequentiell gezeichneter");
+        for (int i = 0; i < 8; i++) {
+            Node child = new Node("child" + i);
+            child.add(new Translation(i, -i, 0));
+            sceneGraph.addNode(child);
+            for (int j = 0; j < 12; j++) {
+                Node grandChild = new Node("child" + i + "-" + j);
+                grandChild.add(new Translation(0, j, 2 * j));
+                sceneGraph.addNode(grandChild, child);
+                Line line = new Line(new Vector3d(0, 0, 0), new Vector3d(i, j, 1));
+                line.setColor(new Color(i * 30, j * 20, 0));
+                sceneGraph.addShape(line, grandChild);
+                sceneGraph.addShape(new Circle(i, j, 0, j + 1), grandChild);
+            }
+        }
+        sceneGraph.getNode("child3").setStatic(true);
+
+        RecordingRenderer sequentialRenderer = new RecordingRenderer();
+        RenderVisitor sequential = new RenderVisitor();
+        sequential.setRenderer(sequentialRenderer);
+        sceneGraph.accept(sequential);
+
+        RecordingRenderer parallelRenderer = new RecordingRenderer();
+        RenderVisitor parallel = new RenderVisitor();
+        parallel.setRenderer(parallelRenderer);
+        sceneGraph.accept(parallel, 5);
+
+        assertTrue(parallelRenderer.forks > 0);
+        assertTrue(sequentialRenderer.commands.contains("layer"));
+        assertEquals(sequentialRenderer.commands, parallelRenderer.commands);
+    }
+
+    @Test
+    public void staticLayer() {
+        log.info("Ein statischer Teilbaum wird nur neu gezeichnet, wenn sich er selbst oder ein Vorfahre verändert");
+        Node parent = new Node("parent");
+        Translation translation = new Translation(0, 0, 0);
+        parent.add(translation);
+        sceneGraph.addNode(parent);
+        Node layerNode = new Node("layer");
+        sceneGraph.addNode(layerNode, parent);
+        Node inner = new Node("inner");
+        sceneGraph.addNode(inner, layerNode);
+        sceneGraph.addShape(new Line(new Vector3d(0, 0, 0), new Vector3d(1, 1, 0)), layerNode);
+        sceneGraph.addShape(new Line(new Vector3d(0, 0, 0), new Vector3d(2, 0, 0)), inner);
+        layerNode.setStatic(true);
+
+        RecordingRenderer renderer = new RecordingRenderer();
+        RenderVisitor visitor = new RenderVisitor();
+        visitor.setRenderer(renderer);
+        sceneGraph.accept(visitor);
+        assertEquals(1, count(renderer.commands, "begin layer"));
+        assertEquals(2, count(renderer.commands, "line"));
+
+        renderer.commands.clear();
+        sceneGraph.accept(visitor);
+        assertEquals(ImmutableList.of("layer"), renderer.commands);
+
+        translation.setTranslateX(5);
+        renderer.commands.clear();
+        sceneGraph.accept(visitor);
+        assertEquals("Der Setter eines Vorfahren zeichnet den Layer neu", 1, count(renderer.commands, "begin layer"));
+        assertEquals(2, count(renderer.commands, "line"));
+
+        renderer.commands.clear();
+        sceneGraph.accept(visitor, 1);
+        assertEquals(ImmutableList.of("layer"), renderer.commands);
+    }
+
+    private static int count(List<String> commands, String prefix) {
+        int count = 0;
+        for (String command : commands) {
+            if (command.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class RecordingVisitor implements ParallelVisitor {
+        private final List<Node> nodes = new ArrayList<Node>();
+
+        @Override
+        public void visit(Node node) {
+            nodes.add(node);
+        }
+
+        @Override
+        public Visitor fork() {
+            return new RecordingVisitor();
+        }
+
+        @Override
+        public void join(List<Visitor> forks) {
+            for (Visitor fork : forks) {
+                nodes.addAll(((RecordingVisitor) fork).nodes);
+            }
+        }
+    }
+
+    /**
+     * Ein Renderer, der alle Zeichenbefehle mit den transformierten Koordinaten als Text aufzeichnet.
+     */
+    private static class RecordingRenderer implements Renderer {
+        private final List<String> commands = new ArrayList<String>();
+        private Camera camera = new SimplePerspectiveCamera(Vector3d.UNIT_Y, new Vector3d(0, 0, 100),
+                new Vector3d(0, 0, 0), 100);
+        private Matrix transformationMatrix = Matrix.identity(4, 4);
+        private List<Light> lights = new ArrayList<Light>();
+        private Color color = Color.BLACK;
+        private int forks;
+
+        @Override
+        public int getWidth() {
+            return 800;
+        }
+
+        @Override
+        public int getHeight() {
+            return 600;
+        }
+
+        @Override
+        public void setCamera(Camera camera) {
+            this.camera = camera;
+        }
+
+        @Override
+        public void setTransformationMatrix(Matrix transformationMatrix) {
+            this.transformationMatrix = transformationMatrix;
+        }
+
+        @Override
+        public void setLights(List<Light> lights) {
+            this.lights = lights;
+        }
+
+        @Override
+        public Camera getCamera() {
+            return camera;
+        }
+
+        @Override
+        public Matrix getTransformationMatrix() {
+            return transformationMatrix;
+        }
+
+        @Override
+        public void drawPixel(Pixel pixel) {
+            commands.add("pixel " + pixel.getX() + " " + pixel.getY());
+        }
+
+        @Override
+        public void drawPixel(Pixel pixel, Color color) {
+            commands.add("pixel " + pixel.getX() + " " + pixel.getY() + " " + color);
+        }
+
+        @Override
+        public Pixel getPixel(Vector3d vector) {
+            return camera.getImageSpaceCoordinates(vector.transform(transformationMatrix));
+        }
+
+        @Override
+        public void setColor(Color color) {
+            this.color = color;
+            commands.add("color " + color);
+        }
+
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+            commands.add("line " + x1 + " " + y1 + " " + x2 + " " + y2);
+        }
+
+        @Override
+        public void drawCircle(double x, double y, double radius) {
+            commands.add("circle " + x + " " + y + " " + radius);
+        }
+
+        @Override
+        public void show() {
+            commands.add("show");
+        }
+
+        @Override
+        public void drawLine(Vector3d start, Vector3d end) {
+            commands.add("line " + start.transform(transformationMatrix) + " " + end.transform(transformationMatrix));
+        }
+
+        @Override
+        public void drawLines(double[] x, double[] y, double[] z, int vertexCount, int[] lines, int lineCount) {
+            for (int i = 0; i < lineCount * 2; i += 2) {
+                drawLine(new Vector3d(x[lines[i]], y[lines[i]], z[lines[i]]),
+                        new Vector3d(x[lines[i + 1]], y[lines[i + 1]], z[lines[i + 1]]));
+            }
+        }
+
+        @Override
+        public void drawCircle(Vector3d pos, double radius) {
+            commands.add("circle " + pos.transform(transformationMatrix) + " " + radius);
+        }
+
+        @Override
+        public void drawPixel(Vector3d point, Color color) {
+            commands.add("pixel " + point.transform(transformationMatrix) + " " + color);
+        }
+
+        @Override
+        public void drawPixel(Vector3d vector, Appearance appearance) {
+            commands.add("pixel " + vector.transform(transformationMatrix) + " " + appearance.getColor()
+                    + " " + lights.size());
+        }
+
+        @Override
+        public void setFrame(JFrame frame) {
+        }
+
+        @Override
+        public void fillRect(Pixel pos, int width, int height, Color color) {
+            commands.add("rect " + pos.getX() + " " + pos.getY() + " " + width + " " + height + " " + color);
+        }
+
+        @Override
+        public Color getColor() {
+            return color;
+        }
+
+        @Override
+        public void beginLayer(RenderLayer layer) {
+            commands.add("begin layer");
+        }
+
+        @Override
+        public void endLayer() {
+            commands.add("end layer");
+        }
+
+        @Override
+        public void drawLayer(RenderLayer layer) {
+            commands.add("layer");
+        }
+
+        @Override
+        public void drawImage(PixelImage image, int x, int y) {
+            commands.add("image " + x + " " + y);
+        }
+
+        @Override
+        public Renderer fork() {
+            forks++;
+            RecordingRenderer fork = new RecordingRenderer();
+            fork.camera = camera;
+            fork.transformationMatrix = transformationMatrix;
+            fork.lights = lights;
+            fork.color = color;
+            return fork;
+        }
+
+        @Override
+        public void merge(Renderer fork) {
+            commands.addAll(((RecordingRenderer) fork).commands);
+        }
+    }
 }
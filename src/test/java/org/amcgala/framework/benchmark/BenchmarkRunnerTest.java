@@ -0,0 +1,102 @@
+package org.amcgala.framework.benchmark;
+
+import org.amcgala.framework.animation.Clock;
+import org.amcgala.framework.animation.interpolation.LinearInterpolation;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.scenegraph.DefaultSceneGraph;
+import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.amcgala.framework.scenegraph.visitor.UpdateVisitor;
+import org.amcgala.framework.shape.util.ParticleEmitter;
+import org.amcgala.framework.statistics.FrameStatistics;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link BenchmarkRunner}. Geprüft wird, dass zwei Läufe mit gleichem Startwert denselben
+ * Zustand der Szene erreichen.
+ */
+public class BenchmarkRunnerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkRunnerTest.class);
+
+    @After
+    public void tearDown() {
+        Clock.setSimulated(false);
+    }
+
+    @Test
+    public void reproducibleRuns() {
+        log.info("Zwei Läufe mit gleichem Startwert enden im selben Zustand der Szene");
+        List<Double> first = run(42);
+        List<Double> second = run(42);
+        assertTrue("Der Emitter muss Partikel ausgegeben haben", first.size() > 3);
+        assertEquals(first, second);
+        assertFalse("Ein anderer Startwert ergibt andere Partikel", first.equals(run(7)));
+    }
+
+    /**
+     * Baut eine Szene mit einer Interpolation und einem Partikelemitter auf, führt einen Lauf aus und gibt die
+     * Verschiebung des Knotens und die Positionen aller Partikel zurück.
+     */
+    private static List<Double> run(long seed) {
+        BenchmarkRunner runner = new BenchmarkRunner(seed);
+        runner.setWarmupFrames(10);
+        runner.setFrames(50);
+        runner.prepare();
+
+        final DefaultSceneGraph sceneGraph = new DefaultSceneGraph();
+        Node node = new Node("moving");
+        Translation translation = new Translation(0, 0, 0);
+        translation.setInterpolationX(new LinearInterpolation(0, 100, 37, true));
+        node.add(translation);
+        sceneGraph.addNode(node);
+        ParticleEmitter emitter = new ParticleEmitter(10, 0, 0, Vector3d.UNIT_Y);
+        emitter.setTimeIntervalMs(20);
+        sceneGraph.addShape(emitter, node);
+
+        final UpdateVisitor visitor = new UpdateVisitor();
+        runner.run(new Runnable() {
+            @Override
+            public void run() {
+                visitor.update(sceneGraph);
+            }
+        }, new FrameStatistics());
+
+        List<Double> state = new ArrayList<Double>();
+        Matrix transform = node.getTransformMatrix();
+        state.add(transform.get(0, 3));
+        emitter.render(createRenderer(state));
+        return state;
+    }
+
+    /**
+     * Erzeugt einen Renderer, der die Koordinaten aller gezeichneten Pixel sammelt.
+     */
+    private static Renderer createRenderer(final List<Double> pixels) {
+        return (Renderer) Proxy.newProxyInstance(Renderer.class.getClassLoader(), new Class<?>[]{Renderer.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("drawPixel")) {
+                            Vector3d pixel = (Vector3d) args[0];
+                            pixels.add(pixel.x);
+                            pixels.add(pixel.y);
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,56 @@
+package org.amcgala.framework.benchmark;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Canvas;
+import java.awt.Component;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link InputRecording}.
+ */
+public class InputRecordingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InputRecordingTest.class);
+
+    @Test
+    public void modifiersRoundTrip() throws IOException {
+        log.info("Die erweiterten Modifikatoren bleiben beim Speichern und Abspielen erhalten");
+        Component source = new Canvas();
+        InputRecording recording = new InputRecording();
+        recording.record(0, new KeyEvent(source, KeyEvent.KEY_PRESSED, 10,
+                InputEvent.SHIFT_DOWN_MASK | InputEvent.CTRL_DOWN_MASK, KeyEvent.VK_A, 'A'));
+        recording.record(2, new MouseEvent(source, MouseEvent.MOUSE_PRESSED, 20,
+                InputEvent.BUTTON1_DOWN_MASK | InputEvent.ALT_DOWN_MASK, 5, 7, 1, false, MouseEvent.BUTTON1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.write(out);
+        InputRecording loaded = InputRecording.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, loaded.size());
+
+        List<InputEvent> first = loaded.replay(1, source);
+        assertEquals(1, first.size());
+        KeyEvent key = (KeyEvent) first.get(0);
+        assertEquals(InputEvent.SHIFT_DOWN_MASK | InputEvent.CTRL_DOWN_MASK, key.getModifiersEx());
+        assertEquals(KeyEvent.VK_A, key.getKeyCode());
+        assertTrue(key.isShiftDown());
+
+        List<InputEvent> second = loaded.replay(2, source);
+        assertEquals(1, second.size());
+        MouseEvent mouse = (MouseEvent) second.get(0);
+        assertEquals(InputEvent.BUTTON1_DOWN_MASK | InputEvent.ALT_DOWN_MASK, mouse.getModifiersEx());
+        assertEquals(MouseEvent.BUTTON1, mouse.getButton());
+        assertEquals(5, mouse.getX());
+        assertTrue(loaded.replay(3, source).isEmpty());
+    }
+}
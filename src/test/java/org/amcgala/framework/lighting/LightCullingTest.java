@@ -0,0 +1,155 @@
+package org.amcgala.framework.lighting;
+
+import com.google.common.collect.ImmutableList;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.scenegraph.DefaultSceneGraph;
+import org.amcgala.framework.scenegraph.Node;
+import org.amcgala.framework.scenegraph.SceneGraph;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link LightCulling}, die Reichweite von Lichtern und die Lichtlisten der Knoten im Scenegraph.
+ */
+public class LightCullingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LightCullingTest.class);
+    private static final double EPSILON = 1e-9;
+
+    private SceneGraph sceneGraph;
+    private Node lit;
+    private Node child;
+    private Node other;
+    private PointLight light;
+
+    @Before
+    public void setup() {
+        sceneGraph = new DefaultSceneGraph();
+        lit = new Node("lit");
+        child = new Node("child");
+        other = new Node("other");
+        sceneGraph.addNode(lit);
+        sceneGraph.addNode(child, lit);
+        sceneGraph.addNode(other);
+        sceneGraph.addShape(new Sphere(new Vector3d(0, 0, 0), 1), child);
+        sceneGraph.addShape(new Sphere(new Vector3d(0, 0, 0), 1), other);
+        light = new PointLight("light", null, new Vector3d(0, 0, 10));
+        sceneGraph.addLight(light, lit);
+    }
+
+    @Test
+    public void range() {
+        log.info("Die Reichweite ergibt sich aus der Abschwächung des Lichts");
+        PointLight l = new PointLight("range", null, new Vector3d(0, 0, 0));
+        // 1 / d² = 1 / 256
+        assertEquals(16, l.getRange(LightCulling.NEGLIGIBLE), EPSILON);
+
+        l.setExponentialAttenuation(0);
+        l.setLinearAttenuation(2);
+        assertEquals(128, l.getRange(LightCulling.NEGLIGIBLE), EPSILON);
+
+        l.setConstantAttenuation(256);
+        assertEquals(0, l.getRange(LightCulling.NEGLIGIBLE), EPSILON);
+
+        l.setConstantAttenuation(0);
+        l.setLinearAttenuation(0);
+        assertTrue(Double.isInfinite(l.getRange(LightCulling.NEGLIGIBLE)));
+
+        l.setExponentialAttenuation(1);
+        l.setPosition(null);
+        assertTrue("Ein Licht ohne Position wirkt überall", Double.isInfinite(l.getRange(LightCulling.NEGLIGIBLE)));
+    }
+
+    @Test
+    public void cull() {
+        log.info("Lichter werden nur entfernt, wenn sie im ganzen Quader vernachlässigbar sind");
+        PointLight near = new PointLight("near", null, new Vector3d(0, 0, 20));
+        PointLight far = new PointLight("far", null, new Vector3d(0, 0, 30));
+        AmbientLight ambient = new AmbientLight("ambient", 0.5, java.awt.Color.WHITE);
+        List<Light> lights = ImmutableList.<Light>of(near, far, ambient);
+        double[] bounds = {-5, -5, -5, 5, 5, 5};
+
+        assertEquals(ImmutableList.of(near, ambient), LightCulling.cull(lights, bounds));
+        List<Light> all = ImmutableList.<Light>of(near, ambient);
+        assertSame("Ohne entfernte Lichter wird die Liste selbst zurückgegeben", all, LightCulling.cull(all, bounds));
+    }
+
+    @Test
+    public void culledAmbient() {
+        log.info("Ein entferntes Licht behält seinen ambienten Anteil");
+        AmbientLight ambient = new AmbientLight("farAmbient", 0.3, java.awt.Color.RED);
+        PointLight far = new PointLight("far", ambient, new Vector3d(0, 0, 30));
+        PointLight near = new PointLight("near", null, new Vector3d(0, 0, 20));
+        double[] bounds = {-5, -5, -5, 5, 5, 5};
+        assertEquals(ImmutableList.of(ambient, near), LightCulling.cull(ImmutableList.<Light>of(far, near), bounds));
+    }
+
+    @Test
+    public void inheritance() {
+        log.info("Knoten erben die Lichter ihrer Vorfahren, unbeteiligte Knoten nicht");
+        assertEquals(ImmutableList.of(light), lit.getInheritedLights());
+        assertEquals(ImmutableList.of(light), child.getInheritedLights());
+        assertTrue(other.getInheritedLights().isEmpty());
+
+        PointLight second = new PointLight("second", null, new Vector3d(0, 0, 5));
+        sceneGraph.addLight(second, child);
+        assertEquals(ImmutableList.of(light, second), child.getInheritedLights());
+        assertEquals(ImmutableList.of(light), lit.getInheritedLights());
+
+        PointLight global = new PointLight("global", null, new Vector3d(0, 0, 5));
+        sceneGraph.addLight(global);
+        assertEquals(ImmutableList.of(global, light, second), child.getInheritedLights());
+        assertEquals(ImmutableList.of(global), other.getInheritedLights());
+    }
+
+    @Test
+    public void effectiveLights() {
+        log.info("Die wirksamen Lichter folgen der Position des Lichts");
+        assertEquals(ImmutableList.of(light), child.getEffectiveLights());
+
+        light.setPosition(new Vector3d(0, 0, 100));
+        assertTrue(child.getEffectiveLights().isEmpty());
+        assertEquals("Die geerbten Lichter bleiben unverändert", ImmutableList.of(light), child.getInheritedLights());
+
+        light.setPosition(new Vector3d(0, 0, 3));
+        assertEquals(ImmutableList.of(light), child.getEffectiveLights());
+    }
+
+    @Test
+    public void scopedInvalidation() {
+        log.info("Strukturelle Änderungen verändern nur die Lichtlisten des betroffenen Teilbaums");
+        List<Light> inherited = child.getInheritedLights();
+        long litVersion = lit.getLightVersion();
+        long childVersion = child.getLightVersion();
+
+        sceneGraph.addNode(new Node("elsewhere"), other);
+        sceneGraph.addLight(new PointLight("otherLight", null, new Vector3d(0, 0, 0)), other);
+        assertEquals(litVersion, lit.getLightVersion());
+        assertEquals(childVersion, child.getLightVersion());
+        assertSame(inherited, child.getInheritedLights());
+
+        Node grandChild = new Node("grandChild");
+        sceneGraph.addNode(grandChild, child);
+        assertEquals(childVersion, child.getLightVersion());
+        assertEquals(ImmutableList.of(light), grandChild.getInheritedLights());
+
+        List<Light> effective = child.getEffectiveLights();
+        assertSame("Ohne Änderung bleibt die Liste erhalten", effective, child.getEffectiveLights());
+        long otherVersion = other.getLightVersion();
+        light.setIntensity(0.5);
+        assertTrue("Ein Setter verwirft die Lichtlisten des Teilbaums", child.getLightVersion() != childVersion);
+        assertEquals(otherVersion, other.getLightVersion());
+        childVersion = child.getLightVersion();
+        sceneGraph.addLight(new PointLight("litLight", null, new Vector3d(0, 0, 0)), lit);
+        assertTrue(lit.getLightVersion() != litVersion);
+        assertTrue(child.getLightVersion() != childVersion);
+        assertTrue(grandChild.getInheritedLights().size() == 2);
+    }
+}
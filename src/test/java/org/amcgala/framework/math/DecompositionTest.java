@@ -0,0 +1,91 @@
+package org.amcgala.framework.math;
+
+import org.amcgala.framework.scenegraph.transform.RotationZ;
+import org.amcgala.framework.scenegraph.transform.Scale;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Zerlegungen ohne Kopie, die blockweise LU Zerlegung und die geschlossenen Formeln für kleine
+ * Matrizen.
+ */
+public class DecompositionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DecompositionTest.class);
+
+    @Test
+    public void blockedLU() {
+        log.info("Die blockweise LU Zerlegung großer Matrizen löst Gleichungssysteme mit vielen rechten Seiten");
+        int n = 300;
+        Matrix a = Matrix.random(n, n);
+        Matrix b = Matrix.random(n, 7);
+        LUDecomposition lu = a.lu();
+
+        Matrix l = lu.getL();
+        Matrix u = lu.getU();
+        Matrix permuted = a.getMatrix(lu.getPivot(), 0, n - 1);
+        assertEquals(0, l.times(u).minus(permuted).normInf(), 1e-10);
+
+        Matrix x = lu.solve(b);
+        assertEquals(0, a.times(x).minus(b).normInf(), 1e-8);
+
+        Matrix inPlace = lu.solveInPlace(b.copy());
+        assertArrayEquals(x.getRowPackedCopy(), inPlace.getRowPackedCopy(), 0);
+
+        double[] column = b.getMatrix(0, n - 1, 3, 3).getColumnPackedCopy();
+        assertArrayEquals(x.getMatrix(0, n - 1, 3, 3).getColumnPackedCopy(), lu.solve(column), 1e-10);
+    }
+
+    @Test
+    public void inPlace() {
+        log.info("Die Zerlegungen ohne Kopie liefern dieselben Ergebnisse und überschreiben die Matrix");
+        Matrix a = Matrix.random(20, 20);
+        Matrix spd = a.transpose().times(a).plus(Matrix.identity(20, 20).times(20));
+
+        LUDecomposition copy = a.lu();
+        Matrix overwritten = a.copy();
+        LUDecomposition lu = LUDecomposition.inPlace(overwritten);
+        assertArrayEquals(copy.getL().getRowPackedCopy(), lu.getL().getRowPackedCopy(), 0);
+        assertArrayEquals(copy.getU().getRowPackedCopy(), lu.getU().getRowPackedCopy(), 0);
+        assertEquals(copy.getU().get(5, 7), overwritten.get(5, 7), 0);
+
+        CholeskyDecomposition chol = spd.chol();
+        Matrix target = spd.copy();
+        CholeskyDecomposition cholInPlace = CholeskyDecomposition.inPlace(target);
+        assertTrue(cholInPlace.isSPD());
+        assertArrayEquals(chol.getL().getRowPackedCopy(), target.getRowPackedCopy(), 0);
+
+        Matrix b = Matrix.random(20, 4);
+        assertArrayEquals(chol.solve(b).getRowPackedCopy(), cholInPlace.solveInPlace(b.copy()).getRowPackedCopy(), 0);
+
+        Matrix asymmetric = spd.copy();
+        asymmetric.set(2, 5, asymmetric.get(2, 5) + 1);
+        assertFalse(CholeskyDecomposition.inPlace(asymmetric).isSPD());
+    }
+
+    @Test
+    public void closedForm() {
+        log.info("3x3 und 4x4 Matrizen werden in geschlossener Form invertiert");
+        Matrix transform = new Translation(3, -2, 7).getTransformMatrix()
+                .times(new RotationZ(0.8).getTransformMatrix())
+                .times(new Scale(2, 0.5, 3).getTransformMatrix());
+        Matrix inverse = transform.inverse();
+        assertEquals(0, transform.times(inverse).minus(Matrix.identity(4, 4)).normInf(), 1e-12);
+        assertEquals(new LUDecomposition(transform).det(), transform.det(), 1e-12);
+
+        Matrix small = transform.getMatrix(0, 2, 0, 2);
+        assertEquals(0, small.times(small.inverse()).minus(Matrix.identity(3, 3)).normInf(), 1e-12);
+        assertEquals(new LUDecomposition(small).det(), small.det(), 1e-12);
+
+        try {
+            new Matrix(4, 4).inverse();
+            fail("Eine singuläre Matrix kann nicht invertiert werden");
+        } catch (RuntimeException e) {
+            assertEquals(0, new Matrix(4, 4).det(), 0);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.amcgala.framework.math;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link DenseMatrix}. Die Ergebnisse werden mit {@link Matrix} verglichen.
+ */
+public class DenseMatrixTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DenseMatrixTest.class);
+    private final Random random = new Random(3);
+
+    @Test
+    public void multiplication() {
+        log.info("Das blockweise und parallele Produkt ist identisch mit dem Produkt von Matrix");
+        // Die Größen sind keine Vielfachen der Blockgröße und groß genug für die parallele Berechnung.
+        Matrix a = Matrix.random(70, 130);
+        Matrix b = Matrix.random(130, 90);
+        Matrix c = Matrix.random(70, 90);
+        DenseMatrix da = new DenseMatrix(a);
+        DenseMatrix db = new DenseMatrix(b);
+        DenseMatrix dc = new DenseMatrix(c);
+
+        assertArrayEquals(a.times(b).getRowPackedCopy(), da.times(db).getData(), 0);
+        assertArrayEquals(a.transpose().times(c).getRowPackedCopy(), da.transposeTimes(dc).getData(), 0);
+        assertArrayEquals(a.times(b).getRowPackedCopy(), da.timesTranspose(new DenseMatrix(b.transpose())).getData(), 0);
+        assertArrayEquals(a.transpose().getRowPackedCopy(), da.transpose().getData(), 0);
+
+        double[] x = new double[130];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble();
+        }
+        Matrix column = new Matrix(x, 130);
+        assertArrayEquals(a.times(column).getRowPackedCopy(), da.times(x), 0);
+    }
+
+    @Test
+    public void decompositions() {
+        log.info("Die Zerlegungen lösen Gleichungssysteme mit einer DenseMatrix");
+        int n = 40;
+        DenseMatrix a = new DenseMatrix(Matrix.random(n, n));
+        // A' * A + n * I ist symmetrisch und positiv definit.
+        DenseMatrix spd = a.transposeTimes(a).plus(DenseMatrix.identity(n).times(n));
+        DenseMatrix b = new DenseMatrix(Matrix.random(n, 3));
+
+        DenseMatrix x = spd.solve(b);
+        assertResidual(spd, x, b);
+        assertTrue(spd.chol().isSPD());
+        assertResidual(spd, new DenseMatrix(spd.chol().solve(b.toMatrix())), b);
+
+        DenseMatrix tall = new DenseMatrix(Matrix.random(60, n));
+        DenseMatrix rhs = new DenseMatrix(Matrix.random(60, 1));
+        DenseMatrix leastSquares = tall.solve(rhs);
+        DenseMatrix normal = tall.transposeTimes(tall).solve(tall.transposeTimes(rhs));
+        assertArrayEquals(normal.getData(), leastSquares.getData(), 1e-8);
+    }
+
+    private static void assertResidual(DenseMatrix a, DenseMatrix x, DenseMatrix b) {
+        double[] residual = a.times(x).minus(b).getData();
+        for (double r : residual) {
+            assertEquals(0, r, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.amcgala.framework.math;
+
+import org.amcgala.framework.scenegraph.transform.RotationY;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die verändernden Operationen der Klasse {@link Vector3d}.
+ */
+public class Vector3dTest {
+
+    private static final Logger log = LoggerFactory.getLogger(Vector3dTest.class);
+
+    @Test
+    public void inPlaceOperations() {
+        log.info("Die Local und Into Varianten berechnen dieselben Werte wie die erzeugenden Operationen");
+        Vector3d a = new Vector3d(1, -2, 3);
+        Vector3d b = new Vector3d(-4, 5, 0.5);
+
+        assertEquals(a.add(b), a.copy().addLocal(b));
+        assertEquals(a.sub(b), a.copy().subLocal(b));
+        assertEquals(a.times(2.5), a.copy().timesLocal(2.5));
+        assertEquals(a.normalize(), a.copy().normalizeLocal());
+        assertEquals(a.travel(b, 3), a.copy().travelLocal(b, 3));
+
+        Vector3d result = new Vector3d(0, 0, 0);
+        assertSame(result, a.crossInto(b, result));
+        assertEquals(a.cross(b), result);
+        assertEquals(a.sub(b).dot(a.sub(b)), a.distanceSquared(b), 1e-12);
+    }
+
+    @Test
+    public void aliasing() {
+        log.info("Ein Ergebnisvektor darf gleichzeitig ein Operand sein");
+        Vector3d a = new Vector3d(1, -2, 3);
+        Vector3d b = new Vector3d(-4, 5, 0.5);
+        Vector3d expected = a.cross(b);
+
+        Vector3d alias = a.copy();
+        alias.crossInto(b, alias);
+        assertEquals(expected, alias);
+
+        alias = b.copy();
+        a.crossInto(alias, alias);
+        assertEquals(expected, alias);
+    }
+
+    @Test
+    public void transformation() {
+        log.info("Die Transformation ohne Matrixobjekte entspricht der Multiplikation mit der Matrix");
+        Matrix m = new RotationY(0.7).getTransformMatrix().times(new Translation(3, -1, 2).getTransformMatrix());
+        Vector3d v = new Vector3d(2, 7, -5);
+        Vector3d expected = m.times(v.toMatrix()).toVector3d();
+
+        Vector3d result = v.transform(m);
+        assertEquals(expected.x, result.x, 1e-12);
+        assertEquals(expected.y, result.y, 1e-12);
+        assertEquals(expected.z, result.z, 1e-12);
+
+        v.transformLocal(m);
+        assertEquals(result, v);
+    }
+}
@@ -0,0 +1,107 @@
+package org.amcgala.framework.math;
+
+import org.amcgala.framework.camera.CVPoint;
+import org.amcgala.framework.camera.SimplePerspectiveCamera;
+import org.amcgala.framework.scenegraph.transform.RotationX;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link VertexKernels}. Die Ergebnisse werden mit der Transformation einzelner Vektoren
+ * verglichen.
+ */
+public class VertexKernelsTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VertexKernelsTest.class);
+
+    @Test
+    public void transform() {
+        log.info("Die Transformation der Arrays entspricht der Transformation einzelner Vektoren");
+        Matrix m = new RotationX(1.1).getTransformMatrix().times(new Translation(-2, 4, 9).getTransformMatrix());
+        // Groß genug, damit die Arrays auf mehrere Threads aufgeteilt werden.
+        int count = VertexKernels.MIN_VERTICES_PER_TASK * 4 + 3;
+        double[] x = new double[count + 1];
+        double[] y = new double[count + 1];
+        double[] z = new double[count + 1];
+        fill(x, y, z);
+        double[] outX = new double[count + 1];
+        double[] outY = new double[count + 1];
+        double[] outZ = new double[count + 1];
+
+        VertexKernels.transform(m, x, y, z, 1, count, outX, outY, outZ);
+        assertEquals(0, outX[0], 0);
+        for (int i = 1; i <= count; i++) {
+            Vector3d expected = new Vector3d(x[i], y[i], z[i]).transform(m);
+            assertEquals(expected.x, outX[i], 1e-9);
+            assertEquals(expected.y, outY[i], 1e-9);
+            assertEquals(expected.z, outZ[i], 1e-9);
+        }
+
+        // Die Eingabe darf überschrieben werden.
+        VertexKernels.transform(m, x, y, z, 1, count, x, y, z);
+        assertArrayEquals(outX, withFirst(x, 0), 0);
+        assertArrayEquals(outZ, withFirst(z, 0), 0);
+    }
+
+    @Test
+    public void project() {
+        log.info("Die Projektion der Arrays entspricht der Projektion der Kamera");
+        SimplePerspectiveCamera camera = new SimplePerspectiveCamera(Vector3d.UNIT_Y, new Vector3d(3, 2, 1000),
+                new Vector3d(0, 0, 0), 1000);
+        int count = 1000;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] z = new double[count];
+        fill(x, y, z);
+        float[] fx = new float[count];
+        float[] fy = new float[count];
+        float[] fz = new float[count];
+        for (int i = 0; i < count; i++) {
+            fx[i] = (float) x[i];
+            fy[i] = (float) y[i];
+            fz[i] = (float) z[i];
+        }
+        double[] outX = new double[count];
+        double[] outY = new double[count];
+        float[] floatX = new float[count];
+        float[] floatY = new float[count];
+
+        VertexKernels.project(camera.getProjectionMatrix(), x, y, z, 0, count, outX, outY);
+        VertexKernels.project(camera.getProjectionMatrix(), fx, fy, fz, 0, count, floatX, floatY);
+        for (int i = 0; i < count; i++) {
+            CVPoint expected = camera.getClippingSpaceCoordinates(new Vector3d(x[i], y[i], z[i]));
+            assertEquals(expected.x, outX[i], 1e-9);
+            assertEquals(expected.y, outY[i], 1e-9);
+            assertEquals(expected.x, floatX[i], 1e-2);
+            assertEquals(expected.y, floatY[i], 1e-2);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void range() {
+        log.info("Bereiche außerhalb der Arrays werden abgelehnt");
+        double[] a = new double[10];
+        VertexKernels.transform(Matrix.identity(4, 4), a, a, a, 5, 6, a, a, a);
+    }
+
+    private static void fill(double[] x, double[] y, double[] z) {
+        Random random = new Random(7);
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble() * 200 - 100;
+            y[i] = random.nextDouble() * 200 - 100;
+            z[i] = random.nextDouble() * 200 - 100;
+        }
+    }
+
+    private static double[] withFirst(double[] a, double first) {
+        double[] copy = a.clone();
+        copy[0] = first;
+        return copy;
+    }
+}
@@ -0,0 +1,84 @@
+package org.amcgala.framework.math.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link FastMath}. Die Näherungen werden mit den Ergebnissen von {@link Math} verglichen und
+ * müssen die dokumentierten Fehlerschranken einhalten.
+ */
+public class FastMathTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FastMathTest.class);
+    private final Random random = new Random(11);
+
+    @After
+    public void reset() {
+        FastMath.setMode(FastMath.Mode.EXACT);
+    }
+
+    @Test
+    public void exact() {
+        log.info("Im exakten Modus werden die Ergebnisse von Math geliefert");
+        assertEquals(FastMath.Mode.EXACT, FastMath.getMode());
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 20 - 10;
+            assertEquals(Math.sin(x), FastMath.sin(x), 0);
+            assertEquals(Math.cos(x), FastMath.cos(x), 0);
+            assertEquals(Math.exp(x), FastMath.exp(x), 0);
+            assertEquals(Math.pow(Math.abs(x), 2.5), FastMath.pow(Math.abs(x), 2.5), 0);
+            assertEquals(1 / Math.sqrt(Math.abs(x)), FastMath.invSqrt(Math.abs(x)), 0);
+        }
+    }
+
+    @Test
+    public void fast() {
+        log.info("Die Näherungen halten die dokumentierten Fehlerschranken ein");
+        FastMath.setMode(FastMath.Mode.FAST);
+        for (int i = 0; i < 100000; i++) {
+            double a = random.nextDouble() * 131072 - 65536;
+            assertEquals(Math.sin(a), FastMath.sin(a), 3e-7);
+            assertEquals(Math.cos(a), FastMath.cos(a), 3e-7);
+            assertEquals(Math.toRadians(a), FastMath.toRadians(a), Math.ulp(a) * 0.1);
+
+            double x = random.nextDouble() * 1398 - 699;
+            assertEquals(1, FastMath.exp(x) / Math.exp(x), 1e-12);
+
+            double p = Math.exp(x);
+            assertEquals(Math.log(p), FastMath.log(p), 1e-15 * (1 + Math.abs(x)));
+            assertEquals(1, FastMath.invSqrt(p) * Math.sqrt(p), 1e-10);
+
+            double base = random.nextDouble() * 10;
+            double exponent = random.nextDouble() * 200 - 100;
+            if (Math.abs(exponent * Math.log(base)) < 700) {
+                assertEquals(1, FastMath.pow(base, exponent) / Math.pow(base, exponent), 1e-12);
+            }
+            int n = random.nextInt(65) - 32;
+            assertEquals(1, FastMath.pow(base + 0.1, n) / Math.pow(base + 0.1, n), 1e-14);
+        }
+    }
+
+    @Test
+    public void specialValues() {
+        log.info("Außerhalb des Wertebereichs wird mit Math gerechnet");
+        FastMath.setMode(FastMath.Mode.FAST);
+        assertTrue(Double.isNaN(FastMath.sin(Double.NaN)));
+        assertTrue(Double.isNaN(FastMath.cos(Double.POSITIVE_INFINITY)));
+        assertEquals(Math.sin(1e10), FastMath.sin(1e10), 0);
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.exp(1000), 0);
+        assertEquals(0, FastMath.exp(-1000), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, FastMath.log(0), 0);
+        assertTrue(Double.isNaN(FastMath.log(-1)));
+        assertEquals(1, FastMath.pow(0, 0), 0);
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.pow(0, -2), 0);
+        assertEquals(-8, FastMath.pow(-2, 3), 0);
+        assertTrue(Double.isNaN(FastMath.pow(-2, 0.5)));
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.invSqrt(0), 0);
+    }
+}
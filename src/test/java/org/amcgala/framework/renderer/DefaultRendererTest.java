@@ -0,0 +1,200 @@
+package org.amcgala.framework.renderer;
+
+import org.amcgala.framework.camera.SimplePerspectiveCamera;
+import org.amcgala.framework.math.Vector3d;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link DefaultRenderer}. Die Ausgabe erfolgt auf eine {@link BufferStrategy}, die in Bilder
+ * zeichnet, damit die Tests ohne Fenster laufen.
+ */
+public class DefaultRendererTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DefaultRendererTest.class);
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+
+    @Test
+    public void pipelinedOutput() throws InterruptedException {
+        log.info("Im Pipeline-Betrieb gibt der Renderthread dasselbe Bild aus wie die direkte Ausgabe");
+        ImageBufferStrategy direct = new ImageBufferStrategy();
+        DefaultRenderer directRenderer = createRenderer(direct, false);
+        drawFrame(directRenderer, new RenderLayer());
+        directRenderer.show();
+        assertEquals(1, direct.getShowCount());
+
+        ImageBufferStrategy pipelined = new ImageBufferStrategy();
+        DefaultRenderer pipelinedRenderer = createRenderer(pipelined, true);
+        assertTrue(pipelinedRenderer.isPipelined());
+        drawFrame(pipelinedRenderer, new RenderLayer());
+        // Bis zur Übergabe an den Renderthread wird nur aufgezeichnet.
+        assertEquals(0, pipelined.getShowCount());
+        pipelinedRenderer.show();
+        pipelined.awaitShow(1);
+        pipelinedRenderer.setPipelined(false);
+
+        assertImagesEqual(direct.getFront(), pipelined.getFront());
+    }
+
+    @Test
+    public void switchPipeline() throws InterruptedException {
+        log.info("Der Pipeline-Betrieb kann zwischen zwei Frames ein- und ausgeschaltet werden");
+        ImageBufferStrategy strategy = new ImageBufferStrategy();
+        DefaultRenderer renderer = createRenderer(strategy, false);
+        renderer.setPipelined(true);
+        drawFrame(renderer, new RenderLayer());
+        renderer.show();
+        strategy.awaitShow(1);
+        BufferedImage pipelined = copy(strategy.getFront());
+
+        renderer.setPipelined(false);
+        assertFalse(renderer.isPipelined());
+        drawFrame(renderer, new RenderLayer());
+        renderer.show();
+        assertEquals(2, strategy.getShowCount());
+        assertImagesEqual(pipelined, strategy.getFront());
+    }
+
+    @Test
+    public void layerImageReuse() {
+        log.info("Ein Layer verwendet sein Bild wieder, sobald es in keinem ausstehenden Frame mehr vorkommt");
+        RenderLayer layer = new RenderLayer();
+        BufferedImage first = layer.prepareImage(WIDTH, HEIGHT, Long.MAX_VALUE);
+        first.setRGB(3, 4, Color.RED.getRGB());
+        assertSame(first, layer.prepareImage(WIDTH, HEIGHT, Long.MAX_VALUE));
+        assertEquals("Ein wiederverwendetes Bild wird geleert", 0, first.getRGB(3, 4));
+
+        // Das Bild wird in Frame 5 ausgegeben, der Renderthread hat erst Frame 4 ausgegeben.
+        layer.markUsed(5);
+        BufferedImage second = layer.prepareImage(WIDTH, HEIGHT, 4);
+        assertNotSame(first, second);
+        layer.markUsed(6);
+        second.setRGB(1, 1, Color.BLUE.getRGB());
+
+        // Frame 5 ist ausgegeben, das vorherige Bild ist wieder frei.
+        assertSame(first, layer.prepareImage(WIDTH, HEIGHT, 5));
+        layer.markUsed(7);
+        assertSame(second, layer.prepareImage(WIDTH, HEIGHT, 6));
+        assertEquals(0, second.getRGB(1, 1));
+
+        BufferedImage resized = layer.prepareImage(WIDTH * 2, HEIGHT, Long.MAX_VALUE);
+        assertEquals(WIDTH * 2, resized.getWidth());
+    }
+
+    private static DefaultRenderer createRenderer(BufferStrategy strategy, boolean pipelined) {
+        SimplePerspectiveCamera camera = new SimplePerspectiveCamera(Vector3d.UNIT_Y, new Vector3d(0, 0, 100),
+                new Vector3d(0, 0, 0), 100);
+        DefaultRenderer renderer = new DefaultRenderer(camera);
+        renderer.setPipelined(pipelined);
+        renderer.setBufferStrategy(strategy, WIDTH, HEIGHT);
+        return renderer;
+    }
+
+    private static void drawFrame(DefaultRenderer renderer, RenderLayer layer) {
+        renderer.setColor(Color.RED);
+        renderer.drawLine(-20, -10, 25, 15);
+        renderer.drawPixel(new Pixel(3, 4), Color.GREEN);
+        renderer.drawCircle(-5, 5, 6);
+
+        renderer.beginLayer(layer);
+        renderer.setColor(Color.BLUE);
+        renderer.drawLine(-30, 20, 30, -20);
+        renderer.endLayer();
+        renderer.drawLayer(layer);
+
+        renderer.fillRect(new Pixel(1, 1), 4, 4, Color.MAGENTA);
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics g = copy.getGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    private static void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        int drawn = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("Pixel " + x + ", " + y, expected.getRGB(x, y), actual.getRGB(x, y));
+                if (expected.getRGB(x, y) != Color.WHITE.getRGB()) {
+                    drawn++;
+                }
+            }
+        }
+        assertTrue("Es wurde nichts gezeichnet", drawn > 0);
+    }
+
+    /**
+     * Eine BufferStrategy mit zwei Bildern, die bei {@link #show()} das hintere in das vordere Bild kopiert.
+     */
+    private static final class ImageBufferStrategy extends BufferStrategy {
+        private final BufferedImage back = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        private final BufferedImage front = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        private int showCount;
+
+        ImageBufferStrategy() {
+            Graphics g = back.getGraphics();
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            g.dispose();
+        }
+
+        @Override
+        public BufferCapabilities getCapabilities() {
+            return new BufferCapabilities(new ImageCapabilities(false), new ImageCapabilities(false), null);
+        }
+
+        @Override
+        public Graphics getDrawGraphics() {
+            Graphics g = back.getGraphics();
+            g.setColor(Color.BLACK);
+            g.setClip(0, 0, WIDTH, HEIGHT);
+            ((Graphics2D) g).setBackground(Color.WHITE);
+            return g;
+        }
+
+        @Override
+        public boolean contentsLost() {
+            return false;
+        }
+
+        @Override
+        public boolean contentsRestored() {
+            return false;
+        }
+
+        @Override
+        public synchronized void show() {
+            front.setData(back.getData());
+            showCount++;
+            notifyAll();
+        }
+
+        synchronized int getShowCount() {
+            return showCount;
+        }
+
+        synchronized BufferedImage getFront() {
+            return front;
+        }
+
+        synchronized void awaitShow(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (showCount < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("Der Renderthread hat den Frame nicht ausgegeben", remaining > 0);
+                wait(remaining);
+            }
+        }
+    }
+}
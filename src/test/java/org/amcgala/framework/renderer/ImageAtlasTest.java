@@ -0,0 +1,59 @@
+package org.amcgala.framework.renderer;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link ImageAtlas}.
+ */
+public class ImageAtlasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageAtlasTest.class);
+
+    @Test
+    public void sharedImage() throws IOException {
+        log.info("Ein Bild wird einmal geladen und von allen Zugriffen geteilt");
+        BufferedImage source = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(0, 0, 0xffff0000);
+        source.setRGB(2, 1, 0x8000ff00);
+        File file = File.createTempFile("atlas", ".png");
+        file.deleteOnExit();
+        ImageIO.write(source, "png", file);
+
+        PixelImage image = ImageAtlas.getImage(file.getPath());
+        assertEquals(3, image.getWidth());
+        assertEquals(2, image.getHeight());
+        assertEquals(0xffff0000, image.getPixel(0, 0));
+        assertEquals(0x8000ff00, image.getPixel(2, 1));
+        assertEquals(0, image.getPixel(1, 0));
+        assertSame(image, ImageAtlas.getImage(file.getPath()));
+
+        ImageAtlas.evict(file.getPath());
+        PixelImage reloaded = ImageAtlas.getImage(file.getPath());
+        assertNotSame(image, reloaded);
+        assertArrayEquals(image.getPixels(), reloaded.getPixels());
+        ImageAtlas.evict(file.getPath());
+    }
+
+    @Test
+    public void classpathImage() {
+        log.info("Bilder, die nicht im Dateisystem liegen, werden im Klassenpfad gesucht");
+        PixelImage font = ImageAtlas.getImage("org/amcgala/font.gif");
+        assertEquals(256, font.getWidth());
+        assertEquals(256, font.getHeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingImage() {
+        log.info("Ein fehlendes Bild führt zu einer IllegalArgumentException");
+        ImageAtlas.getImage("org/amcgala/missing.png");
+    }
+}
@@ -0,0 +1,153 @@
+package org.amcgala.framework.renderer;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link PixelImage}. Geprüft werden das Abschneiden an den Rändern und das Mischen über den
+ * Alphawert.
+ */
+public class PixelImageTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PixelImageTest.class);
+    private static final int BACKGROUND = 0xff000000;
+
+    @Test
+    public void blitClipping() {
+        log.info("Beim Kopieren wird das Quellbild an allen Rändern des Zielbildes abgeschnitten");
+        PixelImage src = numbered(4, 3);
+
+        PixelImage dst = background(3, 3);
+        dst.blit(src, -1, -1);
+        // Die erste Spalte und die erste Zeile der Quelle liegen außerhalb.
+        assertEquals(src.getPixel(1, 1), dst.getPixel(0, 0));
+        assertEquals(src.getPixel(3, 1), dst.getPixel(2, 0));
+        assertEquals(src.getPixel(3, 2), dst.getPixel(2, 1));
+        assertEquals(BACKGROUND, dst.getPixel(0, 2));
+
+        dst = background(3, 3);
+        dst.blit(src, 2, 1);
+        assertEquals(src.getPixel(0, 0), dst.getPixel(2, 1));
+        assertEquals(src.getPixel(0, 1), dst.getPixel(2, 2));
+        assertEquals(BACKGROUND, dst.getPixel(1, 1));
+        assertEquals(BACKGROUND, dst.getPixel(2, 0));
+
+        dst = background(3, 3);
+        dst.blit(src, 3, 0);
+        dst.blit(src, -4, 0);
+        dst.blit(src, 0, -3);
+        for (int pixel : dst.getPixels()) {
+            assertEquals("Quellen außerhalb des Bildes ändern nichts", BACKGROUND, pixel);
+        }
+    }
+
+    @Test
+    public void blitReplacesAlpha() {
+        log.info("Beim Kopieren wird auch der Alphawert der Quelle übernommen");
+        PixelImage src = new PixelImage(2, 1, new int[]{0x00ffffff, 0x80123456});
+        PixelImage dst = background(2, 1);
+        dst.blit(src, 0, 0);
+        assertEquals(0x00ffffff, dst.getPixel(0, 0));
+        assertEquals(0x80123456, dst.getPixel(1, 0));
+    }
+
+    @Test
+    public void blendAlpha() {
+        log.info("Beim Mischen werden deckende Pixel kopiert, transparente übersprungen und alle anderen gemischt");
+        PixelImage src = new PixelImage(4, 1, new int[]{0xffff0000, 0x00ff0000, 0x80ff0000, 0xff00ff00});
+        PixelImage dst = new PixelImage(4, 1, new int[]{0xff0000ff, 0xff0000ff, 0xff0000ff, 0x00000000});
+        dst.blend(src, 0, 0);
+
+        assertEquals(0xffff0000, dst.getPixel(0, 0));
+        assertEquals(0xff0000ff, dst.getPixel(1, 0));
+        // Halbtransparentes Rot über deckendem Blau ergibt ein deckendes Violett.
+        assertEquals(0xff80007f, dst.getPixel(2, 0));
+        assertEquals(0xff00ff00, dst.getPixel(3, 0));
+
+        // Über einem transparenten Ziel bleibt die Farbe der Quelle mit ihrem Alphawert erhalten.
+        PixelImage empty = new PixelImage(1, 1);
+        empty.blend(new PixelImage(1, 1, new int[]{0x80ff0000}), 0, 0);
+        assertEquals(0x80ff0000, empty.getPixel(0, 0));
+    }
+
+    @Test
+    public void blendClipping() {
+        log.info("Beim Mischen wird das Quellbild wie beim Kopieren abgeschnitten");
+        PixelImage src = numbered(3, 3);
+        PixelImage dst = background(2, 2);
+        dst.blend(src, -2, 1);
+        assertEquals(src.getPixel(2, 0), dst.getPixel(0, 1));
+        assertEquals(BACKGROUND, dst.getPixel(1, 1));
+        assertEquals(BACKGROUND, dst.getPixel(0, 0));
+
+        dst = background(2, 2);
+        dst.blend(src, 2, 0);
+        for (int pixel : dst.getPixels()) {
+            assertEquals(BACKGROUND, pixel);
+        }
+    }
+
+    @Test
+    public void blendMask() {
+        log.info("Eine Maske wird mit ihrer Deckkraft und der Deckkraft der Farbe gezeichnet und abgeschnitten");
+        // Eine Maske mit zwei Zeilen zu je vier Werten, gezeichnet wird der Ausschnitt ab Spalte 1.
+        byte[] mask = {
+                0, 0, (byte) 255, (byte) 128,
+                0, (byte) 255, 0, (byte) 255
+        };
+        PixelImage dst = new PixelImage(3, 2, new int[]{
+                0xff000000, 0xff000000, 0xff000000,
+                0xff000000, 0xff000000, 0xff000000
+        });
+        dst.blendMask(mask, 4, 1, 0, 3, 2, 0, 0, 0xff00ff00);
+        assertEquals(0xff000000, dst.getPixel(0, 0));
+        assertEquals(0xff00ff00, dst.getPixel(1, 0));
+        assertEquals(0xff008000, dst.getPixel(2, 0));
+        assertEquals(0xff00ff00, dst.getPixel(0, 1));
+        assertEquals(0xff000000, dst.getPixel(1, 1));
+        assertEquals(0xff00ff00, dst.getPixel(2, 1));
+
+        // Eine halbtransparente Farbe halbiert die Deckkraft der Maske.
+        PixelImage empty = new PixelImage(1, 1);
+        empty.blendMask(mask, 4, 2, 0, 1, 1, 0, 0, 0x8000ff00);
+        assertEquals(0x8000ff00, empty.getPixel(0, 0));
+
+        // Links und oben abgeschnitten: Nur der Wert in Spalte 3, Zeile 1 der Maske liegt im Bild.
+        PixelImage clipped = new PixelImage(2, 2);
+        clipped.blendMask(mask, 4, 0, 0, 4, 2, -3, -1, 0xff0000ff);
+        assertEquals(0xff0000ff, clipped.getPixel(0, 0));
+        assertEquals(0, clipped.getPixel(1, 0));
+        assertEquals(0, clipped.getPixel(0, 1));
+    }
+
+    @Test
+    public void sharedBufferedImage() {
+        log.info("Das BufferedImage teilt sich das Pixelarray mit dem Bild");
+        PixelImage image = new PixelImage(2, 2);
+        BufferedImage buffered = image.toBufferedImage();
+        image.setPixel(1, 0, 0xff336699);
+        assertEquals(0xff336699, buffered.getRGB(1, 0));
+        assertSame(buffered, image.toBufferedImage());
+    }
+
+    private static PixelImage numbered(int width, int height) {
+        PixelImage image = new PixelImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setPixel(x, y, 0xff000000 | (y << 8) | (x + 1));
+            }
+        }
+        return image;
+    }
+
+    private static PixelImage background(int width, int height) {
+        PixelImage image = new PixelImage(width, height);
+        image.fill(BACKGROUND);
+        return image;
+    }
+}
@@ -0,0 +1,168 @@
+package org.amcgala.framework.scenegraph;
+
+import org.amcgala.framework.camera.CVPoint;
+import org.amcgala.framework.camera.SimplePerspectiveCamera;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.raytracer.Ray;
+import org.amcgala.framework.scenegraph.transform.Translation;
+import org.amcgala.framework.shape.Polygon;
+import org.amcgala.framework.shape.Shape;
+import org.amcgala.framework.shape.shape3d.Box;
+import org.amcgala.framework.shape.shape3d.Sphere;
+import org.amcgala.framework.shape.util.bounds.BoundingBox;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link Octree}. Die Ergebnisse der Suchanfragen werden mit einer linearen Suche verglichen.
+ */
+public class OctreeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OctreeTest.class);
+    private SceneGraph sceneGraph;
+    private List<Shape> spheres;
+
+    @Before
+    public void setup() {
+        sceneGraph = new DefaultSceneGraph();
+        spheres = new ArrayList<Shape>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Sphere sphere = new Sphere(new Vector3d(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200 - 100), 0.5 + random.nextDouble() * 5);
+            sceneGraph.addShape(sphere);
+            spheres.add(sphere);
+        }
+        sceneGraph.getNode("root").update();
+    }
+
+    @Test
+    public void boxQuery() {
+        log.info("Eine Bereichsabfrage findet dieselben Shapes wie eine lineare Suche");
+        Octree octree = sceneGraph.getOctree();
+        assertEquals(500, octree.size());
+        double[] region = {-20, -30, -40, 25, 10, 0};
+        List<Shape> expected = new ArrayList<Shape>();
+        for (Shape shape : spheres) {
+            if (BoundingBox.intersects(shape.getBoundingBox().getBounds(), region)) {
+                expected.add(shape);
+            }
+        }
+        assertEquals(new HashSet<Shape>(expected), new HashSet<Shape>(octree.query(region)));
+    }
+
+    @Test
+    public void nearestQuery() {
+        log.info("Die k nächsten Shapes werden in aufsteigendem Abstand zurückgegeben");
+        Octree octree = sceneGraph.getOctree();
+        Vector3d point = new Vector3d(10, -5, 3);
+        List<Shape> nearest = octree.nearest(point, 10);
+        assertEquals(10, nearest.size());
+
+        double previous = 0;
+        for (Shape shape : nearest) {
+            double d = distance(shape, point);
+            assertTrue(d >= previous);
+            previous = d;
+        }
+        int closer = 0;
+        for (Shape shape : spheres) {
+            if (distance(shape, point) < previous) {
+                closer++;
+            }
+        }
+        assertTrue(closer <= 10);
+    }
+
+    @Test
+    public void rayPick() {
+        log.info("Ein Strahl trifft die Shapes in der Reihenfolge ihres Abstands, das vorderste wird ausgewählt");
+        Octree octree = sceneGraph.getOctree();
+        Sphere target = (Sphere) spheres.get(7);
+        Vector3d origin = new Vector3d(-300, 0, 0);
+        Ray ray = new Ray(origin, target.getCenter().sub(origin).normalize());
+
+        List<Shape> hits = octree.raycast(ray);
+        assertTrue(hits.contains(target));
+        Shape picked = octree.pick(ray);
+        assertNotNull(picked);
+        Sphere front = (Sphere) picked;
+        double t = front.getCenter().sub(origin).dot(ray.direction) - front.getRadius();
+        assertTrue(t <= target.getCenter().sub(origin).length() - target.getRadius() + 1e-9);
+    }
+
+    @Test
+    public void pickRequiresExactHit() {
+        log.info("Ein Strahl, der nur die BoundingBox eines Shapes trifft, wählt das Shape nicht aus");
+        SceneGraph graph = new DefaultSceneGraph();
+        graph.addShape(new Sphere(new Vector3d(0, 0, 0), 1));
+        graph.addShape(new Polygon(new Vector3d(5, -2, -2), new Vector3d(5, 2, -2), new Vector3d(5, 2, 2),
+                new Vector3d(5, -2, 2), new Vector3d(-1, 0, 0)));
+        graph.getNode("root").update();
+        Octree octree = graph.getOctree();
+
+        // Der Strahl verläuft durch die Ecken der BoundingBoxen, aber an der Kugel vorbei.
+        Ray ray = new Ray(new Vector3d(-10, 0.95, 0.95), new Vector3d(1, 0, 0));
+        assertEquals(2, octree.raycast(ray).size());
+        assertNull(octree.pick(ray));
+
+        Box box = new Box(new Vector3d(20, -1, 1), 2, 2, 2);
+        graph.addShape(box);
+        graph.getNode("root").update();
+        assertSame("Eine Box wird über ihre BoundingBox ausgewählt", box, graph.getOctree().pick(ray));
+    }
+
+    @Test
+    public void incrementalRefit() {
+        log.info("Nach einer Bewegung werden nur die Shapes des bewegten Teilbaums neu einsortiert");
+        Node moving = new Node("moving");
+        Translation translation = new Translation(0, 0, 0);
+        moving.add(translation);
+        sceneGraph.addNode(moving);
+        Sphere sphere = new Sphere(new Vector3d(0, 0, 0), 1);
+        sceneGraph.addShape(sphere, moving);
+        moving.update();
+
+        Octree octree = sceneGraph.getOctree();
+        assertEquals(0, octree.refit());
+        assertTrue(octree.query(new double[]{-1, -1, -1, 1, 1, 1}).contains(sphere));
+
+        translation.setTranslateX(80);
+        moving.update();
+        assertSame(octree, sceneGraph.getOctree());
+        assertFalse(octree.query(new double[]{-1, -1, -1, 1, 1, 1}).contains(sphere));
+        assertTrue(octree.query(new double[]{79, -1, -1, 81, 1, 1}).contains(sphere));
+    }
+
+    @Test
+    public void cameraRay() {
+        log.info("Der Sehstrahl eines Bildpunkts verläuft durch die Punkte, die auf ihn abgebildet werden");
+        SimplePerspectiveCamera camera = new SimplePerspectiveCamera(Vector3d.UNIT_Y, new Vector3d(3, 2, 1000),
+                new Vector3d(0, 0, 0), 1000);
+        Vector3d point = new Vector3d(40, -25, 10);
+        CVPoint projected = camera.getClippingSpaceCoordinates(point);
+        Ray ray = camera.getRay(projected.x, projected.y);
+
+        Vector3d toPoint = point.sub(ray.origin);
+        Vector3d offset = toPoint.sub(ray.direction.times(toPoint.dot(ray.direction)));
+        assertEquals(0, offset.length(), 1e-6);
+        assertTrue(toPoint.dot(ray.direction) > 0);
+    }
+
+    private static double distance(Shape shape, Vector3d p) {
+        double[] b = shape.getBoundingBox().getBounds();
+        double dx = Math.max(0, Math.max(b[0] - p.x, p.x - b[3]));
+        double dy = Math.max(0, Math.max(b[1] - p.y, p.y - b[4]));
+        double dz = Math.max(0, Math.max(b[2] - p.z, p.z - b[5]));
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
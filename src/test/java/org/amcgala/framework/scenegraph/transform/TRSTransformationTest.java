@@ -0,0 +1,91 @@
+package org.amcgala.framework.scenegraph.transform;
+
+import org.amcgala.framework.animation.interpolation.LinearInterpolation;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Quaternion;
+import org.amcgala.framework.math.Vector3d;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link TRSTransformation}. Die Ergebnisse werden mit den Matrizen der einzelnen
+ * Transformationen verglichen.
+ */
+public class TRSTransformationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TRSTransformationTest.class);
+
+    @Test
+    public void matrix() {
+        log.info("Die Matrix entspricht der Verknüpfung von Translation, Rotation und Skalierung");
+        TRSTransformation trs = new TRSTransformation(new Vector3d(3, -2, 7),
+                new Quaternion(Vector3d.UNIT_Y, 30), new Vector3d(2, 0.5, 3));
+        Matrix expected = new Translation(3, -2, 7).getTransformMatrix()
+                .times(new RotationY(Math.toRadians(30)).getTransformMatrix())
+                .times(new Scale(2, 0.5, 3).getTransformMatrix());
+        assertMatrixEquals(expected, trs.getTransformMatrix());
+
+        Vector3d v = new Vector3d(1, 4, -5);
+        Vector3d transformed = trs.transformInto(v, new Vector3d(0, 0, 0));
+        Vector3d reference = v.transform(expected);
+        assertEquals(0, transformed.sub(reference).length(), 1e-12);
+
+        Matrix cached = trs.getTransformMatrix();
+        assertSame(cached, trs.getTransformMatrix());
+        trs.setTranslation(0, 0, 0);
+        assertNotSame(cached, trs.getTransformMatrix());
+    }
+
+    @Test
+    public void combine() {
+        log.info("Die Verknüpfung zweier Transformationen entspricht dem Produkt ihrer Matrizen");
+        TRSTransformation parent = new TRSTransformation(new Vector3d(1, 2, 3),
+                new Quaternion(new Vector3d(1, 1, 0).normalize(), 40), new Vector3d(2, 2, 2));
+        TRSTransformation child = new TRSTransformation(new Vector3d(-4, 0, 5),
+                new Quaternion(Vector3d.UNIT_Z, 75), new Vector3d(1, 3, 0.5));
+        Matrix expected = parent.getTransformMatrix().times(child.getTransformMatrix());
+
+        parent.combine(child);
+        assertMatrixEquals(expected, parent.getTransformMatrix());
+    }
+
+    @Test
+    public void interpolation() {
+        log.info("Rotationen werden sphärisch und normalisiert linear interpoliert");
+        TRSTransformation from = new TRSTransformation(new Vector3d(0, 0, 0),
+                new Quaternion(Vector3d.UNIT_Y, 0), new Vector3d(1, 1, 1));
+        TRSTransformation to = new TRSTransformation(new Vector3d(10, 0, 0),
+                new Quaternion(Vector3d.UNIT_Y, 90), new Vector3d(3, 3, 3));
+
+        TRSTransformation trs = new TRSTransformation();
+        assertFalse(trs.isAnimated());
+        trs.setInterpolation(from, to, new LinearInterpolation(0, 1, 2, false));
+        assertTrue(trs.isAnimated());
+
+        trs.update();
+        TRSTransformation half = new TRSTransformation(new Vector3d(5, 0, 0),
+                new Quaternion(Vector3d.UNIT_Y, 45), new Vector3d(2, 2, 2));
+        assertMatrixEquals(half.getTransformMatrix(), trs.getTransformMatrix());
+
+        trs.update();
+        assertMatrixEquals(to.getTransformMatrix(), trs.getTransformMatrix());
+
+        // Bei t = 0.5 liefern beide Verfahren aus Symmetriegründen dieselbe Rotation.
+        trs.setSpherical(false);
+        trs.interpolate(from, to, 0.5);
+        assertMatrixEquals(half.getTransformMatrix(), trs.getTransformMatrix());
+
+        // Gegenüberliegende Quaternionen beschreiben dieselbe Rotation, es wird der kürzere Weg gewählt.
+        Quaternion q = new Quaternion(Vector3d.UNIT_X, 20);
+        Quaternion negated = new Quaternion(-q.getX(), -q.getY(), -q.getZ(), -q.getW());
+        Quaternion slerp = new Quaternion().slerp(q, negated, 0.5);
+        assertEquals(1, Math.abs(slerp.dot(q)), 1e-12);
+    }
+
+    private static void assertMatrixEquals(Matrix expected, Matrix actual) {
+        assertArrayEquals(expected.getRowPackedCopy(), actual.getRowPackedCopy(), 1e-12);
+    }
+}
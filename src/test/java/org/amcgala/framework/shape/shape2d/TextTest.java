@@ -0,0 +1,109 @@
+package org.amcgala.framework.shape.shape2d;
+
+import org.amcgala.framework.raytracer.RGBColor;
+import org.amcgala.framework.renderer.Pixel;
+import org.amcgala.framework.renderer.PixelImage;
+import org.amcgala.framework.renderer.Renderer;
+import org.amcgala.framework.shape.Shape;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klassen {@link Text} und {@link Letter}. Geprüft wird, wann das zwischengespeicherte Bild neu
+ * gezeichnet wird.
+ */
+public class TextTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TextTest.class);
+
+    @Test
+    public void textImageCache() {
+        log.info("Das Bild eines Textes wird nur neu gezeichnet, wenn sich Text oder Farbwerte ändern");
+        Text text = new Text("amCGAla", 0, 0);
+        text.setColor(Color.RED);
+        ImageRecorder recorder = new ImageRecorder();
+
+        PixelImage first = recorder.render(text);
+        assertSame(first, recorder.render(text));
+        assertTrue(contains(first, Color.RED));
+
+        // Eine neue Farbe mit denselben Werten erfordert kein neues Bild.
+        text.setColor(new Color(255, 0, 0));
+        text.setColor(new RGBColor(1, 0, 0));
+        assertSame(first, recorder.render(text));
+
+        text.setColor(Color.BLUE);
+        PixelImage blue = recorder.render(text);
+        assertNotSame(first, blue);
+        assertTrue(contains(blue, Color.BLUE));
+        assertFalse(contains(blue, Color.RED));
+
+        text.setText("amCGAla!");
+        PixelImage longer = recorder.render(text);
+        assertNotSame(blue, longer);
+        assertTrue(longer.getWidth() > blue.getWidth());
+        assertSame(longer, recorder.render(text));
+    }
+
+    @Test
+    public void letterImageCache() {
+        log.info("Das Bild eines Zeichens wird nur neu gezeichnet, wenn sich die Farbwerte ändern");
+        Letter letter = new Letter(0, 0, 'A');
+        letter.setColor(Color.GREEN);
+        ImageRecorder recorder = new ImageRecorder();
+
+        PixelImage first = recorder.render(letter);
+        assertTrue(contains(first, Color.GREEN));
+        letter.setColor(new Color(0, 255, 0));
+        assertSame(first, recorder.render(letter));
+
+        letter.setColor(Color.MAGENTA);
+        PixelImage magenta = recorder.render(letter);
+        assertNotSame(first, magenta);
+        assertTrue(contains(magenta, Color.MAGENTA));
+    }
+
+    private static boolean contains(PixelImage image, Color color) {
+        for (int argb : image.getPixels()) {
+            if (argb == color.getRGB()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ein Renderer, der nur das zuletzt ausgegebene Bild speichert.
+     */
+    private static final class ImageRecorder implements InvocationHandler {
+        private final Renderer renderer = (Renderer) Proxy.newProxyInstance(Renderer.class.getClassLoader(),
+                new Class<?>[]{Renderer.class}, this);
+        private PixelImage image;
+
+        PixelImage render(Shape shape) {
+            image = null;
+            shape.render(renderer);
+            assertNotNull("Es wurde kein Bild ausgegeben", image);
+            return image;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getPixel")) {
+                return new Pixel(0, 0);
+            }
+            if (method.getName().equals("drawImage")) {
+                image = (PixelImage) args[0];
+            }
+            return null;
+        }
+    }
+}
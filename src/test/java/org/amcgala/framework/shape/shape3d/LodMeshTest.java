@@ -0,0 +1,117 @@
+package org.amcgala.framework.shape.shape3d;
+
+import org.amcgala.framework.camera.Camera;
+import org.amcgala.framework.camera.SimplePerspectiveCamera;
+import org.amcgala.framework.math.Matrix;
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.renderer.Renderer;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.amcgala.framework.shape.shape3d.Meshes.createGrid;
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link LodMesh}. Geprüft werden die Anzahl der Dreiecke der erzeugten Detailstufen und die
+ * Wahl der Stufe abhängig von der Entfernung zur Kamera.
+ */
+public class LodMeshTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LodMeshTest.class);
+
+    @Test
+    public void generatedLevels() {
+        log.info("Jede Detailstufe hat ein Viertel der Dreiecke der vorherigen Stufe");
+        PolygonMesh grid = createGrid(16);
+        LodMesh lod = LodMesh.generate(grid, 3, 100);
+        assertEquals(3, lod.getLevelCount());
+        assertSame(grid, lod.getLevel(0));
+
+        int previous = grid.getTriangleCount();
+        for (int i = 1; i < lod.getLevelCount(); i++) {
+            int triangles = lod.getLevel(i).getTriangleCount();
+            log.info("Stufe {} mit {} Dreiecken", i, triangles);
+            assertTrue(triangles <= previous / 4);
+            // Vierecke werden als zwei Dreiecke gezählt, die erste Stufe darf also nicht nur ein Achtel enthalten.
+            assertTrue(triangles > previous / 8);
+            previous = triangles;
+        }
+    }
+
+    @Test
+    public void levelSelection() {
+        log.info("Die Detailstufe wird nach der Größe auf dem Bildschirm gewählt");
+        LodMesh lod = LodMesh.generate(createGrid(16), 3, 100);
+        assertEquals(0, lod.selectLevel(200));
+        assertEquals(0, lod.selectLevel(100));
+        assertEquals(1, lod.selectLevel(99));
+        assertEquals(1, lod.selectLevel(50));
+        assertEquals(2, lod.selectLevel(49));
+        assertEquals(2, lod.selectLevel(0));
+    }
+
+    @Test
+    public void levelByDistance() {
+        log.info("Mit wachsender Entfernung zur Kamera werden gröbere Detailstufen gezeichnet");
+        LodMesh lod = LodMesh.generate(createGrid(16), 3, 100);
+        // Die Kamera der Szene blickt entlang der z-Achse, größere z-Werte liegen weiter entfernt.
+        Camera camera = new SimplePerspectiveCamera(Vector3d.UNIT_Y, Vector3d.UNIT_Z, Vector3d.ZERO, 2000);
+        int previous = 0;
+        double previousSize = Double.POSITIVE_INFINITY;
+        for (double distance : new double[]{0, 2000, 4000, 20000}) {
+            Renderer renderer = createRenderer(camera, new Matrix(new double[][]{
+                    {10, 0, 0, 0},
+                    {0, 10, 0, 0},
+                    {0, 0, 10, distance},
+                    {0, 0, 0, 1}
+            }));
+            double size = lod.getProjectedSize(renderer);
+            lod.render(renderer);
+            assertTrue(size < previousSize);
+            assertEquals(lod.selectLevel(size), lod.getCurrentLevel());
+            assertTrue(lod.getCurrentLevel() >= previous);
+            if (distance == 0) {
+                assertEquals("Aus der Nähe wird das vollständige Netz gezeichnet", 0, lod.getCurrentLevel());
+            }
+            previous = lod.getCurrentLevel();
+            previousSize = size;
+        }
+        assertEquals("Aus großer Entfernung wird die gröbste Stufe gezeichnet", 2, previous);
+    }
+
+    @Test
+    public void levelForRaytracer() {
+        log.info("Für den Raytracer wird die Größe in Pixeln der ViewPlane bestimmt");
+        LodMesh lod = LodMesh.generate(createGrid(16), 3, 40);
+        // Das Gitter hat einen Durchmesser von etwa 22.6 und liegt etwa 600 vom Auge entfernt in der ViewPlane.
+        Vector3d eye = new Vector3d(0, 0, 600);
+        assertEquals(1, lod.updateLevel(eye, 600, 1));
+        assertEquals("Bei größeren Pixeln wird das Netz auf weniger Pixel abgebildet", 2, lod.updateLevel(eye, 600, 2));
+        assertEquals(0, lod.updateLevel(new Vector3d(0, 0, 100), 600, 1));
+        assertEquals(0, lod.getCurrentLevel());
+    }
+
+    /**
+     * Erzeugt einen Renderer, der nur Kamera und Transformation liefert und Zeichenaufrufe ignoriert.
+     */
+    private static Renderer createRenderer(final Camera camera, final Matrix transformation) {
+        return (Renderer) Proxy.newProxyInstance(Renderer.class.getClassLoader(), new Class<?>[]{Renderer.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getCamera")) {
+                            return camera;
+                        }
+                        if (method.getName().equals("getTransformationMatrix")) {
+                            return transformation;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package org.amcgala.framework.shape.shape3d;
+
+import org.amcgala.framework.math.Vector3d;
+import org.amcgala.framework.shape.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Netze, die von mehreren Tests verwendet werden.
+ */
+public final class Meshes {
+
+    private Meshes() {
+    }
+
+    /**
+     * Erzeugt ein Gitter aus {@code n * n} Vierecken der Kantenlänge 1 in der xy-Ebene.
+     */
+    public static PolygonMesh createGrid(int n) {
+        List<Polygon> polygons = new ArrayList<Polygon>();
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                polygons.add(new Polygon(new Vector3d(x, y, 0), new Vector3d(x + 1, y, 0),
+                        new Vector3d(x + 1, y + 1, 0), new Vector3d(x, y + 1, 0), Vector3d.UNIT_Z));
+            }
+        }
+        return PolygonMesh.fromPolygons(polygons);
+    }
+}
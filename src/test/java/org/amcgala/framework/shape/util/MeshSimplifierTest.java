@@ -0,0 +1,77 @@
+package org.amcgala.framework.shape.util;
+
+import org.amcgala.framework.shape.shape3d.PolygonMesh;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.DoubleBuffer;
+
+import static org.amcgala.framework.shape.shape3d.Meshes.createGrid;
+import static org.junit.Assert.*;
+
+/**
+ * Tests für die Klasse {@link MeshSimplifier}. Vereinfacht wird ein ebenes Gitter aus Vierecken, dessen Fläche und
+ * Umriss nach der Vereinfachung bekannt sind.
+ */
+public class MeshSimplifierTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MeshSimplifierTest.class);
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    public void faceCountTarget() {
+        log.info("Das vereinfachte Netz enthält höchstens die gewünschte Anzahl an Dreiecken");
+        PolygonMesh grid = createGrid(16);
+        assertEquals(256, grid.getFaceCount());
+        assertEquals(512, grid.getTriangleCount());
+
+        for (int target : new int[]{256, 100, 20}) {
+            PolygonMesh simplified = MeshSimplifier.simplify(grid, target);
+            assertTrue(simplified.getFaceCount() <= target);
+            assertTrue("Das Netz wurde zu stark vereinfacht", simplified.getFaceCount() > target / 2);
+            assertEquals("Das Ergebnis besteht nur aus Dreiecken", simplified.getFaceCount(),
+                    simplified.getTriangleCount());
+        }
+        assertEquals("Ohne Vereinfachung werden nur die Vierecke zerlegt", 512,
+                MeshSimplifier.simplify(grid, 1000).getFaceCount());
+    }
+
+    @Test
+    public void boundaryPreserved() {
+        log.info("Der Umriss eines offenen Netzes bleibt bei der Vereinfachung erhalten");
+        PolygonMesh grid = createGrid(16);
+        PolygonMesh simplified = MeshSimplifier.simplify(grid, 32);
+
+        assertArrayEquals(grid.getLocalBounds(), simplified.getLocalBounds(), EPSILON);
+        assertEquals("Die Dreiecke bedecken weiterhin das ganze Gitter", area(grid), area(simplified), EPSILON);
+
+        DoubleBuffer faces = simplified.getFaces();
+        for (int f = 0; f < simplified.getFaceCount(); f++) {
+            int i = f * PolygonMesh.FACE_STRIDE;
+            assertTrue("Die Normalen zeigen weiterhin in dieselbe Richtung", faces.get(i + 3) > 0);
+            for (int k = 0; k < 3; k++) {
+                assertEquals(0, faces.get(i + 6 + k * 3), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Berechnet die Summe der Flächeninhalte aller Dreiecke in der xy-Ebene.
+     */
+    private static double area(PolygonMesh mesh) {
+        DoubleBuffer faces = mesh.getFaces();
+        double area = 0;
+        for (int f = 0; f < mesh.getFaceCount(); f++) {
+            int i = f * PolygonMesh.FACE_STRIDE;
+            int n = (int) faces.get(i);
+            for (int k = 2; k < n; k++) {
+                double ax = faces.get(i + 4), ay = faces.get(i + 5);
+                double bx = faces.get(i + 1 + k * 3) - ax, by = faces.get(i + 2 + k * 3) - ay;
+                double cx = faces.get(i + 4 + k * 3) - ax, cy = faces.get(i + 5 + k * 3) - ay;
+                area += Math.abs(bx * cy - by * cx) / 2;
+            }
+        }
+        return area;
+    }
+}
@@ -1,5 +1,6 @@
 package org.amcgala.framework.shape.util.bounds;
 
+import org.amcgala.framework.math.Matrix;
 import org.amcgala.framework.math.Vector3d;
 import org.junit.Assert;
 import org.junit.Test;
@@ -29,4 +30,29 @@ public class BoundingBoxTest {
         Assert.assertEquals(2, box.getWidth(), 0.0001);
         log.info("Mittelpunkt liegt bei {}", box.getCenter());
     }
+
+    @Test
+    public void transformedBoundingBoxTest() {
+        log.info("Eine um 45 Grad gedrehte und verschobene Box umschließt alle acht Ecken und driftet nicht bei wiederholter Aktualisierung.");
+        List<Vector3d> vectors = new ArrayList<Vector3d>(2);
+        vectors.add(new Vector3d(-1, -1, -1));
+        vectors.add(new Vector3d(1, 1, 1));
+        box = new BoundingBox(vectors);
+
+        double c = Math.cos(Math.PI / 4);
+        Matrix transform = new Matrix(new double[][]{
+                {c, -c, 0, 10},
+                {c, c, 0, 0},
+                {0, 0, 1, 0},
+                {0, 0, 0, 1}});
+        double r = Math.sqrt(2);
+        double[] expected = {10 - r, -r, -1, 10 + r, r, 1};
+        for (int i = 0; i < 3; i++) {
+            box.updateBox(transform);
+            Assert.assertArrayEquals(expected, box.getBounds(), 1e-9);
+        }
+        Assert.assertEquals(10, box.getCenter().x, 1e-9);
+        Assert.assertEquals(2 * r, box.getWidth(), 1e-9);
+        log.info("Box in Weltkoordinaten: {}", box);
+    }
 }
@@ -0,0 +1,40 @@
+package org.amcgala.framework.statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests für die Klasse {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyHistogramTest.class);
+
+    @Test
+    public void percentiles() {
+        log.info("Die Perzentile von 1..1000 Mikrosekunden liegen höchstens 1/16 über dem exakten Wert.");
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(1000000, histogram.getMax());
+        Assert.assertEquals(500500, histogram.getMean(), 0.0001);
+        assertWithin(500000, histogram.getPercentile(50));
+        assertWithin(990000, histogram.getPercentile(99));
+        Assert.assertEquals(1000000, histogram.getPercentile(100));
+        log.info("{}", histogram);
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getPercentile(99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assert.assertTrue("Erwartet " + expected + ", war " + actual, actual >= expected);
+        Assert.assertTrue("Erwartet " + expected + ", war " + actual, actual <= expected + expected / 16);
+    }
+}